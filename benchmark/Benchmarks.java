@@ -0,0 +1,75 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startet die Benchmarks für die Services, das Datum und die Einleser.
+ * 
+ * Aufruf: java Benchmarks [Filter] [Größe ...]
+ * 
+ * Der Filter wählt die Benchmark-Klassen aus, deren Name ihn enthält, z.B.
+ * "Verleih". Die Größen sind die Anzahl der erzeugten Datensätze, ohne Angabe
+ * wird mit 1000, 100000 und 1000000 gemessen. Für 10000000 sollte die JVM mit
+ * mindestens -Xmx8g gestartet werden.
+ * 
+ * Die Benchmarks liegen in einem eigenen Quellordner, damit sie nicht mit der
+ * Anwendung ausgeliefert werden. Ergebnisse sind nur auf derselben Maschine
+ * und mit derselben JVM vergleichbar.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Benchmarks
+{
+    private static final int[] STANDARD_GROESSEN = {1000, 100000, 1000000};
+
+    private Benchmarks()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        String filter = "";
+        List<Integer> groessen = new ArrayList<Integer>();
+        for (String arg : args)
+        {
+            if (arg.matches("[0-9]+"))
+            {
+                groessen.add(Integer.valueOf(arg));
+            }
+            else
+            {
+                filter = arg;
+            }
+        }
+        if (groessen.isEmpty())
+        {
+            for (int groesse : STANDARD_GROESSEN)
+            {
+                groessen.add(groesse);
+            }
+        }
+
+        Messlauf lauf = new Messlauf(3, 5, 1000, System.out);
+        lauf.schreibeKopf();
+        for (int groesse : groessen)
+        {
+            if ("DatumBenchmark".contains(filter))
+            {
+                DatumBenchmark.fuehreAus(lauf, groesse);
+            }
+            if ("BestandBenchmark".contains(filter))
+            {
+                BestandBenchmark.fuehreAus(lauf, groesse);
+            }
+            if ("VerleihBenchmark".contains(filter))
+            {
+                VerleihBenchmark.fuehreAus(lauf, groesse);
+            }
+            if ("EinleserBenchmark".contains(filter))
+            {
+                EinleserBenchmark.fuehreAus(lauf, groesse);
+            }
+        }
+        System.out.println("(Senke: " + lauf.getSenke() + ")");
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.List;
+
+/**
+ * Misst das Nachschlagen im {@link KundenstammServiceImpl} über die
+ * Kundennummer und im {@link MedienbestandServiceImpl} über das Medium.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class BestandBenchmark
+{
+    private BestandBenchmark()
+    {
+    }
+
+    /**
+     * Führt alle Messungen mit der angegebenen Anzahl Kunden und Medien aus.
+     * Es werden höchstens {@link Testdaten#MAX_KUNDEN} Kunden erzeugt.
+     * 
+     * @param lauf Der Messlauf.
+     * @param groesse Die Anzahl der Kunden und Medien.
+     * 
+     * @require lauf != null
+     * @require groesse > 0
+     */
+    public static void fuehreAus(Messlauf lauf, int groesse)
+    {
+        assert lauf != null : "Vorbedingung verletzt: lauf != null";
+        assert groesse > 0 : "Vorbedingung verletzt: groesse > 0";
+
+        Testdaten testdaten = new Testdaten(groesse);
+        int anzahlKunden = Math.min(groesse, Testdaten.MAX_KUNDEN);
+        final KundenstammService kundenstamm = new KundenstammServiceImpl(
+                testdaten.erzeugeKunden(anzahlKunden));
+        final Kundennummer[] kundennummern = new Kundennummer[anzahlKunden];
+        for (int i = 0; i < anzahlKunden; i++)
+        {
+            // Neue Objekte, damit nicht über die Identität gefunden wird
+            kundennummern[i] = new Kundennummer(100000 + i);
+        }
+        final List<Medium> medien = testdaten.erzeugeMedien(groesse);
+        final MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                medien);
+
+        lauf.miss("KundenstammServiceImpl.getKunden", groesse,
+                new Messlauf.Operation()
+                {
+                    private int _naechste = 0;
+
+                    @Override
+                    public long fuehreAus()
+                    {
+                        Kunde kunde = kundenstamm
+                            .getKunden(kundennummern[_naechste]);
+                        _naechste = (_naechste + 1) % kundennummern.length;
+                        return (kunde != null) ? 1 : 0;
+                    }
+                });
+        lauf.miss("MedienbestandServiceImpl.enthaeltMedium", groesse,
+                new Messlauf.Operation()
+                {
+                    private int _naechstes = 0;
+
+                    @Override
+                    public long fuehreAus()
+                    {
+                        boolean enthalten = medienbestand
+                            .enthaeltMedium(medien.get(_naechstes));
+                        _naechstes = (_naechstes + 1) % medien.size();
+                        return enthalten ? 1 : 0;
+                    }
+                });
+    }
+}
@@ -0,0 +1,369 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Erzeugt beliebig große Dateien kundenstamm.txt und medienbestand.txt für
+ * Lasttests, im selben Format, das {@link KundenEinleser} und
+ * {@link MedienEinleser} lesen.
+ * 
+ * Die Zeilen werden einzeln erzeugt und direkt geschrieben, der
+ * Speicherbedarf hängt also nicht von der Größe der Dateien ab. Mit demselben
+ * Startwert entstehen immer dieselben Dateien.
+ * 
+ * Die Daten sind ungleich verteilt wie in einer echten Mediathek: Wenige Titel
+ * sind in vielen Exemplaren vorhanden und werden häufiger ausgeliehen, wenige
+ * Kunden leihen besonders viel aus, und die meisten Ausleihen sind jung. Etwa
+ * die Hälfte der Medien sind CDs, vier Zehntel DVDs und ein Zehntel
+ * Videospiele.
+ * 
+ * Aufruf: java Bestandsgenerator Verzeichnis Kunden Medien [Startwert
+ * [Stichtag]]
+ * 
+ * Der Stichtag wird als T.M.JJJJ angegeben, ohne Angabe ist es
+ * {@link #STANDARD_STICHTAG}, damit ein Startwert an jedem Tag dieselben
+ * Dateien erzeugt.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Bestandsgenerator
+{
+    /**
+     * Die größte Anzahl Kunden, für die es sechsstellige Kundennummern gibt.
+     */
+    static final int MAX_KUNDEN = 900000;
+
+    /**
+     * Das Datum der jüngsten Ausleihen, wenn beim Aufruf kein Stichtag
+     * angegeben ist.
+     */
+    static final Datum STANDARD_STICHTAG = new Datum(1, 4, 2021);
+
+    /**
+     * Die mittlere Anzahl Exemplare je Titel.
+     */
+    private static final int EXEMPLARE_JE_TITEL = 3;
+
+    /**
+     * Das mittlere Alter einer Ausleihe in Tagen.
+     */
+    private static final double MITTLERES_AUSLEIHALTER = 21;
+
+    private static final String[] VORNAMEN = {"Anna", "Ben", "Clara", "David",
+            "Emma", "Finn", "Greta", "Hannes", "Ida", "Jonas", "Klara", "Lukas",
+            "Marie", "Noah", "Oskar", "Paula", "Sören", "Zoë"};
+
+    private static final String[] NACHNAMEN = {"Müller", "Schmidt",
+            "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf",
+            "Schröder", "Neumann", "Zimmermann", "Krüger", "Hartmann", "Lange",
+            "Özdemir", "Nguyen"};
+
+    private static final String[] WOERTER = {"Nacht", "Sommer", "Liebe",
+            "Straße", "Himmel", "Feuer", "Wasser", "Stadt", "Traum", "Zeit",
+            "Welt", "Licht", "Schatten", "Herz", "Reise", "Lied", "Winter",
+            "Meer", "Stern", "Wald", "Greatest", "Hits", "Live", "Best", "Of"};
+
+    private static final String[] ORTE = {"Hamburg", "Berlin", "München",
+            "Köln", "Leipzig", "Bremen", "Lübeck", "Kiel"};
+
+    private static final String[] SYSTEME = {"Nintendo DS", "Xbox 360",
+            "PlayStation 4", "Nintendo Switch", "PC", "Mac OS X"};
+
+    private final long _startwert;
+    private final int _anzahlKunden;
+    private final int _anzahlMedien;
+    private final int _anzahlTitel;
+    private final double _verliehenAnteil;
+    private final Datum _stichtag;
+
+    /**
+     * Initialisiert einen Generator.
+     * 
+     * @param startwert Der Startwert für die Zufallszahlen.
+     * @param anzahlKunden Die Anzahl der Kunden.
+     * @param anzahlMedien Die Anzahl der Medien.
+     * @param verliehenAnteil Der Anteil der verliehenen Medien zwischen 0 und
+     *            1.
+     * @param stichtag Das Datum der jüngsten Ausleihen.
+     * 
+     * @require anzahlKunden > 0 && anzahlKunden <= MAX_KUNDEN
+     * @require anzahlMedien >= 0
+     * @require verliehenAnteil >= 0 && verliehenAnteil <= 1
+     * @require stichtag != null
+     */
+    public Bestandsgenerator(long startwert, int anzahlKunden,
+            int anzahlMedien, double verliehenAnteil, Datum stichtag)
+    {
+        assert (anzahlKunden > 0)
+                && (anzahlKunden <= MAX_KUNDEN) : "Vorbedingung verletzt: anzahlKunden > 0 && anzahlKunden <= MAX_KUNDEN";
+        assert anzahlMedien >= 0 : "Vorbedingung verletzt: anzahlMedien >= 0";
+        assert (verliehenAnteil >= 0)
+                && (verliehenAnteil <= 1) : "Vorbedingung verletzt: verliehenAnteil >= 0 && verliehenAnteil <= 1";
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+
+        _startwert = startwert;
+        _anzahlKunden = anzahlKunden;
+        _anzahlMedien = anzahlMedien;
+        _anzahlTitel = Math.max(1, anzahlMedien / EXEMPLARE_JE_TITEL);
+        _verliehenAnteil = verliehenAnteil;
+        _stichtag = stichtag;
+    }
+
+    /**
+     * Schreibt die Kunden mit den Kundennummern ab 100000.
+     * 
+     * @param kundenDatei Die Datei, die geschrieben wird.
+     * @throws DateiSchreibException wenn die Datei nicht geschrieben werden
+     *             konnte.
+     * 
+     * @require kundenDatei != null
+     */
+    public void schreibeKundenstamm(File kundenDatei)
+            throws DateiSchreibException
+    {
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+
+        Random zufall = new Random(_startwert);
+        DateiSchreiber schreiber = null;
+        try
+        {
+            schreiber = new DateiSchreiber(kundenDatei);
+            Writer writer = schreiber.getWriter();
+            for (int i = 0; i < _anzahlKunden; i++)
+            {
+                writer.write(Integer.toString(100000 + i));
+                writer.write(';');
+                writer.write(waehle(zufall, VORNAMEN));
+                writer.write(';');
+                writer.write(waehle(zufall, NACHNAMEN));
+                writer.write(';');
+                writer.write(waehle(zufall, WOERTER));
+                writer.write("weg ");
+                writer.write(Integer.toString(1 + zufall.nextInt(99)));
+                writer.write(';');
+                writer.write(Integer.toString(10000 + zufall.nextInt(89999)));
+                writer.write(';');
+                writer.write(waehle(zufall, ORTE));
+                writer.write('\n');
+            }
+            schreiber.uebernimm();
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Kundenstamm konnte nicht erzeugt werden, da die Datei nicht geschrieben werden konnte.");
+        }
+        finally
+        {
+            if (schreiber != null)
+            {
+                schreiber.verwirf();
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Medien. CDs und DVDs bekommen die Mediennummern ab 1 in der
+     * Reihenfolge der Datei.
+     * 
+     * @param medienDatei Die Datei, die geschrieben wird.
+     * @throws DateiSchreibException wenn die Datei nicht geschrieben werden
+     *             konnte.
+     * 
+     * @require medienDatei != null
+     */
+    public void schreibeMedienbestand(File medienDatei)
+            throws DateiSchreibException
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+
+        Random zufall = new Random(_startwert + 1);
+        DateiSchreiber schreiber = null;
+        try
+        {
+            schreiber = new DateiSchreiber(medienDatei);
+            Writer writer = schreiber.getWriter();
+            for (int i = 0; i < _anzahlMedien; i++)
+            {
+                schreibeMedium(writer, zufall, i + 1);
+            }
+            schreiber.uebernimm();
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Medienbestand konnte nicht erzeugt werden, da die Datei nicht geschrieben werden konnte.");
+        }
+        finally
+        {
+            if (schreiber != null)
+            {
+                schreiber.verwirf();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws DateiSchreibException
+    {
+        if ((args.length < 3) || (args.length > 5))
+        {
+            System.err.println(
+                    "Aufruf: java Bestandsgenerator Verzeichnis Kunden Medien [Startwert [Stichtag]]");
+            System.exit(1);
+        }
+        File verzeichnis = new File(args[0]);
+        verzeichnis.mkdirs();
+        long startwert = (args.length >= 4) ? Long.parseLong(args[3]) : 0;
+        Datum stichtag = (args.length == 5) ? leseDatum(args[4])
+                : STANDARD_STICHTAG;
+        Bestandsgenerator generator = new Bestandsgenerator(startwert,
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), 0.25,
+                stichtag);
+        generator.schreibeKundenstamm(new File(verzeichnis, "kundenstamm.txt"));
+        generator
+            .schreibeMedienbestand(new File(verzeichnis, "medienbestand.txt"));
+    }
+
+    /**
+     * Liest ein Datum in der Form T.M.JJJJ.
+     * 
+     * @throws IllegalArgumentException wenn der Text kein gültiges Datum ist.
+     */
+    private static Datum leseDatum(String text)
+    {
+        String[] teile = text.split("\\.");
+        if ((teile.length != 3)
+                || !Datum.istGueltig(Integer.parseInt(teile[0]),
+                        Integer.parseInt(teile[1]), Integer.parseInt(teile[2])))
+        {
+            throw new IllegalArgumentException(
+                    "Kein gültiger Stichtag: " + text);
+        }
+        return new Datum(Integer.parseInt(teile[0]), Integer.parseInt(teile[1]),
+                Integer.parseInt(teile[2]));
+    }
+
+    /**
+     * Schreibt die Zeile für ein Medium. Der Titel wird mit
+     * Zipf-Verteilung gewählt, je beliebter er ist, desto eher ist das
+     * Exemplar verliehen. Die Wahrscheinlichkeit fällt linear mit dem Wert, aus
+     * dem der Rang berechnet wird, im Mittel ergibt sich der gewünschte
+     * Anteil.
+     */
+    private void schreibeMedium(Writer writer, Random zufall,
+            int mediennummer) throws IOException
+    {
+        double beliebtheit = zufall.nextDouble();
+        int rang = zipf(beliebtheit, _anzahlTitel);
+        if (zufall.nextDouble() < _verliehenAnteil * 2 * (1 - beliebtheit))
+        {
+            int alter = (int) Math.min(365,
+                    -Math.log(1 - zufall.nextDouble()) * MITTLERES_AUSLEIHALTER);
+            writer.write(_stichtag.minus(alter)
+                .toString());
+            writer.write(';');
+            writer.write(Integer.toString(100000 + entleiher(zufall)));
+        }
+        else
+        {
+            writer.write(DateiSchreiber.kodiere(null));
+            writer.write(';');
+            writer.write(DateiSchreiber.kodiere(null));
+        }
+        writer.write(';');
+
+        int art = rang % 10;
+        if (art < 5)
+        {
+            writer.write("CD;");
+        }
+        else if (art < 9)
+        {
+            writer.write("DVD;");
+        }
+        else
+        {
+            writer.write("Videospiel;");
+        }
+        writer.write(titelFuer(rang));
+        writer.write(';');
+        if (zufall.nextInt(4) == 0)
+        {
+            writer.write(waehle(zufall, WOERTER));
+            writer.write(' ');
+            writer.write(waehle(zufall, WOERTER));
+        }
+        else
+        {
+            writer.write(DateiSchreiber.kodiere(null));
+        }
+        writer.write(';');
+        if (art < 9)
+        {
+            writer.write(VORNAMEN[rang % VORNAMEN.length]);
+            writer.write(' ');
+            writer.write(NACHNAMEN[(rang / 7) % NACHNAMEN.length]);
+            writer.write(';');
+            int laenge = (art < 5) ? 30 + rang % 50 : 80 + rang % 100;
+            writer.write(Integer.toString(laenge));
+            writer.write(';');
+            writer.write(Integer.toString(mediennummer));
+        }
+        else
+        {
+            writer.write(SYSTEME[rang % SYSTEME.length]);
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Wählt einen Entleiher. Wenige Kunden leihen viel aus, die beliebtesten
+     * sind über die Kundennummern verstreut.
+     */
+    private int entleiher(Random zufall)
+    {
+        return (int) ((zipf(zufall.nextDouble(), _anzahlKunden) * 7919L)
+                % _anzahlKunden);
+    }
+
+    /**
+     * Liefert den Titel zum Rang, ohne Titel speichern zu müssen. Verschiedene
+     * Ränge haben verschiedene Titel.
+     */
+    private static String titelFuer(int rang)
+    {
+        StringBuilder titel = new StringBuilder();
+        int rest = rang;
+        do
+        {
+            if (titel.length() > 0)
+            {
+                titel.append(' ');
+            }
+            titel.append(WOERTER[rest % WOERTER.length]);
+            rest /= WOERTER.length;
+        }
+        while (rest > 0);
+        return titel.toString();
+    }
+
+    /**
+     * Bildet eine gleichverteilte Zufallszahl zwischen 0 und 1 auf eine Zahl
+     * zwischen 0 (einschließlich) und anzahl (ausschließlich) ab, deren
+     * Wahrscheinlichkeit etwa umgekehrt proportional zu ihrer Größe ist.
+     * Kleine Zufallszahlen ergeben kleine Zahlen.
+     */
+    private static int zipf(double gleichverteilt, int anzahl)
+    {
+        int wert = (int) Math.exp(gleichverteilt * Math.log(anzahl + 1)) - 1;
+        return Math.min(Math.max(wert, 0), anzahl - 1);
+    }
+
+    private static String waehle(Random zufall, String[] auswahl)
+    {
+        return auswahl[zufall.nextInt(auswahl.length)];
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.Random;
+
+/**
+ * Misst {@link Datum#tageSeit(Datum)} und {@link Datum#plus(int)} über ein
+ * Feld zufälliger Daten der angegebenen Größe.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class DatumBenchmark
+{
+    private DatumBenchmark()
+    {
+    }
+
+    /**
+     * Führt alle Messungen mit der angegebenen Anzahl Daten aus.
+     * 
+     * @param lauf Der Messlauf.
+     * @param groesse Die Anzahl der Daten.
+     * 
+     * @require lauf != null
+     * @require groesse > 1
+     */
+    public static void fuehreAus(Messlauf lauf, int groesse)
+    {
+        assert lauf != null : "Vorbedingung verletzt: lauf != null";
+        assert groesse > 1 : "Vorbedingung verletzt: groesse > 1";
+
+        Random zufall = new Random(groesse);
+        final Datum[] daten = new Datum[groesse];
+        for (int i = 0; i < groesse; i++)
+        {
+            daten[i] = new Datum(1 + zufall.nextInt(28),
+                    1 + zufall.nextInt(12), 1950 + zufall.nextInt(100));
+        }
+
+        lauf.miss("Datum.tageSeit", groesse, new Messlauf.Operation()
+        {
+            private int _naechstes = 1;
+
+            @Override
+            public long fuehreAus()
+            {
+                int tage = daten[_naechstes]
+                    .tageSeit(daten[_naechstes - 1]);
+                _naechstes++;
+                if (_naechstes == daten.length)
+                {
+                    _naechstes = 1;
+                }
+                return tage;
+            }
+        });
+        lauf.miss("Datum.plus", groesse, new Messlauf.Operation()
+        {
+            private int _naechstes = 0;
+
+            @Override
+            public long fuehreAus()
+            {
+                Datum datum = daten[_naechstes].plus(_naechstes & 1023);
+                _naechstes = (_naechstes + 1) % daten.length;
+                return datum.getTag();
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Misst das Einlesen von Kundenstamm und Medienbestand mit
+ * {@link KundenEinleser} und {@link MedienEinleser}, zum Vergleich auch mit
+ * dem {@link MappedEinleser}. Die Dateien werden vorher mit dem
+ * {@link Bestandsgenerator} in ein temporäres Verzeichnis geschrieben und
+ * danach gelöscht.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class EinleserBenchmark
+{
+    private EinleserBenchmark()
+    {
+    }
+
+    /**
+     * Führt alle Messungen mit der angegebenen Anzahl Medien aus. Es werden
+     * gleich viele Kunden geschrieben, höchstens aber
+     * {@link Bestandsgenerator#MAX_KUNDEN}. Ein Viertel der Medien ist
+     * verliehen, ein Zehntel sind Videospiele, die die Einleser überspringen.
+     * 
+     * @param lauf Der Messlauf.
+     * @param groesse Die Anzahl der Medien.
+     * @throws IOException wenn die Dateien nicht angelegt werden konnten.
+     * @throws DateiSchreibException wenn die Dateien nicht geschrieben werden
+     *             konnten.
+     * 
+     * @require lauf != null
+     * @require groesse > 0
+     */
+    public static void fuehreAus(Messlauf lauf, int groesse)
+            throws IOException, DateiSchreibException
+    {
+        assert lauf != null : "Vorbedingung verletzt: lauf != null";
+        assert groesse > 0 : "Vorbedingung verletzt: groesse > 0";
+
+        File verzeichnis = Files.createTempDirectory("mediathek-benchmark")
+            .toFile();
+        try
+        {
+            File kundenDatei = new File(verzeichnis, "kundenstamm.txt");
+            File medienDatei = new File(verzeichnis, "medienbestand.txt");
+            Bestandsgenerator generator = new Bestandsgenerator(groesse,
+                    Math.min(groesse, Bestandsgenerator.MAX_KUNDEN), groesse,
+                    0.25, Bestandsgenerator.STANDARD_STICHTAG);
+            generator.schreibeKundenstamm(kundenDatei);
+            generator.schreibeMedienbestand(medienDatei);
+
+            miss(lauf, groesse, kundenDatei, medienDatei);
+        }
+        finally
+        {
+            for (File datei : verzeichnis.listFiles())
+            {
+                datei.delete();
+            }
+            verzeichnis.delete();
+        }
+    }
+
+    private static void miss(Messlauf lauf, int groesse,
+            final File kundenDatei, final File medienDatei)
+    {
+        final KundenEinleser kundenEinleser = new KundenEinleser();
+        final MedienEinleser medienEinleser = new MedienEinleser();
+        final MappedEinleser mappedEinleser = new MappedEinleser();
+
+        lauf.miss("KundenEinleser.leseKundenEin", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        try
+                        {
+                            return kundenEinleser.leseKundenEin(kundenDatei)
+                                .size();
+                        }
+                        catch (DateiLeseException e)
+                        {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+        lauf.miss("MedienEinleser.leseMedienzeilenEin", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        try
+                        {
+                            return medienEinleser
+                                .leseMedienzeilenEin(medienDatei)
+                                .size();
+                        }
+                        catch (DateiLeseException e)
+                        {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+        lauf.miss("MappedEinleser.leseMedienzeilenEin", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        try
+                        {
+                            return mappedEinleser
+                                .leseMedienzeilenEin(medienDatei)
+                                .size();
+                        }
+                        catch (DateiLeseException e)
+                        {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+    }
+}
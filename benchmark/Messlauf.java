@@ -0,0 +1,148 @@
+import java.io.PrintStream;
+
+/**
+ * Ein einfacher Messlauf für Mikrobenchmarks nach dem Vorbild von JMH. Jede
+ * Messung besteht aus Aufwärm-Iterationen, deren Ergebnis verworfen wird, und
+ * Mess-Iterationen fester Dauer. Ausgegeben werden der Mittelwert der Zeit pro
+ * Operation und die Standardabweichung über die Mess-Iterationen.
+ * 
+ * Jede Operation liefert eine Zahl, die in eine Senke addiert wird. So kann
+ * der JIT-Compiler die gemessene Arbeit nicht als unbenutzt entfernen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Messlauf
+{
+    /**
+     * Eine zu messende Operation.
+     */
+    interface Operation
+    {
+        /**
+         * Führt die Operation einmal aus.
+         * 
+         * @return Ein Wert, der vom Ergebnis der Operation abhängt.
+         */
+        long fuehreAus();
+    }
+
+    private final int _aufwaermIterationen;
+    private final int _messIterationen;
+    private final long _iterationsDauer;
+    private final PrintStream _ausgabe;
+
+    /**
+     * Die Summe aller Ergebnisse, damit sie nicht wegoptimiert werden.
+     */
+    private long _senke;
+
+    /**
+     * Initialisiert einen Messlauf.
+     * 
+     * @param aufwaermIterationen Die Anzahl der Aufwärm-Iterationen.
+     * @param messIterationen Die Anzahl der Mess-Iterationen.
+     * @param iterationsDauerMs Die Dauer einer Iteration in Millisekunden.
+     * @param ausgabe Der Strom, auf den die Ergebnisse geschrieben werden.
+     * 
+     * @require aufwaermIterationen >= 0
+     * @require messIterationen > 0
+     * @require iterationsDauerMs > 0
+     * @require ausgabe != null
+     */
+    public Messlauf(int aufwaermIterationen, int messIterationen,
+            long iterationsDauerMs, PrintStream ausgabe)
+    {
+        assert aufwaermIterationen >= 0 : "Vorbedingung verletzt: aufwaermIterationen >= 0";
+        assert messIterationen > 0 : "Vorbedingung verletzt: messIterationen > 0";
+        assert iterationsDauerMs > 0 : "Vorbedingung verletzt: iterationsDauerMs > 0";
+        assert ausgabe != null : "Vorbedingung verletzt: ausgabe != null";
+
+        _aufwaermIterationen = aufwaermIterationen;
+        _messIterationen = messIterationen;
+        _iterationsDauer = iterationsDauerMs * 1000000L;
+        _ausgabe = ausgabe;
+    }
+
+    /**
+     * Schreibt die Kopfzeile der Ergebnistabelle.
+     */
+    public void schreibeKopf()
+    {
+        _ausgabe.printf("%-45s %10s %15s %12s%n", "Benchmark", "Groesse",
+                "ns/op", "+/- Abw.");
+    }
+
+    /**
+     * Misst eine Operation und schreibt das Ergebnis als Zeile der Tabelle.
+     * 
+     * @param name Der Name der Messung.
+     * @param groesse Die Datengröße, mit der gemessen wird.
+     * @param operation Die zu messende Operation.
+     * @return Die mittlere Zeit pro Operation in Nanosekunden.
+     * 
+     * @require name != null
+     * @require operation != null
+     */
+    public double miss(String name, int groesse, Operation operation)
+    {
+        assert name != null : "Vorbedingung verletzt: name != null";
+        assert operation != null : "Vorbedingung verletzt: operation != null";
+
+        for (int i = 0; i < _aufwaermIterationen; i++)
+        {
+            iteriere(operation);
+        }
+        double summe = 0;
+        double quadratSumme = 0;
+        for (int i = 0; i < _messIterationen; i++)
+        {
+            double nanosProOperation = iteriere(operation);
+            summe += nanosProOperation;
+            quadratSumme += nanosProOperation * nanosProOperation;
+        }
+        double mittelwert = summe / _messIterationen;
+        double abweichung = Math.sqrt(Math.max(0,
+                quadratSumme / _messIterationen - mittelwert * mittelwert));
+        _ausgabe.printf("%-45s %10d %15.1f %12.1f%n", name, groesse,
+                mittelwert, abweichung);
+        return mittelwert;
+    }
+
+    /**
+     * Liefert die Summe aller Ergebnisse. Wer sie ausgibt, stellt sicher, dass
+     * keine Messung wegoptimiert werden kann.
+     */
+    public long getSenke()
+    {
+        return _senke;
+    }
+
+    /**
+     * Führt die Operation so lange in immer größeren Blöcken aus, bis die
+     * Iterationsdauer erreicht ist. Die Zeit wird nur zwischen den Blöcken
+     * gelesen, damit sie schnelle Operationen nicht verfälscht.
+     * 
+     * @return Die Zeit pro Operation in Nanosekunden.
+     */
+    private double iteriere(Operation operation)
+    {
+        long senke = 0;
+        long anzahl = 0;
+        long block = 1;
+        long start = System.nanoTime();
+        long vergangen = 0;
+        while (vergangen < _iterationsDauer)
+        {
+            for (long i = 0; i < block; i++)
+            {
+                senke += operation.fuehreAus();
+            }
+            anzahl += block;
+            block = Math.min(block * 2, 1 << 20);
+            vergangen = System.nanoTime() - start;
+        }
+        _senke += senke;
+        return (double) vergangen / anzahl;
+    }
+}
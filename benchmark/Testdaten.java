@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Erzeugt synthetische Kunden, Medien und Verleihkarten für Benchmarks. Mit
+ * demselben Startwert entstehen immer dieselben Daten, so dass Messungen
+ * verschiedener Stände vergleichbar sind.
+ * 
+ * Kundennummern sind sechsstellig, es gibt daher höchstens
+ * {@link #MAX_KUNDEN} Kunden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Testdaten
+{
+    /**
+     * Die größte Anzahl Kunden, für die es Kundennummern gibt.
+     */
+    static final int MAX_KUNDEN = 900000;
+
+    private static final String[] VORNAMEN = {"Anna", "Ben", "Clara", "David",
+            "Emma", "Finn", "Greta", "Hannes", "Ida", "Jonas", "Klara", "Lukas",
+            "Marie", "Noah", "Oskar", "Paula", "Sören", "Zoë"};
+
+    private static final String[] NACHNAMEN = {"Müller", "Schmidt",
+            "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker",
+            "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf",
+            "Schröder", "Neumann", "Zimmermann", "Krüger", "Hartmann", "Lange",
+            "Özdemir", "Nguyen"};
+
+    private static final String[] WOERTER = {"Nacht", "Sommer", "Liebe",
+            "Straße", "Himmel", "Feuer", "Wasser", "Stadt", "Traum", "Zeit",
+            "Welt", "Licht", "Schatten", "Herz", "Reise", "Lied", "Winter",
+            "Meer", "Stern", "Wald", "Greatest", "Hits", "Live", "Best", "Of"};
+
+    private static final String[] ORTE = {"Hamburg", "Berlin", "München",
+            "Köln", "Leipzig", "Bremen", "Lübeck", "Kiel"};
+
+    private final Random _zufall;
+
+    /**
+     * Initialisiert einen Generator mit dem gegebenen Startwert.
+     * 
+     * @param startwert Der Startwert für die Zufallszahlen.
+     */
+    public Testdaten(long startwert)
+    {
+        _zufall = new Random(startwert);
+    }
+
+    /**
+     * Erzeugt Kunden mit aufsteigenden Kundennummern ab 100000.
+     * 
+     * @param anzahl Die Anzahl der Kunden.
+     * 
+     * @require anzahl >= 0 && anzahl <= MAX_KUNDEN
+     * @ensure result.size() == anzahl
+     */
+    public List<Kunde> erzeugeKunden(int anzahl)
+    {
+        assert (anzahl >= 0)
+                && (anzahl <= MAX_KUNDEN) : "Vorbedingung verletzt: anzahl >= 0 && anzahl <= MAX_KUNDEN";
+
+        List<Kunde> kunden = new ArrayList<Kunde>(anzahl);
+        for (int i = 0; i < anzahl; i++)
+        {
+            Kunde kunde = new Kunde(new Kundennummer(100000 + i),
+                    waehle(VORNAMEN), waehle(NACHNAMEN));
+            kunde.setStrasse(
+                    waehle(WOERTER) + "weg " + (1 + _zufall.nextInt(99)));
+            kunde.setPLZ(
+                    new PLZ(String.valueOf(10000 + _zufall.nextInt(89999))));
+            kunde.setWohnort(waehle(ORTE));
+            kunden.add(kunde);
+        }
+        return kunden;
+    }
+
+    /**
+     * Erzeugt etwa gleich viele CDs und DVDs mit Titeln aus ein bis drei
+     * Wörtern.
+     * 
+     * @param anzahl Die Anzahl der Medien.
+     * 
+     * @require anzahl >= 0
+     * @ensure result.size() == anzahl
+     */
+    public List<Medium> erzeugeMedien(int anzahl)
+    {
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        List<Medium> medien = new ArrayList<Medium>(anzahl);
+        for (int i = 0; i < anzahl; i++)
+        {
+            String titel = erzeugeTitel();
+            if (_zufall.nextBoolean())
+            {
+                medien.add(new CD(titel, "", waehle(VORNAMEN) + " "
+                        + waehle(NACHNAMEN), 30 + _zufall.nextInt(50)));
+            }
+            else
+            {
+                medien.add(new DVD(titel, "", waehle(VORNAMEN) + " "
+                        + waehle(NACHNAMEN), 80 + _zufall.nextInt(100)));
+            }
+        }
+        return medien;
+    }
+
+    /**
+     * Verleiht einen Anteil der Medien an zufällige Kunden. Die Ausleihen
+     * liegen bis zu 60 Tage vor dem angegebenen Datum.
+     * 
+     * @param kunden Die möglichen Entleiher.
+     * @param medien Die Medien.
+     * @param anteil Der Anteil der verliehenen Medien zwischen 0 und 1.
+     * @param heute Das Datum der jüngsten Ausleihen.
+     * 
+     * @require !kunden.isEmpty()
+     * @require medien != null
+     * @require heute != null
+     * @ensure result != null
+     */
+    public List<Verleihkarte> erzeugeVerleihkarten(List<Kunde> kunden,
+            List<Medium> medien, double anteil, Datum heute)
+    {
+        assert !kunden.isEmpty() : "Vorbedingung verletzt: !kunden.isEmpty()";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert heute != null : "Vorbedingung verletzt: heute != null";
+
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>();
+        for (Medium medium : medien)
+        {
+            if (_zufall.nextDouble() < anteil)
+            {
+                verleihkarten.add(new Verleihkarte(
+                        kunden.get(_zufall.nextInt(kunden.size())), medium,
+                        heute.minus(_zufall.nextInt(60))));
+            }
+        }
+        return verleihkarten;
+    }
+
+    private String erzeugeTitel()
+    {
+        StringBuilder titel = new StringBuilder(waehle(WOERTER));
+        int weitereWoerter = _zufall.nextInt(3);
+        for (int i = 0; i < weitereWoerter; i++)
+        {
+            titel.append(' ')
+                .append(waehle(WOERTER));
+        }
+        return titel.toString();
+    }
+
+    private String waehle(String[] auswahl)
+    {
+        return auswahl[_zufall.nextInt(auswahl.length)];
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Misst Verleihen, Zurücknehmen, die Verleihkarten eines Kunden und die
+ * hundert ältesten Ausleihen im {@link VerleihServiceImpl}, jeweils mit dem
+ * {@link ObjektVerleihbestand} und dem {@link KompakterVerleihbestand}, sowie
+ * die Mietgebühren aller Ausleihen mit dem {@link Gebuehrenrechner}. Die
+ * Hälfte der Medien ist vorab verliehen, auf jeden Kunden kommen etwa vier
+ * Medien.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class VerleihBenchmark
+{
+    private VerleihBenchmark()
+    {
+    }
+
+    /**
+     * Führt alle Messungen mit der angegebenen Anzahl Medien aus.
+     * 
+     * @param lauf Der Messlauf.
+     * @param groesse Die Anzahl der Medien.
+     * 
+     * @require lauf != null
+     * @require groesse >= 2
+     */
+    public static void fuehreAus(Messlauf lauf, int groesse)
+    {
+        assert lauf != null : "Vorbedingung verletzt: lauf != null";
+        assert groesse >= 2 : "Vorbedingung verletzt: groesse >= 2";
+
+        Testdaten testdaten = new Testdaten(groesse);
+        List<Kunde> kunden = testdaten.erzeugeKunden(
+                Math.max(1, Math.min(groesse / 4, Testdaten.MAX_KUNDEN)));
+        List<Medium> medien = testdaten.erzeugeMedien(groesse);
+        Datum heute = new Datum(1, 4, 2021);
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>();
+        for (int i = 0; i < groesse; i += 2)
+        {
+            verleihkarten.add(new Verleihkarte(kunden.get(i % kunden.size()),
+                    medien.get(i), heute.minus(i % 60)));
+        }
+        KundenstammService kundenstamm = new KundenstammServiceImpl(kunden);
+        MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                medien);
+
+        missGebuehren(lauf, groesse, verleihkarten, heute);
+        miss(lauf, "Verleih[objekte]", groesse, kunden, medien, heute,
+                new VerleihServiceImpl(kundenstamm, medienbestand,
+                        new ObjektVerleihbestand(verleihkarten)));
+        miss(lauf, "Verleih[kompakt]", groesse, kunden, medien, heute,
+                new VerleihServiceImpl(kundenstamm, medienbestand,
+                        new KompakterVerleihbestand(medienbestand,
+                                verleihkarten)));
+    }
+
+    private static void missGebuehren(Messlauf lauf, int groesse,
+            final List<Verleihkarte> verleihkarten, final Datum heute)
+    {
+        final Gebuehrenrechner rechner = Gebuehrenrechner.erzeugeStandard();
+        lauf.miss("Gebuehrenrechner.berechneSumme", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        return rechner.berechneSumme(verleihkarten, heute)
+                            .getEurocent();
+                    }
+                });
+        lauf.miss("Verleihkarte.getMietgebuehr[alle]", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        List<Geldbetrag> gebuehren = new ArrayList<Geldbetrag>(
+                                verleihkarten.size());
+                        for (Verleihkarte verleihkarte : verleihkarten)
+                        {
+                            gebuehren.add(verleihkarte.getMietgebuehr());
+                        }
+                        return Geldbetrag.summe(gebuehren)
+                            .getEurocent();
+                    }
+                });
+    }
+
+    private static void miss(Messlauf lauf, String name, int groesse,
+            final List<Kunde> kunden, final List<Medium> medien,
+            final Datum heute, final VerleihServiceImpl verleihService)
+    {
+        lauf.miss(name + ".verleiheAnUndNimmZurueck", groesse,
+                new Messlauf.Operation()
+                {
+                    private int _naechstes = 1;
+
+                    @Override
+                    public long fuehreAus()
+                    {
+                        List<Medium> medium = Collections
+                            .singletonList(medien.get(_naechstes));
+                        verleihService.verleiheAn(
+                                kunden.get(_naechstes % kunden.size()), medium,
+                                heute);
+                        verleihService.nimmZurueck(medium, heute);
+                        _naechstes += 2;
+                        if (_naechstes >= medien.size())
+                        {
+                            _naechstes = 1;
+                        }
+                        return 1;
+                    }
+                });
+        lauf.miss(name + ".getVerleihkartenFuer", groesse,
+                new Messlauf.Operation()
+                {
+                    private int _naechster = 0;
+
+                    @Override
+                    public long fuehreAus()
+                    {
+                        Kunde kunde = kunden.get(_naechster);
+                        _naechster = (_naechster + 1) % kunden.size();
+                        return verleihService.getVerleihkartenFuer(kunde)
+                            .size();
+                    }
+                });
+        lauf.miss(name + ".getAeltesteVerleihkarten", groesse,
+                new Messlauf.Operation()
+                {
+                    @Override
+                    public long fuehreAus()
+                    {
+                        return verleihService.getAeltesteVerleihkarten(100)
+                            .size();
+                    }
+                });
+    }
+}
@@ -1,10 +1,22 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Eine abstrakt Implementation des ObservableService Interfaces, die die
  * Verwaltung und Benachrichtigung der Beobachter bereitstellt.
  * 
+ * Die Beobachter werden in Copy-On-Write-Listen gehalten. Beobachter können
+ * daher auch während einer Benachrichtigung und aus anderen Threads an- und
+ * abgemeldet werden.
+ * 
+ * Erbende Klassen melden Änderungen mit {@link #informiereUeber(ServiceEreignis)}
+ * oder, wenn sich die Änderung nicht als Ereignis beschreiben lässt, mit
+ * {@link #informiereUeberAenderung()}.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -14,24 +26,68 @@ abstract class AbstractObservableService implements ObservableService
     /**
      * Die Liste der registrierten Beobachter.
      */
-    private List<ServiceObserver> _beobachterListe;
+    private final CopyOnWriteArrayList<ServiceObserver> _beobachterListe;
+
+    /**
+     * Die Liste der registrierten Ereignis-Beobachter.
+     */
+    private final CopyOnWriteArrayList<ServiceEreignisObserver> _ereignisBeobachterListe;
+
+    /**
+     * Die Ereignisse, die auf die Zustellung warten. Wird auch als Sperre für
+     * _unbestimmteAenderung verwendet.
+     */
+    private final List<ServiceEreignis> _ausstehendeEreignisse;
+
+    /**
+     * Gibt an, ob unter den wartenden Änderungen eine ist, die sich nicht als
+     * Ereignis beschreiben lässt.
+     */
+    private boolean _unbestimmteAenderung;
+
+    /**
+     * Der Zusteller für Benachrichtigungen, ist null wenn sofort
+     * benachrichtigt wird.
+     */
+    private volatile Executor _zusteller;
+
+    /**
+     * Gibt an, ob eine Benachrichtigung beim Zusteller wartet.
+     */
+    private final AtomicBoolean _benachrichtigungAusstehend;
+
+    /**
+     * Die Benachrichtigung, die dem Zusteller übergeben wird.
+     */
+    private final Runnable _benachrichtigung;
 
     /**
      * Initialisiert einen neuen AbstractObservableService.
      */
     public AbstractObservableService()
     {
-        _beobachterListe = new ArrayList<ServiceObserver>();
+        _beobachterListe = new CopyOnWriteArrayList<ServiceObserver>();
+        _ereignisBeobachterListe = new CopyOnWriteArrayList<ServiceEreignisObserver>();
+        _ausstehendeEreignisse = new ArrayList<ServiceEreignis>();
+        _benachrichtigungAusstehend = new AtomicBoolean();
+        _benachrichtigung = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                // Vor dem Benachrichtigen zurücksetzen, damit Änderungen
+                // während der Benachrichtigung nicht verloren gehen.
+                _benachrichtigungAusstehend.set(false);
+                stelleAusstehendeEreignisseZu();
+            }
+        };
     }
 
     @Override
     public void registriereBeobachter(ServiceObserver beobachter)
     {
         assert beobachter != null : "Vorbedingung verletzt: beobachter != null";
-        if (!_beobachterListe.contains(beobachter))
-        {
-            _beobachterListe.add(beobachter);
-        }
+        _beobachterListe.addIfAbsent(beobachter);
     }
 
     @Override
@@ -41,15 +97,133 @@ abstract class AbstractObservableService implements ObservableService
         _beobachterListe.remove(beobachter);
     }
 
+    @Override
+    public void registriereEreignisBeobachter(
+            ServiceEreignisObserver beobachter)
+    {
+        assert beobachter != null : "Vorbedingung verletzt: beobachter != null";
+        _ereignisBeobachterListe.addIfAbsent(beobachter);
+    }
+
+    @Override
+    public void entferneEreignisBeobachter(ServiceEreignisObserver beobachter)
+    {
+        assert beobachter != null : "Vorbedingung verletzt: beobachter != null";
+        _ereignisBeobachterListe.remove(beobachter);
+    }
+
+    @Override
+    public void setzeZusteller(Executor zusteller)
+    {
+        _zusteller = zusteller;
+    }
+
     /**
      * Informiert alle angemeldeten Beobachter dass eine relevante Änderung
-     * eingetreten ist.
+     * eingetreten ist, die sich nicht als Ereignis beschreiben lässt.
+     * Ereignis-Beobachter erhalten eine leere Liste.
      */
     protected void informiereUeberAenderung()
+    {
+        informiereUeber(Collections.<ServiceEreignis> emptyList());
+    }
+
+    /**
+     * Informiert alle angemeldeten Beobachter über das Ereignis.
+     * 
+     * @param ereignis Das eingetretene Ereignis.
+     * 
+     * @require ereignis != null
+     */
+    protected void informiereUeber(ServiceEreignis ereignis)
+    {
+        assert ereignis != null : "Vorbedingung verletzt: ereignis != null";
+        informiereUeber(Collections.singletonList(ereignis));
+    }
+
+    /**
+     * Informiert alle angemeldeten Beobachter über die Ereignisse. Ist ein
+     * Zusteller gesetzt, werden die Ereignisse gesammelt und die
+     * Benachrichtigung nur dann übergeben, wenn nicht bereits eine wartet.
+     * 
+     * @param ereignisse Die eingetretenen Ereignisse, eine leere Liste für
+     *            eine nicht näher beschriebene Änderung.
+     * 
+     * @require ereignisse != null
+     */
+    protected void informiereUeber(List<ServiceEreignis> ereignisse)
+    {
+        assert ereignisse != null : "Vorbedingung verletzt: ereignisse != null";
+
+        Executor zusteller = _zusteller;
+        if (zusteller == null)
+        {
+            benachrichtigeBeobachter(ereignisse);
+        }
+        else
+        {
+            synchronized (_ausstehendeEreignisse)
+            {
+                if (ereignisse.isEmpty())
+                {
+                    _unbestimmteAenderung = true;
+                }
+                else
+                {
+                    _ausstehendeEreignisse.addAll(ereignisse);
+                }
+            }
+            if (_benachrichtigungAusstehend.compareAndSet(false, true))
+            {
+                zusteller.execute(_benachrichtigung);
+            }
+        }
+    }
+
+    /**
+     * Benachrichtigt die Beobachter über alle gesammelten Ereignisse. Wurden
+     * sie bereits mit einer früheren Zustellung ausgeliefert, passiert nichts.
+     */
+    private void stelleAusstehendeEreignisseZu()
+    {
+        List<ServiceEreignis> ereignisse;
+        boolean hatAenderungen;
+        synchronized (_ausstehendeEreignisse)
+        {
+            hatAenderungen = _unbestimmteAenderung
+                    || !_ausstehendeEreignisse.isEmpty();
+            if (_unbestimmteAenderung)
+            {
+                ereignisse = Collections.<ServiceEreignis> emptyList();
+            }
+            else
+            {
+                ereignisse = new ArrayList<ServiceEreignis>(
+                        _ausstehendeEreignisse);
+            }
+            _ausstehendeEreignisse.clear();
+            _unbestimmteAenderung = false;
+        }
+        if (hatAenderungen)
+        {
+            benachrichtigeBeobachter(ereignisse);
+        }
+    }
+
+    /**
+     * Ruft alle angemeldeten Beobachter auf.
+     */
+    private void benachrichtigeBeobachter(List<ServiceEreignis> ereignisse)
     {
         for (ServiceObserver beobachter : _beobachterListe)
         {
             beobachter.informiereUeberAenderung();
         }
+        List<ServiceEreignis> unveraenderlich = Collections
+            .unmodifiableList(ereignisse);
+        for (ServiceEreignisObserver beobachter : _ereignisBeobachterListe)
+        {
+            beobachter.informiereUeberEreignisse(unveraenderlich);
+        }
     }
 }
@@ -0,0 +1,196 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+public class AbstractObservableServiceTest
+{
+    private MedienbestandServiceImpl _service;
+    private List<Runnable> _wartendeBenachrichtigungen;
+    private int _anzahlBenachrichtigungen;
+    private List<List<ServiceEreignis>> _erhalteneEreignisse;
+
+    public AbstractObservableServiceTest()
+    {
+        _service = new MedienbestandServiceImpl(new ArrayList<Medium>());
+        _wartendeBenachrichtigungen = new ArrayList<Runnable>();
+        _erhalteneEreignisse = new ArrayList<List<ServiceEreignis>>();
+        _service.registriereEreignisBeobachter(new ServiceEreignisObserver()
+        {
+            @Override
+            public void informiereUeberEreignisse(
+                    List<ServiceEreignis> ereignisse)
+            {
+                _erhalteneEreignisse.add(ereignisse);
+            }
+        });
+        _service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void informiereUeberAenderung()
+            {
+                _anzahlBenachrichtigungen++;
+            }
+        });
+    }
+
+    @Test
+    public void testOhneZustellerSofort()
+    {
+        _service.fuegeMediumEin(new CD("Titel", "", "Interpret", 40));
+        _service.fuegeMediumEin(new CD("Titel", "", "Interpret", 40));
+        assertEquals(2, _anzahlBenachrichtigungen);
+    }
+
+    @Test
+    public void testZustellerFasstZusammen()
+    {
+        _service.setzeZusteller(new Executor()
+        {
+            @Override
+            public void execute(Runnable benachrichtigung)
+            {
+                _wartendeBenachrichtigungen.add(benachrichtigung);
+            }
+        });
+
+        for (int i = 0; i < 100; i++)
+        {
+            _service.fuegeMediumEin(new CD("Titel " + i, "", "Interpret", 40));
+        }
+        assertEquals(0, _anzahlBenachrichtigungen);
+        assertEquals(1, _wartendeBenachrichtigungen.size());
+
+        _wartendeBenachrichtigungen.remove(0)
+            .run();
+        assertEquals(1, _anzahlBenachrichtigungen);
+
+        _service.fuegeMediumEin(new CD("Noch einer", "", "Interpret", 40));
+        assertEquals(1, _wartendeBenachrichtigungen.size());
+    }
+
+    @Test
+    public void testEreignisseOhneZusteller()
+    {
+        Medium cd = new CD("Titel", "", "Interpret", 40);
+        _service.fuegeMediumEin(cd);
+        _service.entferneMedium(cd);
+
+        assertEquals(2, _erhalteneEreignisse.size());
+        ServiceEreignis eingefuegt = _erhalteneEreignisse.get(0)
+            .get(0);
+        assertTrue(eingefuegt
+            .istArt(MedienbestandService.EREIGNIS_MEDIUM_EINGEFUEGT));
+        assertSame(cd, eingefuegt.getMedium());
+        assertTrue(_erhalteneEreignisse.get(1)
+            .get(0)
+            .istArt(MedienbestandService.EREIGNIS_MEDIUM_ENTFERNT));
+    }
+
+    @Test
+    public void testZustellerSammeltEreignisse()
+    {
+        _service.setzeZusteller(new Executor()
+        {
+            @Override
+            public void execute(Runnable benachrichtigung)
+            {
+                _wartendeBenachrichtigungen.add(benachrichtigung);
+            }
+        });
+
+        Medium cd1 = new CD("Titel 1", "", "Interpret", 40);
+        Medium cd2 = new CD("Titel 2", "", "Interpret", 40);
+        _service.fuegeMediumEin(cd1);
+        _service.fuegeMediumEin(cd2);
+        _wartendeBenachrichtigungen.remove(0)
+            .run();
+
+        assertEquals(1, _erhalteneEreignisse.size());
+        assertEquals(2, _erhalteneEreignisse.get(0)
+            .size());
+        assertSame(cd1, _erhalteneEreignisse.get(0)
+            .get(0)
+            .getMedium());
+        assertSame(cd2, _erhalteneEreignisse.get(0)
+            .get(1)
+            .getMedium());
+
+        _service.fuegeMediumEin(new CD("Titel 3", "", "Interpret", 40));
+        _service.medienWurdenGeaendert();
+        _wartendeBenachrichtigungen.remove(0)
+            .run();
+        assertTrue(_erhalteneEreignisse.get(1)
+            .isEmpty());
+    }
+
+    @Test
+    public void testVerleihEreignisse()
+    {
+        Kunde kunde = new Kunde(new Kundennummer(123456), "Homer", "Simpson");
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        kunden.add(kunde);
+        Medium cd = new CD("Titel", "", "Interpret", 40);
+        _service.fuegeMediumEin(cd);
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                new KundenstammServiceImpl(kunden), _service,
+                new ArrayList<Verleihkarte>());
+        final List<ServiceEreignis> verleihEreignisse = new ArrayList<ServiceEreignis>();
+        verleihService.registriereEreignisBeobachter(
+                new ServiceEreignisObserver()
+                {
+                    @Override
+                    public void informiereUeberEreignisse(
+                            List<ServiceEreignis> ereignisse)
+                    {
+                        verleihEreignisse.addAll(ereignisse);
+                    }
+                });
+
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(cd);
+        verleihService.verleiheAn(kunde, medien, new Datum(1, 4, 2021));
+        verleihService.nimmZurueck(medien, new Datum(2, 4, 2021));
+
+        assertEquals(2, verleihEreignisse.size());
+        ServiceEreignis ausleihe = verleihEreignisse.get(0);
+        assertTrue(ausleihe.istArt(VerleihService.EREIGNIS_AUSLEIHE));
+        assertSame(cd, ausleihe.getMedium());
+        assertSame(kunde, ausleihe.getKunde());
+        assertEquals(new Datum(1, 4, 2021), ausleihe.getVerleihkarte()
+            .getAusleihdatum());
+        assertTrue(verleihEreignisse.get(1)
+            .istArt(VerleihService.EREIGNIS_RUECKGABE));
+    }
+
+    @Test
+    public void testAnmeldenWaehrendDerBenachrichtigung()
+    {
+        final ServiceObserver zweiterBeobachter = new ServiceObserver()
+        {
+            @Override
+            public void informiereUeberAenderung()
+            {
+                _anzahlBenachrichtigungen += 10;
+            }
+        };
+        _service.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void informiereUeberAenderung()
+            {
+                _service.registriereBeobachter(zweiterBeobachter);
+            }
+        });
+
+        _service.fuegeMediumEin(new CD("Titel", "", "Interpret", 40));
+        assertEquals(1, _anzahlBenachrichtigungen);
+        _service.fuegeMediumEin(new CD("Titel", "", "Interpret", 40));
+        assertEquals(12, _anzahlBenachrichtigungen);
+    }
+}
@@ -206,13 +206,18 @@ class AusleihWerkzeug
     /**
      * Leiht die ausgewählten Medien aus. Diese Methode wird über einen Listener
      * angestoßen, der reagiert, wenn der Benutzer den Ausleihen-Button drückt.
+     * Wurde inzwischen eines der Medien an einem anderen Platz verliehen, wird
+     * nichts verliehen und nur der Button aktualisiert.
      */
     private void leiheAusgewaehlteMedienAus()
     {
         List<Medium> medien = _medienAuflisterWerkzeug.getSelectedMedien();
         Kunde selectedKunde = _kundenAuflisterWerkzeug.getSelectedKunde();
         Datum heute = Datum.heute();
-        _verleihService.verleiheAn(selectedKunde, medien, heute);
+        if (!_verleihService.versucheZuVerleihen(selectedKunde, medien, heute))
+        {
+            aktualisiereAusleihButton();
+        }
     }
 
     /**
@@ -54,6 +54,16 @@ class AusleiheMedienFormatierer
         return _medium.getTitel();
     }
 
+    /**
+     * Gibt an, ob das Medium verliehen ist.
+     * 
+     * @return true, wenn das Medium verliehen ist, sonst false.
+     */
+    public boolean istVerliehen()
+    {
+        return _istVerliehen;
+    }
+
     /**
      * Gibt den Ausleihstatus an.
      */
@@ -14,9 +14,11 @@ class AusleiheMedienFormatiererComparator
 
     private static final long serialVersionUID = 1L;
 
+    private static final MedienComparator MEDIEN_COMPARATOR = new MedienComparator();
+
     /**
      * Vergleicht zwei gegebene Medien anhand der Medienbezeichnung und des
-     * Medientitels.
+     * Medientitels, wie der {@link MedienComparator}.
      * 
      * @return einen Wert < 0 falls mediumFormatierer1 < mediumFormatierer2,
      *         einen Wert > 0, im umgekehrten Fall, oder 0 wenn beide gleich
@@ -29,15 +31,8 @@ class AusleiheMedienFormatiererComparator
         int result = 0;
         if ((mediumFormatierer1 != null) && (mediumFormatierer2 != null))
         {
-            Medium medium1 = mediumFormatierer1.getMedium();
-            Medium medium2 = mediumFormatierer2.getMedium();
-            result = medium1.getMedienBezeichnung()
-                .compareTo(medium2.getMedienBezeichnung());
-            if (result == 0)
-            {
-                result = medium1.getTitel()
-                    .compareTo(medium2.getTitel());
-            }
+            result = MEDIEN_COMPARATOR.compare(mediumFormatierer1.getMedium(),
+                    mediumFormatierer2.getMedium());
         }
         return result;
     }
@@ -1,6 +1,10 @@
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -9,6 +13,15 @@ import javax.swing.table.AbstractTableModel;
  * {@link AusleihWerkzeug} die dort benötigte Information über das {@link Medium} in einer Zeile
  * zurück.
  * 
+ * Die Medien sind nach dem {@link MedienComparator} sortiert. Einzelne Medien
+ * können eingefügt, entfernt und aktualisiert werden, ohne die ganze Tabelle
+ * neu aufzubauen. Suchtreffer werden dagegen in der Reihenfolge angezeigt, in
+ * der sie gesetzt wurden.
+ * 
+ * Das TableModel hält nur die sortierten Medien. Der Ausleihstatus einer
+ * Zeile wird erst ermittelt, wenn die Tabelle die Zeile darstellt. Die
+ * Formatierer der zuletzt dargestellten Zeilen werden zwischengespeichert.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -20,18 +33,64 @@ class AusleiheMedienTableModel extends AbstractTableModel
             "Titel", "ausleihbar"};
 
     /**
-     * Eine sortierte Map, die Medien zwischenspeichert/cached und auf boolsche
-     * Werte abbildet, die angeben, ob ein Medium entliehe ist (true) oder nicht
-     * (false).
+     * Die Sortierung der Zeilen.
+     */
+    private static final MedienComparator COMPARATOR = new MedienComparator();
+
+    /**
+     * Die Anzahl der zwischengespeicherten Formatierer. Sie sollte deutlich
+     * größer sein als die Anzahl sichtbarer Zeilen.
+     */
+    private static final int CACHE_GROESSE = 256;
+
+    /**
+     * Die angezeigten Medien, sortiert nach COMPARATOR, wenn _sortiert gilt.
+     */
+    private List<Medium> _medienListe;
+
+    /**
+     * Gibt an, ob die Medien nach COMPARATOR sortiert sind.
+     */
+    private boolean _sortiert;
+
+    /**
+     * Der VerleihService, bei dem der Ausleihstatus erfragt wird, oder null
+     * wenn die Medien mit festem Ausleihstatus gesetzt wurden.
+     */
+    private VerleihService _verleihService;
+
+    /**
+     * Die verliehenen Medien, wenn die Medien mit festem Ausleihstatus gesetzt
+     * wurden, sonst null.
+     */
+    private Set<Medium> _verlieheneMedien;
+
+    /**
+     * Die Formatierer der zuletzt dargestellten Zeilen, in der Reihenfolge
+     * ihrer Verwendung.
      */
-    private List<AusleiheMedienFormatierer> _medienListe;
+    private final Map<Medium, AusleiheMedienFormatierer> _formatiererCache;
 
     /**
      * Initialisiert ein AusleiheMedienTableModel.
      */
     public AusleiheMedienTableModel()
     {
-        _medienListe = new ArrayList<AusleiheMedienFormatierer>();
+        _medienListe = new ArrayList<Medium>();
+        _sortiert = true;
+        _verlieheneMedien = new HashSet<Medium>();
+        _formatiererCache = new LinkedHashMap<Medium, AusleiheMedienFormatierer>(
+                CACHE_GROESSE, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Medium, AusleiheMedienFormatierer> eldest)
+            {
+                return size() > CACHE_GROESSE;
+            }
+        };
     }
 
     @Override
@@ -88,7 +147,7 @@ class AusleiheMedienTableModel extends AbstractTableModel
     public Medium getMediumFuerZeile(int zeile)
     {
         assert zeileExistiert(zeile) : "Vorbedingung verletzt: zeileExistiert(zeile)";
-        return getMedienFormatierer(zeile).getMedium();
+        return _medienListe.get(zeile);
     }
 
     /**
@@ -108,33 +167,312 @@ class AusleiheMedienTableModel extends AbstractTableModel
     }
 
     /**
-     * Setze die anzuzeigenden Medien. Nach dem Setzen wird die Tabelle
-     * aktualisiert. Es wird auf einer Kopie der Liste gearbeitet.
+     * Setze die anzuzeigenden Medien mit festem Ausleihstatus. Nach dem Setzen
+     * wird die Tabelle aktualisiert. Es wird auf einer Kopie der Liste
+     * gearbeitet.
      * 
      * @require medien != null
      */
     public void setMedien(List<AusleiheMedienFormatierer> medien)
     {
         assert medien != null : "Vorbedingung verletzt: medien != null";
-        _medienListe = new ArrayList<AusleiheMedienFormatierer>(medien);
 
-        // sortiere Medien-Liste
-        Collections.sort(_medienListe,
-                new AusleiheMedienFormatiererComparator());
+        List<Medium> medienListe = new ArrayList<Medium>(medien.size());
+        Set<Medium> verlieheneMedien = new HashSet<Medium>();
+        for (AusleiheMedienFormatierer formatierer : medien)
+        {
+            medienListe.add(formatierer.getMedium());
+            if (formatierer.istVerliehen())
+            {
+                verlieheneMedien.add(formatierer.getMedium());
+            }
+        }
+        setzeSortierteMedien(medienListe, null, verlieheneMedien);
+    }
+
+    /**
+     * Setze die anzuzeigenden Medien. Der Ausleihstatus wird erst beim
+     * Darstellen einer Zeile beim VerleihService erfragt. Nach dem Setzen
+     * wird die Tabelle aktualisiert. Es wird auf einer Kopie der Liste
+     * gearbeitet.
+     * 
+     * @param medien Die anzuzeigenden Medien.
+     * @param verleihService Der VerleihService für den Ausleihstatus.
+     * 
+     * @require medien != null
+     * @require verleihService != null
+     */
+    public void setMedien(List<Medium> medien, VerleihService verleihService)
+    {
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert verleihService != null : "Vorbedingung verletzt: verleihService != null";
+
+        setzeSortierteMedien(new ArrayList<Medium>(medien), verleihService,
+                null);
+    }
+
+    /**
+     * Setze die anzuzeigenden Medien in der gegebenen Reihenfolge, z.B. die
+     * nach Relevanz sortierten Treffer einer Suche. Der Ausleihstatus wird erst
+     * beim Darstellen einer Zeile beim VerleihService erfragt. Es wird auf
+     * einer Kopie der Liste gearbeitet.
+     * 
+     * @param treffer Die anzuzeigenden Medien.
+     * @param verleihService Der VerleihService für den Ausleihstatus.
+     * 
+     * @require treffer != null
+     * @require verleihService != null
+     * 
+     * @ensure !istSortiert()
+     */
+    public void setTreffer(List<Medium> treffer, VerleihService verleihService)
+    {
+        assert treffer != null : "Vorbedingung verletzt: treffer != null";
+        assert verleihService != null : "Vorbedingung verletzt: verleihService != null";
+
+        _medienListe = new ArrayList<Medium>(treffer);
+        _sortiert = false;
+        _verleihService = verleihService;
+        _verlieheneMedien = null;
+        _formatiererCache.clear();
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * Gibt an, ob die Medien nach dem MedienComparator sortiert sind. Das ist
+     * der Fall, solange keine Suchtreffer gesetzt sind.
+     */
+    public boolean istSortiert()
+    {
+        return _sortiert;
+    }
+
+    /**
+     * Ändert den angezeigten Ausleihstatus eines Mediums. Nur die Zeile des
+     * Mediums wird aktualisiert. Ist das Medium nicht in der Tabelle, passiert
+     * nichts.
+     * 
+     * @param medium Das Medium.
+     * @param istVerliehen Der neue Verleihstatus des Mediums.
+     * 
+     * @require medium != null
+     */
+    public void aktualisiereAusleihstatus(Medium medium, boolean istVerliehen)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        int zeile = findeZeile(medium);
+        if (zeile >= 0)
+        {
+            merkeAusleihstatus(medium, istVerliehen);
+            fireTableRowsUpdated(zeile, zeile);
+        }
+    }
+
+    /**
+     * Fügt ein Medium an der passenden Stelle der sortierten Tabelle ein. Nur
+     * die neue Zeile wird der Tabelle gemeldet, die Selektion bleibt erhalten.
+     * 
+     * @param formatierer Der Formatierer des neuen Mediums.
+     * 
+     * @require formatierer != null
+     * @require !enthaeltMedium(formatierer.getMedium())
+     * @require istSortiert()
+     */
+    public void fuegeMediumEin(AusleiheMedienFormatierer formatierer)
+    {
+        assert formatierer != null : "Vorbedingung verletzt: formatierer != null";
+        assert istSortiert() : "Vorbedingung verletzt: istSortiert()";
+        assert !enthaeltMedium(formatierer
+            .getMedium()) : "Vorbedingung verletzt: !enthaeltMedium(formatierer.getMedium())";
+
+        Medium medium = formatierer.getMedium();
+        int zeile = Collections.binarySearch(_medienListe, medium, COMPARATOR);
+        if (zeile < 0)
+        {
+            zeile = -zeile - 1;
+        }
+        // Hinter gleich sortierte Medien einfügen, wie es auch ein stabiles
+        // Sortieren täte.
+        while ((zeile < _medienListe.size())
+                && (COMPARATOR.compare(_medienListe.get(zeile), medium) == 0))
+        {
+            zeile++;
+        }
+        _medienListe.add(zeile, medium);
+        merkeAusleihstatus(medium, formatierer.istVerliehen());
+        fireTableRowsInserted(zeile, zeile);
+    }
+
+    /**
+     * Entfernt ein Medium aus der Tabelle. Nur die entfernte Zeile wird der
+     * Tabelle gemeldet. Ist das Medium nicht in der Tabelle, passiert nichts.
+     * 
+     * @param medium Das Medium.
+     * 
+     * @require medium != null
+     */
+    public void entferneMedium(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        int zeile = findeZeile(medium);
+        if (zeile >= 0)
+        {
+            _medienListe.remove(zeile);
+            _formatiererCache.remove(medium);
+            if (_verlieheneMedien != null)
+            {
+                _verlieheneMedien.remove(medium);
+            }
+            fireTableRowsDeleted(zeile, zeile);
+        }
+    }
+
+    /**
+     * Prüft, ob das Medium in der Tabelle angezeigt wird.
+     * 
+     * @param medium Das Medium.
+     * @return true, wenn das Medium eine Zeile hat, sonst false.
+     * 
+     * @require medium != null
+     */
+    public boolean enthaeltMedium(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        return findeZeile(medium) >= 0;
+    }
+
+    /**
+     * Sortiert die Medien, übernimmt sie mit der angegebenen Quelle für den
+     * Ausleihstatus und meldet der Tabelle, dass sich alles geändert hat.
+     */
+    private void setzeSortierteMedien(List<Medium> medienListe,
+            VerleihService verleihService, Set<Medium> verlieheneMedien)
+    {
+        Sortierschluessel.sortiereMedien(medienListe);
+        _medienListe = medienListe;
+        _sortiert = true;
+        _verleihService = verleihService;
+        _verlieheneMedien = verlieheneMedien;
+        _formatiererCache.clear();
 
         fireTableDataChanged();
     }
 
     /**
-     * Liefert den Medien-Formatierer für einen angegebenen Index. Die
+     * Merkt sich einen bekannten Ausleihstatus. Mit einem VerleihService wird
+     * nur der zwischengespeicherte Formatierer ersetzt, da der Status beim
+     * nächsten Darstellen ohnehin erfragt würde.
+     */
+    private void merkeAusleihstatus(Medium medium, boolean istVerliehen)
+    {
+        if (_verlieheneMedien != null)
+        {
+            if (istVerliehen)
+            {
+                _verlieheneMedien.add(medium);
+            }
+            else
+            {
+                _verlieheneMedien.remove(medium);
+            }
+        }
+        _formatiererCache.put(medium,
+                new AusleiheMedienFormatierer(medium, istVerliehen));
+    }
+
+    /**
+     * Sucht die Zeile des Mediums. Sind die Medien nicht sortiert, wird die
+     * ganze Liste durchsucht.
+     * 
+     * @return Die Zeile des Mediums, oder -1 wenn es nicht in der Liste ist.
+     */
+    private int findeZeile(Medium medium)
+    {
+        int ergebnis = -1;
+        if (_sortiert)
+        {
+            ergebnis = findeSortierteZeile(medium);
+        }
+        else
+        {
+            for (int zeile = 0; (ergebnis < 0)
+                    && (zeile < _medienListe.size()); zeile++)
+            {
+                if (_medienListe.get(zeile) == medium)
+                {
+                    ergebnis = zeile;
+                }
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Sucht die Zeile des Mediums per binärer Suche in der sortierten Liste.
+     * Da mehrere Medien gleich sortiert sein können, z.B. mehrere Exemplare
+     * derselben CD, werden die gleich sortierten Nachbarn nach genau diesem
+     * Medium durchsucht.
+     * 
+     * @return Die Zeile des Mediums, oder -1 wenn es nicht in der Liste ist.
+     */
+    private int findeSortierteZeile(Medium medium)
+    {
+        int treffer = Collections.binarySearch(_medienListe, medium,
+                COMPARATOR);
+        int ergebnis = -1;
+        for (int zeile = treffer; (ergebnis < 0) && (zeile >= 0)
+                && (COMPARATOR.compare(_medienListe.get(zeile), medium) == 0);
+                zeile--)
+        {
+            if (_medienListe.get(zeile) == medium)
+            {
+                ergebnis = zeile;
+            }
+        }
+        for (int zeile = treffer + 1; (ergebnis < 0) && (treffer >= 0)
+                && (zeile < _medienListe.size())
+                && (COMPARATOR.compare(_medienListe.get(zeile), medium) == 0);
+                zeile++)
+        {
+            if (_medienListe.get(zeile) == medium)
+            {
+                ergebnis = zeile;
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Liefert den Medien-Formatierer für einen angegebenen Index. Ist er nicht
+     * zwischengespeichert, wird er mit dem aktuellen Ausleihstatus erzeugt. Die
      * Gültigkeit des Index wird nicht überprüft.
      * 
-     * @param index Der Index eines Medien-Formatierers in der Medien-Liste.
+     * @param index Der Index eines Mediums in der Medien-Liste.
      * @return Der Medien-Formatierer auf dem angegebenen Index.
      */
     private AusleiheMedienFormatierer getMedienFormatierer(int index)
     {
-        return _medienListe.get(index);
+        Medium medium = _medienListe.get(index);
+        AusleiheMedienFormatierer formatierer = _formatiererCache.get(medium);
+        if (formatierer == null)
+        {
+            boolean istVerliehen;
+            if (_verleihService != null)
+            {
+                istVerliehen = _verleihService.istVerliehen(medium);
+            }
+            else
+            {
+                istVerliehen = _verlieheneMedien.contains(medium);
+            }
+            formatierer = new AusleiheMedienFormatierer(medium, istVerliehen);
+            _formatiererCache.put(medium, formatierer);
+        }
+        return formatierer;
     }
 
 }
@@ -1,9 +1,13 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
 import org.junit.Test;
 
 public class AusleiheMedienTableModelTest
@@ -72,6 +76,153 @@ public class AusleiheMedienTableModelTest
         assertEquals("CD2-Titel", _model.getValueAt(2, 1));
     }
 
+    @Test
+    public void testeAktualisiereAusleihstatus() throws Exception
+    {
+        assertEquals("ja", _model.getValueAt(2, 2));
+        _model.aktualisiereAusleihstatus(_cd2, true);
+        assertEquals("nein", _model.getValueAt(2, 2));
+        assertEquals(_cd2, _model.getMediumFuerZeile(2));
+
+        _model.aktualisiereAusleihstatus(_cd3, false);
+        assertEquals("nein", _model.getValueAt(0, 2));
+        assertEquals("ja", _model.getValueAt(1, 2));
+    }
+
+    @Test
+    public void testeFuegeMediumEin() throws Exception
+    {
+        final List<TableModelEvent> events = new ArrayList<TableModelEvent>();
+        _model.addTableModelListener(new TableModelListener()
+        {
+            @Override
+            public void tableChanged(TableModelEvent e)
+            {
+                events.add(e);
+            }
+        });
+
+        Medium dvd = new DVD("A-Titel", "", "Regisseur", 90);
+        Medium cd4 = new CD("CD1-Titel", "", "Interpret", 42);
+        _model.fuegeMediumEin(new AusleiheMedienFormatierer(dvd, false));
+        _model.fuegeMediumEin(new AusleiheMedienFormatierer(cd4, false));
+
+        assertEquals(5, _model.getRowCount());
+        assertEquals(_cd1, _model.getMediumFuerZeile(0));
+        assertEquals(_cd3, _model.getMediumFuerZeile(1));
+        assertEquals(cd4, _model.getMediumFuerZeile(2));
+        assertEquals(_cd2, _model.getMediumFuerZeile(3));
+        assertEquals(dvd, _model.getMediumFuerZeile(4));
+
+        assertEquals(2, events.size());
+        assertEquals(TableModelEvent.INSERT, events.get(0)
+            .getType());
+        assertEquals(3, events.get(0)
+            .getFirstRow());
+        assertEquals(2, events.get(1)
+            .getFirstRow());
+        assertEquals(2, events.get(1)
+            .getLastRow());
+    }
+
+    @Test
+    public void testeEntferneMedium() throws Exception
+    {
+        final List<TableModelEvent> events = new ArrayList<TableModelEvent>();
+        _model.addTableModelListener(new TableModelListener()
+        {
+            @Override
+            public void tableChanged(TableModelEvent e)
+            {
+                events.add(e);
+            }
+        });
+
+        assertTrue(_model.enthaeltMedium(_cd3));
+        _model.entferneMedium(_cd3);
+        assertFalse(_model.enthaeltMedium(_cd3));
+        assertTrue(_model.enthaeltMedium(_cd1));
+        assertEquals(2, _model.getRowCount());
+        assertEquals(_cd1, _model.getMediumFuerZeile(0));
+        assertEquals(_cd2, _model.getMediumFuerZeile(1));
+
+        _model.entferneMedium(_cd3);
+        assertEquals(1, events.size());
+        assertEquals(TableModelEvent.DELETE, events.get(0)
+            .getType());
+        assertEquals(1, events.get(0)
+            .getFirstRow());
+    }
+
+    @Test
+    public void testeAusleihstatusWirdBeimDarstellenErfragt() throws Exception
+    {
+        List<Medium> medien = new ArrayList<Medium>();
+        for (int i = 0; i < 1000; i++)
+        {
+            medien.add(new CD("Titel " + i, "", "Interpret", 42));
+        }
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        Kunde kunde = new Kunde(new Kundennummer(123456), "Homer", "Simpson");
+        kunden.add(kunde);
+        final int[] anfragen = new int[1];
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                new KundenstammServiceImpl(kunden),
+                new MedienbestandServiceImpl(medien),
+                new ArrayList<Verleihkarte>())
+        {
+            @Override
+            public boolean istVerliehen(Medium medium)
+            {
+                anfragen[0]++;
+                return super.istVerliehen(medium);
+            }
+        };
+        List<Medium> verliehen = new ArrayList<Medium>();
+        verliehen.add(medien.get(0));
+        verleihService.verleiheAn(kunde, verliehen, new Datum(1, 4, 2021));
+        anfragen[0] = 0;
+
+        AusleiheMedienTableModel model = new AusleiheMedienTableModel();
+        model.setMedien(medien, verleihService);
+        assertEquals(1000, model.getRowCount());
+        assertEquals(0, anfragen[0]);
+
+        assertEquals("Titel 0", model.getValueAt(0, 1));
+        assertEquals("nein", model.getValueAt(0, 2));
+        assertEquals("ja", model.getValueAt(1, 2));
+        assertEquals("ja", model.getValueAt(1, 2));
+        assertEquals(2, anfragen[0]);
+
+        model.aktualisiereAusleihstatus(medien.get(0), false);
+        assertEquals("ja", model.getValueAt(0, 2));
+        assertEquals(2, anfragen[0]);
+    }
+
+    @Test
+    public void testeTrefferBehaltenIhreReihenfolge() throws Exception
+    {
+        List<Medium> treffer = new ArrayList<Medium>();
+        treffer.add(_cd2);
+        treffer.add(_cd1);
+        AusleiheMedienTableModel model = new AusleiheMedienTableModel();
+        model.setTreffer(treffer, new VerleihServiceImpl(
+                new KundenstammServiceImpl(new ArrayList<Kunde>()),
+                new MedienbestandServiceImpl(treffer),
+                new ArrayList<Verleihkarte>()));
+        assertFalse(model.istSortiert());
+        assertEquals(_cd2, model.getMediumFuerZeile(0));
+        assertEquals(_cd1, model.getMediumFuerZeile(1));
+        assertTrue(model.enthaeltMedium(_cd1));
+        assertFalse(model.enthaeltMedium(_cd3));
+
+        model.aktualisiereAusleihstatus(_cd1, true);
+        assertEquals("nein", model.getValueAt(1, 2));
+        model.entferneMedium(_cd2);
+        assertEquals(_cd1, model.getMediumFuerZeile(0));
+        assertTrue(_model.istSortiert());
+    }
+
     @Test
     public void testeZeilenAnzahl() throws Exception
     {
@@ -5,6 +5,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.JTextField;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
@@ -22,6 +23,7 @@ class AusleiheMedienauflisterUI
     private AusleiheMedienTableModel _ausleiheMedienTableModel;
     private JPanel _hauptPanel;
     private JTable _medienTable;
+    private JTextField _suchfeld;
 
     /**
      * Initialisiert eine neue AusleiheMedienauflisterUI.
@@ -30,6 +32,7 @@ class AusleiheMedienauflisterUI
     {
         erzeugeHauptPanel();
         erzeugeMedienTable();
+        erzeugeSuchfeld();
     }
 
     /**
@@ -74,6 +77,31 @@ class AusleiheMedienauflisterUI
         _hauptPanel.add(medienAuflisterScrollPane, BorderLayout.CENTER);
     }
 
+    /**
+     * Erzeugt das Suchfeld über der Tabelle.
+     */
+    private void erzeugeSuchfeld()
+    {
+        _suchfeld = new JTextField();
+        _suchfeld.setBorder(BorderFactory.createTitledBorder(null, "Suche",
+                TitledBorder.LEADING, TitledBorder.DEFAULT_POSITION,
+                UIConstants.HEADER_FONT));
+        _suchfeld.setBackground(UIConstants.BACKGROUND_COLOR);
+        _suchfeld.setFont(UIConstants.TEXT_FONT);
+
+        _hauptPanel.add(_suchfeld, BorderLayout.NORTH);
+    }
+
+    /**
+     * Gibt das Suchfeld zurück.
+     * 
+     * @ensure result != null
+     */
+    public JTextField getSuchfeld()
+    {
+        return _suchfeld;
+    }
+
     /**
      * Gibt die Medienauflistertabelle (JTable) zurück.
      * 
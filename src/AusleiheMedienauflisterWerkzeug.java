@@ -1,7 +1,12 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
@@ -12,6 +17,12 @@ import javax.swing.event.ListSelectionListener;
  * Das Werkzeug ist beobachtbar und informiert darüber, wenn sich die Selektion
  * in der Medienliste ändert.
  * 
+ * Über das Suchfeld kann im Titel, Kommentar, Interpreten und Regisseur
+ * gesucht werden. Die Suche läuft verzögert in einem eigenen Thread über einen
+ * {@link MedienIndex}, die Treffer werden nach Relevanz sortiert angezeigt.
+ * Auch der Aufbau des Index und seine Anpassung an Änderungen des
+ * Medienbestands laufen im Such-Thread, nie im Event-Dispatch-Thread.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -21,6 +32,38 @@ class AusleiheMedienauflisterWerkzeug extends ObservableSubWerkzeug
     private MedienbestandService _medienbestand;
     private final VerleihService _verleihService;
 
+    /**
+     * Betreffen Ereignisse mehr als jedes so-vielte Medium, wird die Liste neu
+     * aufgebaut statt Zeile für Zeile geändert.
+     */
+    private static final int NEUAUFBAU_AB_ANTEIL = 4;
+
+    /**
+     * Die Zeit nach der letzten Eingabe, bevor gesucht wird.
+     */
+    private static final long SUCHVERZOEGERUNG_MILLISEKUNDEN = 150;
+
+    /**
+     * Der Suchindex über den Medienbestand.
+     */
+    private final MedienIndex _index;
+
+    /**
+     * Der Thread, in dem der Index aufgebaut, angepasst und durchsucht wird.
+     */
+    private final Executor _suchThread;
+
+    /**
+     * Übergibt Suchen verzögert an den Such-Thread.
+     */
+    private final Executor _suche;
+
+    /**
+     * Zählt die Eingaben im Suchfeld, damit veraltete Suchen übergangen
+     * werden.
+     */
+    private final AtomicInteger _suchanfragen;
+
     /**
      * Initialisiert ein neues AusleiheMedienauflisterWerkzeug. Es wird die
      * Benutzungsoberfläche zum Darstellen der Medien erzeugt.
@@ -39,6 +82,11 @@ class AusleiheMedienauflisterWerkzeug extends ObservableSubWerkzeug
 
         _medienbestand = medienbestand;
         _verleihService = verleihService;
+        _suchThread = Zusteller.hintergrund("Mediensuche");
+        _index = new MedienIndex(medienbestand, _suchThread);
+        _suche = Zusteller.verzoegert(_suchThread,
+                SUCHVERZOEGERUNG_MILLISEKUNDEN);
+        _suchanfragen = new AtomicInteger();
 
         // UI wird erzeugt.
         _ui = new AusleiheMedienauflisterUI();
@@ -51,6 +99,9 @@ class AusleiheMedienauflisterWerkzeug extends ObservableSubWerkzeug
 
         // Die anzuzeigenden Medien werden in den UI-Widgets gesetzt.
         setzeAnzuzeigendeMedien();
+
+        // Der Suchindex wird im Hintergrund aufgebaut.
+        baueIndexAuf();
     }
 
     /**
@@ -59,23 +110,17 @@ class AusleiheMedienauflisterWerkzeug extends ObservableSubWerkzeug
     private void registriereUIAktionen()
     {
         registriereMedienAnzeigenAktion();
+        registriereSucheAktion();
     }
 
     /**
-     * Holt und setzt die Medieninformationen.
+     * Holt und setzt die Medieninformationen. Der Ausleihstatus wird erst
+     * erfragt, wenn eine Zeile dargestellt wird.
      */
     private void setzeAnzuzeigendeMedien()
     {
-        List<Medium> medienListe = _medienbestand.getMedien();
-        List<AusleiheMedienFormatierer> medienFormatierer = new ArrayList<AusleiheMedienFormatierer>();
-        for (Medium medium : medienListe)
-        {
-            boolean istVerliehen = _verleihService.istVerliehen(medium);
-            medienFormatierer
-                .add(new AusleiheMedienFormatierer(medium, istVerliehen));
-        }
         _ui.getMedienAuflisterTableModel()
-            .setMedien(medienFormatierer);
+            .setMedien(_medienbestand.getMedien(), _verleihService);
     }
 
     /**
@@ -96,23 +141,194 @@ class AusleiheMedienauflisterWerkzeug extends ObservableSubWerkzeug
             });
     }
 
+    /**
+     * Registriert die Aktion, die ausgeführt wird, wenn sich der Text im
+     * Suchfeld ändert.
+     */
+    private void registriereSucheAktion()
+    {
+        _ui.getSuchfeld()
+            .getDocument()
+            .addDocumentListener(new DocumentListener()
+            {
+                @Override
+                public void insertUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+            });
+    }
+
+    /**
+     * Baut den Suchindex im Such-Thread auf. Suchen, die währenddessen
+     * eingegeben werden, warten im Such-Thread auf den Index.
+     */
+    private void baueIndexAuf()
+    {
+        _suchThread.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                _index.baueAuf();
+            }
+        });
+    }
+
+    /**
+     * Sucht nach dem aktuellen Text im Suchfeld. Ist das Suchfeld leer, werden
+     * wieder alle Medien angezeigt. Sonst wird die Suche an den Such-Thread
+     * übergeben und übergangen, falls vorher erneut etwas eingegeben wird. Die
+     * Treffer werden im Event-Dispatch-Thread angezeigt.
+     */
+    private void starteSuche()
+    {
+        final String anfrage = _ui.getSuchfeld()
+            .getText();
+        final int nummer = _suchanfragen.incrementAndGet();
+        if (istLeereAnfrage(anfrage))
+        {
+            setzeAnzuzeigendeMedien();
+        }
+        else
+        {
+            _suche.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    if (nummer == _suchanfragen.get())
+                    {
+                        final List<Medium> treffer = _index.suche(anfrage);
+                        SwingUtilities.invokeLater(new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                if (nummer == _suchanfragen.get())
+                                {
+                                    _ui.getMedienAuflisterTableModel()
+                                        .setTreffer(treffer, _verleihService);
+                                }
+                            }
+                        });
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Prüft, ob eine Suchanfrage keine Wörter enthält.
+     */
+    private static boolean istLeereAnfrage(String anfrage)
+    {
+        return Suchtext.zerlegeInWoerter(Suchtext.normalisiere(anfrage))
+            .isEmpty();
+    }
+
     /**
      * Registriert die Beobacheter für die Services.
      */
     private void registriereServiceBeobachter()
     {
-        ServiceObserver beobachter = new ServiceObserver()
+        ServiceEreignisObserver beobachter = new ServiceEreignisObserver()
         {
             @Override
-            public void informiereUeberAenderung()
+            public void informiereUeberEreignisse(
+                    List<ServiceEreignis> ereignisse)
             {
-                // Wenn ein Service eine Änderung mitteilt, dann wird
-                // die angezeigte Liste aller Medien aktualisiert:
-                setzeAnzuzeigendeMedien();
+                aktualisiereMedien(ereignisse);
             }
         };
-        _medienbestand.registriereBeobachter(beobachter);
-        _verleihService.registriereBeobachter(beobachter);
+        _medienbestand.registriereEreignisBeobachter(beobachter);
+        _verleihService.registriereEreignisBeobachter(beobachter);
+    }
+
+    /**
+     * Passt die angezeigten Medien an die Ereignisse an. Nur die betroffenen
+     * Zeilen werden geändert. Bei einer nicht näher beschriebenen Änderung
+     * oder wenn ein großer Teil der Medien betroffen ist, wird die angezeigte
+     * Liste aller Medien neu aufgebaut. Werden Suchtreffer angezeigt und hat
+     * sich der Medienbestand geändert, wird erneut gesucht.
+     */
+    private void aktualisiereMedien(List<ServiceEreignis> ereignisse)
+    {
+        AusleiheMedienTableModel tableModel = _ui
+            .getMedienAuflisterTableModel();
+        if (!tableModel.istSortiert() && betreffenBestand(ereignisse))
+        {
+            starteSuche();
+        }
+        else if (tableModel.istSortiert() && (ereignisse.isEmpty()
+                || (ereignisse.size() * NEUAUFBAU_AB_ANTEIL > tableModel
+                    .getRowCount())))
+        {
+            setzeAnzuzeigendeMedien();
+        }
+        else
+        {
+            for (ServiceEreignis ereignis : ereignisse)
+            {
+                aktualisiereMedium(tableModel, ereignis);
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob die Ereignisse den Medienbestand betreffen können, also nicht
+     * nur Ausleihen und Rückgaben sind.
+     */
+    private static boolean betreffenBestand(List<ServiceEreignis> ereignisse)
+    {
+        boolean ergebnis = ereignisse.isEmpty();
+        for (int i = 0; !ergebnis && (i < ereignisse.size()); i++)
+        {
+            ServiceEreignis ereignis = ereignisse.get(i);
+            ergebnis = !ereignis.istArt(VerleihService.EREIGNIS_AUSLEIHE)
+                    && !ereignis.istArt(VerleihService.EREIGNIS_RUECKGABE);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Passt die Zeile des vom Ereignis betroffenen Mediums an.
+     */
+    private void aktualisiereMedium(AusleiheMedienTableModel tableModel,
+            ServiceEreignis ereignis)
+    {
+        Medium medium = ereignis.getMedium();
+        if (ereignis.istArt(VerleihService.EREIGNIS_AUSLEIHE)
+                || ereignis.istArt(VerleihService.EREIGNIS_RUECKGABE))
+        {
+            tableModel.aktualisiereAusleihstatus(medium,
+                    ereignis.istArt(VerleihService.EREIGNIS_AUSLEIHE));
+        }
+        else if (ereignis
+            .istArt(MedienbestandService.EREIGNIS_MEDIUM_EINGEFUEGT))
+        {
+            if (!tableModel.enthaeltMedium(medium))
+            {
+                tableModel.fuegeMediumEin(new AusleiheMedienFormatierer(medium,
+                        _verleihService.istVerliehen(medium)));
+            }
+        }
+        else if (ereignis.istArt(MedienbestandService.EREIGNIS_MEDIUM_ENTFERNT))
+        {
+            tableModel.entferneMedium(medium);
+        }
     }
 
     /**
@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Ein Index über die verliehenen Medien, geordnet nach dem Ausleihdatum. Für
+ * jeden Ausleihtag gibt es einen Eimer mit den an diesem Tag verliehenen
+ * Medien, die Eimer stehen nach dem Tag sortiert in einer {@link TreeMap}.
+ * Die Medien, die bis zu einem Tag verliehen wurden, und die ältesten
+ * Ausleihen findet der Kalender so in O(log n + k) für k Ergebnisse, ohne alle
+ * Ausleihen durchzugehen.
+ * 
+ * Damit ein Medium auch ohne seine Verleihkarte entfernt werden kann, merkt
+ * sich der Kalender zu jedem Medium seinen Ausleihtag. Alle Methoden sind
+ * synchronisiert.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Ausleihkalender
+{
+    /**
+     * Die Medien jedes Ausleihtags in der Reihenfolge des Eintragens. Der
+     * Schlüssel ist der Ausleihtag als Tage seit dem 1.1.1970. Tage ohne
+     * Ausleihen sind nicht enthalten.
+     */
+    private final TreeMap<Integer, Set<Medium>> _eimer;
+
+    /**
+     * Der Ausleihtag jedes eingetragenen Mediums.
+     */
+    private final Map<Medium, Integer> _ausleihtage;
+
+    /**
+     * Initialisiert einen leeren Ausleihkalender.
+     */
+    public Ausleihkalender()
+    {
+        _eimer = new TreeMap<Integer, Set<Medium>>();
+        _ausleihtage = new HashMap<Medium, Integer>();
+    }
+
+    /**
+     * Trägt ein verliehenes Medium ein.
+     * 
+     * @param medium Das Medium.
+     * @param ausleihDatum Der erste Ausleihtag.
+     * 
+     * @require medium != null
+     * @require ausleihDatum != null
+     * @require !enthaelt(medium)
+     * 
+     * @ensure enthaelt(medium)
+     */
+    public synchronized void trageEin(Medium medium, Datum ausleihDatum)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+        assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
+        assert !enthaelt(medium) : "Vorbedingung verletzt: !enthaelt(medium)";
+
+        Integer tag = ausleihDatum.getEpochenTag();
+        Set<Medium> eimer = _eimer.get(tag);
+        if (eimer == null)
+        {
+            eimer = new LinkedHashSet<Medium>();
+            _eimer.put(tag, eimer);
+        }
+        eimer.add(medium);
+        _ausleihtage.put(medium, tag);
+    }
+
+    /**
+     * Entfernt ein zurückgegebenes Medium. Ist es nicht eingetragen, passiert
+     * nichts.
+     * 
+     * @param medium Das Medium.
+     * 
+     * @require medium != null
+     * 
+     * @ensure !enthaelt(medium)
+     */
+    public synchronized void entferne(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        Integer tag = _ausleihtage.remove(medium);
+        if (tag != null)
+        {
+            Set<Medium> eimer = _eimer.get(tag);
+            eimer.remove(medium);
+            if (eimer.isEmpty())
+            {
+                _eimer.remove(tag);
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob ein Medium eingetragen ist.
+     * 
+     * @param medium Ein Medium.
+     * 
+     * @require medium != null
+     */
+    public synchronized boolean enthaelt(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        return _ausleihtage.containsKey(medium);
+    }
+
+    /**
+     * Liefert die Medien, die am angegebenen Tag oder früher verliehen wurden,
+     * die ältesten zuerst.
+     * 
+     * @param datum Der letzte Ausleihtag, der berücksichtigt wird.
+     * 
+     * @require datum != null
+     * 
+     * @ensure result != null
+     */
+    public synchronized List<Medium> getMedienVerliehenBis(Datum datum)
+    {
+        assert datum != null : "Vorbedingung verletzt: datum != null";
+
+        List<Medium> result = new ArrayList<Medium>();
+        SortedMap<Integer, Set<Medium>> bisDatum = _eimer
+            .headMap(datum.getEpochenTag(), true);
+        for (Set<Medium> eimer : bisDatum.values())
+        {
+            result.addAll(eimer);
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die am längsten verliehenen Medien, die ältesten zuerst.
+     * 
+     * @param anzahl Die größte Anzahl gelieferter Medien.
+     * 
+     * @require anzahl >= 0
+     * 
+     * @ensure result != null
+     * @ensure result.size() == Math.min(anzahl, getAnzahl())
+     */
+    public synchronized List<Medium> getAeltesteMedien(int anzahl)
+    {
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        List<Medium> result = new ArrayList<Medium>(
+                Math.min(anzahl, _ausleihtage.size()));
+        Iterator<Set<Medium>> eimerIterator = _eimer.values()
+            .iterator();
+        while ((result.size() < anzahl) && eimerIterator.hasNext())
+        {
+            Iterator<Medium> medienIterator = eimerIterator.next()
+                .iterator();
+            while ((result.size() < anzahl) && medienIterator.hasNext())
+            {
+                result.add(medienIterator.next());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gibt die Anzahl der eingetragenen Medien zurück.
+     */
+    public synchronized int getAnzahl()
+    {
+        return _ausleihtage.size();
+    }
+}
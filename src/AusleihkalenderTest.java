@@ -0,0 +1,125 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testet den Ausleihkalender.
+ */
+public class AusleihkalenderTest
+{
+    private final Ausleihkalender _kalender;
+    private final Medium _abbey;
+    private final Medium _bad;
+    private final Medium _shape;
+
+    public AusleihkalenderTest()
+    {
+        _kalender = new Ausleihkalender();
+        _abbey = new CD("Abbey Road", "Meisterwerk", "Beatles", 44);
+        _bad = new DVD("Bad", "", "Michael Jackson", 48);
+        _shape = new CD("The Colour And The Shape", "", "Foo Fighters", 46);
+    }
+
+    @Test
+    public void testAeltesteZuerst()
+    {
+        _kalender.trageEin(_abbey, new Datum(10, 4, 2021));
+        _kalender.trageEin(_bad, new Datum(1, 4, 2021));
+        _kalender.trageEin(_shape, new Datum(10, 4, 2021));
+
+        assertEquals(3, _kalender.getAnzahl());
+        assertEquals(Arrays.asList(_bad, _abbey, _shape),
+                _kalender.getAeltesteMedien(5));
+        assertEquals(Arrays.asList(_bad, _abbey),
+                _kalender.getAeltesteMedien(2));
+        assertTrue(_kalender.getAeltesteMedien(0)
+            .isEmpty());
+    }
+
+    @Test
+    public void testMedienVerliehenBis()
+    {
+        _kalender.trageEin(_abbey, new Datum(10, 4, 2021));
+        _kalender.trageEin(_bad, new Datum(1, 4, 2021));
+        _kalender.trageEin(_shape, new Datum(11, 4, 2021));
+
+        assertTrue(_kalender.getMedienVerliehenBis(new Datum(31, 3, 2021))
+            .isEmpty());
+        assertEquals(Arrays.asList(_bad),
+                _kalender.getMedienVerliehenBis(new Datum(9, 4, 2021)));
+        assertEquals(Arrays.asList(_bad, _abbey),
+                _kalender.getMedienVerliehenBis(new Datum(10, 4, 2021)));
+    }
+
+    @Test
+    public void testEntfernen()
+    {
+        _kalender.trageEin(_abbey, new Datum(10, 4, 2021));
+        _kalender.trageEin(_bad, new Datum(10, 4, 2021));
+
+        _kalender.entferne(_abbey);
+        assertFalse(_kalender.enthaelt(_abbey));
+        assertEquals(Arrays.asList(_bad), _kalender.getAeltesteMedien(5));
+
+        _kalender.entferne(_bad);
+        _kalender.entferne(_shape);
+        assertEquals(0, _kalender.getAnzahl());
+        assertTrue(_kalender.getMedienVerliehenBis(new Datum(1, 1, 2030))
+            .isEmpty());
+
+        _kalender.trageEin(_abbey, new Datum(1, 5, 2021));
+        assertEquals(Arrays.asList(_abbey), _kalender.getAeltesteMedien(5));
+    }
+
+    @Test
+    public void testVergleichMitSortierung()
+    {
+        Random zufall = new Random(42);
+        Datum anfang = new Datum(1, 1, 2021);
+        List<Medium> medien = new ArrayList<Medium>();
+        List<Integer> tage = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            Medium medium = new CD("Titel" + i, "", "Interpret", 40);
+            int tag = zufall.nextInt(100);
+            _kalender.trageEin(medium, anfang.plus(tag));
+            if (zufall.nextInt(4) == 0)
+            {
+                _kalender.entferne(medium);
+            }
+            else
+            {
+                medien.add(medium);
+                tage.add(tag);
+            }
+        }
+
+        List<Medium> aelteste = _kalender.getAeltesteMedien(medien.size());
+        assertEquals(medien.size(), aelteste.size());
+        int vorherigerTag = 0;
+        for (Medium medium : aelteste)
+        {
+            int tag = tage.get(medien.indexOf(medium));
+            assertTrue(tag >= vorherigerTag);
+            vorherigerTag = tag;
+        }
+
+        int bisTag = 0;
+        for (int tag : tage)
+        {
+            if (tag <= 50)
+            {
+                bisTag++;
+            }
+        }
+        assertEquals(bisTag, _kalender.getMedienVerliehenBis(anfang.plus(50))
+            .size());
+    }
+}
@@ -29,7 +29,12 @@ class CD implements Medium
     private String _titel;
 
     /**
-     * Initialisiert ein neues Exemplar.
+     * Die Mediennummer, die dieses Exemplar identifiziert.
+     */
+    private final Mediennummer _mediennummer;
+
+    /**
+     * Initialisiert ein neues Exemplar mit einer neuen Mediennummer.
      * 
      * @param titel Der Titel der CD
      * @param kommentar Ein Kommentar zu der CD
@@ -48,6 +53,35 @@ class CD implements Medium
      */
     public CD(String titel, String kommentar, String interpret, int spiellaenge)
     {
+        this(Mediennummer.naechste(), titel, kommentar, interpret, spiellaenge);
+    }
+
+    /**
+     * Initialisiert ein Exemplar mit einer bereits vergebenen Mediennummer, z.B.
+     * beim Einlesen des Medienbestands.
+     * 
+     * @param mediennummer Die Mediennummer der CD
+     * @param titel Der Titel der CD
+     * @param kommentar Ein Kommentar zu der CD
+     * @param interpret Der Interpret der CD
+     * @param spiellaenge Die Spiellaenge der CD in Minuten
+     * 
+     * @require mediennummer != null
+     * @require titel != null
+     * @require kommentar != null
+     * @require interpret != null
+     * @require spiellaenge > 0
+     * 
+     * @ensure {@link #getMediennummer()} == mediennummer
+     * @ensure {@link #getTitel()} == titel
+     * @ensure {@link #getKommentar()} == kommentar
+     * @ensure {@link #getInterpret()} == interpret
+     * @ensure {@link #getSpiellaenge()} == spiellaenge
+     */
+    public CD(Mediennummer mediennummer, String titel, String kommentar,
+            String interpret, int spiellaenge)
+    {
+        assert mediennummer != null : "Vorbedingung verletzt: mediennummer != null";
         assert titel != null : "Vorbedingung verletzt: titel != null";
         assert kommentar != null : "Vorbedingung verletzt: kommentar != null";
         assert interpret != null : "Vorbedingung verletzt: interpret != null";
@@ -56,6 +90,7 @@ class CD implements Medium
         _kommentar = kommentar;
         _spiellaenge = spiellaenge;
         _interpret = interpret;
+        _mediennummer = mediennummer;
     }
 
     /**
@@ -108,4 +143,32 @@ class CD implements Medium
                 + _spiellaenge + "\n";
     }
 
+    @Override
+    public Mediennummer getMediennummer()
+    {
+        return _mediennummer;
+    }
+
+    /**
+     * Zwei CDs sind gleich, wenn sie dieselbe Mediennummer haben. Mehrere
+     * Exemplare desselben Titels sind also verschieden, ein eingelesenes
+     * Exemplar ist aber gleich dem, das gespeichert wurde.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        boolean result = false;
+        if (obj instanceof CD)
+        {
+            result = _mediennummer.equals(((CD) obj)._mediennummer);
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return _mediennummer.hashCode();
+    }
+
 }
@@ -44,6 +44,17 @@ public class CDTest
         assertEquals("Dasselbe Exemplare der gleichen CD sollte gleich sein", _cd1, _cd1);
     }
 
+    @Test
+    public void testGleicheMediennummerIstGleichesExemplar()
+    {
+        CD kopie = new CD(_cd1.getMediennummer(), "anderer Titel", "",
+                "andere Person", 1);
+        assertEquals(_cd1.getMediennummer(), kopie.getMediennummer());
+        assertEquals(_cd1, kopie);
+        assertEquals(_cd1.hashCode(), kopie.hashCode());
+        assertNotEquals(_cd1.getMediennummer(), _cd2.getMediennummer());
+    }
+
     private CD getMedium()
     {
         return new CD(TITEL, KOMMENTAR, INTERPRET, LAENGE);
@@ -30,7 +30,13 @@ class DVD implements Medium
     private String _titel;
 
     /**
-     * Initialisiert eine neue DVD mit den gegebenen Daten.
+     * Die Mediennummer, die dieses Exemplar identifiziert.
+     */
+    private final Mediennummer _mediennummer;
+
+    /**
+     * Initialisiert eine neue DVD mit den gegebenen Daten und einer neuen
+     * Mediennummer.
      * 
      * @param titel Der Titel der DVD.
      * @param kommentar Ein Kommentar zu der DVD.
@@ -49,6 +55,35 @@ class DVD implements Medium
      */
     public DVD(String titel, String kommentar, String regisseur, int laufzeit)
     {
+        this(Mediennummer.naechste(), titel, kommentar, regisseur, laufzeit);
+    }
+
+    /**
+     * Initialisiert eine DVD mit einer bereits vergebenen Mediennummer, z.B.
+     * beim Einlesen des Medienbestands.
+     * 
+     * @param mediennummer Die Mediennummer der DVD.
+     * @param titel Der Titel der DVD.
+     * @param kommentar Ein Kommentar zu der DVD.
+     * @param regisseur Der Regisseur des Inhalts der DVD.
+     * @param laufzeit Die Laufzeit des Hauptteils der DVD in Minuten.
+     * 
+     * @require mediennummer != null
+     * @require titel != null
+     * @require kommentar != null
+     * @require regisseur != null
+     * @require laufzeit > 0
+     * 
+     * @ensure {@link #getMediennummer()} == mediennummer
+     * @ensure {@link #getTitel()} == titel
+     * @ensure {@link #getKommentar()} == kommentar
+     * @ensure {@link #getRegisseur()} == regisseur
+     * @ensure {@link #getLaufzeit()} == laufzeit
+     */
+    public DVD(Mediennummer mediennummer, String titel, String kommentar,
+            String regisseur, int laufzeit)
+    {
+        assert mediennummer != null : "Vorbedingung verletzt: mediennummer != null";
         assert titel != null : "Vorbedingung verletzt: titel != null";
         assert kommentar != null : "Vorbedingung verletzt: kommentar != null";
         assert laufzeit > 0 : "Vorbedingung verletzt: laufzeit > 0";
@@ -57,6 +92,7 @@ class DVD implements Medium
         _kommentar = kommentar;
         _regisseur = regisseur;
         _laufzeit = laufzeit;
+        _mediennummer = mediennummer;
     }
 
     /**
@@ -109,4 +145,32 @@ class DVD implements Medium
                 + _laufzeit + "\n";
     }
 
+    @Override
+    public Mediennummer getMediennummer()
+    {
+        return _mediennummer;
+    }
+
+    /**
+     * Zwei DVDs sind gleich, wenn sie dieselbe Mediennummer haben. Mehrere
+     * Exemplare desselben Titels sind also verschieden, ein eingelesenes
+     * Exemplar ist aber gleich dem, das gespeichert wurde.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        boolean result = false;
+        if (obj instanceof DVD)
+        {
+            result = _mediennummer.equals(((DVD) obj)._mediennummer);
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return _mediennummer.hashCode();
+    }
+
 }
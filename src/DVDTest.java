@@ -44,6 +44,17 @@ public class DVDTest
         assertEquals("Dasselbe Exemplare der gleichen DVD sollte gleich sein", _dvd1, _dvd1);
     }
 
+    @Test
+    public void testGleicheMediennummerIstGleichesExemplar()
+    {
+        DVD kopie = new DVD(_dvd1.getMediennummer(), "anderer Titel", "",
+                "andere Person", 1);
+        assertEquals(_dvd1.getMediennummer(), kopie.getMediennummer());
+        assertEquals(_dvd1, kopie);
+        assertEquals(_dvd1.hashCode(), kopie.hashCode());
+        assertNotEquals(_dvd1.getMediennummer(), _dvd2.getMediennummer());
+    }
+
     private DVD getMedium()
     {
         return new DVD(TITEL, KOMMENTAR, REGISSEUR, LAENGE);
@@ -0,0 +1,216 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ein DateiSchreiber schreibt den Inhalt einer Datei vollständig neu, ohne
+ * dass die Datei dabei unvollständig zurückbleiben kann. Es wird zunächst in
+ * eine temporäre Datei im selben Verzeichnis geschrieben. Erst mit
+ * {@link #uebernimm()} ersetzt die temporäre Datei die Zieldatei in einem
+ * Schritt. Wird nicht übernommen, bleibt die Zieldatei unverändert.
+ * 
+ * Verwendung:
+ * 
+ * <pre>
+ * DateiSchreiber schreiber = new DateiSchreiber(datei);
+ * try
+ * {
+ *     schreiber.getWriter().write(...);
+ *     schreiber.uebernimm();
+ * }
+ * finally
+ * {
+ *     schreiber.verwirf();
+ * }
+ * </pre>
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class DateiSchreiber
+{
+    /**
+     * Die Größe des Schreibpuffers in Zeichen.
+     */
+    private static final int PUFFER_GROESSE = 1 << 16;
+
+    private static final String TEMP_ENDUNG = ".tmp";
+
+    /**
+     * Die Datei, die ersetzt werden soll.
+     */
+    private final Path _zielDatei;
+
+    /**
+     * Die temporäre Datei, in die geschrieben wird.
+     */
+    private final Path _tempDatei;
+
+    /**
+     * Der Kanal zur temporären Datei.
+     */
+    private final FileChannel _kanal;
+
+    /**
+     * Der gepufferte Writer auf dem Kanal.
+     */
+    private final Writer _writer;
+
+    /**
+     * Gibt an, ob die temporäre Datei noch existiert.
+     */
+    private boolean _offen;
+
+    /**
+     * Initialisiert einen neuen DateiSchreiber und legt die temporäre Datei
+     * an.
+     * 
+     * @param zielDatei Die Datei, die ersetzt werden soll.
+     * @throws IOException wenn die temporäre Datei nicht angelegt werden
+     *             konnte.
+     * 
+     * @require zielDatei != null
+     */
+    public DateiSchreiber(File zielDatei) throws IOException
+    {
+        assert zielDatei != null : "Vorbedingung verletzt: zielDatei != null";
+
+        _zielDatei = zielDatei.toPath()
+            .toAbsolutePath();
+        _tempDatei = Files.createTempFile(_zielDatei.getParent(),
+                _zielDatei.getFileName()
+                    .toString(),
+                TEMP_ENDUNG);
+        _offen = true;
+        _kanal = FileChannel.open(_tempDatei, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        _writer = new BufferedWriter(Channels.newWriter(_kanal,
+                StandardCharsets.UTF_8.newEncoder(), -1), PUFFER_GROESSE);
+    }
+
+    /**
+     * Gibt den Writer zurück, mit dem in die temporäre Datei geschrieben wird.
+     * Der Writer darf nicht geschlossen werden.
+     * 
+     * @require istOffen()
+     * 
+     * @ensure result != null
+     */
+    public Writer getWriter()
+    {
+        assert istOffen() : "Vorbedingung verletzt: istOffen()";
+
+        return _writer;
+    }
+
+    /**
+     * Schreibt alle gepufferten Daten auf den Datenträger und ersetzt die
+     * Zieldatei durch die temporäre Datei. Wenn das Dateisystem kein atomares
+     * Umbenennen unterstützt, wird die Zieldatei gewöhnlich ersetzt.
+     * 
+     * @throws IOException wenn die Daten nicht geschrieben oder die Zieldatei
+     *             nicht ersetzt werden konnte.
+     * 
+     * @require istOffen()
+     * 
+     * @ensure !istOffen()
+     */
+    public void uebernimm() throws IOException
+    {
+        assert istOffen() : "Vorbedingung verletzt: istOffen()";
+
+        _writer.flush();
+        _kanal.force(true);
+        _writer.close();
+        try
+        {
+            Files.move(_tempDatei, _zielDatei,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(_tempDatei, _zielDatei,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        _offen = false;
+    }
+
+    /**
+     * Schließt die temporäre Datei und löscht sie, falls sie noch nicht
+     * übernommen wurde. Die Zieldatei bleibt dann unverändert. Nach
+     * {@link #uebernimm()} hat ein Aufruf keine Wirkung.
+     * 
+     * @ensure !istOffen()
+     */
+    public void verwirf()
+    {
+        if (_offen)
+        {
+            _offen = false;
+            try
+            {
+                _writer.close();
+            }
+            catch (IOException e)
+            {
+                // Die Datei wird ohnehin gelöscht.
+            }
+            try
+            {
+                Files.deleteIfExists(_tempDatei);
+            }
+            catch (IOException e)
+            {
+                // Eine liegengebliebene temporäre Datei stört die Zieldatei
+                // nicht.
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob noch in die temporäre Datei geschrieben werden kann.
+     * 
+     * @return true, wenn weder übernommen noch verworfen wurde, sonst false.
+     */
+    public boolean istOffen()
+    {
+        return _offen;
+    }
+
+    /**
+     * Kodiert einen Text als Feld einer ";"-getrennten Zeile, so dass die
+     * Einleser ihn wieder lesen können. Ein leerer Text wird als einzelnes
+     * Leerzeichen geschrieben, Trennzeichen und Zeilenumbrüche im Text werden
+     * durch Leerzeichen ersetzt.
+     * 
+     * @param text Ein Text, darf null sein.
+     * @return Das kodierte Feld.
+     * 
+     * @ensure result != null
+     */
+    public static String kodiere(String text)
+    {
+        String ergebnis;
+        if ((text == null) || text.isEmpty())
+        {
+            ergebnis = " ";
+        }
+        else
+        {
+            ergebnis = text.replace(';', ' ')
+                .replace('\n', ' ')
+                .replace('\r', ' ');
+        }
+        return ergebnis;
+    }
+}
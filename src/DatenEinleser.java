@@ -1,8 +1,13 @@
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Ein DatenEinleser kann verwendet werden um Kunden, Medien und Verleihkarten
@@ -40,6 +45,17 @@ class DatenEinleser
      */
     private List<Verleihkarte> _verleihkarten;
 
+    /**
+     * Die Zeilen des Medienbestands, aus denen kein Medium erzeugt werden
+     * konnte, ist null wenn noch nicht eingelesen wurde.
+     */
+    private List<String> _unbekannteMedienzeilen;
+
+    /**
+     * Gibt an, ob Medien beim Einlesen eine neue Mediennummer bekommen haben.
+     */
+    private boolean _neueMediennummern;
+
     /**
      * Initialisiert einen neuen DatenEinleser, der aus den angebenen Dateien
      * einliest.
@@ -73,20 +89,131 @@ class DatenEinleser
     public void leseDaten() throws DateiLeseException
     {
         KundenEinleser kundenEinleser = new KundenEinleser();
-        _kunden = kundenEinleser.leseKundenEin(_kundenDatei);
+        List<Kunde> kunden = kundenEinleser.leseKundenEin(_kundenDatei);
         MedienEinleser medienEinleser = new MedienEinleser();
-        Map<Medium, Verleihkarte> medienMap = medienEinleser
-            .leseMedienEin(_kunden, _medienDatei);
-        _medien = new ArrayList<Medium>(medienMap.keySet());
-        _verleihkarten = new ArrayList<Verleihkarte>();
-        for (Entry<Medium, Verleihkarte> entry : medienMap.entrySet())
+        List<EingelesenesMedium> medien = medienEinleser
+            .leseMedienzeilenEin(_medienDatei);
+        verknuepfeDaten(kunden, medien);
+    }
+
+    /**
+     * Liest die Daten aus den, beim Konstruktoraufruf angegebenen Dateien aus.
+     * Im Unterschied zu {@link #leseDaten()} werden die Kunden in einem
+     * eigenen Thread eingelesen, während die Medien im aufrufenden Thread
+     * eingelesen werden. Erst wenn beide Dateien gelesen sind, werden die
+     * Verleihkarten mit ihren Entleihern verknüpft. Beide Dateien werden mit
+     * einem {@link MappedEinleser} gelesen, der Medienbestand zusätzlich in
+     * Abschnitten auf mehreren Kernen.
+     * 
+     * Das Ergebnis des Einlesens kann mit #getKunden(), #getMedien() und
+     * #getVerleihkarten() abgefragt werden.
+     * 
+     * @throws DateiLeseException Wenn ein Fehler beim Lesen der Dateien
+     *             auftritt.
+     * 
+     * @ensure wurdeEingelesen() == true
+     */
+    public void leseDatenParallel() throws DateiLeseException
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<List<Kunde>> kundenFuture = executor
+                .submit(new Callable<List<Kunde>>()
+                {
+                    @Override
+                    public List<Kunde> call() throws DateiLeseException
+                    {
+                        MappedEinleser kundenEinleser = new MappedEinleser();
+                        return kundenEinleser.leseKundenEin(_kundenDatei);
+                    }
+                });
+            MappedEinleser medienEinleser = new MappedEinleser();
+            List<EingelesenesMedium> medien = medienEinleser
+                .leseMedienzeilenParallelEin(_medienDatei);
+            verknuepfeDaten(warteAufKunden(kundenFuture), medien);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wartet darauf, dass die Kunden eingelesen sind, und gibt sie zurück.
+     * 
+     * @throws DateiLeseException Wenn beim Einlesen der Kunden ein Fehler
+     *             aufgetreten ist oder das Warten unterbrochen wurde.
+     */
+    private static List<Kunde> warteAufKunden(
+            Future<List<Kunde>> kundenFuture) throws DateiLeseException
+    {
+        try
+        {
+            return kundenFuture.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof DateiLeseException)
+            {
+                throw (DateiLeseException) e.getCause();
+            }
+            throw new DateiLeseException(
+                    "Der Kundenstamm konnte nicht eingelesen werden: "
+                            + e.getCause());
+        }
+        catch (InterruptedException e)
         {
-            Verleihkarte verleihkarte = entry.getValue();
-            if (verleihkarte != null)
+            Thread.currentThread()
+                .interrupt();
+            throw new DateiLeseException(
+                    "Das Einlesen des Kundenstamms wurde unterbrochen.");
+        }
+    }
+
+    /**
+     * Setzt die eingelesenen Kunden und Medien und erzeugt für alle
+     * verliehenen Medien die Verleihkarten.
+     * 
+     * @param kunden Die eingelesenen Kunden.
+     * @param medien Die eingelesenen Medien.
+     */
+    private void verknuepfeDaten(List<Kunde> kunden,
+            List<EingelesenesMedium> medien)
+    {
+        Map<Kundennummer, Kunde> kundenMap = new HashMap<Kundennummer, Kunde>();
+        for (Kunde kunde : kunden)
+        {
+            kundenMap.put(kunde.getKundennummer(), kunde);
+        }
+
+        List<Medium> eingeleseneMedien = new ArrayList<Medium>(medien.size());
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>();
+        List<String> unbekannteMedienzeilen = new ArrayList<String>();
+        boolean neueMediennummern = false;
+        for (EingelesenesMedium eintrag : medien)
+        {
+            if (eintrag.istUnbekannt())
             {
-                _verleihkarten.add(verleihkarte);
+                unbekannteMedienzeilen.add(eintrag.getZeile());
+            }
+            else
+            {
+                eingeleseneMedien.add(eintrag.getMedium());
+                neueMediennummern |= eintrag.hatNeueMediennummer();
+                if (eintrag.istVerliehen())
+                {
+                    verleihkarten.add(eintrag.erzeugeVerleihkarte(
+                            kundenMap.get(eintrag.getKundennummer())));
+                }
             }
         }
+
+        _medien = eingeleseneMedien;
+        _verleihkarten = verleihkarten;
+        _unbekannteMedienzeilen = unbekannteMedienzeilen;
+        _neueMediennummern = neueMediennummern;
+        _kunden = kunden;
     }
 
     /**
@@ -99,6 +226,21 @@ class DatenEinleser
         return _kunden != null;
     }
 
+    /**
+     * Prüft, ob Medien beim Einlesen eine neue Mediennummer bekommen haben,
+     * weil ihre Zeile aus einer älteren Datei ohne Mediennummern stammt. Diese
+     * Nummern stehen erst in der Datei, wenn der Bestand geschrieben wurde.
+     * 
+     * @return true, wenn mindestens eine Mediennummer neu vergeben wurde.
+     * 
+     * @require wurdeEingelesen()
+     */
+    public boolean hatNeueMediennummern()
+    {
+        assert wurdeEingelesen() : "Vorbedingung verletzt: wurdeEingelesen()";
+        return _neueMediennummern;
+    }
+
     /**
      * Gibt die eingelesenen Kunden zurück.
      * 
@@ -138,4 +280,19 @@ class DatenEinleser
         return _verleihkarten;
     }
 
+    /**
+     * Gibt die Zeilen des Medienbestands zurück, aus denen kein Medium erzeugt
+     * werden konnte, zum Beispiel Videospiele. Ein {@link DatenSchreiber}
+     * schreibt sie unverändert zurück, damit sie nicht verloren gehen.
+     * 
+     * @return Die Zeilen ohne Zeilenumbruch in der Reihenfolge der Datei.
+     * 
+     * @require wurdeEingelesen()
+     */
+    public List<String> getUnbekannteMedienzeilen()
+    {
+        assert wurdeEingelesen() : "Vorbedingung verletzt: wurdeEingelesen()";
+        return _unbekannteMedienzeilen;
+    }
+
 }
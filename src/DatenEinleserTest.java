@@ -0,0 +1,126 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DatenEinleserTest
+{
+    private static final File KUNDEN_DATEI = new File(
+            "./bestand/kundenstamm.txt");
+    private static final File MEDIEN_DATEI = new File(
+            "./bestand/medienbestand.txt");
+
+    @Test
+    public void testLeseDatenParallelWieSequentiell() throws Exception
+    {
+        DatenEinleser sequentiell = new DatenEinleser(MEDIEN_DATEI,
+                KUNDEN_DATEI);
+        DatenEinleser parallel = new DatenEinleser(MEDIEN_DATEI, KUNDEN_DATEI);
+        assertFalse(parallel.wurdeEingelesen());
+
+        sequentiell.leseDaten();
+        parallel.leseDatenParallel();
+
+        assertTrue(parallel.wurdeEingelesen());
+        assertFalse(parallel.getKunden()
+            .isEmpty());
+        assertEquals(sequentiell.getKunden()
+            .size(), parallel.getKunden()
+                .size());
+        assertEquals(sequentiell.getMedien()
+            .size(), parallel.getMedien()
+                .size());
+        assertEquals(sequentiell.getVerleihkarten()
+            .size(), parallel.getVerleihkarten()
+                .size());
+        for (Verleihkarte verleihkarte : parallel.getVerleihkarten())
+        {
+            assertTrue(parallel.getKunden()
+                .contains(verleihkarte.getEntleiher()));
+            assertTrue(parallel.getMedien()
+                .contains(verleihkarte.getMedium()));
+        }
+    }
+
+    @Test
+    public void testZeilenOhneMediennummerBekommenFreieNummern()
+            throws Exception
+    {
+        File verzeichnis = Files.createTempDirectory("mediathek")
+            .toFile();
+        File kundenDatei = new File(verzeichnis, "kundenstamm.txt");
+        File medienDatei = new File(verzeichnis, "medienbestand.txt");
+        // Bisher hätte die erste Zeile genau diese Nummer bekommen.
+        int vergebeneNummer = Mediennummer.naechste()
+            .getNummer() + 1;
+        try
+        {
+            Files.write(kundenDatei.toPath(),
+                    "123456;Homer;Simpson;Evergreen Terrace 742;22760;Springfield\n"
+                        .getBytes(StandardCharsets.UTF_8));
+            Files.write(medienDatei.toPath(), ("1.4.2021;123456;CD;Alt; ;Beatles;44\n"
+                    + " ; ;DVD;Neu; ;Kubrick;120;" + vergebeneNummer + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+
+            DatenEinleser einleser = new DatenEinleser(medienDatei,
+                    kundenDatei);
+            einleser.leseDaten();
+
+            assertTrue(einleser.hatNeueMediennummern());
+            List<Medium> medien = einleser.getMedien();
+            assertEquals(2, medien.size());
+            assertEquals(vergebeneNummer, medien.get(1)
+                .getMediennummer()
+                .getNummer());
+            assertTrue(medien.get(0)
+                .getMediennummer()
+                .getNummer() > vergebeneNummer);
+            assertEquals(medien.get(0), einleser.getVerleihkarten()
+                .get(0)
+                .getMedium());
+
+            DatenEinleser parallel = new DatenEinleser(medienDatei,
+                    kundenDatei);
+            parallel.leseDatenParallel();
+            assertTrue(parallel.hatNeueMediennummern());
+            assertEquals(vergebeneNummer, parallel.getMedien()
+                .get(1)
+                .getMediennummer()
+                .getNummer());
+            assertTrue(parallel.getMedien()
+                .get(0)
+                .getMediennummer()
+                .getNummer() > vergebeneNummer);
+        }
+        finally
+        {
+            kundenDatei.delete();
+            medienDatei.delete();
+            verzeichnis.delete();
+        }
+    }
+
+    @Test
+    public void testFehlendeDatei()
+    {
+        DatenEinleser einleser = new DatenEinleser(MEDIEN_DATEI,
+                new File("./bestand/gibtEsNicht.txt"));
+        try
+        {
+            einleser.leseDatenParallel();
+            fail("Kundendatei existiert nicht");
+        }
+        catch (DateiLeseException e)
+        {
+            // erwartet
+        }
+        assertFalse(einleser.wurdeEingelesen());
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ein DatenSchreiber kann verwendet werden um Kunden, Medien und
+ * Verleihkarten in die Dateien zu schreiben, aus denen ein
+ * {@link DatenEinleser} sie wieder einliest.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class DatenSchreiber
+{
+
+    /**
+     * Die Datei in der die Medien gespeichert werden.
+     */
+    private final File _medienDatei;
+
+    /**
+     * Die Datei in der die Kunden gespeichert werden.
+     */
+    private final File _kundenDatei;
+
+    /**
+     * Die Zeilen des Medienbestands, aus denen kein Medium erzeugt werden
+     * konnte. Sie werden bei jedem Schreiben unverändert übernommen.
+     */
+    private final List<String> _unbekannteMedienzeilen;
+
+    /**
+     * Initialisiert einen neuen DatenSchreiber, der in die angebenen Dateien
+     * schreibt.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert werden.
+     * @param kundenDatei Die Datei in der die Kunden gespeichert werden.
+     * 
+     * @require medienDatei != null
+     * @require kundenDatei != null
+     */
+    public DatenSchreiber(File medienDatei, File kundenDatei)
+    {
+        this(medienDatei, kundenDatei, Collections.<String> emptyList());
+    }
+
+    /**
+     * Initialisiert einen neuen DatenSchreiber, der in die angebenen Dateien
+     * schreibt und die angegebenen Zeilen des Medienbestands unverändert
+     * übernimmt.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert werden.
+     * @param kundenDatei Die Datei in der die Kunden gespeichert werden.
+     * @param unbekannteMedienzeilen Die Zeilen, aus denen beim Einlesen kein
+     *            Medium erzeugt werden konnte, siehe
+     *            {@link DatenEinleser#getUnbekannteMedienzeilen()}.
+     * 
+     * @require medienDatei != null
+     * @require kundenDatei != null
+     * @require unbekannteMedienzeilen != null
+     */
+    public DatenSchreiber(File medienDatei, File kundenDatei,
+            List<String> unbekannteMedienzeilen)
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        assert unbekannteMedienzeilen != null : "Vorbedingung verletzt: unbekannteMedienzeilen != null";
+
+        _medienDatei = medienDatei;
+        _kundenDatei = kundenDatei;
+        _unbekannteMedienzeilen = new ArrayList<String>(
+                unbekannteMedienzeilen);
+    }
+
+    /**
+     * Schreibt die Daten in die beim Konstruktoraufruf angegebenen Dateien.
+     * Jede der beiden Dateien wird entweder vollständig ersetzt oder bleibt
+     * unverändert.
+     * 
+     * @param kunden Die Kunden.
+     * @param medien Die Medien.
+     * @param verleihkarten Die Verleihkarten der verliehenen Medien.
+     * @throws DateiSchreibException Wenn ein Fehler beim Schreiben der
+     *             Dateien auftritt.
+     * 
+     * @require kunden != null
+     * @require medien != null
+     * @require verleihkarten != null
+     */
+    public void schreibeDaten(List<Kunde> kunden, List<Medium> medien,
+            List<Verleihkarte> verleihkarten) throws DateiSchreibException
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+
+        new KundenSchreiber().schreibeKundenAus(kunden, _kundenDatei);
+        new MedienSchreiber().schreibeMedienAus(medien, verleihkarten,
+                _unbekannteMedienzeilen, _medienDatei);
+    }
+
+    /**
+     * Schreibt den aktuellen Stand der Services in die beim Konstruktoraufruf
+     * angegebenen Dateien.
+     * 
+     * @param kundenstamm Der KundenstammService.
+     * @param medienbestand Der MedienbestandService.
+     * @param verleihService Der VerleihService.
+     * @throws DateiSchreibException Wenn ein Fehler beim Schreiben der
+     *             Dateien auftritt.
+     * 
+     * @require kundenstamm != null
+     * @require medienbestand != null
+     * @require verleihService != null
+     */
+    public void schreibeDaten(KundenstammService kundenstamm,
+            MedienbestandService medienbestand, VerleihService verleihService)
+            throws DateiSchreibException
+    {
+        assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
+        assert medienbestand != null : "Vorbedingung verletzt: medienbestand != null";
+        assert verleihService != null : "Vorbedingung verletzt: verleihService != null";
+
+        schreibeDaten(kundenstamm.getKunden(), medienbestand.getMedien(),
+                verleihService.getVerleihkarten());
+    }
+}
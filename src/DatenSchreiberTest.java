@@ -0,0 +1,266 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DatenSchreiberTest
+{
+    private static final File KUNDEN_DATEI = new File(
+            "./bestand/kundenstamm.txt");
+    private static final File MEDIEN_DATEI = new File(
+            "./bestand/medienbestand.txt");
+
+    private File _verzeichnis;
+    private File _kundenDatei;
+    private File _medienDatei;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _verzeichnis = Files.createTempDirectory("mediathek")
+            .toFile();
+        _kundenDatei = new File(_verzeichnis, "kundenstamm.txt");
+        _medienDatei = new File(_verzeichnis, "medienbestand.txt");
+    }
+
+    @After
+    public void tearDown()
+    {
+        for (File datei : _verzeichnis.listFiles())
+        {
+            datei.delete();
+        }
+        _verzeichnis.delete();
+    }
+
+    @Test
+    public void testGeschriebeneDatenWerdenWiederEingelesen() throws Exception
+    {
+        DatenEinleser original = new DatenEinleser(MEDIEN_DATEI, KUNDEN_DATEI);
+        original.leseDaten();
+
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>(
+                original.getVerleihkarten());
+        Kunde entleiher = original.getKunden()
+            .get(0);
+        Medium medium = original.getMedien()
+            .get(1);
+        verleihkarten.add(
+                new Verleihkarte(entleiher, medium, new Datum(29, 2, 2020)));
+
+        new DatenSchreiber(_medienDatei, _kundenDatei).schreibeDaten(
+                original.getKunden(), original.getMedien(), verleihkarten);
+
+        DatenEinleser gelesen = new DatenEinleser(_medienDatei, _kundenDatei);
+        gelesen.leseDaten();
+
+        assertEquals(original.getKunden()
+            .size(), gelesen.getKunden()
+                .size());
+        for (int i = 0; i < gelesen.getKunden()
+            .size(); i++)
+        {
+            Kunde erwartet = original.getKunden()
+                .get(i);
+            Kunde kunde = gelesen.getKunden()
+                .get(i);
+            assertEquals(erwartet.getKundennummer(), kunde.getKundennummer());
+            assertEquals(erwartet.getVorname(), kunde.getVorname());
+            assertEquals(erwartet.getNachname(), kunde.getNachname());
+            assertEquals(erwartet.getStrasse(), kunde.getStrasse());
+            assertEquals(erwartet.getPLZ(), kunde.getPLZ());
+            assertEquals(erwartet.getWohnort(), kunde.getWohnort());
+        }
+
+        assertEquals(original.getMedien()
+            .size(), gelesen.getMedien()
+                .size());
+        assertEquals(new HashSet<Medium>(original.getMedien()),
+                new HashSet<Medium>(gelesen.getMedien()));
+        assertEquals(verleihkarten.size(), gelesen.getVerleihkarten()
+            .size());
+        boolean gefunden = false;
+        for (Verleihkarte verleihkarte : gelesen.getVerleihkarten())
+        {
+            if (verleihkarte.getMedium()
+                .getTitel()
+                .equals(medium.getTitel()))
+            {
+                gefunden = true;
+                assertEquals(new Datum(29, 2, 2020),
+                        verleihkarte.getAusleihdatum());
+                assertEquals(entleiher.getKundennummer(),
+                        verleihkarte.getEntleiher()
+                            .getKundennummer());
+            }
+        }
+        assertTrue(gefunden);
+        assertEquals(2, _verzeichnis.listFiles().length);
+    }
+
+    @Test
+    public void testVideospieleUeberlebenSpeichernUndLaden() throws Exception
+    {
+        String videospiel = "2.4.2021;123456;Videospiel;Gehirn Jogging; ;Nintendo DS";
+        Files.write(_kundenDatei.toPath(),
+                "123456;Homer;Simpson;Evergreen Terrace 742;22760;Springfield\n"
+                    .getBytes(StandardCharsets.UTF_8));
+        Files.write(_medienDatei.toPath(), (" ; ;CD;Abbey Road; ;Beatles;44;7\n"
+                + videospiel + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+
+        DatenEinleser original = new DatenEinleser(_medienDatei, _kundenDatei);
+        original.leseDatenParallel();
+        assertEquals(1, original.getMedien()
+            .size());
+        assertEquals(Arrays.asList(videospiel),
+                original.getUnbekannteMedienzeilen());
+
+        new DatenSchreiber(_medienDatei, _kundenDatei,
+                original.getUnbekannteMedienzeilen()).schreibeDaten(
+                        original.getKunden(), original.getMedien(),
+                        original.getVerleihkarten());
+
+        DatenEinleser gelesen = new DatenEinleser(_medienDatei, _kundenDatei);
+        gelesen.leseDaten();
+        assertEquals(original.getMedien(), gelesen.getMedien());
+        assertEquals(Arrays.asList(videospiel),
+                gelesen.getUnbekannteMedienzeilen());
+        assertTrue(Files.readAllLines(_medienDatei.toPath(),
+                StandardCharsets.UTF_8)
+            .contains(videospiel));
+    }
+
+    @Test
+    public void testBestandBehaeltAlleZeilen() throws Exception
+    {
+        DatenEinleser original = new DatenEinleser(MEDIEN_DATEI, KUNDEN_DATEI);
+        original.leseDaten();
+        assertFalse(original.getUnbekannteMedienzeilen()
+            .isEmpty());
+
+        new DatenSchreiber(_medienDatei, _kundenDatei,
+                original.getUnbekannteMedienzeilen()).schreibeDaten(
+                        original.getKunden(), original.getMedien(),
+                        original.getVerleihkarten());
+
+        assertEquals(Files.readAllLines(MEDIEN_DATEI.toPath(),
+                StandardCharsets.UTF_8)
+            .size(), Files.readAllLines(_medienDatei.toPath(),
+                    StandardCharsets.UTF_8)
+                .size());
+    }
+
+    @Test
+    public void testTrennzeichenImText() throws Exception
+    {
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(new CD("Titel;mit Trenner", "", "Interpret", 42));
+
+        new MedienSchreiber().schreibeMedienAus(medien,
+                new ArrayList<Verleihkarte>(), _medienDatei);
+
+        List<EingelesenesMedium> gelesen = new MedienEinleser()
+            .leseMedienzeilenEin(_medienDatei);
+        assertEquals(1, gelesen.size());
+        assertEquals("Titel mit Trenner", gelesen.get(0)
+            .getMedium()
+            .getTitel());
+        assertEquals("", gelesen.get(0)
+            .getMedium()
+            .getKommentar());
+        assertFalse(gelesen.get(0)
+            .istVerliehen());
+    }
+
+    @Test
+    public void testBeideEinleserLesenGeschriebeneKundenGleich()
+        throws Exception
+    {
+        Kunde kunde = new Kunde(new Kundennummer(123456), "Sören", "Özdemir");
+        kunde.setStrasse("");
+        kunde.setPLZ(new PLZ("22761"));
+        kunde.setWohnort("Lübeck");
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        kunden.add(kunde);
+        new KundenSchreiber().schreibeKundenAus(kunden, _kundenDatei);
+
+        List<Kunde> klassisch = new KundenEinleser().leseKundenEin(_kundenDatei);
+        List<Kunde> mapped = new MappedEinleser().leseKundenEin(_kundenDatei);
+        assertEquals(1, klassisch.size());
+        assertEquals(1, mapped.size());
+        for (Kunde gelesen : new Kunde[] {klassisch.get(0), mapped.get(0)})
+        {
+            assertEquals("Sören", gelesen.getVorname());
+            assertEquals("Özdemir", gelesen.getNachname());
+            assertEquals("", gelesen.getStrasse());
+            assertEquals("Lübeck", gelesen.getWohnort());
+        }
+    }
+
+    @Test
+    public void testKundeOhnePLZUeberlebtSpeichernUndLaden() throws Exception
+    {
+        Kunde ohnePLZ = new Kunde(new Kundennummer(123457), "Homer",
+                "Simpson");
+        Medium medium = new CD("Abbey Road", "", "Beatles", 44);
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        kunden.add(ohnePLZ);
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(medium);
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>();
+        verleihkarten.add(
+                new Verleihkarte(ohnePLZ, medium, new Datum(1, 4, 2021)));
+
+        new DatenSchreiber(_medienDatei, _kundenDatei).schreibeDaten(kunden,
+                medien, verleihkarten);
+
+        assertNull(new MappedEinleser().leseKundenEin(_kundenDatei)
+            .get(0)
+            .getPLZ());
+        DatenEinleser gelesen = new DatenEinleser(_medienDatei, _kundenDatei);
+        gelesen.leseDaten();
+        assertEquals(1, gelesen.getKunden()
+            .size());
+        Kunde kunde = gelesen.getKunden()
+            .get(0);
+        assertEquals(ohnePLZ.getKundennummer(), kunde.getKundennummer());
+        assertNull(kunde.getPLZ());
+        assertEquals(1, gelesen.getVerleihkarten()
+            .size());
+        assertEquals(kunde, gelesen.getVerleihkarten()
+            .get(0)
+            .getEntleiher());
+    }
+
+    @Test
+    public void testFehlgeschlagenesSchreibenLaesstDateiUnveraendert()
+        throws Exception
+    {
+        File fehlendesVerzeichnis = new File(_verzeichnis, "gibtEsNicht");
+        try
+        {
+            new KundenSchreiber().schreibeKundenAus(new ArrayList<Kunde>(),
+                    new File(fehlendesVerzeichnis, "kundenstamm.txt"));
+            fail("Verzeichnis existiert nicht");
+        }
+        catch (DateiSchreibException e)
+        {
+            // erwartet
+        }
+        assertEquals(0, _verzeichnis.listFiles().length);
+    }
+}
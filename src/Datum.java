@@ -1,9 +1,11 @@
-import java.util.Calendar;
-import java.util.TimeZone;
-
 /**
  * Ein Kalenderdatum, bestehend aus Tag, Monat und Jahr.
  * 
+ * Intern wird ein Datum als Anzahl der Tage seit dem 1.1.1970 gespeichert
+ * (proleptischer gregorianischer Kalender). Alle Berechnungen sind reine
+ * Ganzzahlarithmetik, so dass Datum-Objekte ohne Synchronisation von mehreren
+ * Threads verwendet werden können.
+ * 
  * Das Klassenobjekt stellt zwei Hilfsmethoden zur Verfügung, um das heutige
  * Datum zu ermitteln und zu überprüfen, ob drei Ganzzahlen ein gültiges Datum
  * bilden.
@@ -13,28 +15,17 @@ import java.util.TimeZone;
  */
 public final class Datum implements Comparable<Datum>
 {
-    // Dieses Calendar-Exemplar wird für die Gültigkeitsprüfung verwendet.
-    private static final Calendar CALENDAR = Calendar.getInstance();
-
-    // Die Anzahl von Millesekunden an einem Tag
-    private static final long MILLISECONDS_IN_ONE_DAY = 1000 * 60 * 60 * 24;
+    // Die Anzahl der Tage in einem 400-Jahres-Zyklus
+    private static final int TAGE_PRO_ZYKLUS = 146097;
 
-    // Dieses Feld ist das Jahr
-    private final int _jahr;
+    // Die Anzahl der Tage vom 1.3.0000 bis zum 1.1.1970
+    private static final int TAGE_BIS_EPOCHE = 719468;
 
-    // Dieses Feld ist der Monat im Jahr (1..12)
-    private final int _monat;
+    // Die Uhr, die das heutige Datum liefert
+    private static volatile Uhr _uhr = new SystemUhr();
 
-    // Dieses Feld ist der Tag im Monat (1..31)
-    private final int _tag;
-
-    // "Static initializer", initialisiert Klassenvariablen nach der Erzeugung
-    // des Klassenobjekts.
-    static
-    {
-        CALENDAR.setLenient(false);
-        CALENDAR.setTimeZone(TimeZone.getTimeZone("GMT"));
-    }
+    // Dieses Feld ist die Anzahl der Tage seit dem 1.1.1970
+    private final int _epochenTag;
 
     /**
      * Wählt ein Datum aus (tag, monat, jahr).
@@ -53,28 +44,59 @@ public final class Datum implements Comparable<Datum>
     {
         assert istGueltig(tag, monat, jahr) : "Vorbedingung verletzt: istGueltig(tag, monat, jahr)";
 
-        _tag = tag;
-        _monat = monat;
-        _jahr = jahr;
+        _epochenTag = berechneEpochenTag(tag, monat, jahr);
+    }
+
+    /**
+     * Wählt das Datum aus, das die angegebene Anzahl Tage nach dem 1.1.1970
+     * liegt.
+     * 
+     * @param epochenTag Die Anzahl der Tage seit dem 1.1.1970.
+     */
+    private Datum(int epochenTag)
+    {
+        _epochenTag = epochenTag;
+    }
+
+    /**
+     * Liefert das Datum, das die angegebene Anzahl Tage nach dem 1.1.1970
+     * liegt. Zusammen mit {@link #getEpochenTag()} kann ein Datum so kompakt
+     * als int gespeichert werden.
+     * 
+     * @param epochenTag Die Anzahl der Tage seit dem 1.1.1970.
+     * 
+     * @ensure result != null
+     * @ensure result.getEpochenTag() == epochenTag
+     */
+    public static Datum ausEpochenTag(int epochenTag)
+    {
+        return new Datum(epochenTag);
     }
 
     /**
-     * Liefert das heutige Datum zurück.
+     * Liefert das heutige Datum zurück. Es wird von der mit
+     * {@link #setzeUhr(Uhr)} gesetzten Uhr ermittelt, standardmäßig von einer
+     * {@link SystemUhr}.
      * 
      * @ensure result != null
      */
     public static Datum heute()
     {
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.setTimeInMillis(System.currentTimeMillis());
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return _uhr.heute();
+    }
+
+    /**
+     * Setzt die Uhr, die {@link #heute()} verwendet. Tests können so mit einer
+     * {@link FesteUhr} ein bestimmtes Datum als heutiges Datum festlegen.
+     * 
+     * @param uhr Die zu verwendende Uhr.
+     * 
+     * @require uhr != null
+     */
+    static void setzeUhr(Uhr uhr)
+    {
+        assert uhr != null : "Vorbedingung verletzt: uhr != null";
+        _uhr = uhr;
     }
 
     /**
@@ -88,18 +110,53 @@ public final class Datum implements Comparable<Datum>
      */
     public static boolean istGueltig(int tag, int monat, int jahr)
     {
-        boolean gueltig = ((monat >= 1) && (monat <= 12));
-        if (gueltig)
+        return (monat >= 1) && (monat <= 12) && (tag >= 1)
+                && (tag <= tageImMonat(monat, jahr));
+    }
+
+    /**
+     * Gibt die Anzahl der Tage im angegebenen Monat zurück.
+     * 
+     * @param monat Der Monat im Jahr (1..12).
+     * @param jahr Das Jahr.
+     */
+    private static int tageImMonat(int monat, int jahr)
+    {
+        int tage = 31;
+        if (monat == 2)
+        {
+            tage = istSchaltjahr(jahr) ? 29 : 28;
+        }
+        else if ((monat == 4) || (monat == 6) || (monat == 9) || (monat == 11))
         {
-            synchronized (CALENDAR)
-            {
-                CALENDAR.clear();
-                CALENDAR.set(Calendar.YEAR, jahr);
-                CALENDAR.set(Calendar.MONTH, monat - 1);
-                gueltig = ((tag >= 1) && (tag <= CALENDAR.getActualMaximum(Calendar.DAY_OF_MONTH)));
-            }
+            tage = 30;
         }
-        return gueltig;
+        return tage;
+    }
+
+    /**
+     * Prüft, ob das angegebene Jahr ein Schaltjahr ist.
+     */
+    private static boolean istSchaltjahr(int jahr)
+    {
+        return ((jahr % 4) == 0) && (((jahr % 100) != 0) || ((jahr % 400) == 0));
+    }
+
+    /**
+     * Berechnet die Anzahl der Tage vom 1.1.1970 bis zum angegebenen Datum.
+     * Das Jahr wird dafür so verschoben, dass es am 1. März beginnt und der
+     * Schalttag am Ende des Jahres liegt.
+     */
+    private static int berechneEpochenTag(int tag, int monat, int jahr)
+    {
+        int verschobenesJahr = (monat <= 2) ? jahr - 1 : jahr;
+        int zyklus = Math.floorDiv(verschobenesJahr, 400);
+        int jahrImZyklus = verschobenesJahr - zyklus * 400;
+        int tagImJahr = (153 * (monat > 2 ? monat - 3 : monat + 9) + 2) / 5
+                + tag - 1;
+        int tagImZyklus = jahrImZyklus * 365 + jahrImZyklus / 4
+                - jahrImZyklus / 100 + tagImJahr;
+        return zyklus * TAGE_PRO_ZYKLUS + tagImZyklus - TAGE_BIS_EPOCHE;
     }
 
     /**
@@ -112,7 +169,7 @@ public final class Datum implements Comparable<Datum>
     @Override
     public int compareTo(Datum datum)
     {
-        return tageSeit(datum);
+        return Integer.compare(_epochenTag, datum._epochenTag);
     }
 
     /**
@@ -129,8 +186,7 @@ public final class Datum implements Comparable<Datum>
         if (o instanceof Datum)
         {
             Datum vergleichsdatum = (Datum) o;
-            result = ((getTag() == vergleichsdatum.getTag())
-                    && (getMonat() == vergleichsdatum.getMonat()) && (getJahr() == vergleichsdatum.getJahr()));
+            result = (_epochenTag == vergleichsdatum._epochenTag);
         }
         return result;
     }
@@ -138,8 +194,16 @@ public final class Datum implements Comparable<Datum>
     @Override
     public int hashCode()
     {
-        // Hash-Code ist ca. die Anzahl der Tage seit dem Jahr 0
-        return getJahr() * 365 + getMonat() * 31 + getTag();
+        // Hash-Code ist die Anzahl der Tage seit dem 1.1.1970
+        return _epochenTag;
+    }
+
+    /**
+     * Gibt die Anzahl der Tage seit dem 1.1.1970 zurück.
+     */
+    public int getEpochenTag()
+    {
+        return _epochenTag;
     }
 
     /**
@@ -147,7 +211,9 @@ public final class Datum implements Comparable<Datum>
      */
     public int getJahr()
     {
-        return _jahr;
+        int monat = getMonat();
+        int verschobenesJahr = jahrImZyklus() + zyklus() * 400;
+        return (monat <= 2) ? verschobenesJahr + 1 : verschobenesJahr;
     }
 
     /**
@@ -155,7 +221,8 @@ public final class Datum implements Comparable<Datum>
      */
     public int getMonat()
     {
-        return _monat;
+        int monatAbMaerz = (5 * tagImJahr() + 2) / 153;
+        return (monatAbMaerz < 10) ? monatAbMaerz + 3 : monatAbMaerz - 9;
     }
 
     /**
@@ -163,7 +230,48 @@ public final class Datum implements Comparable<Datum>
      */
     public int getTag()
     {
-        return _tag;
+        int tagImJahr = tagImJahr();
+        int monatAbMaerz = (5 * tagImJahr + 2) / 153;
+        return tagImJahr - (153 * monatAbMaerz + 2) / 5 + 1;
+    }
+
+    /**
+     * Gibt den 400-Jahres-Zyklus zurück, in dem dieses Datum liegt. Die Zyklen
+     * beginnen jeweils am 1. März.
+     */
+    private int zyklus()
+    {
+        return Math.floorDiv(_epochenTag + TAGE_BIS_EPOCHE, TAGE_PRO_ZYKLUS);
+    }
+
+    /**
+     * Gibt den Tag innerhalb des 400-Jahres-Zyklus zurück (0..146096).
+     */
+    private int tagImZyklus()
+    {
+        return Math.floorMod(_epochenTag + TAGE_BIS_EPOCHE, TAGE_PRO_ZYKLUS);
+    }
+
+    /**
+     * Gibt das Jahr innerhalb des 400-Jahres-Zyklus zurück (0..399). Die Jahre
+     * beginnen jeweils am 1. März.
+     */
+    private int jahrImZyklus()
+    {
+        int tagImZyklus = tagImZyklus();
+        return (tagImZyklus - tagImZyklus / 1460 + tagImZyklus / 36524
+                - tagImZyklus / 146096) / 365;
+    }
+
+    /**
+     * Gibt den Tag innerhalb des am 1. März beginnenden Jahres zurück
+     * (0..365).
+     */
+    private int tagImJahr()
+    {
+        int jahrImZyklus = jahrImZyklus();
+        return tagImZyklus() - (365 * jahrImZyklus + jahrImZyklus / 4
+                - jahrImZyklus / 100);
     }
 
     /**
@@ -179,17 +287,7 @@ public final class Datum implements Comparable<Datum>
     public Datum minus(int tage)
     {
         assert tage >= 0 : "Vorbedingung verletzt: tage >= 0";
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            CALENDAR.add(Calendar.DAY_OF_MONTH, -tage);
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return new Datum(_epochenTag - tage);
     }
 
     /**
@@ -205,17 +303,7 @@ public final class Datum implements Comparable<Datum>
     public Datum plus(int tage)
     {
         assert tage >= 0 : "Vorbedingung verletzt: tage >= 0";
-        Datum datum = null;
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            CALENDAR.add(Calendar.DAY_OF_MONTH, tage);
-            datum = new Datum(CALENDAR.get(Calendar.DAY_OF_MONTH),
-                    CALENDAR.get(Calendar.MONTH) + 1,
-                    CALENDAR.get(Calendar.YEAR));
-        }
-        return datum;
+        return new Datum(_epochenTag + tage);
     }
 
     /**
@@ -250,24 +338,7 @@ public final class Datum implements Comparable<Datum>
     {
         assert startDatum != null : "Vorbedingung verletzt: startDatum != null";
 
-        long startMillis = startDatum.inMillisekunden();
-        long endMillis = this.inMillisekunden();
-
-        return (int) ((endMillis - startMillis) / MILLISECONDS_IN_ONE_DAY);
-    }
-
-    /**
-     * Gibt dieses Datum in Millisekunden zurück.
-     */
-    private long inMillisekunden()
-    {
-        synchronized (CALENDAR)
-        {
-            CALENDAR.clear();
-            CALENDAR.set(_jahr, _monat - 1, _tag);
-            long endMillis = CALENDAR.getTimeInMillis();
-            return endMillis;
-        }
+        return _epochenTag - startDatum._epochenTag;
     }
 
     /**
@@ -278,7 +349,7 @@ public final class Datum implements Comparable<Datum>
     @Override
     public String toString()
     {
-        return String.valueOf(_tag) + "." + String.valueOf(_monat) + "."
-                + String.valueOf(_jahr);
+        return String.valueOf(getTag()) + "." + String.valueOf(getMonat())
+                + "." + String.valueOf(getJahr());
     }
 }
@@ -109,4 +109,54 @@ public class DatumTest
     {
         assertNotNull(Datum.heute());
     }
+
+    @Test
+    public void testHeuteMitFesterUhr()
+    {
+        Datum datum = new Datum(24, 12, 2020);
+        Datum.setzeUhr(new FesteUhr(datum));
+        try
+        {
+            assertEquals(datum, Datum.heute());
+        }
+        finally
+        {
+            Datum.setzeUhr(new SystemUhr());
+        }
+    }
+
+    @Test
+    public void testSystemUhrLiefertDenselbenTag()
+    {
+        SystemUhr uhr = new SystemUhr();
+        assertSame(uhr.heute(), uhr.heute());
+    }
+
+    @Test
+    public void testSchaltjahre()
+    {
+        assertTrue(Datum.istGueltig(29, 2, 2008));
+        assertTrue(Datum.istGueltig(29, 2, 2000));
+        assertFalse(Datum.istGueltig(29, 2, 2007));
+        assertFalse(Datum.istGueltig(29, 2, 1900));
+        assertFalse(Datum.istGueltig(31, 4, 2007));
+
+        Datum datum1 = new Datum(28, 2, 2008);
+        Datum datum2 = new Datum(1, 3, 2008);
+        assertEquals(new Datum(29, 2, 2008), datum1.naechsterTag());
+        assertEquals(2, datum2.tageSeit(datum1));
+        assertEquals(366, new Datum(1, 1, 2009).tageSeit(new Datum(1, 1, 2008)));
+    }
+
+    @Test
+    public void testeTageSeitUeberJahrzehnte()
+    {
+        Datum datum1 = new Datum(1, 1, 1970);
+        Datum datum2 = new Datum(1, 1, 2000);
+        assertEquals(10957, datum2.tageSeit(datum1));
+        assertEquals(-10957, datum1.tageSeit(datum2));
+        assertEquals(datum2, datum1.plus(10957));
+        assertEquals(datum1, datum2.minus(10957));
+        assertTrue(new Datum(31, 12, 1969).compareTo(datum1) < 0);
+    }
 }
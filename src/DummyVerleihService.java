@@ -63,6 +63,20 @@ class DummyVerleihService extends AbstractObservableService
         return ergebnisListe;
     }
 
+    @Override
+    public List<Verleihkarte> getVerleihkartenAelterAls(int tage)
+    {
+        return getVerleihkarten();
+    }
+
+    @Override
+    public List<Verleihkarte> getAeltesteVerleihkarten(int anzahl)
+    {
+        List<Verleihkarte> ergebnisListe = getVerleihkarten();
+        return ergebnisListe.subList(0,
+                Math.min(anzahl, ergebnisListe.size()));
+    }
+
     /**
      * In Wirklichkeit wird das natürlich nicht random sein
      */
@@ -103,6 +117,15 @@ class DummyVerleihService extends AbstractObservableService
     public void verleiheAn(Kunde kunde, List<Medium> medien, Datum ausleihDatum)
     {
     }
+    /**
+     *Methodenrumpf fehlt, verleiht nie etwas
+     */
+    @Override
+    public boolean versucheZuVerleihen(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum)
+    {
+        return false;
+    }
     /**
      * liest kundenstamm.txt nicht aus sondern die Konstante
      */
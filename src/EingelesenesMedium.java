@@ -0,0 +1,289 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ein EingelesenesMedium ist das Ergebnis einer eingelesenen Zeile des
+ * Medienbestands, bevor die Entleiher aufgelöst sind. Es hält das Medium und,
+ * falls das Medium verliehen ist, Ausleihdatum und Kundennummer des
+ * Entleihers.
+ * 
+ * So können Medien unabhängig vom Kundenstamm eingelesen und erst danach mit
+ * den Kunden zu Verleihkarten verknüpft werden.
+ * 
+ * Zeilen aus älteren Dateien haben keine Mediennummer. Ihr Medium wird erst
+ * mit {@link #vergibFehlendeMediennummern(List)} erzeugt, wenn alle Zeilen
+ * gelesen sind. So bekommen diese Medien Nummern, die größer sind als alle
+ * Nummern in der Datei, und in der Reihenfolge der Zeilen.
+ * 
+ * Zeilen, aus denen kein Medium erzeugt werden kann (zum Beispiel
+ * Videospiele), werden unverändert als Text gehalten, damit sie beim
+ * Schreiben des Bestands nicht verloren gehen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class EingelesenesMedium
+{
+    /**
+     * Erzeugt das Medium einer Zeile ohne Mediennummer, sobald die Nummer
+     * feststeht.
+     */
+    interface Medienerzeuger
+    {
+        /**
+         * Erzeugt das Medium mit der angegebenen Mediennummer.
+         * 
+         * @require mediennummer != null
+         * 
+         * @ensure result != null
+         */
+        Medium erzeuge(Mediennummer mediennummer);
+    }
+
+    private Medium _medium;
+    private final Medienerzeuger _erzeuger;
+    private final Datum _ausleihdatum;
+    private final Kundennummer _kundennummer;
+    private final String _zeile;
+
+    /**
+     * Initialisiert ein neues EingelesenesMedium.
+     * 
+     * @param medium Das eingelesene Medium.
+     * @param ausleihdatum Das Ausleihdatum, kann null sein.
+     * @param kundennummer Die Kundennummer des Entleihers, null wenn das
+     *            Medium nicht verliehen ist.
+     * 
+     * @require medium != null
+     */
+    public EingelesenesMedium(Medium medium, Datum ausleihdatum,
+            Kundennummer kundennummer)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        _medium = medium;
+        _erzeuger = null;
+        _ausleihdatum = ausleihdatum;
+        _kundennummer = kundennummer;
+        _zeile = null;
+    }
+
+    /**
+     * Initialisiert ein neues EingelesenesMedium für eine Zeile ohne
+     * Mediennummer. Das Medium wird erst mit
+     * {@link #vergibFehlendeMediennummern(List)} erzeugt.
+     * 
+     * @param erzeuger Erzeugt das Medium, wenn die Mediennummer feststeht.
+     * @param ausleihdatum Das Ausleihdatum, kann null sein.
+     * @param kundennummer Die Kundennummer des Entleihers, null wenn das
+     *            Medium nicht verliehen ist.
+     * 
+     * @require erzeuger != null
+     * 
+     * @ensure !hatMediennummer()
+     */
+    public EingelesenesMedium(Medienerzeuger erzeuger, Datum ausleihdatum,
+            Kundennummer kundennummer)
+    {
+        assert erzeuger != null : "Vorbedingung verletzt: erzeuger != null";
+
+        _erzeuger = erzeuger;
+        _ausleihdatum = ausleihdatum;
+        _kundennummer = kundennummer;
+        _zeile = null;
+    }
+
+    /**
+     * Initialisiert ein neues EingelesenesMedium für eine Zeile, aus der kein
+     * Medium erzeugt werden kann. Die Zeile wird unverändert gehalten.
+     * 
+     * @param zeile Die Zeile ohne Zeilenumbruch.
+     * 
+     * @require zeile != null
+     * 
+     * @ensure istUnbekannt()
+     */
+    public EingelesenesMedium(String zeile)
+    {
+        assert zeile != null : "Vorbedingung verletzt: zeile != null";
+
+        _erzeuger = null;
+        _ausleihdatum = null;
+        _kundennummer = null;
+        _zeile = zeile;
+    }
+
+    /**
+     * Vergibt den Zeilen ohne Mediennummer in ihrer Reihenfolge neue
+     * Mediennummern und erzeugt ihre Medien. Da zu diesem Zeitpunkt alle
+     * Zeilen mit Mediennummer gelesen sind, kann keine neue Nummer mit einer
+     * Nummer aus der Datei zusammenfallen.
+     * 
+     * @param zeilen Alle eingelesenen Zeilen einer Datei.
+     * @return true, wenn mindestens eine Mediennummer vergeben wurde.
+     * 
+     * @require zeilen != null
+     * 
+     * @ensure Alle Zeilen außer den unbekannten haben eine Mediennummer.
+     */
+    public static boolean vergibFehlendeMediennummern(
+            List<EingelesenesMedium> zeilen)
+    {
+        assert zeilen != null : "Vorbedingung verletzt: zeilen != null";
+
+        boolean vergeben = false;
+        for (EingelesenesMedium zeile : zeilen)
+        {
+            if (!zeile.istUnbekannt() && !zeile.hatMediennummer())
+            {
+                zeile._medium = zeile._erzeuger
+                    .erzeuge(Mediennummer.naechste());
+                vergeben = true;
+            }
+        }
+        return vergeben;
+    }
+
+    /**
+     * Prüft, dass keine Mediennummer mehrfach vorkommt. Da Medien über ihre
+     * Mediennummer gefunden werden, würde ein späteres Medium sonst ein
+     * früheres im Bestand verdecken.
+     * 
+     * @param zeilen Alle eingelesenen Zeilen einer Datei, nachdem die
+     *            fehlenden Mediennummern vergeben wurden.
+     * @throws DateiLeseException wenn eine Mediennummer mehrfach vorkommt.
+     * 
+     * @require zeilen != null
+     */
+    public static void pruefeMediennummern(List<EingelesenesMedium> zeilen)
+            throws DateiLeseException
+    {
+        assert zeilen != null : "Vorbedingung verletzt: zeilen != null";
+
+        int[] nummern = new int[zeilen.size()];
+        int anzahl = 0;
+        for (EingelesenesMedium zeile : zeilen)
+        {
+            if (!zeile.istUnbekannt())
+            {
+                nummern[anzahl] = zeile.getMedium()
+                    .getMediennummer()
+                    .getNummer();
+                anzahl++;
+            }
+        }
+        Arrays.sort(nummern, 0, anzahl);
+        for (int i = 1; i < anzahl; i++)
+        {
+            if (nummern[i] == nummern[i - 1])
+            {
+                throw new DateiLeseException(
+                        "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Mediennummer "
+                                + nummern[i] + " mehrfach vorkommt.");
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob aus der Zeile kein Medium erzeugt werden konnte.
+     * 
+     * @return true, wenn nur die unveränderte Zeile gehalten wird.
+     */
+    public boolean istUnbekannt()
+    {
+        return _zeile != null;
+    }
+
+    /**
+     * Gibt die unveränderte Zeile zurück, aus der kein Medium erzeugt werden
+     * konnte.
+     * 
+     * @require istUnbekannt()
+     * 
+     * @ensure result != null
+     */
+    public String getZeile()
+    {
+        assert istUnbekannt() : "Vorbedingung verletzt: istUnbekannt()";
+        return _zeile;
+    }
+
+    /**
+     * Prüft, ob das Medium schon eine Mediennummer hat und erzeugt ist.
+     * 
+     * @return false für eine unbekannte Zeile und für eine Zeile ohne
+     *         Mediennummer, der noch keine Nummer vergeben wurde, sonst true.
+     */
+    public boolean hatMediennummer()
+    {
+        return _medium != null;
+    }
+
+    /**
+     * Prüft, ob die Mediennummer beim Einlesen neu vergeben wurde, weil die
+     * Zeile keine enthielt.
+     */
+    public boolean hatNeueMediennummer()
+    {
+        return _erzeuger != null;
+    }
+
+    /**
+     * Gibt das eingelesene Medium zurück.
+     * 
+     * @require hatMediennummer()
+     * 
+     * @ensure result != null
+     */
+    public Medium getMedium()
+    {
+        assert hatMediennummer() : "Vorbedingung verletzt: hatMediennummer()";
+        return _medium;
+    }
+
+    /**
+     * Gibt das Ausleihdatum zurück.
+     * 
+     * @return Das Ausleihdatum, kann null sein.
+     */
+    public Datum getAusleihdatum()
+    {
+        return _ausleihdatum;
+    }
+
+    /**
+     * Gibt die Kundennummer des Entleihers zurück.
+     * 
+     * @return Die Kundennummer oder null, wenn das Medium nicht verliehen ist.
+     */
+    public Kundennummer getKundennummer()
+    {
+        return _kundennummer;
+    }
+
+    /**
+     * Prüft, ob das Medium laut Bestand verliehen ist.
+     * 
+     * @return true, wenn eine Kundennummer eingelesen wurde, sonst false.
+     */
+    public boolean istVerliehen()
+    {
+        return _kundennummer != null;
+    }
+
+    /**
+     * Erzeugt die Verleihkarte für dieses Medium.
+     * 
+     * @param entleiher Der Kunde mit der eingelesenen Kundennummer.
+     * @return Eine neue Verleihkarte.
+     * 
+     * @require istVerliehen()
+     * @require hatMediennummer()
+     */
+    public Verleihkarte erzeugeVerleihkarte(Kunde entleiher)
+    {
+        assert istVerliehen() : "Vorbedingung verletzt: istVerliehen()";
+        assert hatMediennummer() : "Vorbedingung verletzt: hatMediennummer()";
+        return new Verleihkarte(entleiher, _medium, _ausleihdatum);
+    }
+}
@@ -0,0 +1,351 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Ein FeldZerleger zerlegt die Zeilen eines Byte-Puffers in ";"-getrennte
+ * Felder, ohne den Puffer vorher in Strings umzuwandeln. Zahlen, Datumsangaben
+ * und Kundennummern werden direkt aus den Bytes berechnet, nur Freitextfelder
+ * werden als String (UTF-8) erzeugt.
+ * 
+ * Wie beim Einlesen mit StringTokenizer wird ein Feld, das nur aus einem
+ * Leerzeichen besteht, als leerer String geliefert.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class FeldZerleger
+{
+    private static final byte TRENNER = ';';
+    private static final byte ZEILENENDE = '\n';
+    private static final byte WAGENRUECKLAUF = '\r';
+    private static final byte PUNKT = '.';
+    private static final byte LEERZEICHEN = ' ';
+
+    private static final String LEERSTRING = "";
+
+    /**
+     * Der Puffer, der zerlegt wird. Es wird nur mit absoluten Zugriffen
+     * gelesen, Position und Limit des Puffers bleiben unverändert.
+     */
+    private final ByteBuffer _puffer;
+
+    /**
+     * Die Position des nächsten zu lesenden Bytes.
+     */
+    private int _position;
+
+    /**
+     * Die Position des ersten Bytes der aktuellen Zeile.
+     */
+    private int _zeilenanfang;
+
+    /**
+     * Die Position hinter dem letzten zu lesenden Byte.
+     */
+    private final int _ende;
+
+    /**
+     * Ein wiederverwendeter Zwischenspeicher für Freitextfelder.
+     */
+    private byte[] _textBytes;
+
+    /**
+     * Initialisiert einen FeldZerleger für den Bereich zwischen Position und
+     * Limit des übergebenen Puffers.
+     * 
+     * @param puffer Ein Puffer, dessen Bereich mit einem Zeilenanfang beginnt.
+     * 
+     * @require puffer != null
+     */
+    public FeldZerleger(ByteBuffer puffer)
+    {
+        assert puffer != null : "Vorbedingung verletzt: puffer != null";
+
+        _puffer = puffer;
+        _position = puffer.position();
+        _zeilenanfang = _position;
+        _ende = puffer.limit();
+        _textBytes = new byte[256];
+    }
+
+    /**
+     * Prüft, ob noch eine Zeile im Puffer steht. Leere Zeilen werden dabei
+     * übersprungen.
+     * 
+     * @return true, wenn eine weitere nicht-leere Zeile existiert, sonst
+     *         false.
+     */
+    public boolean hatWeitereZeilen()
+    {
+        while ((_position < _ende) && istZeilenende(_puffer.get(_position)))
+        {
+            _position++;
+        }
+        _zeilenanfang = _position;
+        return _position < _ende;
+    }
+
+    /**
+     * Gibt die aktuelle Zeile unverändert und ohne Zeilenumbruch zurück,
+     * unabhängig davon, wie viele ihrer Felder schon gelesen wurden. Die
+     * Position ändert sich nicht.
+     * 
+     * @return Die aktuelle Zeile (UTF-8).
+     */
+    public String getZeile()
+    {
+        int zeilenende = _zeilenanfang;
+        while ((zeilenende < _ende) && !istZeilenende(_puffer.get(zeilenende)))
+        {
+            zeilenende++;
+        }
+        byte[] zeile = new byte[zeilenende - _zeilenanfang];
+        _puffer.get(_zeilenanfang, zeile);
+        return new String(zeile, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prüft, ob in der aktuellen Zeile noch ein Feld steht.
+     * 
+     * @return true, wenn ein weiteres Feld gelesen werden kann, sonst false.
+     */
+    public boolean hatWeiteresFeld()
+    {
+        return (_position < _ende) && !istZeilenende(_puffer.get(_position));
+    }
+
+    /**
+     * Überspringt den Rest der aktuellen Zeile einschließlich des
+     * Zeilenumbruchs.
+     */
+    public void beendeZeile()
+    {
+        while ((_position < _ende) && (_puffer.get(_position) != ZEILENENDE))
+        {
+            _position++;
+        }
+        if (_position < _ende)
+        {
+            _position++;
+        }
+    }
+
+    /**
+     * Liest das nächste Feld als Text.
+     * 
+     * @return Den Text des Feldes, einen leeren String wenn das Feld nur aus
+     *         einem Leerzeichen besteht.
+     * @throws NoSuchElementException wenn die Zeile keine weiteren Felder hat.
+     */
+    public String leseText()
+    {
+        int feldEnde = pruefeUndFindeFeldEnde();
+        int laenge = feldEnde - _position;
+        String ergebnis;
+        if ((laenge == 1) && (_puffer.get(_position) == LEERZEICHEN))
+        {
+            ergebnis = LEERSTRING;
+        }
+        else
+        {
+            if (_textBytes.length < laenge)
+            {
+                _textBytes = new byte[Math.max(laenge, 2 * _textBytes.length)];
+            }
+            _puffer.get(_position, _textBytes, 0, laenge);
+            ergebnis = new String(_textBytes, 0, laenge,
+                    StandardCharsets.UTF_8);
+        }
+        ueberspringeFeld(feldEnde);
+        return ergebnis;
+    }
+
+    /**
+     * Liest das nächste Feld als nicht-negative Dezimalzahl.
+     * 
+     * @return Die Zahl, oder -1 wenn das Feld leer ist, andere Zeichen als
+     *         Ziffern enthält oder zu lang ist.
+     * @throws NoSuchElementException wenn die Zeile keine weiteren Felder hat.
+     */
+    public int leseZahl()
+    {
+        int feldEnde = pruefeUndFindeFeldEnde();
+        int ergebnis = leseZiffern(_position, feldEnde);
+        ueberspringeFeld(feldEnde);
+        return ergebnis;
+    }
+
+    /**
+     * Liest das nächste Feld als Datum der Form "T.M.JJJJ", wobei Tag und
+     * Monat ein- oder zweistellig und das Jahr vierstellig sein müssen.
+     * 
+     * @return Das Datum, oder null wenn das Feld kein gültiges Datum enthält.
+     * @throws NoSuchElementException wenn die Zeile keine weiteren Felder hat.
+     */
+    public Datum leseDatum()
+    {
+        int feldEnde = pruefeUndFindeFeldEnde();
+        Datum ergebnis = null;
+        int ersterPunkt = findePunkt(_position, feldEnde);
+        int zweiterPunkt = findePunkt(ersterPunkt + 1, feldEnde);
+        if ((ersterPunkt - _position >= 1) && (ersterPunkt - _position <= 2)
+                && (zweiterPunkt - ersterPunkt - 1 >= 1)
+                && (zweiterPunkt - ersterPunkt - 1 <= 2)
+                && (feldEnde - zweiterPunkt - 1 == 4))
+        {
+            int tag = leseZiffern(_position, ersterPunkt);
+            int monat = leseZiffern(ersterPunkt + 1, zweiterPunkt);
+            int jahr = leseZiffern(zweiterPunkt + 1, feldEnde);
+            if ((tag >= 0) && (monat >= 0) && (jahr >= 0)
+                    && Datum.istGueltig(tag, monat, jahr))
+            {
+                ergebnis = new Datum(tag, monat, jahr);
+            }
+        }
+        ueberspringeFeld(feldEnde);
+        return ergebnis;
+    }
+
+    /**
+     * Liest das nächste Feld als sechsstellige Kundennummer.
+     * 
+     * @return Die Kundennummer, oder null wenn das Feld keine gültige
+     *         Kundennummer enthält.
+     * @throws NoSuchElementException wenn die Zeile keine weiteren Felder hat.
+     */
+    public Kundennummer leseKundennummer()
+    {
+        int feldEnde = pruefeUndFindeFeldEnde();
+        Kundennummer ergebnis = null;
+        if (feldEnde - _position == 6)
+        {
+            int nummer = leseZiffern(_position, feldEnde);
+            if (Kundennummer.istGueltig(nummer))
+            {
+                ergebnis = new Kundennummer(nummer);
+            }
+        }
+        ueberspringeFeld(feldEnde);
+        return ergebnis;
+    }
+
+    /**
+     * Liest das nächste Feld und vergleicht es mit den angegebenen
+     * Schlüsseln, ohne einen String zu erzeugen.
+     * 
+     * @param schluessel Die möglichen Feldinhalte als ASCII-Bytes.
+     * @return Den Index des passenden Schlüssels, oder -1 wenn keiner passt.
+     * @throws NoSuchElementException wenn die Zeile keine weiteren Felder hat.
+     */
+    public int leseSchluessel(byte[][] schluessel)
+    {
+        int feldEnde = pruefeUndFindeFeldEnde();
+        int ergebnis = -1;
+        for (int i = 0; (i < schluessel.length) && (ergebnis < 0); i++)
+        {
+            if (istGleich(_position, feldEnde, schluessel[i]))
+            {
+                ergebnis = i;
+            }
+        }
+        ueberspringeFeld(feldEnde);
+        return ergebnis;
+    }
+
+    /**
+     * Prüft, ob in der aktuellen Zeile ein weiteres Feld steht, und liefert
+     * dessen Ende.
+     */
+    private int pruefeUndFindeFeldEnde()
+    {
+        if ((_position >= _ende) || istZeilenende(_puffer.get(_position)))
+        {
+            throw new NoSuchElementException();
+        }
+        int feldEnde = _position;
+        while ((feldEnde < _ende) && (_puffer.get(feldEnde) != TRENNER)
+                && !istZeilenende(_puffer.get(feldEnde)))
+        {
+            feldEnde++;
+        }
+        return feldEnde;
+    }
+
+    /**
+     * Setzt die Position hinter das Feld, das an der angegebenen Stelle endet.
+     * Ein Trennzeichen wird mit übersprungen, ein Zeilenende nicht.
+     */
+    private void ueberspringeFeld(int feldEnde)
+    {
+        _position = feldEnde;
+        if ((_position < _ende) && (_puffer.get(_position) == TRENNER))
+        {
+            _position++;
+        }
+    }
+
+    /**
+     * Berechnet die Dezimalzahl im angegebenen Bereich.
+     * 
+     * @return Die Zahl, oder -1 wenn der Bereich leer ist, andere Zeichen als
+     *         Ziffern enthält oder mehr als neun Stellen hat.
+     */
+    private int leseZiffern(int von, int bis)
+    {
+        int ergebnis = -1;
+        if ((bis > von) && (bis - von <= 9))
+        {
+            ergebnis = 0;
+            for (int i = von; (i < bis) && (ergebnis >= 0); i++)
+            {
+                int ziffer = _puffer.get(i) - '0';
+                if ((ziffer >= 0) && (ziffer <= 9))
+                {
+                    ergebnis = ergebnis * 10 + ziffer;
+                }
+                else
+                {
+                    ergebnis = -1;
+                }
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Sucht den nächsten Punkt im angegebenen Bereich.
+     * 
+     * @return Die Position des Punktes, oder bis wenn es keinen gibt.
+     */
+    private int findePunkt(int von, int bis)
+    {
+        int i = von;
+        while ((i < bis) && (_puffer.get(i) != PUNKT))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Prüft, ob der angegebene Bereich genau die erwarteten Bytes enthält.
+     */
+    private boolean istGleich(int von, int bis, byte[] erwartet)
+    {
+        boolean ergebnis = (bis - von == erwartet.length);
+        for (int i = 0; ergebnis && (i < erwartet.length); i++)
+        {
+            ergebnis = (_puffer.get(von + i) == erwartet[i]);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Prüft, ob das Byte eine Zeile beendet.
+     */
+    private static boolean istZeilenende(byte zeichen)
+    {
+        return (zeichen == ZEILENENDE) || (zeichen == WAGENRUECKLAUF);
+    }
+}
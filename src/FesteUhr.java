@@ -0,0 +1,30 @@
+/**
+ * Eine Uhr, die immer dasselbe Datum liefert. Sie wird in Tests verwendet,
+ * damit Ergebnisse nicht vom tatsächlichen Tag abhängen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class FesteUhr implements Uhr
+{
+    private final Datum _heute;
+
+    /**
+     * Initialisiert eine Uhr, die immer das angegebene Datum liefert.
+     * 
+     * @param heute Das Datum, das als heutiges Datum geliefert wird.
+     * 
+     * @require heute != null
+     */
+    public FesteUhr(Datum heute)
+    {
+        assert heute != null : "Vorbedingung verletzt: heute != null";
+        _heute = heute;
+    }
+
+    @Override
+    public Datum heute()
+    {
+        return _heute;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Der Gebührenrechner berechnet die Mietgebühren von Ausleihen. Für jede
+ * Medienart, erkannt an {@link Medium#getMedienBezeichnung()}, kann ein eigener
+ * {@link Tarif} gesetzt werden, für alle anderen gilt der Standardtarif.
+ * Welcher Gebührenrechner für {@link Verleihkarte#getMietgebuehr()} verwendet
+ * wird, legt {@link Verleihkarte#setzeGebuehrenrechner(Gebuehrenrechner)}
+ * fest.
+ * 
+ * Für die Abrechnung vieler Ausleihen auf einmal berechnet
+ * {@link #berechneMietgebuehren(List, Datum)} zuerst alle Ausleihdauern und
+ * Tarife in Arrays und danach die Beträge in einer Schleife über diese Arrays.
+ * Die Geldbeträge kommen aus {@link Geldbetrag#ausCent(long)}, die häufigen
+ * kleinen Gebühren werden also nicht jedes Mal neu erzeugt.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Gebuehrenrechner
+{
+    private final Tarif _standardtarif;
+
+    /**
+     * Die Tarife der Medienarten, der Schlüssel ist die Medienbezeichnung.
+     */
+    private final Map<String, Tarif> _tarife;
+
+    /**
+     * Initialisiert einen Gebührenrechner, bei dem für alle Medienarten der
+     * Standardtarif gilt.
+     * 
+     * @param standardtarif Der Tarif für Medienarten ohne eigenen Tarif.
+     * 
+     * @require standardtarif != null
+     */
+    public Gebuehrenrechner(Tarif standardtarif)
+    {
+        assert standardtarif != null : "Vorbedingung verletzt: standardtarif != null";
+
+        _standardtarif = standardtarif;
+        _tarife = new ConcurrentHashMap<String, Tarif>();
+    }
+
+    /**
+     * Erzeugt einen Gebührenrechner mit den Tarifen der Mediathek: CDs und
+     * DVDs kosten 3 Euro pro Tag. Videospiele kosten 2 Euro für die ersten 7
+     * Tage und danach 5 Euro für je angefangene 5 Tage.
+     * 
+     * @ensure result != null
+     */
+    public static Gebuehrenrechner erzeugeStandard()
+    {
+        Gebuehrenrechner rechner = new Gebuehrenrechner(new Tagestarif(300));
+        rechner.setzeTarif("CD", new Tagestarif(300));
+        rechner.setzeTarif("DVD", new Tagestarif(300));
+        rechner.setzeTarif("Videospiel", new Staffeltarif(200, 7, 5, 500));
+        return rechner;
+    }
+
+    /**
+     * Setzt den Tarif für eine Medienart.
+     * 
+     * @param medienBezeichnung Die Bezeichnung der Medienart, wie sie
+     *            {@link Medium#getMedienBezeichnung()} liefert.
+     * @param tarif Der Tarif.
+     * 
+     * @require medienBezeichnung != null
+     * @require tarif != null
+     */
+    public void setzeTarif(String medienBezeichnung, Tarif tarif)
+    {
+        assert medienBezeichnung != null : "Vorbedingung verletzt: medienBezeichnung != null";
+        assert tarif != null : "Vorbedingung verletzt: tarif != null";
+
+        _tarife.put(medienBezeichnung, tarif);
+    }
+
+    /**
+     * Liefert den Tarif für ein Medium.
+     * 
+     * @param medium Ein Medium.
+     * 
+     * @require medium != null
+     * 
+     * @ensure result != null
+     */
+    public Tarif getTarif(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        Tarif tarif = _tarife.get(medium.getMedienBezeichnung());
+        if (tarif == null)
+        {
+            tarif = _standardtarif;
+        }
+        return tarif;
+    }
+
+    /**
+     * Berechnet die Mietgebühr für die Ausleihe eines Mediums.
+     * 
+     * @param medium Das Medium.
+     * @param ausleihdauer Die Ausleihdauer in Tagen.
+     * 
+     * @require medium != null
+     * @require ausleihdauer > 0
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag berechneMietgebuehr(Medium medium, int ausleihdauer)
+    {
+        assert ausleihdauer > 0 : "Vorbedingung verletzt: ausleihdauer > 0";
+
+        return Geldbetrag.ausCent(getTarif(medium).berechneCent(ausleihdauer));
+    }
+
+    /**
+     * Berechnet die Mietgebühren vieler Ausleihen bis zu einem Stichtag.
+     * Ausleihen nach dem Stichtag werden wie Ausleihen am Stichtag berechnet.
+     * 
+     * @param verleihkarten Die Verleihkarten der Ausleihen.
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @return Die Mietgebühren in der Reihenfolge der Verleihkarten.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * 
+     * @ensure result.length == verleihkarten.size()
+     */
+    public Geldbetrag[] berechneMietgebuehren(List<Verleihkarte> verleihkarten,
+            Datum stichtag)
+    {
+        int[] cent = berechneCent(verleihkarten, stichtag);
+        Geldbetrag[] result = new Geldbetrag[cent.length];
+        for (int i = 0; i < cent.length; i++)
+        {
+            result[i] = Geldbetrag.ausCent(cent[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Berechnet die Summe der Mietgebühren vieler Ausleihen bis zu einem
+     * Stichtag, siehe {@link #berechneMietgebuehren(List, Datum)}.
+     * 
+     * @param verleihkarten Die Verleihkarten der Ausleihen.
+     * @param stichtag Der letzte berechnete Ausleihtag.
+     * @return Die Summe der Mietgebühren.
+     * 
+     * @require verleihkarten != null
+     * @require stichtag != null
+     * 
+     * @ensure result != null
+     */
+    public Geldbetrag berechneSumme(List<Verleihkarte> verleihkarten,
+            Datum stichtag)
+    {
+        long summe = 0;
+        for (int cent : berechneCent(verleihkarten, stichtag))
+        {
+            summe += cent;
+        }
+        return Geldbetrag.ausCent(summe);
+    }
+
+    /**
+     * Berechnet die Mietgebühren in zwei Durchläufen: Der erste sammelt
+     * Ausleihdauern und Tarife in Arrays, der zweite rechnet nur noch auf
+     * diesen Arrays.
+     */
+    private int[] berechneCent(List<Verleihkarte> verleihkarten, Datum stichtag)
+    {
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert stichtag != null : "Vorbedingung verletzt: stichtag != null";
+
+        int anzahl = verleihkarten.size();
+        int[] ausleihdauern = new int[anzahl];
+        Tarif[] tarife = new Tarif[anzahl];
+        int stichtagTag = stichtag.getEpochenTag();
+        int i = 0;
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            ausleihdauern[i] = Math.max(1, stichtagTag - verleihkarte
+                .getAusleihdatum()
+                .getEpochenTag() + 1);
+            tarife[i] = getTarif(verleihkarte.getMedium());
+            i++;
+        }
+
+        int[] cent = new int[anzahl];
+        for (i = 0; i < anzahl; i++)
+        {
+            cent[i] = tarife[i].berechneCent(ausleihdauern[i]);
+        }
+        return cent;
+    }
+}
@@ -0,0 +1,93 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Testet den Gebührenrechner und seine Tarife.
+ */
+public class GebuehrenrechnerTest
+{
+    private final Gebuehrenrechner _rechner;
+    private final Kunde _kunde;
+    private final Medium _cd;
+    private final Medium _dvd;
+
+    public GebuehrenrechnerTest()
+    {
+        _rechner = Gebuehrenrechner.erzeugeStandard();
+        _kunde = new Kunde(new Kundennummer(123456), "Homer", "Simpson");
+        _cd = new CD("Abbey Road", "Meisterwerk", "Beatles", 44);
+        _dvd = new DVD("Bad", "", "Michael Jackson", 48);
+    }
+
+    @Test
+    public void testTagestarif()
+    {
+        Tarif tarif = new Tagestarif(300);
+        assertEquals(300, tarif.berechneCent(1));
+        assertEquals(3000, tarif.berechneCent(10));
+    }
+
+    @Test
+    public void testStaffeltarif()
+    {
+        Tarif tarif = new Staffeltarif(200, 7, 5, 500);
+        assertEquals(200, tarif.berechneCent(1));
+        assertEquals(200, tarif.berechneCent(7));
+        assertEquals(700, tarif.berechneCent(8));
+        assertEquals(700, tarif.berechneCent(12));
+        assertEquals(1200, tarif.berechneCent(13));
+    }
+
+    @Test
+    public void testTarifJeMedienart()
+    {
+        assertEquals(new Geldbetrag(900), _rechner.berechneMietgebuehr(_cd, 3));
+        assertEquals(new Geldbetrag(900),
+                _rechner.berechneMietgebuehr(_dvd, 3));
+
+        _rechner.setzeTarif("DVD", new Staffeltarif(500, 3, 1, 100));
+        assertEquals(new Geldbetrag(900), _rechner.berechneMietgebuehr(_cd, 3));
+        assertEquals(new Geldbetrag(500),
+                _rechner.berechneMietgebuehr(_dvd, 3));
+        assertEquals(new Geldbetrag(700),
+                _rechner.berechneMietgebuehr(_dvd, 5));
+    }
+
+    @Test
+    public void testKleineBetraegeWerdenWiederverwendet()
+    {
+        assertSame(_rechner.berechneMietgebuehr(_cd, 2),
+                _rechner.berechneMietgebuehr(_dvd, 2));
+    }
+
+    @Test
+    public void testMietgebuehrenVielerAusleihen()
+    {
+        Datum stichtag = new Datum(15, 4, 2021);
+        List<Verleihkarte> verleihkarten = new ArrayList<Verleihkarte>();
+        long summe = 0;
+        for (int i = 0; i < 1000; i++)
+        {
+            Medium medium = (i % 2 == 0) ? new CD("CD" + i, "", "", 40)
+                    : new DVD("DVD" + i, "", "", 90);
+            int ausleihdauer = 1 + i % 40;
+            verleihkarten.add(new Verleihkarte(_kunde, medium,
+                    stichtag.minus(ausleihdauer - 1)));
+            summe += 300 * ausleihdauer;
+        }
+
+        Geldbetrag[] gebuehren = _rechner.berechneMietgebuehren(verleihkarten,
+                stichtag);
+        assertEquals(verleihkarten.size(), gebuehren.length);
+        assertEquals(new Geldbetrag(300), gebuehren[0]);
+        assertEquals(new Geldbetrag(600), gebuehren[1]);
+        assertEquals(new Geldbetrag(12000), gebuehren[39]);
+        assertEquals(new Geldbetrag(summe),
+                _rechner.berechneSumme(verleihkarten, stichtag));
+    }
+}
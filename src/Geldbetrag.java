@@ -1,14 +1,32 @@
+import java.io.IOException;
+
 /**
- * Ein Geldbetrag in Euro, gespeichert als ganze Euro- und ganze Cent-Beträge.
+ * Ein Geldbetrag in Euro, gespeichert als ganze Euro-Cent.
+ * 
+ * Geldbeträge sind unveränderlich. Rechenoperationen liefern neue Geldbeträge,
+ * Beträge unter {@link #GECACHTE_CENT} Cent werden dabei nur einmal erzeugt
+ * und wiederverwendet. Für Summen über viele Beträge gibt es
+ * {@link #summe(Iterable)}, die nur das Ergebnis erzeugt.
  * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 public final class Geldbetrag
 {
+    /**
+     * Geldbeträge unter diesem Betrag in Cent liefert {@link #ausCent(long)}
+     * aus einem Cache.
+     */
+    static final int GECACHTE_CENT = 10000;
+
+    /**
+     * Die bereits erzeugten kleinen Geldbeträge, der Index ist der Betrag in
+     * Cent. Da Geldbeträge unveränderlich sind, dürfen mehrere Threads
+     * denselben Betrag gleichzeitig eintragen.
+     */
+    private static final Geldbetrag[] CACHE = new Geldbetrag[GECACHTE_CENT];
 
-    private final int _euroAnteil;
-    private final int _centAnteil;
+    private final long _eurocent;
 
     /**
      * Wählt einen Geldbetrag aus.
@@ -17,11 +35,72 @@ public final class Geldbetrag
      * 
      * @require eurocent >= 0;
      */
-    public Geldbetrag(int eurocent)
+    public Geldbetrag(long eurocent)
+    {
+        assert eurocent >= 0 : "Vorbedingung verletzt: eurocent >= 0";
+        _eurocent = eurocent;
+    }
+
+    /**
+     * Liefert einen Geldbetrag. Kleine Beträge werden wiederverwendet, statt
+     * sie neu zu erzeugen.
+     * 
+     * @param eurocent Der Betrag in ganzen Euro-Cent
+     * 
+     * @require eurocent >= 0
+     * 
+     * @ensure result.getEurocent() == eurocent
+     */
+    public static Geldbetrag ausCent(long eurocent)
     {
         assert eurocent >= 0 : "Vorbedingung verletzt: eurocent >= 0";
-        _euroAnteil = eurocent / 100;
-        _centAnteil = eurocent % 100;
+
+        Geldbetrag result;
+        if (eurocent < GECACHTE_CENT)
+        {
+            result = CACHE[(int) eurocent];
+            if (result == null)
+            {
+                result = new Geldbetrag(eurocent);
+                CACHE[(int) eurocent] = result;
+            }
+        }
+        else
+        {
+            result = new Geldbetrag(eurocent);
+        }
+        return result;
+    }
+
+    /**
+     * Berechnet die Summe von Geldbeträgen. Zwischensummen werden nicht als
+     * Geldbeträge erzeugt.
+     * 
+     * @param betraege Die Geldbeträge.
+     * @throws ArithmeticException wenn die Summe zu groß ist.
+     * 
+     * @require betraege != null
+     * 
+     * @ensure result != null
+     */
+    public static Geldbetrag summe(Iterable<Geldbetrag> betraege)
+    {
+        assert betraege != null : "Vorbedingung verletzt: betraege != null";
+
+        long summe = 0;
+        for (Geldbetrag betrag : betraege)
+        {
+            summe = Math.addExact(summe, betrag._eurocent);
+        }
+        return ausCent(summe);
+    }
+
+    /**
+     * Gibt den Betrag in ganzen Euro-Cent zurück.
+     */
+    public long getEurocent()
+    {
+        return _eurocent;
     }
 
     /**
@@ -29,9 +108,9 @@ public final class Geldbetrag
      * 
      * @return Den Eurobetrag ohne Cent.
      */
-    public int getEuroAnteil()
+    public long getEuroAnteil()
     {
-        return _euroAnteil;
+        return _eurocent / 100;
     }
 
     /**
@@ -39,7 +118,62 @@ public final class Geldbetrag
      */
     public int getCentAnteil()
     {
-        return _centAnteil;
+        return (int) (_eurocent % 100);
+    }
+
+    /**
+     * Addiert einen Geldbetrag.
+     * 
+     * @param betrag Der zu addierende Geldbetrag.
+     * @return Die Summe.
+     * @throws ArithmeticException wenn die Summe zu groß ist.
+     * 
+     * @require betrag != null
+     * 
+     * @ensure result.getEurocent() == getEurocent() + betrag.getEurocent()
+     */
+    public Geldbetrag plus(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+
+        return ausCent(Math.addExact(_eurocent, betrag._eurocent));
+    }
+
+    /**
+     * Subtrahiert einen Geldbetrag.
+     * 
+     * @param betrag Der zu subtrahierende Geldbetrag.
+     * @return Die Differenz.
+     * 
+     * @require betrag != null
+     * @require betrag.getEurocent() <= getEurocent()
+     * 
+     * @ensure result.getEurocent() == getEurocent() - betrag.getEurocent()
+     */
+    public Geldbetrag minus(Geldbetrag betrag)
+    {
+        assert betrag != null : "Vorbedingung verletzt: betrag != null";
+        assert betrag._eurocent <= _eurocent : "Vorbedingung verletzt: betrag.getEurocent() <= getEurocent()";
+
+        return ausCent(_eurocent - betrag._eurocent);
+    }
+
+    /**
+     * Multipliziert diesen Geldbetrag.
+     * 
+     * @param faktor Der Faktor.
+     * @return Das Produkt.
+     * @throws ArithmeticException wenn das Produkt zu groß ist.
+     * 
+     * @require faktor >= 0
+     * 
+     * @ensure result.getEurocent() == getEurocent() * faktor
+     */
+    public Geldbetrag mal(int faktor)
+    {
+        assert faktor >= 0 : "Vorbedingung verletzt: faktor >= 0";
+
+        return ausCent(Math.multiplyExact(_eurocent, faktor));
     }
 
     /**
@@ -50,33 +184,66 @@ public final class Geldbetrag
      */
     public String getFormatiertenString()
     {
-        return _euroAnteil + "," + getFormatiertenCentAnteil();
+        return haengeFormatiertAn(new StringBuilder(12)).toString();
+    }
+
+    /**
+     * Hängt den Geldbetrag in der Form "10,23" an, ohne dafür Strings zu
+     * erzeugen.
+     * 
+     * @param ziel Der StringBuilder, an den angehängt wird.
+     * @return Den übergebenen StringBuilder.
+     * 
+     * @require ziel != null
+     */
+    public StringBuilder haengeFormatiertAn(StringBuilder ziel)
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        int cent = getCentAnteil();
+        ziel.append(getEuroAnteil())
+            .append(',')
+            .append((char) ('0' + cent / 10))
+            .append((char) ('0' + cent % 10));
+        return ziel;
     }
 
     /**
-     * Liefert einen zweistelligen Centbetrag zurück.
+     * Schreibt den Geldbetrag in der Form "10,23" Zeichen für Zeichen, z.B.
+     * direkt in einen Writer, ohne dafür Strings zu erzeugen.
+     * 
+     * @param ziel Das Ziel, an das angehängt wird.
+     * @return Das übergebene Ziel.
+     * @throws IOException wenn das Ziel nicht geschrieben werden kann.
      * 
-     * @return eine String-Repräsentation des Cent-Anteils.
+     * @require ziel != null
      */
-    private String getFormatiertenCentAnteil()
+    public Appendable haengeFormatiertAn(Appendable ziel) throws IOException
     {
-        String result = "";
-        if (_centAnteil < 10)
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+
+        long euro = getEuroAnteil();
+        long stelle = 1;
+        while (stelle <= euro / 10)
         {
-            result += "0";
+            stelle *= 10;
         }
-        result += _centAnteil;
-        return result;
+        while (stelle > 0)
+        {
+            ziel.append((char) ('0' + (euro / stelle) % 10));
+            stelle /= 10;
+        }
+        int cent = getCentAnteil();
+        ziel.append(',');
+        ziel.append((char) ('0' + cent / 10));
+        ziel.append((char) ('0' + cent % 10));
+        return ziel;
     }
 
     @Override
     public int hashCode()
     {
-        final int prime = 31;
-        int result = 1;
-        result = prime + _centAnteil;
-        result = prime * result + _euroAnteil;
-        return result;
+        return Long.hashCode(_eurocent);
     }
 
     @Override
@@ -86,8 +253,7 @@ public final class Geldbetrag
         if (obj instanceof Geldbetrag)
         {
             Geldbetrag other = (Geldbetrag) obj;
-            result = (_centAnteil == other._centAnteil)
-                    && (_euroAnteil == other._euroAnteil);
+            result = _eurocent == other._eurocent;
         }
         return result;
     }
@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -50,4 +55,74 @@ public class GeldbetragTest
         assertNotEquals(betrag1, betrag4);
         assertNotEquals(betrag1.hashCode(), betrag4.hashCode());
     }
+
+    @Test
+    public final void testRechnen()
+    {
+        Geldbetrag betrag = new Geldbetrag(250);
+        assertEquals(new Geldbetrag(349), betrag.plus(new Geldbetrag(99)));
+        assertEquals(new Geldbetrag(151), betrag.minus(new Geldbetrag(99)));
+        assertEquals(new Geldbetrag(0), betrag.minus(betrag));
+        assertEquals(new Geldbetrag(750), betrag.mal(3));
+        assertEquals(new Geldbetrag(0), betrag.mal(0));
+        assertEquals(new Geldbetrag(250), betrag);
+    }
+
+    @Test
+    public final void testSumme()
+    {
+        List<Geldbetrag> betraege = new ArrayList<Geldbetrag>();
+        assertEquals(new Geldbetrag(0), Geldbetrag.summe(betraege));
+        for (int i = 0; i < 1000; i++)
+        {
+            betraege.add(Geldbetrag.ausCent(i));
+        }
+        assertEquals(new Geldbetrag(499500), Geldbetrag.summe(betraege));
+    }
+
+    @Test
+    public final void testGrosseBetraege()
+    {
+        Geldbetrag betrag = new Geldbetrag(Integer.MAX_VALUE).mal(10);
+        assertEquals(2147483647L * 10, betrag.getEurocent());
+        assertEquals("214748364,70", betrag.getFormatiertenString());
+    }
+
+    @Test
+    public final void testUeberlauf()
+    {
+        try
+        {
+            new Geldbetrag(Long.MAX_VALUE).plus(new Geldbetrag(1));
+            fail("ArithmeticException erwartet");
+        }
+        catch (ArithmeticException e)
+        {
+            // erwartet
+        }
+    }
+
+    @Test
+    public final void testKleineBetraegeWerdenWiederverwendet()
+    {
+        assertSame(Geldbetrag.ausCent(300), Geldbetrag.ausCent(300));
+        assertSame(Geldbetrag.ausCent(300),
+                Geldbetrag.ausCent(100).plus(Geldbetrag.ausCent(200)));
+        assertEquals(new Geldbetrag(1000000), Geldbetrag.ausCent(1000000));
+    }
+
+    @Test
+    public final void testFormatiertAnhaengen() throws IOException
+    {
+        StringBuilder builder = new StringBuilder("Summe: ");
+        new Geldbetrag(1205).haengeFormatiertAn(builder);
+        assertEquals("Summe: 12,05", builder.toString());
+
+        StringWriter writer = new StringWriter();
+        Appendable ziel = writer;
+        new Geldbetrag(1205).haengeFormatiertAn(ziel);
+        new Geldbetrag(7).haengeFormatiertAn(ziel.append(';'));
+        new Geldbetrag(100000).haengeFormatiertAn(ziel.append(';'));
+        assertEquals("12,05;0,07;1000,00", writer.toString());
+    }
 }
@@ -0,0 +1,1087 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Ein Verleihbestand für sehr viele gleichzeitige Ausleihen. Statt einer
+ * Verleihkarte je Ausleihe speichert er nur drei Zahlen: die Mediennummer,
+ * die Nummer des Entleihers und den Ausleihtag als Tage seit dem 1.1.1970.
+ * Die Zahlen stehen in parallelen int-Arrays einer Hashtabelle mit offener
+ * Adressierung, so dass keine Objekte pro Ausleihe entstehen, die der
+ * Garbage Collector verfolgen muss.
+ * 
+ * Die Entleiher hält der Bestand selbst in einer Tabelle, in der jeder Kunde
+ * beim ersten Ausleihen eine eigene Nummer bekommt. Wie beim
+ * {@link ObjektVerleihbestand} gehört eine Ausleihe damit dem Kunden-Objekt,
+ * an das verliehen wurde, auch wenn es inzwischen aus dem Kundenstamm
+ * entfernt oder dort ein anderer Kunde mit derselben Kundennummer angelegt
+ * wurde. Die Tabelle wächst mit der Anzahl der Entleiher, nicht mit der
+ * Anzahl der Ausleihen.
+ * 
+ * Verleihkarten werden erst beim Abfragen erzeugt. Das Medium wird dafür über
+ * seine Nummer im Medienbestand nachgeschlagen. Ausleihen, deren Medium dort
+ * nicht mehr enthalten ist, werden bei Abfragen über alle Ausleihen bzw. über
+ * einen Kunden ausgelassen.
+ * 
+ * Die Ausleihen eines Kunden sind über ihre Plätze in der Tabelle verkettet,
+ * der erste Platz jedes Kunden steht in einer zweiten Hashtabelle.
+ * 
+ * Für die Abfragen nach dem Ausleihtag sind die Ausleihen außerdem je Tag in
+ * einer doppelt verketteten Liste über ihre Plätze verkettet, in der
+ * Reihenfolge, in der sie eingetragen wurden. Die Tage mit Ausleihen stehen
+ * sortiert in einem eigenen Array, zusammen mit der Anzahl ihrer Ausleihen.
+ * Das kostet zwei int je Platz und vier int je Ausleihtag, aber keine Objekte
+ * pro Ausleihe.
+ * 
+ * Die Ausleihen sind wie die Sperren des {@link VerleihServiceImpl} über die
+ * Mediennummer auf {@link VerleihServiceImpl#ANZAHL_STREIFEN} Teilbestände
+ * verteilt, jeder mit eigenen Tabellen und einer eigenen Sperre. Ausleihen und
+ * Rückgaben verschiedener Medien sperren sich daher nur gegenseitig, wenn sie
+ * auch im Service dieselbe Sperre brauchen. Abfragen über einen Kunden oder
+ * über alle Ausleihen gehen nacheinander durch die Teilbestände und sehen
+ * gleichzeitige Änderungen wie beim {@link ObjektVerleihbestand} eventuell
+ * nur teilweise.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class KompakterVerleihbestand implements Verleihbestand
+{
+    private static final int FREI = 0;
+    private static final int GELOESCHT = -1;
+    private static final int KEIN_PLATZ = -1;
+    private static final int ANFANGS_KAPAZITAET = 16;
+
+    private final MedienbestandService _medienbestand;
+
+    /**
+     * Die Entleiher nach ihrer Nummer in diesem Bestand.
+     */
+    private final ConcurrentHashMap<Integer, Kunde> _entleiher;
+
+    /**
+     * Die Nummern der Entleiher in diesem Bestand. Kunde überschreibt equals
+     * nicht, die Tabelle unterscheidet Kunden daher wie der
+     * {@link ObjektVerleihbestand} nach ihrer Identität.
+     */
+    private final ConcurrentHashMap<Kunde, Integer> _nummernDerEntleiher;
+
+    /**
+     * Die zuletzt vergebene Entleihernummer.
+     */
+    private final AtomicInteger _letzteEntleihernummer;
+
+    /**
+     * Die Teilbestände, der Index ist der Streifen der Mediennummer.
+     */
+    private final Teilbestand[] _teilbestaende;
+
+    /**
+     * Initialisiert einen Verleihbestand mit den gegebenen Verleihkarten.
+     * 
+     * @param medienbestand Der Medienbestand, in dem die Medien nachgeschlagen
+     *            werden.
+     * @param initialBestand Der initiale Bestand.
+     * 
+     * @require medienbestand != null
+     * @require initialBestand != null
+     */
+    public KompakterVerleihbestand(MedienbestandService medienbestand,
+            List<Verleihkarte> initialBestand)
+    {
+        assert medienbestand != null : "Vorbedingung verletzt: medienbestand != null";
+        assert initialBestand != null : "Vorbedingung verletzt: initialBestand != null";
+
+        _medienbestand = medienbestand;
+        _entleiher = new ConcurrentHashMap<Integer, Kunde>();
+        _nummernDerEntleiher = new ConcurrentHashMap<Kunde, Integer>();
+        _letzteEntleihernummer = new AtomicInteger();
+        int kapazitaet = ANFANGS_KAPAZITAET;
+        while (initialBestand.size() * 2 > kapazitaet
+                * VerleihServiceImpl.ANZAHL_STREIFEN)
+        {
+            kapazitaet *= 2;
+        }
+        _teilbestaende = new Teilbestand[VerleihServiceImpl.ANZAHL_STREIFEN];
+        for (int i = 0; i < _teilbestaende.length; i++)
+        {
+            _teilbestaende[i] = new Teilbestand(kapazitaet);
+        }
+        for (Verleihkarte verleihkarte : initialBestand)
+        {
+            trageEin(verleihkarte.getEntleiher(), verleihkarte.getMedium(),
+                    verleihkarte.getAusleihdatum());
+        }
+    }
+
+    @Override
+    public Verleihkarte trageEin(Kunde kunde, Medium medium,
+            Datum ausleihDatum)
+    {
+        assert !istVerliehen(medium) : "Vorbedingung verletzt: !istVerliehen(medium)";
+
+        int entleihernummer = entleihernummerVon(kunde);
+        int mediennummer = medium.getMediennummer()
+            .getNummer();
+        teilbestandFuer(medium).trageEin(entleihernummer, mediennummer,
+                ausleihDatum.getEpochenTag());
+        return new Verleihkarte(kunde, medium, ausleihDatum);
+    }
+
+    @Override
+    public Verleihkarte entferne(Medium medium)
+    {
+        return teilbestandFuer(medium).entferne(medium);
+    }
+
+    @Override
+    public boolean istVerliehen(Medium medium)
+    {
+        return teilbestandFuer(medium).istVerliehen(medium.getMediennummer()
+            .getNummer());
+    }
+
+    @Override
+    public Verleihkarte getVerleihkarteFuer(Medium medium)
+    {
+        return teilbestandFuer(medium).getVerleihkarteFuer(medium);
+    }
+
+    @Override
+    public List<Medium> getMedienFuer(Kunde kunde)
+    {
+        List<Medium> result = new ArrayList<Medium>();
+        for (Teilbestand teilbestand : _teilbestaende)
+        {
+            teilbestand.sammleMedienFuer(kunde, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkartenFuer(Kunde kunde)
+    {
+        List<Verleihkarte> result = new ArrayList<Verleihkarte>();
+        for (Teilbestand teilbestand : _teilbestaende)
+        {
+            teilbestand.sammleVerleihkartenFuer(kunde, result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkarten()
+    {
+        List<Verleihkarte> result = new ArrayList<Verleihkarte>(getAnzahl());
+        for (Teilbestand teilbestand : _teilbestaende)
+        {
+            teilbestand.sammleVerleihkarten(result);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkartenVerliehenBis(Datum datum)
+    {
+        assert datum != null : "Vorbedingung verletzt: datum != null";
+
+        return erzeugeVerleihkarten(
+                sammleBis(datum.getEpochenTag(), Integer.MAX_VALUE),
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Bestimmt zuerst aus der Anzahl der Ausleihen je Tag den letzten Tag,
+     * der noch zu den ältesten Ausleihen gehört, und wie viele Ausleihen
+     * dieses Tages noch fehlen. Danach werden nur diese Ausleihen gesammelt
+     * und nicht die ältesten Ausleihen jedes Teilbestands.
+     */
+    @Override
+    public List<Verleihkarte> getAeltesteVerleihkarten(int anzahl)
+    {
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        long[] ausleihen = new long[0];
+        if (anzahl > 0)
+        {
+            long[][] teile = new long[_teilbestaende.length][];
+            for (int i = 0; i < _teilbestaende.length; i++)
+            {
+                teile[i] = _teilbestaende[i].zaehleAelteste(anzahl);
+            }
+            long[] tagesanzahlen = verbinde(teile);
+            Arrays.sort(tagesanzahlen);
+
+            // Gibt es weniger als anzahl Ausleihen, werden alle gesammelt.
+            int letzterTag = Integer.MAX_VALUE;
+            int anzahlAmLetztenTag = anzahl;
+            int aktuellerTag = Integer.MIN_VALUE;
+            int summe = 0;
+            int summeVorTag = 0;
+            for (int i = 0; (i < tagesanzahlen.length)
+                    && (letzterTag == Integer.MAX_VALUE); i++)
+            {
+                int tag = oben(tagesanzahlen[i]);
+                if (tag != aktuellerTag)
+                {
+                    aktuellerTag = tag;
+                    summeVorTag = summe;
+                }
+                summe += unten(tagesanzahlen[i]);
+                if (summe >= anzahl)
+                {
+                    letzterTag = tag;
+                    anzahlAmLetztenTag = anzahl - summeVorTag;
+                }
+            }
+            ausleihen = sammleBis(letzterTag, anzahlAmLetztenTag);
+        }
+        return erzeugeVerleihkarten(ausleihen, anzahl);
+    }
+
+    /**
+     * Hält die Ausleihen fest, indem je Teilbestand nur die int-Arrays mit
+     * Mediennummern, Entleihernummern und Ausleihtagen kopiert werden. Die
+     * Verleihkarten entstehen erst, wenn sie von der Momentaufnahme abgefragt
+     * werden, so dass ein Aufrufer, der dafür alle Medien sperrt, die Sperren
+     * nur für das Kopieren hält.
+     */
+    @Override
+    public Momentaufnahme halteFest()
+    {
+        final FesteAusleihen[] festeAusleihen = new FesteAusleihen[_teilbestaende.length];
+        for (int i = 0; i < _teilbestaende.length; i++)
+        {
+            festeAusleihen[i] = _teilbestaende[i].halteFest();
+        }
+        return new Momentaufnahme()
+        {
+            @Override
+            public List<Verleihkarte> getVerleihkarten()
+            {
+                List<Verleihkarte> result = new ArrayList<Verleihkarte>();
+                for (FesteAusleihen ausleihen : festeAusleihen)
+                {
+                    ausleihen.sammleVerleihkarten(result);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Gibt die Anzahl der Ausleihen zurück.
+     */
+    public int getAnzahl()
+    {
+        int anzahl = 0;
+        for (Teilbestand teilbestand : _teilbestaende)
+        {
+            anzahl += teilbestand.getAnzahl();
+        }
+        return anzahl;
+    }
+
+    /**
+     * Sammelt aus allen Teilbeständen die Ausleihen vor dem angegebenen Tag
+     * und insgesamt höchstens anzahlAmTag Ausleihen des Tages selbst. Die
+     * Ausleihen werden nach Ausleihtag und Mediennummer sortiert. Jede
+     * Ausleihe steht als Ausleihtag in den oberen und Mediennummer in den
+     * unteren 32 Bit eines long, so dass dafür keine Objekte entstehen.
+     */
+    private long[] sammleBis(int tag, int anzahlAmTag)
+    {
+        long[][] teile = new long[_teilbestaende.length][];
+        int restAmTag = anzahlAmTag;
+        for (int i = 0; i < _teilbestaende.length; i++)
+        {
+            teile[i] = _teilbestaende[i].sammleBis(tag, restAmTag);
+            for (long ausleihe : teile[i])
+            {
+                if (oben(ausleihe) == tag)
+                {
+                    restAmTag--;
+                }
+            }
+        }
+        long[] result = verbinde(teile);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Hängt die Arrays hintereinander.
+     */
+    private static long[] verbinde(long[][] teile)
+    {
+        int gesamt = 0;
+        for (long[] teil : teile)
+        {
+            gesamt += teil.length;
+        }
+        long[] result = new long[gesamt];
+        int position = 0;
+        for (long[] teil : teile)
+        {
+            System.arraycopy(teil, 0, result, position, teil.length);
+            position += teil.length;
+        }
+        return result;
+    }
+
+    /**
+     * Erzeugt die Verleihkarten der gesammelten Ausleihen in ihrer
+     * Reihenfolge, bis anzahl Verleihkarten erzeugt sind. Ausleihen, die
+     * inzwischen zurückgegeben oder neu verliehen wurden, werden ausgelassen.
+     */
+    private List<Verleihkarte> erzeugeVerleihkarten(long[] ausleihen,
+            int anzahl)
+    {
+        List<Verleihkarte> result = new ArrayList<Verleihkarte>(
+                Math.min(anzahl, ausleihen.length));
+        for (int i = 0; (i < ausleihen.length) && (result.size() < anzahl); i++)
+        {
+            Medium medium = sucheMedium(unten(ausleihen[i]));
+            if (medium != null)
+            {
+                Verleihkarte verleihkarte = getVerleihkarteFuer(medium);
+                if ((verleihkarte != null) && (verleihkarte.getAusleihdatum()
+                    .getEpochenTag() == oben(ausleihen[i])))
+                {
+                    result.add(verleihkarte);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert den Teilbestand, in dem die Ausleihe des Mediums steht.
+     */
+    private Teilbestand teilbestandFuer(Medium medium)
+    {
+        return _teilbestaende[VerleihServiceImpl.streifenFuer(medium)];
+    }
+
+    /**
+     * Sucht das Medium der Ausleihe im Medienbestand.
+     * 
+     * @return Das Medium oder null, wenn es nicht mehr im Bestand ist.
+     */
+    private Medium sucheMedium(int mediennummer)
+    {
+        return _medienbestand.getMedium(new Mediennummer(mediennummer));
+    }
+
+    /**
+     * Liefert die Nummer des Entleihers in diesem Bestand. Ein Kunde, der zum
+     * ersten Mal ausleiht, bekommt dabei eine neue Nummer.
+     */
+    private int entleihernummerVon(Kunde kunde)
+    {
+        return _nummernDerEntleiher.computeIfAbsent(kunde,
+                new Function<Kunde, Integer>()
+                {
+                    @Override
+                    public Integer apply(Kunde neuerEntleiher)
+                    {
+                        int nummer = _letzteEntleihernummer.incrementAndGet();
+                        _entleiher.put(nummer, neuerEntleiher);
+                        return nummer;
+                    }
+                });
+    }
+
+    /**
+     * Erzeugt die Verleihkarte für eine Ausleihe.
+     * 
+     * @ensure result != null
+     */
+    private Verleihkarte erzeugeVerleihkarte(int entleihernummer,
+            Medium medium, int ausleihtag)
+    {
+        return new Verleihkarte(_entleiher.get(entleihernummer), medium,
+                Datum.ausEpochenTag(ausleihtag));
+    }
+
+    /**
+     * Die Ausleihen der Medien eines Streifens in einer Hashtabelle mit
+     * offener Adressierung. Alle Methoden sind synchronisiert.
+     */
+    private final class Teilbestand
+    {
+        /**
+         * Die Mediennummern der Ausleihen. Ein Platz ist {@link #FREI}, nach
+         * einer Rückgabe {@link #GELOESCHT} oder enthält die Mediennummer.
+         */
+        private int[] _mediennummern;
+
+        /**
+         * Die Entleihernummern, am selben Platz wie die Mediennummer, siehe
+         * {@link KompakterVerleihbestand#entleihernummerVon(Kunde)}.
+         */
+        private int[] _entleihernummern;
+
+        /**
+         * Die Ausleihtage als Tage seit dem 1.1.1970, am selben Platz wie die
+         * Mediennummer.
+         */
+        private int[] _ausleihtage;
+
+        /**
+         * Der Platz der nächsten Ausleihe desselben Kunden oder
+         * {@link #KEIN_PLATZ}.
+         */
+        private int[] _naechsteDesKunden;
+
+        /**
+         * Die Anzahl der Ausleihen.
+         */
+        private int _anzahl;
+
+        /**
+         * Die Anzahl der nicht freien Plätze, also Ausleihen und gelöschte
+         * Plätze.
+         */
+        private int _belegt;
+
+        /**
+         * Die Entleihernummern, zu denen es Ausleihen gibt oder gab. Ein
+         * Platz ist {@link #FREI} oder enthält die Entleihernummer.
+         */
+        private int[] _kunden;
+
+        /**
+         * Der Platz der ersten Ausleihe jedes Kunden oder {@link #KEIN_PLATZ},
+         * am selben Platz wie die Entleihernummer.
+         */
+        private int[] _ersteAusleihen;
+
+        /**
+         * Die Anzahl der belegten Plätze in _kunden.
+         */
+        private int _anzahlKunden;
+
+        /**
+         * Der Platz der nächsten Ausleihe desselben Ausleihtags oder
+         * {@link #KEIN_PLATZ}.
+         */
+        private int[] _naechsteDesTages;
+
+        /**
+         * Der Platz der vorigen Ausleihe desselben Ausleihtags oder
+         * {@link #KEIN_PLATZ}.
+         */
+        private int[] _vorigeDesTages;
+
+        /**
+         * Die Ausleihtage, an denen es Ausleihen gibt, aufsteigend sortiert in
+         * den ersten _anzahlTage Plätzen.
+         */
+        private int[] _tage;
+
+        /**
+         * Der Platz der ersten Ausleihe jedes Tages, am selben Index wie der
+         * Tag.
+         */
+        private int[] _ersteDesTages;
+
+        /**
+         * Der Platz der letzten Ausleihe jedes Tages, am selben Index wie der
+         * Tag.
+         */
+        private int[] _letzteDesTages;
+
+        /**
+         * Die Anzahl der Ausleihen jedes Tages, am selben Index wie der Tag.
+         */
+        private int[] _anzahlDesTages;
+
+        /**
+         * Die Anzahl der Tage in _tage.
+         */
+        private int _anzahlTage;
+
+        /**
+         * Initialisiert einen leeren Teilbestand mit der angegebenen
+         * Kapazität.
+         */
+        Teilbestand(int kapazitaet)
+        {
+            legeTageAn(ANFANGS_KAPAZITAET);
+            legeAusleihenAn(kapazitaet);
+            legeKundenAn(ANFANGS_KAPAZITAET);
+        }
+
+        synchronized void trageEin(int entleihernummer, int mediennummer,
+                int ausleihtag)
+        {
+            if ((_belegt + 1) * 4 > _mediennummern.length * 3)
+            {
+                int kapazitaet = _mediennummern.length;
+                while ((_anzahl + 1) * 2 > kapazitaet)
+                {
+                    kapazitaet *= 2;
+                }
+                baueAusleihenNeuAuf(kapazitaet);
+            }
+            int platz = findeEinfuegePlatz(mediennummer);
+            if (_mediennummern[platz] == FREI)
+            {
+                _belegt++;
+            }
+            _mediennummern[platz] = mediennummer;
+            _entleihernummern[platz] = entleihernummer;
+            _ausleihtage[platz] = ausleihtag;
+            _anzahl++;
+            haengeEin(platz);
+            haengeAnTag(platz);
+        }
+
+        synchronized Verleihkarte entferne(Medium medium)
+        {
+            Verleihkarte verleihkarte = null;
+            int platz = findeAusleihe(medium.getMediennummer()
+                .getNummer());
+            if (platz != KEIN_PLATZ)
+            {
+                verleihkarte = erzeugeVerleihkarte(_entleihernummern[platz],
+                        medium, _ausleihtage[platz]);
+                haengeAus(platz);
+                haengeAusTag(platz);
+                _mediennummern[platz] = GELOESCHT;
+                _anzahl--;
+            }
+            return verleihkarte;
+        }
+
+        synchronized boolean istVerliehen(int mediennummer)
+        {
+            return findeAusleihe(mediennummer) != KEIN_PLATZ;
+        }
+
+        synchronized Verleihkarte getVerleihkarteFuer(Medium medium)
+        {
+            Verleihkarte verleihkarte = null;
+            int platz = findeAusleihe(medium.getMediennummer()
+                .getNummer());
+            if (platz != KEIN_PLATZ)
+            {
+                verleihkarte = erzeugeVerleihkarte(_entleihernummern[platz],
+                        medium, _ausleihtage[platz]);
+            }
+            return verleihkarte;
+        }
+
+        /**
+         * Hängt die Medien des Kunden aus diesem Teilbestand an.
+         */
+        synchronized void sammleMedienFuer(Kunde kunde, List<Medium> result)
+        {
+            int platz = ersteAusleiheVon(kunde);
+            while (platz != KEIN_PLATZ)
+            {
+                Medium medium = sucheMedium(_mediennummern[platz]);
+                if (medium != null)
+                {
+                    result.add(medium);
+                }
+                platz = _naechsteDesKunden[platz];
+            }
+        }
+
+        /**
+         * Hängt die Verleihkarten des Kunden aus diesem Teilbestand an.
+         */
+        synchronized void sammleVerleihkartenFuer(Kunde kunde,
+                List<Verleihkarte> result)
+        {
+            int platz = ersteAusleiheVon(kunde);
+            while (platz != KEIN_PLATZ)
+            {
+                Medium medium = sucheMedium(_mediennummern[platz]);
+                if (medium != null)
+                {
+                    result.add(new Verleihkarte(kunde, medium,
+                            Datum.ausEpochenTag(_ausleihtage[platz])));
+                }
+                platz = _naechsteDesKunden[platz];
+            }
+        }
+
+        /**
+         * Hängt alle Verleihkarten dieses Teilbestands an.
+         */
+        synchronized void sammleVerleihkarten(List<Verleihkarte> result)
+        {
+            new FesteAusleihen(_mediennummern, _entleihernummern,
+                    _ausleihtage).sammleVerleihkarten(result);
+        }
+
+        /**
+         * Liefert eine Kopie der Ausleihen dieses Teilbestands. Kopiert werden
+         * nur die int-Arrays, Verleihkarten entstehen dabei nicht.
+         */
+        synchronized FesteAusleihen halteFest()
+        {
+            return new FesteAusleihen(_mediennummern.clone(),
+                    _entleihernummern.clone(), _ausleihtage.clone());
+        }
+
+        /**
+         * Liefert für die ältesten Ausleihtage, bis mindestens anzahl
+         * Ausleihen zusammenkommen, je Tag den Tag in den oberen und die
+         * Anzahl seiner Ausleihen in den unteren 32 Bit.
+         */
+        synchronized long[] zaehleAelteste(int anzahl)
+        {
+            int tage = 0;
+            int summe = 0;
+            while ((tage < _anzahlTage) && (summe < anzahl))
+            {
+                summe += _anzahlDesTages[tage];
+                tage++;
+            }
+            long[] result = new long[tage];
+            for (int i = 0; i < tage; i++)
+            {
+                result[i] = packe(_tage[i], _anzahlDesTages[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Liefert alle Ausleihen vor dem angegebenen Tag und höchstens
+         * anzahlAmTag Ausleihen des Tages selbst, jede als Ausleihtag in den
+         * oberen und Mediennummer in den unteren 32 Bit.
+         */
+        synchronized long[] sammleBis(int tag, int anzahlAmTag)
+        {
+            int tage = 0;
+            int anzahl = 0;
+            while ((tage < _anzahlTage) && (_tage[tage] < tag))
+            {
+                anzahl += _anzahlDesTages[tage];
+                tage++;
+            }
+            if ((tage < _anzahlTage) && (_tage[tage] == tag))
+            {
+                anzahl += Math.min(anzahlAmTag, _anzahlDesTages[tage]);
+                tage++;
+            }
+            long[] result = new long[anzahl];
+            int gesammelt = 0;
+            for (int i = 0; i < tage; i++)
+            {
+                int platz = _ersteDesTages[i];
+                while ((platz != KEIN_PLATZ) && (gesammelt < anzahl))
+                {
+                    result[gesammelt] = packe(_tage[i], _mediennummern[platz]);
+                    gesammelt++;
+                    platz = _naechsteDesTages[platz];
+                }
+            }
+            return result;
+        }
+
+        synchronized int getAnzahl()
+        {
+            return _anzahl;
+        }
+
+        /**
+         * Hängt die Ausleihe an diesem Platz vorne in die Kette ihres Kunden
+         * ein. Der Kunde wird dabei bei Bedarf angelegt.
+         */
+        private void haengeEin(int platz)
+        {
+            int entleihernummer = _entleihernummern[platz];
+            int kundenPlatz = findeKunden(entleihernummer);
+            if (_kunden[kundenPlatz] == FREI)
+            {
+                if ((_anzahlKunden + 1) * 4 > _kunden.length * 3)
+                {
+                    baueKundenNeuAuf();
+                    kundenPlatz = findeKunden(entleihernummer);
+                }
+                _kunden[kundenPlatz] = entleihernummer;
+                _ersteAusleihen[kundenPlatz] = KEIN_PLATZ;
+                _anzahlKunden++;
+            }
+            _naechsteDesKunden[platz] = _ersteAusleihen[kundenPlatz];
+            _ersteAusleihen[kundenPlatz] = platz;
+        }
+
+        /**
+         * Entfernt die Ausleihe an diesem Platz aus der Kette ihres Kunden.
+         */
+        private void haengeAus(int platz)
+        {
+            int kundenPlatz = findeKunden(_entleihernummern[platz]);
+            if (_ersteAusleihen[kundenPlatz] == platz)
+            {
+                _ersteAusleihen[kundenPlatz] = _naechsteDesKunden[platz];
+            }
+            else
+            {
+                int vorgaenger = _ersteAusleihen[kundenPlatz];
+                while (_naechsteDesKunden[vorgaenger] != platz)
+                {
+                    vorgaenger = _naechsteDesKunden[vorgaenger];
+                }
+                _naechsteDesKunden[vorgaenger] = _naechsteDesKunden[platz];
+            }
+        }
+
+        /**
+         * Hängt die Ausleihe an diesem Platz hinten in die Kette ihres
+         * Ausleihtags ein. Der Tag wird dabei bei Bedarf angelegt.
+         */
+        private void haengeAnTag(int platz)
+        {
+            int tag = _ausleihtage[platz];
+            int index = Arrays.binarySearch(_tage, 0, _anzahlTage, tag);
+            if (index < 0)
+            {
+                index = -index - 1;
+                fuegeTagEin(index, tag);
+            }
+            int letzte = _letzteDesTages[index];
+            _vorigeDesTages[platz] = letzte;
+            _naechsteDesTages[platz] = KEIN_PLATZ;
+            if (letzte == KEIN_PLATZ)
+            {
+                _ersteDesTages[index] = platz;
+            }
+            else
+            {
+                _naechsteDesTages[letzte] = platz;
+            }
+            _letzteDesTages[index] = platz;
+            _anzahlDesTages[index]++;
+        }
+
+        /**
+         * Entfernt die Ausleihe an diesem Platz aus der Kette ihres
+         * Ausleihtags. Ein Tag ohne Ausleihen wird entfernt.
+         */
+        private void haengeAusTag(int platz)
+        {
+            int index = Arrays.binarySearch(_tage, 0, _anzahlTage,
+                    _ausleihtage[platz]);
+            int vorige = _vorigeDesTages[platz];
+            int naechste = _naechsteDesTages[platz];
+            if (vorige == KEIN_PLATZ)
+            {
+                _ersteDesTages[index] = naechste;
+            }
+            else
+            {
+                _naechsteDesTages[vorige] = naechste;
+            }
+            if (naechste == KEIN_PLATZ)
+            {
+                _letzteDesTages[index] = vorige;
+            }
+            else
+            {
+                _vorigeDesTages[naechste] = vorige;
+            }
+            _anzahlDesTages[index]--;
+            if (_anzahlDesTages[index] == 0)
+            {
+                entferneTag(index);
+            }
+        }
+
+        /**
+         * Fügt einen Tag ohne Ausleihen am angegebenen Index in _tage ein.
+         */
+        private void fuegeTagEin(int index, int tag)
+        {
+            if (_anzahlTage == _tage.length)
+            {
+                int kapazitaet = _tage.length * 2;
+                _tage = Arrays.copyOf(_tage, kapazitaet);
+                _ersteDesTages = Arrays.copyOf(_ersteDesTages, kapazitaet);
+                _letzteDesTages = Arrays.copyOf(_letzteDesTages, kapazitaet);
+                _anzahlDesTages = Arrays.copyOf(_anzahlDesTages, kapazitaet);
+            }
+            int dahinter = _anzahlTage - index;
+            System.arraycopy(_tage, index, _tage, index + 1, dahinter);
+            System.arraycopy(_ersteDesTages, index, _ersteDesTages, index + 1,
+                    dahinter);
+            System.arraycopy(_letzteDesTages, index, _letzteDesTages,
+                    index + 1, dahinter);
+            System.arraycopy(_anzahlDesTages, index, _anzahlDesTages,
+                    index + 1, dahinter);
+            _tage[index] = tag;
+            _ersteDesTages[index] = KEIN_PLATZ;
+            _letzteDesTages[index] = KEIN_PLATZ;
+            _anzahlDesTages[index] = 0;
+            _anzahlTage++;
+        }
+
+        /**
+         * Entfernt den Tag am angegebenen Index aus _tage.
+         */
+        private void entferneTag(int index)
+        {
+            int dahinter = _anzahlTage - index - 1;
+            System.arraycopy(_tage, index + 1, _tage, index, dahinter);
+            System.arraycopy(_ersteDesTages, index + 1, _ersteDesTages, index,
+                    dahinter);
+            System.arraycopy(_letzteDesTages, index + 1, _letzteDesTages,
+                    index, dahinter);
+            System.arraycopy(_anzahlDesTages, index + 1, _anzahlDesTages,
+                    index, dahinter);
+            _anzahlTage--;
+        }
+
+        /**
+         * Liefert den Platz der ersten Ausleihe des Kunden oder
+         * {@link #KEIN_PLATZ}, wenn er nichts ausgeliehen hat.
+         */
+        private int ersteAusleiheVon(Kunde kunde)
+        {
+            int platz = KEIN_PLATZ;
+            Integer entleihernummer = _nummernDerEntleiher.get(kunde);
+            if (entleihernummer != null)
+            {
+                int kundenPlatz = findeKunden(entleihernummer);
+                if (_kunden[kundenPlatz] != FREI)
+                {
+                    platz = _ersteAusleihen[kundenPlatz];
+                }
+            }
+            return platz;
+        }
+
+        /**
+         * Liefert den Platz der Ausleihe des Mediums oder {@link #KEIN_PLATZ}.
+         */
+        private int findeAusleihe(int mediennummer)
+        {
+            int maske = _mediennummern.length - 1;
+            int platz = streue(mediennummer) & maske;
+            while ((_mediennummern[platz] != FREI)
+                    && (_mediennummern[platz] != mediennummer))
+            {
+                platz = (platz + 1) & maske;
+            }
+            if (_mediennummern[platz] == FREI)
+            {
+                platz = KEIN_PLATZ;
+            }
+            return platz;
+        }
+
+        /**
+         * Liefert den ersten freien oder gelöschten Platz für ein Medium, das
+         * noch nicht eingetragen ist.
+         */
+        private int findeEinfuegePlatz(int mediennummer)
+        {
+            int maske = _mediennummern.length - 1;
+            int platz = streue(mediennummer) & maske;
+            while (_mediennummern[platz] > 0)
+            {
+                platz = (platz + 1) & maske;
+            }
+            return platz;
+        }
+
+        /**
+         * Liefert den Platz des Kunden in _kunden oder den freien Platz, an dem
+         * er stehen müsste.
+         */
+        private int findeKunden(int entleihernummer)
+        {
+            int maske = _kunden.length - 1;
+            int platz = streue(entleihernummer) & maske;
+            while ((_kunden[platz] != FREI) && (_kunden[platz] != entleihernummer))
+            {
+                platz = (platz + 1) & maske;
+            }
+            return platz;
+        }
+
+        /**
+         * Legt die Ausleihen in Tabellen mit der neuen Kapazität neu an.
+         * Gelöschte Plätze fallen dabei weg. Da sich die Plätze ändern, werden
+         * auch die Ketten der Kunden und Tage neu aufgebaut. Die Ausleihen
+         * werden dafür Tag für Tag entlang der alten Ketten übernommen, damit
+         * die Reihenfolge innerhalb eines Tages erhalten bleibt.
+         */
+        private void baueAusleihenNeuAuf(int kapazitaet)
+        {
+            int[] mediennummern = _mediennummern;
+            int[] entleihernummern = _entleihernummern;
+            int[] ausleihtage = _ausleihtage;
+            int[] naechsteDesTages = _naechsteDesTages;
+            int[] ersteDesTages = Arrays.copyOf(_ersteDesTages, _anzahlTage);
+            legeAusleihenAn(kapazitaet);
+            Arrays.fill(_ersteAusleihen, KEIN_PLATZ);
+            for (int alterErster : ersteDesTages)
+            {
+                int alterPlatz = alterErster;
+                while (alterPlatz != KEIN_PLATZ)
+                {
+                    int platz = findeEinfuegePlatz(mediennummern[alterPlatz]);
+                    _mediennummern[platz] = mediennummern[alterPlatz];
+                    _entleihernummern[platz] = entleihernummern[alterPlatz];
+                    _ausleihtage[platz] = ausleihtage[alterPlatz];
+                    _belegt++;
+                    _anzahl++;
+                    haengeEin(platz);
+                    haengeAnTag(platz);
+                    alterPlatz = naechsteDesTages[alterPlatz];
+                }
+            }
+        }
+
+        /**
+         * Legt die Kunden in einer Tabelle mit Platz für doppelt so viele
+         * Kunden an, wie noch Ausleihen haben. Kunden ohne Ausleihen fallen
+         * dabei weg. Die Plätze der Ausleihen ändern sich nicht.
+         */
+        private void baueKundenNeuAuf()
+        {
+            int[] kunden = _kunden;
+            int[] ersteAusleihen = _ersteAusleihen;
+            int anzahlMitAusleihen = 0;
+            for (int alterPlatz = 0; alterPlatz < kunden.length; alterPlatz++)
+            {
+                if ((kunden[alterPlatz] != FREI)
+                        && (ersteAusleihen[alterPlatz] != KEIN_PLATZ))
+                {
+                    anzahlMitAusleihen++;
+                }
+            }
+            int kapazitaet = ANFANGS_KAPAZITAET;
+            while ((anzahlMitAusleihen + 1) * 4 > kapazitaet)
+            {
+                kapazitaet *= 2;
+            }
+            legeKundenAn(kapazitaet);
+            for (int alterPlatz = 0; alterPlatz < kunden.length; alterPlatz++)
+            {
+                if ((kunden[alterPlatz] != FREI)
+                        && (ersteAusleihen[alterPlatz] != KEIN_PLATZ))
+                {
+                    int platz = findeKunden(kunden[alterPlatz]);
+                    _kunden[platz] = kunden[alterPlatz];
+                    _ersteAusleihen[platz] = ersteAusleihen[alterPlatz];
+                    _anzahlKunden++;
+                }
+            }
+        }
+
+        private void legeAusleihenAn(int kapazitaet)
+        {
+            _mediennummern = new int[kapazitaet];
+            _entleihernummern = new int[kapazitaet];
+            _ausleihtage = new int[kapazitaet];
+            _naechsteDesKunden = new int[kapazitaet];
+            _naechsteDesTages = new int[kapazitaet];
+            _vorigeDesTages = new int[kapazitaet];
+            _anzahl = 0;
+            _belegt = 0;
+            _anzahlTage = 0;
+        }
+
+        private void legeTageAn(int kapazitaet)
+        {
+            _tage = new int[kapazitaet];
+            _ersteDesTages = new int[kapazitaet];
+            _letzteDesTages = new int[kapazitaet];
+            _anzahlDesTages = new int[kapazitaet];
+            _anzahlTage = 0;
+        }
+
+        private void legeKundenAn(int kapazitaet)
+        {
+            _kunden = new int[kapazitaet];
+            _ersteAusleihen = new int[kapazitaet];
+            _anzahlKunden = 0;
+        }
+    }
+
+    /**
+     * Die Ausleihen eines Teilbestands als parallele Arrays, wie sie in der
+     * Hashtabelle stehen. Ein Platz mit einer Mediennummer größer 0 enthält
+     * eine Ausleihe.
+     */
+    private final class FesteAusleihen
+    {
+        private final int[] _mediennummern;
+        private final int[] _entleihernummern;
+        private final int[] _ausleihtage;
+
+        FesteAusleihen(int[] mediennummern, int[] entleihernummern,
+                int[] ausleihtage)
+        {
+            _mediennummern = mediennummern;
+            _entleihernummern = entleihernummern;
+            _ausleihtage = ausleihtage;
+        }
+
+        /**
+         * Hängt die Verleihkarten aller Ausleihen an, deren Medium noch im
+         * Medienbestand ist.
+         */
+        void sammleVerleihkarten(List<Verleihkarte> result)
+        {
+            for (int platz = 0; platz < _mediennummern.length; platz++)
+            {
+                if (_mediennummern[platz] > 0)
+                {
+                    Medium medium = sucheMedium(_mediennummern[platz]);
+                    if (medium != null)
+                    {
+                        result.add(erzeugeVerleihkarte(
+                                _entleihernummern[platz], medium,
+                                _ausleihtage[platz]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packt zwei nicht negative int in ein long, das nach der ersten und dann
+     * nach der zweiten Zahl sortiert. Die erste Zahl darf auch negativ sein.
+     */
+    private static long packe(int oben, int unten)
+    {
+        return ((long) oben << 32) | (unten & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Liefert die erste mit {@link #packe(int, int)} gepackte Zahl.
+     */
+    private static int oben(long gepackt)
+    {
+        return (int) (gepackt >> 32);
+    }
+
+    /**
+     * Liefert die zweite mit {@link #packe(int, int)} gepackte Zahl.
+     */
+    private static int unten(long gepackt)
+    {
+        return (int) gepackt;
+    }
+
+    /**
+     * Verteilt aufeinanderfolgende Nummern über die ganze Tabelle.
+     */
+    private static int streue(int nummer)
+    {
+        int hash = nummer * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,294 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Testet den KompakterVerleihbestand, auch im Vergleich mit dem
+ * ObjektVerleihbestand.
+ */
+public class KompakterVerleihbestandTest
+{
+    private final List<Kunde> _kunden;
+    private final List<Medium> _medien;
+    private final KundenstammService _kundenstamm;
+    private final MedienbestandService _medienbestand;
+
+    public KompakterVerleihbestandTest()
+    {
+        _kunden = new ArrayList<Kunde>();
+        for (int i = 0; i < 50; i++)
+        {
+            _kunden.add(new Kunde(new Kundennummer(200000 + i), "Vorname" + i,
+                    "Nachname" + i));
+        }
+        _medien = new ArrayList<Medium>();
+        for (int i = 0; i < 5000; i++)
+        {
+            _medien.add(new CD("Titel" + i, "", "Interpret", 40));
+        }
+        _kundenstamm = new KundenstammServiceImpl(_kunden);
+        _medienbestand = new MedienbestandServiceImpl(_medien);
+    }
+
+    @Test
+    public void testVerleihenUndZuruecknehmen()
+    {
+        KompakterVerleihbestand bestand = new KompakterVerleihbestand(
+                _medienbestand, new ArrayList<Verleihkarte>());
+        Kunde kunde = _kunden.get(0);
+        Medium medium = _medien.get(0);
+        Datum datum = new Datum(1, 4, 2021);
+
+        Verleihkarte verleihkarte = bestand.trageEin(kunde, medium, datum);
+        assertTrue(bestand.istVerliehen(medium));
+        assertFalse(bestand.istVerliehen(_medien.get(1)));
+        assertEquals(verleihkarte, bestand.getVerleihkarteFuer(medium));
+        assertEquals(datum, bestand.getVerleihkarteFuer(medium)
+            .getAusleihdatum());
+        assertEquals(1, bestand.getMedienFuer(kunde)
+            .size());
+        assertTrue(bestand.getMedienFuer(_kunden.get(1))
+            .isEmpty());
+
+        assertEquals(verleihkarte, bestand.entferne(medium));
+        assertFalse(bestand.istVerliehen(medium));
+        assertNull(bestand.getVerleihkarteFuer(medium));
+        assertNull(bestand.entferne(medium));
+        assertTrue(bestand.getVerleihkartenFuer(kunde)
+            .isEmpty());
+        assertEquals(0, bestand.getAnzahl());
+    }
+
+    @Test
+    public void testVieleAusleihenWieObjektVerleihbestand()
+    {
+        List<Verleihkarte> initialBestand = new ArrayList<Verleihkarte>();
+        for (int i = 0; i < 100; i++)
+        {
+            initialBestand.add(new Verleihkarte(_kunden.get(i % 7),
+                    _medien.get(i), new Datum(1, 3, 2021)));
+        }
+        Verleihbestand kompakt = new KompakterVerleihbestand(_medienbestand,
+                initialBestand);
+        Verleihbestand objekte = new ObjektVerleihbestand(initialBestand);
+
+        for (int runde = 0; runde < 3; runde++)
+        {
+            for (int i = 100; i < _medien.size(); i++)
+            {
+                Medium medium = _medien.get(i);
+                if (!objekte.istVerliehen(medium))
+                {
+                    Kunde kunde = _kunden.get((i + runde) % _kunden.size());
+                    Datum datum = new Datum(1, 4, 2021).plus(i % 30);
+                    assertEquals(objekte.trageEin(kunde, medium, datum),
+                            kompakt.trageEin(kunde, medium, datum));
+                }
+            }
+            for (int i = runde; i < _medien.size(); i += 2 + runde)
+            {
+                Medium medium = _medien.get(i);
+                assertEquals(objekte.entferne(medium), kompakt.entferne(medium));
+            }
+        }
+
+        assertEquals(new HashSet<Verleihkarte>(objekte.getVerleihkarten()),
+                new HashSet<Verleihkarte>(kompakt.getVerleihkarten()));
+        for (Kunde kunde : _kunden)
+        {
+            assertEquals(
+                    new HashSet<Verleihkarte>(
+                            objekte.getVerleihkartenFuer(kunde)),
+                    new HashSet<Verleihkarte>(
+                            kompakt.getVerleihkartenFuer(kunde)));
+            assertEquals(new HashSet<Medium>(objekte.getMedienFuer(kunde)),
+                    new HashSet<Medium>(kompakt.getMedienFuer(kunde)));
+        }
+        for (Medium medium : _medien)
+        {
+            assertEquals(objekte.istVerliehen(medium),
+                    kompakt.istVerliehen(medium));
+            assertEquals(objekte.getVerleihkarteFuer(medium),
+                    kompakt.getVerleihkarteFuer(medium));
+        }
+    }
+
+    @Test
+    public void testAbfragenNachAusleihtagWieObjektVerleihbestand()
+    {
+        Verleihbestand kompakt = new KompakterVerleihbestand(_medienbestand,
+                new ArrayList<Verleihkarte>());
+        Verleihbestand objekte = new ObjektVerleihbestand(
+                new ArrayList<Verleihkarte>());
+        for (int i = 0; i < _medien.size(); i++)
+        {
+            Kunde kunde = _kunden.get(i % _kunden.size());
+            Datum datum = new Datum(1, 4, 2021).minus((i * 7) % 40);
+            objekte.trageEin(kunde, _medien.get(i), datum);
+            kompakt.trageEin(kunde, _medien.get(i), datum);
+        }
+        for (int i = 0; i < _medien.size(); i += 3)
+        {
+            objekte.entferne(_medien.get(i));
+            kompakt.entferne(_medien.get(i));
+        }
+
+        Datum stichtag = new Datum(1, 4, 2021).minus(20);
+        List<Verleihkarte> erwartet = objekte
+            .getVerleihkartenVerliehenBis(stichtag);
+        List<Verleihkarte> tatsaechlich = kompakt
+            .getVerleihkartenVerliehenBis(stichtag);
+        assertEquals(new HashSet<Verleihkarte>(erwartet),
+                new HashSet<Verleihkarte>(tatsaechlich));
+        assertEquals(ausleihdaten(erwartet), ausleihdaten(tatsaechlich));
+
+        for (int anzahl : new int[] {0, 1, 100, _medien.size()})
+        {
+            assertEquals(ausleihdaten(objekte.getAeltesteVerleihkarten(anzahl)),
+                    ausleihdaten(kompakt.getAeltesteVerleihkarten(anzahl)));
+        }
+    }
+
+    @Test
+    public void testMomentaufnahmeBleibtUnveraendert()
+    {
+        Verleihbestand kompakt = new KompakterVerleihbestand(_medienbestand,
+                new ArrayList<Verleihkarte>());
+        Verleihbestand objekte = new ObjektVerleihbestand(
+                new ArrayList<Verleihkarte>());
+        for (Verleihbestand bestand : new Verleihbestand[] {objekte, kompakt})
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                bestand.trageEin(_kunden.get(i % 7), _medien.get(i),
+                        new Datum(1, 4, 2021));
+            }
+        }
+
+        Verleihbestand.Momentaufnahme momentaufnahme = kompakt.halteFest();
+        List<Verleihkarte> erwartet = objekte.halteFest()
+            .getVerleihkarten();
+        for (int i = 0; i < 50; i++)
+        {
+            kompakt.entferne(_medien.get(i));
+        }
+        for (int i = 100; i < 1000; i++)
+        {
+            kompakt.trageEin(_kunden.get(0), _medien.get(i),
+                    new Datum(2, 4, 2021));
+        }
+
+        assertEquals(100, erwartet.size());
+        assertEquals(new HashSet<Verleihkarte>(erwartet),
+                new HashSet<Verleihkarte>(momentaufnahme.getVerleihkarten()));
+    }
+
+    @Test
+    public void testVerleihServiceMitKompaktemBestand()
+    {
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                _kundenstamm, _medienbestand, new KompakterVerleihbestand(
+                        _medienbestand, new ArrayList<Verleihkarte>()));
+        List<Medium> medien = _medien.subList(0, 3);
+        Kunde kunde = _kunden.get(3);
+
+        verleihService.verleiheAn(kunde, medien, new Datum(5, 4, 2021));
+        assertTrue(verleihService.sindAlleVerliehen(medien));
+        assertEquals(kunde, verleihService.getEntleiherFuer(medien.get(1)));
+        assertEquals(new HashSet<Medium>(medien), new HashSet<Medium>(
+                verleihService.getAusgelieheneMedienFuer(kunde)));
+
+        verleihService.nimmZurueck(medien, new Datum(6, 4, 2021));
+        assertTrue(verleihService.sindAlleNichtVerliehen(medien));
+        assertTrue(verleihService.getVerleihkarten()
+            .isEmpty());
+    }
+
+    @Test
+    public void testEntleiherNichtMehrImKundenstamm()
+    {
+        VerleihServiceImpl kompakt = new VerleihServiceImpl(_kundenstamm,
+                _medienbestand, new KompakterVerleihbestand(_medienbestand,
+                        new ArrayList<Verleihkarte>()));
+        VerleihServiceImpl objekte = new VerleihServiceImpl(_kundenstamm,
+                _medienbestand,
+                new ObjektVerleihbestand(new ArrayList<Verleihkarte>()));
+        Kunde kunde = new Kunde(new Kundennummer(300000), "Ned", "Flanders");
+        _kundenstamm.fuegeKundenEin(kunde);
+        kompakt.verleiheAn(kunde, _medien.subList(0, 1),
+                new Datum(5, 4, 2021));
+        objekte.verleiheAn(kunde, _medien.subList(0, 1),
+                new Datum(5, 4, 2021));
+
+        _kundenstamm.entferneKunden(kunde);
+        Kunde neuerKunde = new Kunde(new Kundennummer(300000), "Maude",
+                "Flanders");
+        _kundenstamm.fuegeKundenEin(neuerKunde);
+
+        for (VerleihServiceImpl verleihService : new VerleihServiceImpl[] {
+                objekte, kompakt})
+        {
+            assertTrue(verleihService.istVerliehen(_medien.get(0)));
+            assertSame(kunde, verleihService.getEntleiherFuer(_medien.get(0)));
+            assertEquals(1, verleihService.getVerleihkarten()
+                .size());
+            assertTrue(verleihService.getAusgelieheneMedienFuer(neuerKunde)
+                .isEmpty());
+        }
+    }
+
+    @Test
+    public void testGleichzeitigVerleihenInVerschiedenenTeilbestaenden()
+            throws Exception
+    {
+        final KompakterVerleihbestand bestand = new KompakterVerleihbestand(
+                _medienbestand, new ArrayList<Verleihkarte>());
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int erster = t;
+            threads[t] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i = erster; i < _medien.size(); i += threads.length)
+                    {
+                        bestand.trageEin(_kunden.get(i % _kunden.size()),
+                                _medien.get(i), new Datum(1, 4, 2021));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(_medien.size(), bestand.getAnzahl());
+        assertEquals(_medien.size(), bestand.getVerleihkarten()
+            .size());
+        assertEquals(_medien.size() / _kunden.size(),
+                bestand.getMedienFuer(_kunden.get(0))
+                    .size());
+    }
+
+    private static List<Datum> ausleihdaten(List<Verleihkarte> verleihkarten)
+    {
+        List<Datum> result = new ArrayList<Datum>();
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            result.add(verleihkarte.getAusleihdatum());
+        }
+        return result;
+    }
+}
@@ -3,7 +3,8 @@ import java.util.Comparator;
 
 /**
  * Comparator-Klasse um zwei Kunden zu vergleichen, damit sie an der UI sortiert
- * angezeigt werden können.
+ * angezeigt werden können. Die Nachnamen werden mit
+ * {@link Sortierschluessel#vergleiche(String, String)} verglichen.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -16,8 +17,8 @@ class KundenComparator implements Comparator<Kunde>, Serializable
     /**
      * Vergleicht zwei gegebene Kunden anhand des Nachnamens.
      * 
-     * @return einen Wert <0 falls der Nachname von kunde1 lexikographisch vor
-     *         dem Nachnamen von kunde2 kommt, einen Wert>0, im umgekehrten
+     * @return einen Wert <0 falls der Nachname von kunde1 nach deutscher
+     *         Sortierung vor dem Nachnamen von kunde2 kommt, einen Wert>0, im umgekehrten
      *         Fall. Bei gleichen Nachnamen ist das Ergebnis 0.
      * 
      */
@@ -27,8 +28,8 @@ class KundenComparator implements Comparator<Kunde>, Serializable
         int result = 0;
         if ((kunde1 != null) && (kunde2 != null))
         {
-            result = kunde1.getNachname()
-                .compareTo(kunde2.getNachname());
+            result = Sortierschluessel.vergleiche(kunde1.getNachname(),
+                    kunde2.getNachname());
         }
         return result;
     }
@@ -32,4 +32,15 @@ public class KundenComparatorTest
         assertEquals(0, _comparator.compare(_kunde2, _kunde3));
     }
 
+    @Test
+    public void testCompareDeutscheSortierung()
+    {
+        Kunde mueller = new Kunde(new Kundennummer(222222), "Heinz", "Müller");
+        Kunde mutter = new Kunde(new Kundennummer(333333), "Anna", "Mutter");
+        Kunde klein = new Kunde(new Kundennummer(444444), "Lisa", "meier");
+        assertTrue(_comparator.compare(mueller, mutter) < 0);
+        assertTrue(_comparator.compare(_kunde1, mueller) < 0);
+        assertEquals(0, _comparator.compare(klein, _kunde1));
+    }
+
 }
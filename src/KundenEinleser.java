@@ -1,8 +1,10 @@
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -15,11 +17,18 @@ import java.util.StringTokenizer;
  * 
  * Kundennummer; Vorname; Nachname; Strasse; PLZ; Ort
  * 
+ * Die Datei ist UTF-8-kodiert. Ein Feld, das nur aus einem Leerzeichen
+ * besteht, wird als leerer String eingelesen. Kunden mit leerer PLZ werden
+ * ohne PLZ eingelesen, Kunden mit ungültiger PLZ werden übersprungen.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 class KundenEinleser
 {
+    private static final String LEERSTRING = "";
+
+    private static final String LEERZEICHEN = " ";
 
     /**
      * Liest Kunden aus einer Textdatei ein und gibt alle eingelesenen Kunden
@@ -38,7 +47,8 @@ class KundenEinleser
         assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
         List<Kunde> eingeleseneKunden = new ArrayList<Kunde>();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(kundenDatei)))
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(kundenDatei), StandardCharsets.UTF_8)))
         {
             String line = null;
             // liest Datei Zeile für Zeile
@@ -46,20 +56,23 @@ class KundenEinleser
             {
                 StringTokenizer tokenizer = new StringTokenizer(line, ";");
                 int kundennummer = Integer.valueOf(tokenizer.nextToken());
-                String vorname = tokenizer.nextToken();
-                String nachname = tokenizer.nextToken();
-                String strasse = tokenizer.nextToken();
-                String plz = tokenizer.nextToken();
-                String ort = tokenizer.nextToken();
+                String vorname = dekodiere(tokenizer.nextToken());
+                String nachname = dekodiere(tokenizer.nextToken());
+                String strasse = dekodiere(tokenizer.nextToken());
+                String plz = dekodiere(tokenizer.nextToken());
+                String ort = dekodiere(tokenizer.nextToken());
 
                 if (Kundennummer.istGueltig(kundennummer)
-                        && PLZ.istGueltig(plz))
+                        && (plz.isEmpty() || PLZ.istGueltig(plz)))
                 {
                     Kunde kunde = new Kunde(new Kundennummer(kundennummer),
                             vorname, nachname);
                     kunde.setStrasse(strasse);
                     kunde.setWohnort(ort);
-                    kunde.setPLZ(new PLZ(plz));
+                    if (!plz.isEmpty())
+                    {
+                        kunde.setPLZ(new PLZ(plz));
+                    }
 
                     eingeleseneKunden.add(kunde);
                 }
@@ -77,4 +90,18 @@ class KundenEinleser
         }
         return eingeleseneKunden;
     }
+
+    /**
+     * Dekodiert ein Feld. Der {@link KundenSchreiber} schreibt leere Felder
+     * als einzelnes Leerzeichen, sie werden wieder zum leeren String.
+     */
+    private static String dekodiere(String text)
+    {
+        String ergebnis = text;
+        if (text.equals(LEERZEICHEN))
+        {
+            ergebnis = LEERSTRING;
+        }
+        return ergebnis;
+    }
 }
@@ -0,0 +1,489 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ein Suchindex über Kundennummer, Vorname, Nachname, Straße und Wohnort von
+ * Kunden für die Suche während der Eingabe.
+ * 
+ * Die Texte werden mit {@link Suchtext} normalisiert und in Wörter zerlegt.
+ * Für jedes Wort werden seine Trigramme sowie seine Anfänge der Länge eins und
+ * zwei indiziert. Zu jedem dieser Schlüssel hält der Index die aufsteigend
+ * sortierten Positionen der Kunden, deren Texte ihn enthalten. Die Schlüssel
+ * sind die in ein long gepackten Zeichen, so dass für sie keine Strings
+ * erzeugt werden müssen.
+ * 
+ * Eine Suchanfrage wird ebenfalls in Wörter zerlegt, ein Kunde muss alle Wörter
+ * enthalten. Wörter ab drei Zeichen werden irgendwo in einem Wort des Kunden
+ * gefunden, kürzere Wörter nur an einem Wortanfang. Die Kunden liegen im Index
+ * nach dem {@link KundenComparator} sortiert, so dass auch die Treffer sortiert
+ * sind.
+ * 
+ * Der Index ändert sich nach dem Erzeugen nicht mehr und darf von mehreren
+ * Threads gleichzeitig benutzt werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class KundenIndex
+{
+    private static final int GRAMM_LAENGE = 3;
+
+    /**
+     * Kennzeichnet die Schlüssel für Wortanfänge, damit sie sich nicht mit
+     * Trigrammen überschneiden. Die Zeichen eines Schlüssels belegen nur die
+     * unteren 48 Bit.
+     */
+    private static final long ANFANG_MARKE = 1L << 62;
+
+    private static final Comparator<int[]> NACH_LAENGE = new Comparator<int[]>()
+    {
+        @Override
+        public int compare(int[] positionen1, int[] positionen2)
+        {
+            return Integer.compare(positionen1.length, positionen2.length);
+        }
+    };
+
+    /**
+     * Die Kunden, sortiert nach dem KundenComparator.
+     */
+    private final Kunde[] _kunden;
+
+    /**
+     * Die normalisierten, durch Leerzeichen getrennten Wörter jedes Kunden, an
+     * derselben Position wie der Kunde.
+     */
+    private final String[] _texte;
+
+    /**
+     * Die aufsteigend sortierten Kundenpositionen zu jedem Schlüssel.
+     */
+    private final Schluesseltabelle<int[]> _positionen;
+
+    /**
+     * Erzeugt einen Index über die gegebenen Kunden.
+     * 
+     * @param kunden Die Kunden, die durchsucht werden sollen.
+     * 
+     * @require kunden != null
+     */
+    public KundenIndex(List<Kunde> kunden)
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+
+        List<Kunde> sortierteKunden = new ArrayList<Kunde>(kunden);
+        Sortierschluessel.sortiereKunden(sortierteKunden);
+        _kunden = sortierteKunden.toArray(new Kunde[sortierteKunden.size()]);
+        _texte = new String[_kunden.length];
+
+        Schluesseltabelle<Positionsliste> positionen = new Schluesseltabelle<Positionsliste>();
+        for (int position = 0; position < _kunden.length; position++)
+        {
+            List<String> woerter = woerterVon(_kunden[position]);
+            _texte[position] = verbinde(woerter);
+            for (String wort : woerter)
+            {
+                for (long schluessel : schluesselFuer(wort))
+                {
+                    Positionsliste liste = positionen.get(schluessel);
+                    if (liste == null)
+                    {
+                        liste = new Positionsliste();
+                        positionen.put(schluessel, liste);
+                    }
+                    liste.fuegeHinzu(position);
+                }
+            }
+        }
+
+        _positionen = new Schluesseltabelle<int[]>();
+        for (int i = 0; i < positionen.getKapazitaet(); i++)
+        {
+            Positionsliste liste = positionen.getWertAn(i);
+            if (liste != null)
+            {
+                _positionen.put(positionen.getSchluesselAn(i), liste.alsArray());
+            }
+        }
+    }
+
+    /**
+     * Sucht die Kunden, die alle Wörter der Anfrage enthalten. Eine leere
+     * Anfrage liefert alle Kunden.
+     * 
+     * @param anfrage Die Suchanfrage, wie sie eingegeben wurde.
+     * @return Die gefundenen Kunden, sortiert nach dem KundenComparator.
+     * 
+     * @require anfrage != null
+     * @ensure result != null
+     */
+    public List<Kunde> suche(String anfrage)
+    {
+        assert anfrage != null : "Vorbedingung verletzt: anfrage != null";
+
+        List<String> woerter = Suchtext
+            .zerlegeInWoerter(Suchtext.normalisiere(anfrage));
+        List<Kunde> ergebnis;
+        if (woerter.isEmpty())
+        {
+            ergebnis = new ArrayList<Kunde>(Arrays.asList(_kunden));
+        }
+        else
+        {
+            ergebnis = new ArrayList<Kunde>();
+            List<int[]> kandidaten = kandidatenFuer(woerter);
+            if (kandidaten != null)
+            {
+                for (int position : schneide(kandidaten))
+                {
+                    if (enthaeltAlle(_texte[position], woerter))
+                    {
+                        ergebnis.add(_kunden[position]);
+                    }
+                }
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Sucht wie {@link #suche(String)}, aber ohne Index, indem alle Kunden
+     * durchgegangen werden. Gedacht für den Fall, dass ein Index nicht
+     * aufgebaut werden konnte.
+     * 
+     * @param kunden Die Kunden, die durchsucht werden sollen.
+     * @param anfrage Die Suchanfrage, wie sie eingegeben wurde.
+     * @return Die gefundenen Kunden, sortiert nach dem KundenComparator.
+     * 
+     * @require kunden != null
+     * @require anfrage != null
+     * @ensure result != null
+     */
+    public static List<Kunde> filtere(List<Kunde> kunden, String anfrage)
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert anfrage != null : "Vorbedingung verletzt: anfrage != null";
+
+        List<String> woerter = Suchtext
+            .zerlegeInWoerter(Suchtext.normalisiere(anfrage));
+        List<Kunde> ergebnis = new ArrayList<Kunde>();
+        for (Kunde kunde : kunden)
+        {
+            String text = " " + verbinde(woerterVon(kunde));
+            boolean passt = true;
+            for (int i = 0; passt && (i < woerter.size()); i++)
+            {
+                String wort = woerter.get(i);
+                if (wort.length() < GRAMM_LAENGE)
+                {
+                    passt = text.contains(" " + wort);
+                }
+                else
+                {
+                    passt = text.contains(wort);
+                }
+            }
+            if (passt)
+            {
+                ergebnis.add(kunde);
+            }
+        }
+        Sortierschluessel.sortiereKunden(ergebnis);
+        return ergebnis;
+    }
+
+    /**
+     * Gibt die Anzahl der Kunden im Index zurück.
+     */
+    public int getAnzahl()
+    {
+        return _kunden.length;
+    }
+
+    /**
+     * Liefert die Positionslisten aller Schlüssel der Anfragewörter, oder null,
+     * wenn ein Schlüssel bei keinem Kunden vorkommt.
+     */
+    private List<int[]> kandidatenFuer(List<String> woerter)
+    {
+        List<int[]> kandidaten = new ArrayList<int[]>();
+        for (String wort : woerter)
+        {
+            long[] schluesselListe;
+            if (wort.length() < GRAMM_LAENGE)
+            {
+                schluesselListe = new long[] {
+                        anfangsschluessel(wort, wort.length())};
+            }
+            else
+            {
+                schluesselListe = trigrammeVon(wort);
+            }
+            for (long schluessel : schluesselListe)
+            {
+                int[] positionen = _positionen.get(schluessel);
+                if ((positionen == null) || (kandidaten == null))
+                {
+                    kandidaten = null;
+                }
+                else
+                {
+                    kandidaten.add(positionen);
+                }
+            }
+        }
+        return kandidaten;
+    }
+
+    /**
+     * Bildet die Schnittmenge sortierter Positionslisten. Es wird mit der
+     * kürzesten Liste begonnen und in den längeren binär gesucht.
+     */
+    private static int[] schneide(List<int[]> listen)
+    {
+        Collections.sort(listen, NACH_LAENGE);
+        int[] ergebnis = listen.get(0);
+        int anzahl = ergebnis.length;
+        for (int i = 1; (i < listen.size()) && (anzahl > 0); i++)
+        {
+            int[] liste = listen.get(i);
+            int[] schnitt = new int[anzahl];
+            int schnittAnzahl = 0;
+            int von = 0;
+            for (int j = 0; (j < anzahl) && (von < liste.length); j++)
+            {
+                int treffer = Arrays.binarySearch(liste, von, liste.length,
+                        ergebnis[j]);
+                if (treffer >= 0)
+                {
+                    schnitt[schnittAnzahl++] = ergebnis[j];
+                    von = treffer + 1;
+                }
+                else
+                {
+                    von = -treffer - 1;
+                }
+            }
+            ergebnis = schnitt;
+            anzahl = schnittAnzahl;
+        }
+        return Arrays.copyOf(ergebnis, anzahl);
+    }
+
+    /**
+     * Prüft, ob alle Anfragewörter im Text eines Kunden vorkommen. Die
+     * Trigramme eines Wortes können auch verstreut vorkommen, deshalb wird
+     * hier das ganze Wort geprüft. Für kurze Wörter ist der Wortanfang bereits
+     * durch den Index sichergestellt.
+     */
+    private static boolean enthaeltAlle(String text, List<String> woerter)
+    {
+        boolean ergebnis = true;
+        for (int i = 0; ergebnis && (i < woerter.size()); i++)
+        {
+            String wort = woerter.get(i);
+            ergebnis = (wort.length() < GRAMM_LAENGE) || text.contains(wort);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Liefert die normalisierten Wörter aller durchsuchbaren Angaben eines
+     * Kunden. Fehlende Angaben werden übergangen.
+     */
+    private static List<String> woerterVon(Kunde kunde)
+    {
+        String[] angaben = new String[] {kunde.getKundennummer()
+            .toString(), kunde.getVorname(), kunde.getNachname(),
+                kunde.getStrasse(), kunde.getWohnort()};
+        List<String> woerter = new ArrayList<String>();
+        for (String angabe : angaben)
+        {
+            woerter.addAll(
+                    Suchtext.zerlegeInWoerter(Suchtext.normalisiere(angabe)));
+        }
+        return woerter;
+    }
+
+    /**
+     * Verbindet Wörter mit Leerzeichen, so dass ein Anfragewort nur innerhalb
+     * eines Wortes gefunden werden kann.
+     */
+    private static String verbinde(List<String> woerter)
+    {
+        StringBuilder text = new StringBuilder();
+        for (String wort : woerter)
+        {
+            text.append(wort)
+                .append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Liefert die Schlüssel, unter denen ein Wort indiziert wird.
+     */
+    private static long[] schluesselFuer(String wort)
+    {
+        int anfaenge = Math.min(wort.length(), GRAMM_LAENGE - 1);
+        long[] trigramme = trigrammeVon(wort);
+        long[] schluessel = Arrays.copyOf(trigramme,
+                trigramme.length + anfaenge);
+        for (int laenge = 1; laenge <= anfaenge; laenge++)
+        {
+            schluessel[trigramme.length + laenge - 1] = anfangsschluessel(wort,
+                    laenge);
+        }
+        return schluessel;
+    }
+
+    /**
+     * Liefert die Schlüssel der Trigramme eines Wortes.
+     */
+    private static long[] trigrammeVon(String wort)
+    {
+        long[] trigramme = new long[Math
+            .max(0, wort.length() - GRAMM_LAENGE + 1)];
+        for (int i = 0; i < trigramme.length; i++)
+        {
+            trigramme[i] = kodiere(wort, i, GRAMM_LAENGE);
+        }
+        return trigramme;
+    }
+
+    /**
+     * Liefert den Schlüssel für den Anfang eines Wortes mit der angegebenen
+     * Länge.
+     */
+    private static long anfangsschluessel(String wort, int laenge)
+    {
+        return ANFANG_MARKE | kodiere(wort, 0, laenge);
+    }
+
+    /**
+     * Packt bis zu drei Zeichen in die unteren 48 Bit eines long.
+     */
+    private static long kodiere(String wort, int von, int laenge)
+    {
+        long schluessel = 0;
+        for (int i = von; i < von + laenge; i++)
+        {
+            schluessel = (schluessel << Character.SIZE) | wort.charAt(i);
+        }
+        return schluessel;
+    }
+
+    /**
+     * Eine wachsende Liste von Kundenpositionen. Da die Kunden der Reihe nach
+     * indiziert werden, bleibt sie aufsteigend sortiert. Kommt ein Schlüssel
+     * bei einem Kunden mehrfach vor, wird die Position nur einmal aufgenommen.
+     */
+    private static class Positionsliste
+    {
+        private int[] _werte = new int[4];
+        private int _anzahl;
+
+        void fuegeHinzu(int position)
+        {
+            if ((_anzahl == 0) || (_werte[_anzahl - 1] != position))
+            {
+                if (_anzahl == _werte.length)
+                {
+                    _werte = Arrays.copyOf(_werte, _anzahl * 2);
+                }
+                _werte[_anzahl++] = position;
+            }
+        }
+
+        int[] alsArray()
+        {
+            return Arrays.copyOf(_werte, _anzahl);
+        }
+    }
+
+    /**
+     * Eine Hashtabelle mit long-Schlüsseln und offener Adressierung. Sie kommt
+     * ohne Objekte für die Schlüssel und ohne Einträge aus, was bei Millionen
+     * von Kunden den Aufbau des Index deutlich beschleunigt. Werte sind nie
+     * null.
+     */
+    private static class Schluesseltabelle<T>
+    {
+        private long[] _schluessel = new long[1024];
+        private Object[] _werte = new Object[1024];
+        private int _anzahl;
+
+        @SuppressWarnings("unchecked")
+        T get(long schluessel)
+        {
+            return (T) _werte[finde(schluessel)];
+        }
+
+        void put(long schluessel, T wert)
+        {
+            int index = finde(schluessel);
+            if (_werte[index] == null)
+            {
+                _anzahl++;
+            }
+            _schluessel[index] = schluessel;
+            _werte[index] = wert;
+            if (_anzahl * 2 > _werte.length)
+            {
+                vergroessere();
+            }
+        }
+
+        int getKapazitaet()
+        {
+            return _werte.length;
+        }
+
+        long getSchluesselAn(int index)
+        {
+            return _schluessel[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        T getWertAn(int index)
+        {
+            return (T) _werte[index];
+        }
+
+        /**
+         * Liefert den Index des Schlüssels, oder den freien Platz, an dem er
+         * stehen müsste.
+         */
+        private int finde(long schluessel)
+        {
+            int maske = _werte.length - 1;
+            int index = (int) ((schluessel * 0x9E3779B97F4A7C15L) >>> 40)
+                    & maske;
+            while ((_werte[index] != null) && (_schluessel[index] != schluessel))
+            {
+                index = (index + 1) & maske;
+            }
+            return index;
+        }
+
+        private void vergroessere()
+        {
+            long[] alteSchluessel = _schluessel;
+            Object[] alteWerte = _werte;
+            _schluessel = new long[alteWerte.length * 2];
+            _werte = new Object[alteWerte.length * 2];
+            for (int i = 0; i < alteWerte.length; i++)
+            {
+                if (alteWerte[i] != null)
+                {
+                    int index = finde(alteSchluessel[i]);
+                    _schluessel[index] = alteSchluessel[i];
+                    _werte[index] = alteWerte[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class KundenIndexTest
+{
+    private Kunde _homer;
+    private Kunde _marge;
+    private Kunde _ned;
+    private Kunde _mueller;
+    private KundenIndex _index;
+
+    public KundenIndexTest()
+    {
+        _homer = new Kunde(new Kundennummer(123456), "Homer", "Simpson");
+        _homer.setStrasse("Evergreen Terrace 742");
+        _homer.setWohnort("Springfield");
+        _marge = new Kunde(new Kundennummer(123457), "Marge", "Simpson");
+        _marge.setStrasse("Evergreen Terrace 742");
+        _marge.setWohnort("Springfield");
+        _ned = new Kunde(new Kundennummer(654321), "Ned", "Flanders");
+        _ned.setStrasse("Evergreen Terrace 744");
+        _ned.setWohnort("Springfield");
+        _mueller = new Kunde(new Kundennummer(111111), "Jürgen", "Müller");
+        _mueller.setStrasse("Große Straße 1");
+        _mueller.setWohnort("Hamburg");
+
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        kunden.add(_homer);
+        kunden.add(_mueller);
+        kunden.add(_marge);
+        kunden.add(_ned);
+        _index = new KundenIndex(kunden);
+    }
+
+    @Test
+    public void testLeereAnfrageLiefertAlleSortiert()
+    {
+        List<Kunde> treffer = _index.suche("  ");
+        assertEquals(4, treffer.size());
+        assertSame(_ned, treffer.get(0));
+        assertSame(_mueller, treffer.get(1));
+        assertEquals(4, _index.getAnzahl());
+    }
+
+    @Test
+    public void testSucheInWoertern()
+    {
+        assertEquals(2, _index.suche("simp")
+            .size());
+        assertEquals(3, _index.suche("field")
+            .size());
+        assertEquals(1, _index.suche("654321")
+            .size());
+        assertEquals(1, _index.suche("4321")
+            .size());
+        assertEquals(0, _index.suche("xyz")
+            .size());
+    }
+
+    @Test
+    public void testAlleWoerterMuessenVorkommen()
+    {
+        List<Kunde> treffer = _index.suche("simpson MARGE");
+        assertEquals(1, treffer.size());
+        assertSame(_marge, treffer.get(0));
+        assertEquals(1, _index.suche("terrace 744")
+            .size());
+        assertEquals(0, _index.suche("flanders hamburg")
+            .size());
+    }
+
+    @Test
+    public void testKurzeWoerterNurAmWortanfang()
+    {
+        assertEquals(1, _index.suche("ho")
+            .size());
+        assertEquals(0, _index.suche("om")
+            .size());
+        assertEquals(3, _index.suche("s e")
+            .size());
+    }
+
+    @Test
+    public void testTrigrammeMuessenZusammenhaengen()
+    {
+        // "son" und "mps" kommen in Simpson vor, aber nicht "sonmps".
+        assertEquals(0, _index.suche("sonmps")
+            .size());
+    }
+
+    @Test
+    public void testUmlauteUndGrossschreibung()
+    {
+        assertSame(_mueller, _index.suche("muller")
+            .get(0));
+        assertSame(_mueller, _index.suche("MÜLL")
+            .get(0));
+        assertSame(_mueller, _index.suche("strasse")
+            .get(0));
+        assertSame(_mueller, _index.suche("jur")
+            .get(0));
+    }
+
+    @Test
+    public void testFiltereWieSuche()
+    {
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        kunden.add(_homer);
+        kunden.add(_mueller);
+        kunden.add(_marge);
+        kunden.add(_ned);
+        for (String anfrage : new String[] {"", "simp", "field", "4321",
+            "simpson MARGE", "terrace 744", "ho", "om", "s e", "sonmps",
+            "MÜLL", "strasse", "xyz"})
+        {
+            assertEquals(_index.suche(anfrage),
+                    KundenIndex.filtere(kunden, anfrage));
+        }
+    }
+
+    @Test
+    public void testVieleKunden()
+    {
+        List<Kunde> kunden = new ArrayList<Kunde>();
+        for (int i = 0; i < 20000; i++)
+        {
+            Kunde kunde = new Kunde(new Kundennummer(100000 + i),
+                    "Vorname" + i, "Nachname" + (i % 100));
+            kunde.setWohnort("Ort" + (i % 7));
+            kunden.add(kunde);
+        }
+        KundenIndex index = new KundenIndex(kunden);
+        assertEquals(200, index.suche("nachname42")
+            .size());
+        assertEquals(1, index.suche("vorname12345")
+            .size());
+        assertEquals(1, index.suche("112345")
+            .size());
+        assertTrue(index.suche("ort3 nachname4")
+            .size() > 0);
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Schreibt Kunden in eine CVS-Textdatei, die der {@link KundenEinleser}
+ * wieder einlesen kann. Die Kundeninformationen werden mit einem ";"
+ * getrennt.
+ * 
+ * Die Reihenfolge der Kundeninformationen:
+ * 
+ * Kundennummer; Vorname; Nachname; Strasse; PLZ; Ort
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class KundenSchreiber
+{
+
+    /**
+     * Schreibt die Kunden in eine Textdatei. Der bisherige Inhalt der Datei
+     * wird ersetzt. Schlägt das Schreiben fehl, bleibt die Datei unverändert.
+     * 
+     * @param kunden Die Kunden, die geschrieben werden sollen.
+     * @param kundenDatei Die Datei in der die Kunden gespeichert werden.
+     * @throws DateiSchreibException wenn der Kundenstamm nicht geschrieben
+     *             werden konnte.
+     * 
+     * @require kunden != null
+     * @require kundenDatei != null
+     */
+    public void schreibeKundenAus(List<Kunde> kunden, File kundenDatei)
+            throws DateiSchreibException
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+
+        DateiSchreiber schreiber = null;
+        try
+        {
+            schreiber = new DateiSchreiber(kundenDatei);
+            Writer writer = schreiber.getWriter();
+            for (Kunde kunde : kunden)
+            {
+                schreibeKundeAus(writer, kunde);
+            }
+            schreiber.uebernimm();
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Kundenstamm konnte nicht gespeichert werden, da die Datei nicht geschrieben werden konnte.");
+        }
+        finally
+        {
+            if (schreiber != null)
+            {
+                schreiber.verwirf();
+            }
+        }
+    }
+
+    /**
+     * Schreibt eine Zeile für den Kunden.
+     */
+    private static void schreibeKundeAus(Writer writer, Kunde kunde)
+            throws IOException
+    {
+        writer.write(kunde.getKundennummer()
+            .toString());
+        writer.write(';');
+        writer.write(DateiSchreiber.kodiere(kunde.getVorname()));
+        writer.write(';');
+        writer.write(DateiSchreiber.kodiere(kunde.getNachname()));
+        writer.write(';');
+        writer.write(DateiSchreiber.kodiere(kunde.getStrasse()));
+        writer.write(';');
+        PLZ plz = kunde.getPLZ();
+        writer.write(DateiSchreiber.kodiere(plz == null ? null : plz.toString()));
+        writer.write(';');
+        writer.write(DateiSchreiber.kodiere(kunde.getWohnort()));
+        writer.write('\n');
+    }
+}
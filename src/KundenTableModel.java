@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
@@ -130,6 +129,6 @@ class KundenTableModel extends AbstractTableModel
      */
     private void sortiereKunden()
     {
-        Collections.sort(_kundenListe, new KundenComparator());
+        Sortierschluessel.sortiereKunden(_kundenListe);
     }
 }
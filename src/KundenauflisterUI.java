@@ -4,6 +4,7 @@ import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.JTableHeader;
@@ -20,6 +21,7 @@ class KundenauflisterUI
     private KundenTableModel _kundenTableModel;
     private JPanel _hauptPanel;
     private JTable _kundenTable;
+    private JTextField _suchfeld;
 
     /**
      * Initialisiert eine neue KundenauflisterUI.
@@ -28,6 +30,7 @@ class KundenauflisterUI
     {
         erzeugeHauptPanel();
         erzeugeKundenTable();
+        erzeugeSuchfeld();
     }
 
     /**
@@ -67,6 +70,31 @@ class KundenauflisterUI
         _hauptPanel.add(kundenAuflisterScrollPane, BorderLayout.CENTER);
     }
 
+    /**
+     * Erzeugt das Suchfeld über der Tabelle.
+     */
+    private void erzeugeSuchfeld()
+    {
+        _suchfeld = new JTextField();
+        _suchfeld.setBorder(BorderFactory.createTitledBorder(null, "Suche",
+                TitledBorder.LEADING, TitledBorder.DEFAULT_POSITION,
+                UIConstants.HEADER_FONT));
+        _suchfeld.setBackground(UIConstants.BACKGROUND_COLOR);
+        _suchfeld.setFont(UIConstants.TEXT_FONT);
+
+        _hauptPanel.add(_suchfeld, BorderLayout.NORTH);
+    }
+
+    /**
+     * Gibt das Suchfeld zurück.
+     * 
+     * @ensure result != null
+     */
+    public JTextField getSuchfeld()
+    {
+        return _suchfeld;
+    }
+
     /**
      * Gibt die Kundentabelle (JTable) zurück.
      * 
@@ -1,6 +1,11 @@
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
@@ -10,14 +15,68 @@ import javax.swing.event.ListSelectionListener;
  * Das Werkzeug ist beobachtbar und informiert über Änderungen des selektieren
  * Kunden.
  * 
+ * Über das Suchfeld kann die Liste während der Eingabe gefiltert werden. Die
+ * Suche läuft in einem eigenen Thread über einen {@link KundenIndex}. Sie
+ * beginnt erst, wenn eine kurze Zeit lang nichts eingegeben wurde, und nur das
+ * Ergebnis der letzten Eingabe wird angezeigt.
+ * 
+ * Ändert sich der Kundenstamm, wird die aktuelle Suche wiederholt und der
+ * Index in einem weiteren Thread neu aufgebaut. Bis der neue Index fertig ist,
+ * werden die geänderten Kunden ohne Index durchsucht, so dass Suchen nicht auf
+ * den Aufbau warten. Kann der Index nicht aufgebaut werden, z.B. weil der
+ * Speicher nicht reicht, bleibt es bei der Suche ohne Index.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
 class KundenauflisterWerkzeug extends ObservableSubWerkzeug
 {
+    /**
+     * Die Zeit nach der letzten Eingabe, bevor gesucht wird.
+     */
+    private static final long SUCHVERZOEGERUNG_MILLISEKUNDEN = 150;
+
     private KundenauflisterUI _ui;
     private KundenstammService _kundenstamm;
 
+    /**
+     * Der Thread, in dem gesucht wird.
+     */
+    private final Executor _suchThread;
+
+    /**
+     * Der Thread, in dem der Index aufgebaut wird.
+     */
+    private final Executor _indexThread;
+
+    /**
+     * Übergibt Suchen verzögert an den Such-Thread.
+     */
+    private final Executor _suche;
+
+    /**
+     * Zählt die Eingaben im Suchfeld, damit veraltete Suchen übergangen
+     * werden.
+     */
+    private final AtomicInteger _suchanfragen;
+
+    /**
+     * Zählt die Aufträge zum Aufbau des Index, damit nur der neueste
+     * ausgeführt wird.
+     */
+    private final AtomicInteger _indexAuftraege;
+
+    /**
+     * Die Kunden, über die gesucht wird. Wird nur im Such-Thread benutzt.
+     */
+    private List<Kunde> _kunden;
+
+    /**
+     * Der Suchindex über _kunden oder null, solange er aufgebaut wird oder
+     * wenn er nicht aufgebaut werden konnte. Wird nur im Such-Thread benutzt.
+     */
+    private KundenIndex _index;
+
     /**
      * Initialisiert ein neues KundenauflisterWerkzeug. Es wird die
      * Benutzungsoberfläche mit zum Darstellen der Kunden erzeugt.
@@ -31,6 +90,12 @@ class KundenauflisterWerkzeug extends ObservableSubWerkzeug
         assert kundenstamm != null : "Vorbedingung verletzt: kundenstamm != null";
 
         _kundenstamm = kundenstamm;
+        _suchThread = Zusteller.hintergrund("Kundensuche");
+        _indexThread = Zusteller.hintergrund("Kundenindex");
+        _suche = Zusteller.verzoegert(_suchThread,
+                SUCHVERZOEGERUNG_MILLISEKUNDEN);
+        _suchanfragen = new AtomicInteger();
+        _indexAuftraege = new AtomicInteger();
 
         // UI wird erzeugt.
         _ui = new KundenauflisterUI();
@@ -40,6 +105,11 @@ class KundenauflisterWerkzeug extends ObservableSubWerkzeug
 
         // Die anzuzeigenden Kunden werden in den UI-Widgets gesetzt.
         setzeAnzuzeigendeKunden();
+
+        // Der Suchindex wird im Hintergrund aufgebaut und bei Änderungen des
+        // Kundenstamms neu aufgebaut.
+        baueIndexAuf();
+        registriereKundenstammBeobachter();
     }
 
     /**
@@ -48,6 +118,7 @@ class KundenauflisterWerkzeug extends ObservableSubWerkzeug
     private void registriereUIAktionen()
     {
         registriereKundenAnzeigenAktion();
+        registriereSucheAktion();
     }
 
     /**
@@ -79,6 +150,174 @@ class KundenauflisterWerkzeug extends ObservableSubWerkzeug
             });
     }
 
+    /**
+     * Registriert die Aktion, die ausgeführt wird, wenn sich der Text im
+     * Suchfeld ändert.
+     */
+    private void registriereSucheAktion()
+    {
+        _ui.getSuchfeld()
+            .getDocument()
+            .addDocumentListener(new DocumentListener()
+            {
+                @Override
+                public void insertUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e)
+                {
+                    starteSuche();
+                }
+            });
+    }
+
+    /**
+     * Registriert einen Beobachter, der nach Änderungen des Kundenstamms den
+     * Index neu aufbaut und die aktuelle Suche wiederholt, damit die Liste
+     * die geänderten Kunden zeigt.
+     */
+    private void registriereKundenstammBeobachter()
+    {
+        _kundenstamm.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void informiereUeberAenderung()
+            {
+                baueIndexAuf();
+                starteSuche();
+            }
+        });
+    }
+
+    /**
+     * Baut den Suchindex über die Kunden im Index-Thread auf. Der Such-Thread
+     * durchsucht die Kunden sofort ohne Index und übernimmt den neuen Index,
+     * sobald er fertig ist. Wird vorher ein neuerer Aufbau beauftragt, wird
+     * dieser übergangen. Schlägt der Aufbau fehl, wird weiter ohne Index
+     * gesucht.
+     */
+    private void baueIndexAuf()
+    {
+        final List<Kunde> kunden = _kundenstamm.getKunden();
+        final int nummer = _indexAuftraege.incrementAndGet();
+        _suchThread.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (nummer == _indexAuftraege.get())
+                {
+                    _kunden = kunden;
+                    _index = null;
+                }
+            }
+        });
+        _indexThread.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (nummer == _indexAuftraege.get())
+                {
+                    try
+                    {
+                        uebernimmIndex(nummer, new KundenIndex(kunden));
+                    }
+                    catch (RuntimeException e)
+                    {
+                        e.printStackTrace();
+                    }
+                    catch (OutOfMemoryError e)
+                    {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Übergibt einen fertig aufgebauten Index an den Such-Thread. Er wird nur
+     * übernommen, wenn seitdem kein neuerer Aufbau beauftragt wurde, da er
+     * sonst nicht mehr zu den Kunden im Such-Thread passt.
+     */
+    private void uebernimmIndex(final int nummer, final KundenIndex index)
+    {
+        _suchThread.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (nummer == _indexAuftraege.get())
+                {
+                    _index = index;
+                }
+            }
+        });
+    }
+
+    /**
+     * Sucht im Index oder, wenn es keinen gibt, direkt in den Kunden. Wird
+     * nur im Such-Thread aufgerufen.
+     */
+    private List<Kunde> sucheKunden(String anfrage)
+    {
+        List<Kunde> treffer;
+        if (_index != null)
+        {
+            treffer = _index.suche(anfrage);
+        }
+        else
+        {
+            treffer = KundenIndex.filtere(_kunden, anfrage);
+        }
+        return treffer;
+    }
+
+    /**
+     * Übergibt eine Suche nach dem aktuellen Text im Suchfeld an den
+     * Such-Thread. Wird vorher erneut etwas eingegeben, wird diese Suche
+     * übergangen. Das Ergebnis wird im Event-Dispatch-Thread angezeigt.
+     */
+    private void starteSuche()
+    {
+        final String anfrage = _ui.getSuchfeld()
+            .getText();
+        final int nummer = _suchanfragen.incrementAndGet();
+        _suche.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (nummer == _suchanfragen.get())
+                {
+                    final List<Kunde> treffer = sucheKunden(anfrage);
+                    SwingUtilities.invokeLater(new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            if (nummer == _suchanfragen.get())
+                            {
+                                _ui.getKundenAuflisterTableModel()
+                                    .setKunden(treffer);
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     /**
      * Gibt den vom Benutzer selektierten Kunden zurück. Falls kein Kunde
      * selektiert ist, gebe null zurück.
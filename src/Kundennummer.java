@@ -29,16 +29,25 @@ public final class Kundennummer
 
     /**
      * Prüft, ob eine gegebene Zahl eine gültige Kundennummer ist. Eine
-     * Kundennummer ist gültig, wenn sie 6-stellig (dezimal) ist. Der verwendete
-     * Reguläre Ausdruck zur Überprüfung lautet:"[0-9]{6}"
+     * Kundennummer ist gültig, wenn sie 6-stellig (dezimal) ist, also
+     * zwischen 100000 und 999999 liegt.
      * 
      * @param kundennummer Ein zu übeprüfende Zahl.
-     * @return true, wenn der Reguläre Ausdruck passt, ansonsten false.
+     * @return true, wenn die Zahl 6-stellig ist, ansonsten false.
      */
     public static boolean istGueltig(int kundennummer)
     {
-        return String.valueOf(kundennummer)
-            .matches("[0-9]{6}");
+        return (kundennummer >= 100000) && (kundennummer <= 999999);
+    }
+
+    /**
+     * Gibt die Kundennummer als Zahl zurück, z.B. für kompakte Tabellen.
+     * 
+     * @ensure istGueltig(result)
+     */
+    public int getNummer()
+    {
+        return _kundennummer;
     }
 
     /**
@@ -14,6 +14,16 @@ import java.util.List;
 public interface KundenstammService extends ObservableService
 {
 
+    /**
+     * Textrepräsentation für das Ereignis, dass ein Kunde eingefügt wurde.
+     */
+    public static final String EREIGNIS_KUNDE_EINGEFUEGT = "Kunde eingefügt";
+
+    /**
+     * Textrepräsentation für das Ereignis, dass ein Kunde entfernt wurde.
+     */
+    public static final String EREIGNIS_KUNDE_ENTFERNT = "Kunde entfernt";
+
     /**
      * Entfernt einen Kunden aus dem Kundenbestand.
      * 
@@ -41,6 +51,7 @@ public interface KundenstammService extends ObservableService
      * @param neuerKunde Ein neuer Kunde.
      * 
      * @require !enthaeltKunden(neuerKunde)
+     * @require getKunden(neuerKunde.getKundennummer()) == null
      * @ensure enthaeltKunden(neuerKunde)
      */
     void fuegeKundenEin(Kunde neuerKunde);
@@ -1,10 +1,17 @@
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ein Kundenstamm ist ein Service, der die Menge von Kunden verwaltet. Auf
  * Kunden kann über ihre {@link Kundennummer} zugegriffen werden.
  * 
+ * Der Kundenstamm wird nur im Event-Dispatch-Thread verändert. Gelesen wird
+ * er auch aus anderen Threads, etwa vom Verleih-Service oder beim Speichern
+ * im Hintergrund. Deshalb sind alle Zugriffe auf die Map synchronisiert, die
+ * Beobachter werden aber außerhalb der Sperre informiert.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -13,9 +20,11 @@ class KundenstammServiceImpl extends AbstractObservableService implements
 {
 
     /**
-     * Eine Liste, die alle Kunden enthält.
+     * Eine Map, die alle Kunden unter ihrer Kundennummer enthält. Die
+     * Einfügereihenfolge bleibt erhalten, {@link #getKunden()} liefert die
+     * Kunden in dieser Reihenfolge.
      */
-    private List<Kunde> _kundenstamm;
+    private final Map<Kundennummer, Kunde> _kundenstamm;
 
     /**
      * Konstruktor. Initialisiert einen Kundenstamm.
@@ -27,54 +36,62 @@ class KundenstammServiceImpl extends AbstractObservableService implements
     public KundenstammServiceImpl(List<Kunde> kunden)
     {
         assert kunden != null : "Vorbedingung verletzt: kunden != null";
-        _kundenstamm = new ArrayList<Kunde>(kunden);
+        _kundenstamm = new LinkedHashMap<Kundennummer, Kunde>();
+        for (Kunde kunde : kunden)
+        {
+            _kundenstamm.put(kunde.getKundennummer(), kunde);
+        }
     }
 
     @Override
     public void entferneKunden(Kunde kunde)
     {
         assert enthaeltKunden(kunde) : "Vorbedingung verletzt: enthaeltKunden(kunde) ";
-        _kundenstamm.remove(kunde);
-        informiereUeberAenderung();
+        synchronized (_kundenstamm)
+        {
+            _kundenstamm.remove(kunde.getKundennummer());
+        }
+        informiereUeber(new ServiceEreignis(EREIGNIS_KUNDE_ENTFERNT, kunde));
     }
 
     @Override
     public boolean enthaeltKunden(Kunde kunde)
     {
         assert kunde != null : "Vorbedingung verletzt: kunde != null";
-        return _kundenstamm.contains(kunde);
+        return kunde.equals(getKunden(kunde.getKundennummer()));
     }
 
     @Override
     public void fuegeKundenEin(Kunde neuerKunde)
     {
         assert !enthaeltKunden(neuerKunde) : "Vorbedingung verletzt: !enthaelt(kunden)";
-        _kundenstamm.add(neuerKunde);
-        informiereUeberAenderung();
+        assert getKunden(neuerKunde
+            .getKundennummer()) == null : "Vorbedingung verletzt: getKunden(neuerKunde.getKundennummer()) == null";
+        synchronized (_kundenstamm)
+        {
+            _kundenstamm.put(neuerKunde.getKundennummer(), neuerKunde);
+        }
+        informiereUeber(
+                new ServiceEreignis(EREIGNIS_KUNDE_EINGEFUEGT, neuerKunde));
     }
 
     @Override
     public List<Kunde> getKunden()
     {
-        return new ArrayList<Kunde>(_kundenstamm);
+        synchronized (_kundenstamm)
+        {
+            return new ArrayList<Kunde>(_kundenstamm.values());
+        }
     }
 
     @Override
     public Kunde getKunden(Kundennummer kundennummer)
     {
         assert kundennummer != null : "Vorbedingung verletzt: kundennummer != null";
-
-        Kunde result = null;
-        for (Kunde kunde : _kundenstamm)
+        synchronized (_kundenstamm)
         {
-            if (kunde.getKundennummer()
-                .equals(kundennummer))
-            {
-                result = kunde;
-                break;
-            }
+            return _kundenstamm.get(kundennummer);
         }
-        return result;
     }
 
 }
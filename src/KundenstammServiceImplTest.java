@@ -117,4 +117,34 @@ public class KundenstammServiceImplTest
         assertNull(kunde);
     }
 
+    @Test
+    public void testFuegeKundeMitVorhandenerKundennummerEin()
+    {
+        _kundenstamm.fuegeKundenEin(_klaus);
+        Kunde doppelt = new Kunde(_klaus.getKundennummer(), "Karl", "Schmidt");
+        assertFalse(_kundenstamm.enthaeltKunden(doppelt));
+
+        try
+        {
+            _kundenstamm.fuegeKundenEin(doppelt);
+            fail("Kundennummer bereits vergeben");
+        }
+        catch (AssertionError e)
+        {
+            // tue nichts, Fehler erwartet.
+        }
+        assertEquals(_klaus, _kundenstamm.getKunden(_klaus.getKundennummer()));
+    }
+
+    @Test
+    public void testgetKundenBehaeltReihenfolge()
+    {
+        _kundenstamm.fuegeKundenEin(_susi);
+        _kundenstamm.fuegeKundenEin(_klaus);
+        assertEquals(_susi, _kundenstamm.getKunden()
+            .get(0));
+        assertEquals(_klaus, _kundenstamm.getKunden()
+            .get(1));
+    }
+
 }
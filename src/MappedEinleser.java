@@ -0,0 +1,515 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ein MappedEinleser liest Kunden und Medien im selben Format wie
+ * {@link KundenEinleser} und {@link MedienEinleser} ein. Die Dateien werden
+ * dabei über {@link FileChannel#map} in den Speicher abgebildet und mit einem
+ * {@link FeldZerleger} direkt auf den Bytes zerlegt, so dass keine Zeilen als
+ * String erzeugt und keine regulären Ausdrücke ausgewertet werden müssen.
+ * 
+ * Dateien, die größer als ein abbildbarer Abschnitt sind, werden in mehrere an
+ * Zeilengrenzen ausgerichtete Abschnitte aufgeteilt. Der Medienbestand kann
+ * auf diese Weise auch parallel auf mehreren Kernen eingelesen werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class MappedEinleser
+{
+    /**
+     * Die maximale Länge eines abgebildeten Abschnitts in Bytes.
+     */
+    static final long MAX_ABSCHNITT_LAENGE = 1L << 30;
+
+    /**
+     * Die minimale Länge eines Abschnitts beim parallelen Einlesen in Bytes.
+     * Kleinere Abschnitte lohnen den Aufwand für die Aufteilung nicht.
+     */
+    private static final long MIN_PARALLEL_LAENGE = 1L << 20;
+
+    /**
+     * Die Anzahl der Abschnitte je Kern beim parallelen Einlesen. Mehrere
+     * Abschnitte je Kern gleichen unterschiedlich schnelle Abschnitte aus.
+     */
+    private static final int ABSCHNITTE_JE_KERN = 4;
+
+    private static final int CD = 0;
+    private static final int DVD = 1;
+
+    /**
+     * Die Medienbezeichnungen, deren Medien eingelesen werden können, in der
+     * Reihenfolge der Konstanten CD und DVD.
+     */
+    private static final byte[][] MEDIEN_BEZEICHNUNGEN = new byte[][] {
+            "CD".getBytes(StandardCharsets.US_ASCII),
+            "DVD".getBytes(StandardCharsets.US_ASCII)};
+
+    /**
+     * Liest Kunden aus einer Textdatei ein und gibt alle eingelesenen Kunden
+     * zurück.
+     * 
+     * @param kundenDatei Die Datei in der die Kunden gespeichert sind.
+     * @return Die eingelesenen Kunden in der Reihenfolge der Datei.
+     * @throws DateiLeseException wenn der Kundenstamm nicht gelesen werden
+     *             konnte.
+     * 
+     * @require kundenDatei != null
+     * 
+     * @ensure result != null
+     */
+    public List<Kunde> leseKundenEin(File kundenDatei) throws DateiLeseException
+    {
+        assert kundenDatei != null : "Vorbedingung verletzt: kundenDatei != null";
+        List<Kunde> eingeleseneKunden = new ArrayList<Kunde>();
+
+        try (FileChannel kanal = FileChannel.open(kundenDatei.toPath(),
+                StandardOpenOption.READ))
+        {
+            for (long[] abschnitt : teileInAbschnitte(kanal,
+                    MAX_ABSCHNITT_LAENGE))
+            {
+                FeldZerleger zerleger = new FeldZerleger(
+                        bildeAb(kanal, abschnitt));
+                while (zerleger.hatWeitereZeilen())
+                {
+                    Kunde kunde = leseKundeEin(zerleger);
+                    if (kunde != null)
+                    {
+                        eingeleseneKunden.add(kunde);
+                    }
+                    zerleger.beendeZeile();
+                }
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            throw new DateiLeseException(
+                    "Der Kundenstamm konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Der Kundenstamm konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        return eingeleseneKunden;
+    }
+
+    /**
+     * Liest Medien aus einer Textdatei ein, ohne die Entleiher aufzulösen.
+     * Siehe {@link MedienEinleser#leseMedienzeilenEin(File)}.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @return Die eingelesenen Medien in der Reihenfolge der Datei.
+     * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
+     *             werden konnte oder eine Mediennummer mehrfach vorkommt.
+     * 
+     * @require medienDatei != null
+     * 
+     * @ensure result != null
+     */
+    public List<EingelesenesMedium> leseMedienzeilenEin(File medienDatei)
+            throws DateiLeseException
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        List<EingelesenesMedium> eingeleseneMedien = new ArrayList<EingelesenesMedium>();
+
+        try (FileChannel kanal = FileChannel.open(medienDatei.toPath(),
+                StandardOpenOption.READ))
+        {
+            for (long[] abschnitt : teileInAbschnitte(kanal,
+                    MAX_ABSCHNITT_LAENGE))
+            {
+                leseMedienzeilenEin(bildeAb(kanal, abschnitt),
+                        eingeleseneMedien);
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        EingelesenesMedium.vergibFehlendeMediennummern(eingeleseneMedien);
+        EingelesenesMedium.pruefeMediennummern(eingeleseneMedien);
+        return eingeleseneMedien;
+    }
+
+    /**
+     * Liest Medien aus einer Textdatei ein, ohne die Entleiher aufzulösen. Die
+     * Datei wird in an Zeilengrenzen ausgerichtete Abschnitte geteilt, die im
+     * gemeinsamen {@link ForkJoinPool} parallel eingelesen werden. Das
+     * Ergebnis ist dasselbe wie bei {@link #leseMedienzeilenEin(File)},
+     * insbesondere bleibt die Reihenfolge der Datei erhalten. Zeilen ohne
+     * Mediennummer bekommen ihre Nummer erst nach dem Zusammenfügen, so dass
+     * die Nummern nicht von der Reihenfolge der Abschnitte abhängen.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @return Die eingelesenen Medien in der Reihenfolge der Datei.
+     * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
+     *             werden konnte oder eine Mediennummer mehrfach vorkommt.
+     * 
+     * @require medienDatei != null
+     * 
+     * @ensure result != null
+     */
+    public List<EingelesenesMedium> leseMedienzeilenParallelEin(
+            File medienDatei) throws DateiLeseException
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+
+        long kerne = ForkJoinPool.getCommonPoolParallelism();
+        long abschnittLaenge = medienDatei.length()
+                / (kerne * ABSCHNITTE_JE_KERN);
+        abschnittLaenge = Math.max(abschnittLaenge, MIN_PARALLEL_LAENGE);
+        abschnittLaenge = Math.min(abschnittLaenge, MAX_ABSCHNITT_LAENGE);
+        return leseMedienzeilenParallelEin(medienDatei, abschnittLaenge);
+    }
+
+    /**
+     * Liest Medien parallel in Abschnitten der angegebenen Länge ein. Siehe
+     * {@link #leseMedienzeilenParallelEin(File)}.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @param abschnittLaenge Die maximale Länge eines Abschnitts in Bytes.
+     * @return Die eingelesenen Medien in der Reihenfolge der Datei.
+     * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
+     *             werden konnte oder eine Mediennummer mehrfach vorkommt.
+     * 
+     * @require medienDatei != null
+     * @require abschnittLaenge > 0 && abschnittLaenge <= MAX_ABSCHNITT_LAENGE
+     */
+    List<EingelesenesMedium> leseMedienzeilenParallelEin(File medienDatei,
+            long abschnittLaenge) throws DateiLeseException
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        assert abschnittLaenge > 0
+                && abschnittLaenge <= MAX_ABSCHNITT_LAENGE : "Vorbedingung verletzt: abschnittLaenge > 0 && abschnittLaenge <= MAX_ABSCHNITT_LAENGE";
+
+        List<EingelesenesMedium> eingeleseneMedien;
+        try (FileChannel kanal = FileChannel.open(medienDatei.toPath(),
+                StandardOpenOption.READ))
+        {
+            List<ByteBuffer> puffer = new ArrayList<ByteBuffer>();
+            for (long[] abschnitt : teileInAbschnitte(kanal, abschnittLaenge))
+            {
+                puffer.add(bildeAb(kanal, abschnitt));
+            }
+            eingeleseneMedien = ForkJoinPool.commonPool()
+                .invoke(new AbschnittEinleser(puffer, 0, puffer.size()));
+        }
+        catch (NoSuchFileException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gefunden wurde.");
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        EingelesenesMedium.vergibFehlendeMediennummern(eingeleseneMedien);
+        EingelesenesMedium.pruefeMediennummern(eingeleseneMedien);
+        return eingeleseneMedien;
+    }
+
+    /**
+     * Liest alle Medienzeilen aus dem Puffer ein und hängt sie an die
+     * übergebene Liste an. Zeilen ohne Mediennummer bekommen noch keine, siehe
+     * {@link EingelesenesMedium#vergibFehlendeMediennummern(List)}. Zeilen,
+     * aus denen kein Medium erzeugt werden kann, werden als unbekannte Zeilen
+     * angehängt.
+     * 
+     * @param puffer Ein Puffer, dessen Bereich mit einem Zeilenanfang beginnt
+     *            und mit einem Zeilenende endet.
+     * @param ergebnis Die Liste, an die die eingelesenen Medien angehängt
+     *            werden.
+     */
+    static void leseMedienzeilenEin(ByteBuffer puffer,
+            List<EingelesenesMedium> ergebnis)
+    {
+        FeldZerleger zerleger = new FeldZerleger(puffer);
+        while (zerleger.hatWeitereZeilen())
+        {
+            Datum ausleihDatum = zerleger.leseDatum();
+            Kundennummer kundennummer = zerleger.leseKundennummer();
+            EingelesenesMedium zeile = leseMediumEin(zerleger, ausleihDatum,
+                    kundennummer);
+            if (zeile == null)
+            {
+                zeile = new EingelesenesMedium(zerleger.getZeile());
+            }
+            ergebnis.add(zeile);
+            zerleger.beendeZeile();
+        }
+    }
+
+    /**
+     * Teilt die Datei hinter dem Kanal in Abschnitte, die höchstens die
+     * angegebene Länge haben und jeweils hinter einem Zeilenumbruch enden
+     * (bzw. am Dateiende). Eine einzelne Zeile, die länger als die angegebene
+     * Länge ist, wird nicht geteilt.
+     * 
+     * @param kanal Ein zum Lesen geöffneter Kanal.
+     * @param abschnittLaenge Die gewünschte maximale Länge eines Abschnitts.
+     * @return Die Abschnitte als Paare von Beginn (inklusive) und Ende
+     *         (exklusive) in Bytes, in der Reihenfolge der Datei.
+     * @throws IOException wenn die Datei nicht gelesen werden konnte.
+     * 
+     * @require abschnittLaenge > 0
+     */
+    static List<long[]> teileInAbschnitte(FileChannel kanal,
+            long abschnittLaenge) throws IOException
+    {
+        assert abschnittLaenge > 0 : "Vorbedingung verletzt: abschnittLaenge > 0";
+
+        List<long[]> abschnitte = new ArrayList<long[]>();
+        long groesse = kanal.size();
+        long beginn = 0;
+        while (beginn < groesse)
+        {
+            long ende = Math.min(beginn + abschnittLaenge, groesse);
+            if (ende < groesse)
+            {
+                ende = findeZeilenende(kanal, ende - 1, groesse);
+            }
+            abschnitte.add(new long[] {beginn, ende});
+            beginn = ende;
+        }
+        return abschnitte;
+    }
+
+    /**
+     * Bildet den angegebenen Abschnitt der Datei in den Speicher ab.
+     * 
+     * @param kanal Ein zum Lesen geöffneter Kanal.
+     * @param abschnitt Beginn und Ende des Abschnitts.
+     * @return Ein Puffer über dem Abschnitt.
+     * @throws IOException wenn die Datei nicht gelesen werden konnte.
+     */
+    static ByteBuffer bildeAb(FileChannel kanal, long[] abschnitt)
+            throws IOException
+    {
+        return kanal.map(FileChannel.MapMode.READ_ONLY, abschnitt[0],
+                abschnitt[1] - abschnitt[0]);
+    }
+
+    /**
+     * Sucht ab der angegebenen Position den nächsten Zeilenumbruch.
+     * 
+     * @return Die Position hinter dem Zeilenumbruch, oder die Dateigröße wenn
+     *         es keinen weiteren gibt.
+     */
+    private static long findeZeilenende(FileChannel kanal, long position,
+            long groesse) throws IOException
+    {
+        ByteBuffer puffer = ByteBuffer.allocate(8192);
+        long ergebnis = groesse;
+        long lesePosition = position;
+        while ((ergebnis == groesse) && (lesePosition < groesse))
+        {
+            puffer.clear();
+            int gelesen = kanal.read(puffer, lesePosition);
+            if (gelesen <= 0)
+            {
+                break;
+            }
+            for (int i = 0; (i < gelesen) && (ergebnis == groesse); i++)
+            {
+                if (puffer.get(i) == '\n')
+                {
+                    ergebnis = lesePosition + i + 1;
+                }
+            }
+            lesePosition += gelesen;
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Liest einen Kunden aus der aktuellen Zeile.
+     * 
+     * @return Den Kunden, oder null wenn Kundennummer oder PLZ ungültig sind.
+     *         Eine leere PLZ ist gültig, der Kunde hat dann keine PLZ.
+     */
+    private static Kunde leseKundeEin(FeldZerleger zerleger)
+    {
+        int kundennummer = zerleger.leseZahl();
+        String vorname = zerleger.leseText();
+        String nachname = zerleger.leseText();
+        String strasse = zerleger.leseText();
+        String plz = zerleger.leseText();
+        String ort = zerleger.leseText();
+
+        Kunde kunde = null;
+        if (Kundennummer.istGueltig(kundennummer)
+                && (plz.isEmpty() || PLZ.istGueltig(plz)))
+        {
+            kunde = new Kunde(new Kundennummer(kundennummer), vorname,
+                    nachname);
+            kunde.setStrasse(strasse);
+            kunde.setWohnort(ort);
+            if (!plz.isEmpty())
+            {
+                kunde.setPLZ(new PLZ(plz));
+            }
+        }
+        return kunde;
+    }
+
+    /**
+     * Liest die Daten für ein Medium aus der aktuellen Zeile und erzeugt ein
+     * konkretes Objekt eines Subtyps von Medium. Zeilen ohne Mediennummer
+     * stammen aus älteren Dateien, ihr Medium wird erst erzeugt, wenn alle
+     * Zeilen gelesen sind.
+     * 
+     * @return Die eingelesene Zeile oder null, wenn kein Medium erzeugt werden
+     *         konnte.
+     */
+    private static EingelesenesMedium leseMediumEin(FeldZerleger zerleger,
+            Datum ausleihDatum, Kundennummer kundennummer)
+    {
+        final int medienart = zerleger.leseSchluessel(MEDIEN_BEZEICHNUNGEN);
+        EingelesenesMedium zeile = null;
+        if ((medienart == CD) || (medienart == DVD))
+        {
+            final String titel = zerleger.leseText();
+            final String kommentar = zerleger.leseText();
+            final String urheber = zerleger.leseText();
+            final int laenge = zerleger.leseZahl();
+            if (laenge > 0)
+            {
+                Mediennummer mediennummer = leseMediennummer(zerleger);
+                if (mediennummer != null)
+                {
+                    zeile = new EingelesenesMedium(
+                            erzeugeMedium(medienart, mediennummer, titel,
+                                    kommentar, urheber, laenge),
+                            ausleihDatum, kundennummer);
+                }
+                else
+                {
+                    zeile = new EingelesenesMedium(
+                            new EingelesenesMedium.Medienerzeuger()
+                            {
+                                @Override
+                                public Medium erzeuge(
+                                        Mediennummer neueMediennummer)
+                                {
+                                    return erzeugeMedium(medienart,
+                                            neueMediennummer, titel,
+                                            kommentar, urheber, laenge);
+                                }
+                            }, ausleihDatum, kundennummer);
+                }
+            }
+        }
+        return zeile;
+    }
+
+    /**
+     * Erzeugt eine CD oder DVD.
+     */
+    private static Medium erzeugeMedium(int medienart,
+            Mediennummer mediennummer, String titel, String kommentar,
+            String urheber, int laenge)
+    {
+        Medium medium;
+        if (medienart == CD)
+        {
+            medium = new CD(mediennummer, titel, kommentar, urheber, laenge);
+        }
+        else
+        {
+            medium = new DVD(mediennummer, titel, kommentar, urheber, laenge);
+        }
+        return medium;
+    }
+
+    /**
+     * Liest die Mediennummer am Ende einer Zeile. Zeilen aus älteren Dateien
+     * haben keine Mediennummer.
+     * 
+     * @return Die gelesene Mediennummer oder null, wenn die Zeile keine
+     *         gültige Mediennummer enthält.
+     */
+    private static Mediennummer leseMediennummer(FeldZerleger zerleger)
+    {
+        Mediennummer mediennummer = null;
+        if (zerleger.hatWeiteresFeld())
+        {
+            int nummer = zerleger.leseZahl();
+            if (Mediennummer.istGueltig(nummer))
+            {
+                mediennummer = new Mediennummer(nummer);
+            }
+        }
+        return mediennummer;
+    }
+
+    /**
+     * Liest einen Bereich von Abschnitten ein. Bereiche mit mehr als einem
+     * Abschnitt werden halbiert und die Hälften parallel eingelesen. Die
+     * Ergebnisse werden in der Reihenfolge der Abschnitte zusammengefügt.
+     */
+    private static final class AbschnittEinleser
+            extends RecursiveTask<List<EingelesenesMedium>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ByteBuffer> _puffer;
+        private final int _von;
+        private final int _bis;
+
+        /**
+         * Initialisiert einen AbschnittEinleser für die Abschnitte von
+         * (inklusive) bis (exklusive).
+         */
+        AbschnittEinleser(List<ByteBuffer> puffer, int von, int bis)
+        {
+            _puffer = puffer;
+            _von = von;
+            _bis = bis;
+        }
+
+        @Override
+        protected List<EingelesenesMedium> compute()
+        {
+            List<EingelesenesMedium> ergebnis;
+            if (_bis - _von <= 1)
+            {
+                ergebnis = new ArrayList<EingelesenesMedium>();
+                if (_von < _bis)
+                {
+                    leseMedienzeilenEin(_puffer.get(_von), ergebnis);
+                }
+            }
+            else
+            {
+                int mitte = (_von + _bis) >>> 1;
+                AbschnittEinleser links = new AbschnittEinleser(_puffer, _von,
+                        mitte);
+                AbschnittEinleser rechts = new AbschnittEinleser(_puffer,
+                        mitte, _bis);
+                links.fork();
+                List<EingelesenesMedium> rechtesErgebnis = rechts.compute();
+                ergebnis = links.join();
+                ergebnis.addAll(rechtesErgebnis);
+            }
+            return ergebnis;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class MappedEinleserTest
+{
+    private static final File KUNDEN_DATEI = new File(
+            "./bestand/kundenstamm.txt");
+    private static final File MEDIEN_DATEI = new File(
+            "./bestand/medienbestand.txt");
+
+    private MappedEinleser _einleser;
+
+    public MappedEinleserTest()
+    {
+        _einleser = new MappedEinleser();
+    }
+
+    @Test
+    public void testKundenWieKundenEinleser() throws Exception
+    {
+        List<Kunde> erwartet = new KundenEinleser().leseKundenEin(KUNDEN_DATEI);
+        List<Kunde> kunden = _einleser.leseKundenEin(KUNDEN_DATEI);
+
+        assertEquals(erwartet.size(), kunden.size());
+        for (int i = 0; i < kunden.size(); i++)
+        {
+            Kunde erwarteterKunde = erwartet.get(i);
+            Kunde kunde = kunden.get(i);
+            assertEquals(erwarteterKunde.getKundennummer(),
+                    kunde.getKundennummer());
+            assertEquals(erwarteterKunde.getNachname(), kunde.getNachname());
+            assertEquals(erwarteterKunde.getStrasse(), kunde.getStrasse());
+            assertEquals(erwarteterKunde.getPLZ(), kunde.getPLZ());
+            assertEquals(erwarteterKunde.getWohnort(), kunde.getWohnort());
+        }
+    }
+
+    @Test
+    public void testMedienWieMedienEinleser() throws Exception
+    {
+        List<EingelesenesMedium> erwartet = new MedienEinleser()
+            .leseMedienzeilenEin(MEDIEN_DATEI);
+        List<EingelesenesMedium> medien = _einleser
+            .leseMedienzeilenEin(MEDIEN_DATEI);
+
+        assertEquals(erwartet.size(), medien.size());
+        for (int i = 0; i < medien.size(); i++)
+        {
+            assertGleicheZeile(erwartet.get(i), medien.get(i));
+        }
+    }
+
+    @Test
+    public void testAbschnitteEndenAnZeilengrenzen() throws Exception
+    {
+        List<EingelesenesMedium> erwartet = _einleser
+            .leseMedienzeilenEin(MEDIEN_DATEI);
+        List<EingelesenesMedium> medien = new ArrayList<EingelesenesMedium>();
+        try (FileChannel kanal = FileChannel.open(MEDIEN_DATEI.toPath(),
+                StandardOpenOption.READ))
+        {
+            for (long[] abschnitt : MappedEinleser.teileInAbschnitte(kanal,
+                    100))
+            {
+                MappedEinleser.leseMedienzeilenEin(
+                        MappedEinleser.bildeAb(kanal, abschnitt), medien);
+            }
+        }
+        EingelesenesMedium.vergibFehlendeMediennummern(medien);
+
+        assertEquals(erwartet.size(), medien.size());
+        for (int i = 0; i < medien.size(); i++)
+        {
+            assertGleicheZeile(erwartet.get(i), medien.get(i));
+        }
+    }
+
+    @Test
+    public void testParallelWieSequentiell() throws Exception
+    {
+        List<EingelesenesMedium> erwartet = _einleser
+            .leseMedienzeilenEin(MEDIEN_DATEI);
+
+        for (long abschnittLaenge : new long[] {1, 100, 1000,
+                MappedEinleser.MAX_ABSCHNITT_LAENGE})
+        {
+            List<EingelesenesMedium> medien = _einleser
+                .leseMedienzeilenParallelEin(MEDIEN_DATEI, abschnittLaenge);
+            assertEquals(erwartet.size(), medien.size());
+            for (int i = 0; i < medien.size(); i++)
+            {
+                assertGleicheZeile(erwartet.get(i), medien.get(i));
+            }
+        }
+        assertEquals(erwartet.size(), _einleser
+            .leseMedienzeilenParallelEin(MEDIEN_DATEI)
+            .size());
+    }
+
+    @Test
+    public void testParallelVergibtFehlendeNummernInDateireihenfolge()
+            throws Exception
+    {
+        File datei = File.createTempFile("medienbestand", ".txt");
+        int hoechsteNummer = Mediennummer.naechste()
+            .getNummer() + 1000;
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < 300; i++)
+        {
+            inhalt.append(" ; ;CD;Titel ")
+                .append(i)
+                .append("; ;Interpret;40");
+            if (i % 3 == 0)
+            {
+                inhalt.append(';')
+                    .append(hoechsteNummer - i);
+            }
+            inhalt.append('\n');
+        }
+        try
+        {
+            Files.write(datei.toPath(), inhalt.toString()
+                .getBytes(StandardCharsets.UTF_8));
+
+            List<EingelesenesMedium> medien = _einleser
+                .leseMedienzeilenParallelEin(datei, 1);
+
+            assertEquals(300, medien.size());
+            int erwarteteNummer = hoechsteNummer + 1;
+            for (int i = 0; i < medien.size(); i++)
+            {
+                int nummer = medien.get(i)
+                    .getMedium()
+                    .getMediennummer()
+                    .getNummer();
+                if (i % 3 == 0)
+                {
+                    assertEquals(hoechsteNummer - i, nummer);
+                }
+                else
+                {
+                    assertEquals(erwarteteNummer, nummer);
+                    erwarteteNummer++;
+                }
+            }
+        }
+        finally
+        {
+            datei.delete();
+        }
+    }
+
+    @Test
+    public void testDoppelteMediennummerWirdAbgelehnt() throws Exception
+    {
+        File datei = File.createTempFile("medienbestand", ".txt");
+        try
+        {
+            Files.write(datei.toPath(),
+                    (" ; ;CD;Abbey Road; ;Beatles;44;5\n"
+                            + " ; ;CD;Let It Be; ;Beatles;35\n"
+                            + " ; ;CD;Help!; ;Beatles;34;5\n")
+                                .getBytes(StandardCharsets.UTF_8));
+            try
+            {
+                new MedienEinleser().leseMedienzeilenEin(datei);
+                fail("Mediennummer 5 kommt mehrfach vor");
+            }
+            catch (DateiLeseException e)
+            {
+                // erwartet
+            }
+            try
+            {
+                _einleser.leseMedienzeilenEin(datei);
+                fail("Mediennummer 5 kommt mehrfach vor");
+            }
+            catch (DateiLeseException e)
+            {
+                // erwartet
+            }
+            try
+            {
+                _einleser.leseMedienzeilenParallelEin(datei, 1);
+                fail("Mediennummer 5 kommt mehrfach vor");
+            }
+            catch (DateiLeseException e)
+            {
+                // erwartet
+            }
+        }
+        finally
+        {
+            datei.delete();
+        }
+    }
+
+    @Test
+    public void testFeldZerleger()
+    {
+        FeldZerleger zerleger = new FeldZerleger(ByteBuffer.wrap(
+                "1.2.2021;123456;Müller; ;42\r\n\n 31.2.2021;12345;x;4a\n"
+                    .getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(new Datum(1, 2, 2021), zerleger.leseDatum());
+        assertEquals(new Kundennummer(123456), zerleger.leseKundennummer());
+        assertEquals("Müller", zerleger.leseText());
+        assertEquals("", zerleger.leseText());
+        assertEquals(42, zerleger.leseZahl());
+        try
+        {
+            zerleger.leseText();
+            fail("Zeile hat keine weiteren Felder");
+        }
+        catch (NoSuchElementException e)
+        {
+            // erwartet
+        }
+        zerleger.beendeZeile();
+
+        zerleger.hatWeitereZeilen();
+        assertNull(zerleger.leseDatum());
+        assertNull(zerleger.leseKundennummer());
+        assertEquals("x", zerleger.leseText());
+        assertEquals(-1, zerleger.leseZahl());
+        zerleger.beendeZeile();
+        assertFalse(zerleger.hatWeitereZeilen());
+    }
+
+    @Test
+    public void testFehlendeDatei()
+    {
+        try
+        {
+            _einleser.leseKundenEin(new File("./bestand/gibtEsNicht.txt"));
+            fail("Datei existiert nicht");
+        }
+        catch (DateiLeseException e)
+        {
+            // erwartet
+        }
+    }
+
+    private static void assertGleicheZeile(EingelesenesMedium erwartet,
+            EingelesenesMedium zeile)
+    {
+        assertEquals(erwartet.istUnbekannt(), zeile.istUnbekannt());
+        if (erwartet.istUnbekannt())
+        {
+            assertEquals(erwartet.getZeile(), zeile.getZeile());
+        }
+        else
+        {
+            Medium erwartetesMedium = erwartet.getMedium();
+            Medium medium = zeile.getMedium();
+            assertEquals(erwartetesMedium.getMedienBezeichnung(),
+                    medium.getMedienBezeichnung());
+            assertEquals(erwartetesMedium.getTitel(), medium.getTitel());
+            assertEquals(erwartetesMedium.getKommentar(),
+                    medium.getKommentar());
+            assertEquals(erwartetesMedium.getMediennummer(),
+                    medium.getMediennummer());
+            assertEquals(erwartet.getAusleihdatum(), zeile.getAusleihdatum());
+            assertEquals(erwartet.getKundennummer(), zeile.getKundennummer());
+        }
+    }
+}
@@ -3,7 +3,8 @@ import java.util.Comparator;
 
 /**
  * Comparator-Klasse um zwei Medien zu vergleichen, damit sie an der UI sortiert
- * angezeigt werden können.
+ * angezeigt werden können. Die Titel werden mit
+ * {@link Sortierschluessel#vergleiche(String, String)} verglichen.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -15,7 +16,7 @@ class MedienComparator implements Comparator<Medium>, Serializable
 
     /**
      * Vergleicht zwei gegebene Medien anhand der Medienbezeichnung und des
-     * Medientitels.
+     * Medientitels. Die Titel werden nach deutscher Sortierung verglichen.
      * 
      * @return einen Wert <0 falls medium1 vor medium2 kommmt, einen Wert>0, im
      *         umgekehrten Fall. Bei gleicher Medienbezeichnung und Titel ist
@@ -31,8 +32,8 @@ class MedienComparator implements Comparator<Medium>, Serializable
                 .compareTo(medium2.getMedienBezeichnung());
             if (result == 0)
             {
-                result = medium1.getTitel()
-                    .compareTo(medium2.getTitel());
+                result = Sortierschluessel.vergleiche(medium1.getTitel(),
+                        medium2.getTitel());
             }
         }
         return result;
@@ -35,4 +35,16 @@ public class MedienComparatorTest
         assertEquals(0, _medienComparator.compare(_cd3, _cd2));
     }
 
+    @Test
+    public void testCompareDeutscheSortierung()
+    {
+        CD aerger = new CD("Ärger", "Kommentar", "Interpret", 100);
+        CD bach = new CD("bach", "Kommentar", "Interpret", 100);
+        CD zebra = new CD("Zebra", "Kommentar", "Interpret", 100);
+        assertTrue(_medienComparator.compare(aerger, bach) < 0);
+        assertTrue(_medienComparator.compare(bach, zebra) < 0);
+        assertTrue(_medienComparator.compare(zebra, new DVD("Abba", "Kommentar",
+                "Regisseur", 100)) < 0);
+    }
+
 }
@@ -1,8 +1,11 @@
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,7 +15,8 @@ import java.util.regex.Pattern;
 
 /**
  * Liest Medien aus einer Textdatei ein. Der MedienEinleser kann CDs, DVDs,
- * KonsolenVideospiele und PCVideospiele einlesen.
+ * KonsolenVideospiele und PCVideospiele einlesen. Die Datei ist
+ * UTF-8-kodiert.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -28,6 +32,10 @@ class MedienEinleser
     private static final Pattern KUNDENNUMEER_PATTERN = Pattern
         .compile("([0-9]{6})");
 
+    // Dieses Pattern dient der Überprüfung einer Mediennummer
+    private static final Pattern MEDIENNUMMER_PATTERN = Pattern
+        .compile("([0-9]{1,9})");
+
     private static String LEERSTRING = "";
 
     private static String LEERZEICHEN = " ";
@@ -93,6 +101,30 @@ class MedienEinleser
         return ergebnis;
     }
 
+    /**
+     * Liest die Mediennummer am Ende einer Zeile, falls vorhanden.
+     * 
+     * @return Die gelesene Mediennummer oder null, wenn die Zeile keine
+     *         gültige Mediennummer enthält.
+     */
+    private static Mediennummer ermittleMediennummer(StringTokenizer tokenizer)
+    {
+        Mediennummer ergebnis = null;
+        if (tokenizer.hasMoreTokens())
+        {
+            Matcher m = MEDIENNUMMER_PATTERN.matcher(tokenizer.nextToken());
+            if (m.matches())
+            {
+                int nummer = Integer.parseInt(m.group(1), 10);
+                if (Mediennummer.istGueltig(nummer))
+                {
+                    ergebnis = new Mediennummer(nummer);
+                }
+            }
+        }
+        return ergebnis;
+    }
+
     /**
      * Liest Medien aus einer Textdatei ein und gibt alle eingelesenen Medien
      * und eventuell dazugehörende Verleihkarten zurück.
@@ -117,14 +149,54 @@ class MedienEinleser
         assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
         Map<Medium, Verleihkarte> eingeleseneMedien = new HashMap<Medium, Verleihkarte>();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(medienDatei)))
+        Map<Kundennummer, Kunde> kundenMap = new HashMap<Kundennummer, Kunde>();
+        for (Kunde kunde : kundenstamm)
+        {
+            kundenMap.put(kunde.getKundennummer(), kunde);
+        }
+
+        for (EingelesenesMedium eintrag : leseMedienzeilenEin(medienDatei))
         {
-            Map<Kundennummer, Kunde> kundenMap = new HashMap<Kundennummer, Kunde>();
-            for (Kunde kunde : kundenstamm)
+            if (!eintrag.istUnbekannt())
             {
-                kundenMap.put(kunde.getKundennummer(), kunde);
+                Verleihkarte verleihkarte = null;
+                if (eintrag.istVerliehen())
+                {
+                    verleihkarte = eintrag.erzeugeVerleihkarte(
+                            kundenMap.get(eintrag.getKundennummer()));
+                }
+                eingeleseneMedien.put(eintrag.getMedium(), verleihkarte);
             }
+        }
+
+        return eingeleseneMedien;
+    }
+
+    /**
+     * Liest Medien aus einer Textdatei ein, ohne die Entleiher aufzulösen. Für
+     * verliehene Medien werden Ausleihdatum und Kundennummer mitgeliefert. Die
+     * Reihenfolge entspricht der Reihenfolge in der Datei. Zeilen, aus denen
+     * kein Medium erzeugt werden kann, werden als unbekannte Zeilen
+     * mitgeliefert, siehe {@link EingelesenesMedium#istUnbekannt()}.
+     * 
+     * @param medienDatei Die Datei in der die Medien gespeichert sind.
+     * @return Eine Liste der eingelesenen Medien.
+     * @throws DateiLeseException wenn der Medien-Datenbestand nicht gelesen
+     *             werden konnte oder eine Mediennummer mehrfach vorkommt.
+     * 
+     * @require medienDatei != null
+     * 
+     * @ensure result != null
+     */
+    public List<EingelesenesMedium> leseMedienzeilenEin(File medienDatei)
+            throws DateiLeseException
+    {
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+        List<EingelesenesMedium> eingeleseneMedien = new ArrayList<EingelesenesMedium>();
 
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(medienDatei), StandardCharsets.UTF_8)))
+        {
             String line = null;
             // liest die Datei Zeile für Zeile
             while ((line = reader.readLine()) != null)
@@ -136,18 +208,13 @@ class MedienEinleser
                 Kundennummer kundennummer = ermittleKundennummer(
                         naechsterToken(tokenizer));
 
-                Medium medium = leseMediumEin(tokenizer);
-                Verleihkarte verleihkarte = null;
-                if (medium != null)
+                EingelesenesMedium zeile = leseMediumEin(tokenizer,
+                        ausleihDatum, kundennummer);
+                if (zeile == null)
                 {
-                    if (kundennummer != null)
-                    {
-                        Kunde kunde = kundenMap.get(kundennummer);
-                        verleihkarte = new Verleihkarte(kunde, medium,
-                                ausleihDatum);
-                    }
-                    eingeleseneMedien.put(medium, verleihkarte);
+                    zeile = new EingelesenesMedium(line);
                 }
+                eingeleseneMedien.add(zeile);
             }
         }
         catch (FileNotFoundException e)
@@ -161,38 +228,60 @@ class MedienEinleser
                     "Der Medien-Datenbestand konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
         }
 
+        EingelesenesMedium.vergibFehlendeMediennummern(eingeleseneMedien);
+        EingelesenesMedium.pruefeMediennummern(eingeleseneMedien);
         return eingeleseneMedien;
     }
 
     /**
      * Liest die Daten für ein Medium aus dem übergebenen StringTokenizer aus
-     * und erzeugt ein konkretes Objekt eines Subtyps von Medium.
+     * und erzeugt ein konkretes Objekt eines Subtyps von Medium. Zeilen ohne
+     * Mediennummer stammen aus älteren Dateien, ihr Medium wird erst erzeugt,
+     * wenn alle Zeilen gelesen sind.
      * 
      * @param tokenizer Ein StringTokenizer, der die Daten liefert.
-     * @return ein neu erzeugtes Medium oder null, wenn kein Medium erzeugt
-     *         werden konnte.
+     * @param ausleihDatum Das Ausleihdatum der Zeile, kann null sein.
+     * @param kundennummer Die Kundennummer der Zeile, kann null sein.
+     * @return Die eingelesene Zeile oder null, wenn kein Medium erzeugt werden
+     *         kann.
      */
-    private static Medium leseMediumEin(StringTokenizer tokenizer)
+    private static EingelesenesMedium leseMediumEin(StringTokenizer tokenizer,
+            Datum ausleihDatum, Kundennummer kundennummer)
     {
         String medienBezeichnung = naechsterToken(tokenizer);
-        String titel = naechsterToken(tokenizer);
-        String kommentar = naechsterToken(tokenizer);
+        final String titel = naechsterToken(tokenizer);
+        final String kommentar = naechsterToken(tokenizer);
 
-        Medium medium = null;
+        EingelesenesMedium.Medienerzeuger erzeuger = null;
         if (medienBezeichnung.equals("CD"))
         {
-            String interpret = naechsterToken(tokenizer);
-            String spiellaenge = naechsterToken(tokenizer);
+            final String interpret = naechsterToken(tokenizer);
+            final int spiellaenge = Integer.parseInt(naechsterToken(tokenizer));
 
-            medium = new CD(titel, kommentar, interpret,
-                    Integer.parseInt(spiellaenge));
+            erzeuger = new EingelesenesMedium.Medienerzeuger()
+            {
+                @Override
+                public Medium erzeuge(Mediennummer mediennummer)
+                {
+                    return new CD(mediennummer, titel, kommentar, interpret,
+                            spiellaenge);
+                }
+            };
         }
         else if (medienBezeichnung.equals("DVD"))
         {
-            String regisseuer = naechsterToken(tokenizer);
-            int laufzeit = Integer.valueOf(naechsterToken(tokenizer));
+            final String regisseuer = naechsterToken(tokenizer);
+            final int laufzeit = Integer.valueOf(naechsterToken(tokenizer));
 
-            medium = new DVD(titel, kommentar, regisseuer, laufzeit);
+            erzeuger = new EingelesenesMedium.Medienerzeuger()
+            {
+                @Override
+                public Medium erzeuge(Mediennummer mediennummer)
+                {
+                    return new DVD(mediennummer, titel, kommentar, regisseuer,
+                            laufzeit);
+                }
+            };
         }
         else if (medienBezeichnung.equals("Videospiel"))
         {
@@ -200,7 +289,23 @@ class MedienEinleser
 
             // medium = new Videospiel(titel, kommentar, system);
         }
-        return medium;
+
+        EingelesenesMedium zeile = null;
+        if (erzeuger != null)
+        {
+            Mediennummer mediennummer = ermittleMediennummer(tokenizer);
+            if (mediennummer != null)
+            {
+                zeile = new EingelesenesMedium(erzeuger.erzeuge(mediennummer),
+                        ausleihDatum, kundennummer);
+            }
+            else
+            {
+                zeile = new EingelesenesMedium(erzeuger, ausleihDatum,
+                        kundennummer);
+            }
+        }
+        return zeile;
     }
 
     /**
@@ -0,0 +1,402 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Ein invertierter Index für die Volltextsuche über den Titel, den Kommentar
+ * sowie den Interpreten einer CD bzw. den Regisseur einer DVD.
+ * 
+ * Die Texte werden mit {@link Suchtext} normalisiert und in Wörter zerlegt. Zu
+ * jedem Wort hält der Index die Medien, in denen es vorkommt, mit einer
+ * Punktzahl: ein Wort im Titel zählt mehr als im Interpreten oder Regisseur,
+ * dieser mehr als im Kommentar.
+ * 
+ * Eine Suchanfrage findet die Medien, die alle Wörter der Anfrage enthalten.
+ * Das letzte Wort darf dabei auch nur der Anfang eines Wortes sein, damit
+ * schon während der Eingabe gefunden wird. Die Treffer sind nach der Summe
+ * ihrer Punkte sortiert, bei gleicher Punktzahl nach dem
+ * {@link MedienComparator}.
+ * 
+ * Der Index beobachtet den Medienbestand und wird bei eingefügten und
+ * entfernten Medien angepasst. Die Anpassungen übergibt er einem Executor,
+ * z.B. dem Thread, in dem auch gesucht wird. So wartet der Thread, der über
+ * Änderungen benachrichtigt wird, meist der Event-Dispatch-Thread, weder auf
+ * einen Neuaufbau noch auf eine laufende Suche. Alle Operationen sind
+ * synchronisiert, so dass auch aus mehreren Threads gesucht werden kann.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class MedienIndex
+{
+    private static final int PUNKTE_TITEL = 4;
+    private static final int PUNKTE_MITWIRKENDE = 2;
+    private static final int PUNKTE_KOMMENTAR = 1;
+
+    private static final Comparator<Map<Medium, Integer>> NACH_GROESSE = new Comparator<Map<Medium, Integer>>()
+    {
+        @Override
+        public int compare(Map<Medium, Integer> treffer1,
+                Map<Medium, Integer> treffer2)
+        {
+            return Integer.compare(treffer1.size(), treffer2.size());
+        }
+    };
+
+    /**
+     * Führt Anpassungen sofort im benachrichtigenden Thread aus.
+     */
+    private static final Executor SOFORT = new Executor()
+    {
+        @Override
+        public void execute(Runnable anpassung)
+        {
+            anpassung.run();
+        }
+    };
+
+    private final MedienbestandService _medienbestand;
+
+    /**
+     * Der Executor, in dem der Index an Änderungen des Medienbestands
+     * angepasst wird.
+     */
+    private final Executor _aktualisierung;
+
+    /**
+     * Die Medien mit ihren Punkten zu jedem Wort. Die Wörter sind sortiert,
+     * damit alle Wörter mit einem gegebenen Anfang gefunden werden können.
+     */
+    private final TreeMap<String, Map<Medium, Integer>> _treffer;
+
+    /**
+     * Initialisiert einen leeren Index über den gegebenen Medienbestand, der
+     * sofort im benachrichtigenden Thread angepasst wird, siehe
+     * {@link #MedienIndex(MedienbestandService, Executor)}.
+     * 
+     * @param medienbestand Der Medienbestand.
+     * 
+     * @require medienbestand != null
+     */
+    public MedienIndex(MedienbestandService medienbestand)
+    {
+        this(medienbestand, SOFORT);
+    }
+
+    /**
+     * Initialisiert einen leeren Index über den gegebenen Medienbestand und
+     * meldet ihn dort als Beobachter an. Die vorhandenen Medien werden erst
+     * mit {@link #baueAuf()} aufgenommen.
+     * 
+     * @param medienbestand Der Medienbestand.
+     * @param aktualisierung Der Executor, dem die Anpassungen an Änderungen
+     *            des Medienbestands übergeben werden.
+     * 
+     * @require medienbestand != null
+     * @require aktualisierung != null
+     */
+    public MedienIndex(MedienbestandService medienbestand,
+            Executor aktualisierung)
+    {
+        assert medienbestand != null : "Vorbedingung verletzt: medienbestand != null";
+        assert aktualisierung != null : "Vorbedingung verletzt: aktualisierung != null";
+
+        _medienbestand = medienbestand;
+        _aktualisierung = aktualisierung;
+        _treffer = new TreeMap<String, Map<Medium, Integer>>();
+        _medienbestand.registriereEreignisBeobachter(
+                new ServiceEreignisObserver()
+                {
+                    @Override
+                    public void informiereUeberEreignisse(
+                            List<ServiceEreignis> ereignisse)
+                    {
+                        final List<ServiceEreignis> kopie = new ArrayList<ServiceEreignis>(
+                                ereignisse);
+                        _aktualisierung.execute(new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                aktualisiere(kopie);
+                            }
+                        });
+                    }
+                });
+    }
+
+    /**
+     * Baut den Index aus allen Medien des Medienbestands neu auf.
+     */
+    public synchronized void baueAuf()
+    {
+        _treffer.clear();
+        for (Medium medium : _medienbestand.getMedien())
+        {
+            fuegeEin(medium);
+        }
+    }
+
+    /**
+     * Nimmt ein Medium in den Index auf. Ist es schon enthalten, ändert sich
+     * nichts.
+     * 
+     * @param medium Das Medium.
+     * 
+     * @require medium != null
+     */
+    public synchronized void fuegeEin(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        for (Map.Entry<String, Integer> eintrag : punkteFuer(medium)
+            .entrySet())
+        {
+            Map<Medium, Integer> treffer = _treffer.get(eintrag.getKey());
+            if (treffer == null)
+            {
+                treffer = new HashMap<Medium, Integer>(4);
+                _treffer.put(eintrag.getKey(), treffer);
+            }
+            treffer.put(medium, eintrag.getValue());
+        }
+    }
+
+    /**
+     * Entfernt ein Medium aus dem Index. Ist es nicht enthalten, ändert sich
+     * nichts.
+     * 
+     * @param medium Das Medium.
+     * 
+     * @require medium != null
+     */
+    public synchronized void entferne(Medium medium)
+    {
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+
+        for (String wort : punkteFuer(medium).keySet())
+        {
+            Map<Medium, Integer> treffer = _treffer.get(wort);
+            if (treffer != null)
+            {
+                treffer.remove(medium);
+                if (treffer.isEmpty())
+                {
+                    _treffer.remove(wort);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sucht die Medien, die alle Wörter der Anfrage enthalten, das letzte Wort
+     * auch nur als Wortanfang.
+     * 
+     * @param anfrage Die Suchanfrage, wie sie eingegeben wurde.
+     * @return Die gefundenen Medien, die besten Treffer zuerst. Bei einer
+     *         leeren Anfrage die leere Liste.
+     * 
+     * @require anfrage != null
+     * @ensure result != null
+     */
+    public synchronized List<Medium> suche(String anfrage)
+    {
+        assert anfrage != null : "Vorbedingung verletzt: anfrage != null";
+
+        List<String> woerter = Suchtext
+            .zerlegeInWoerter(Suchtext.normalisiere(anfrage));
+        List<Map<Medium, Integer>> trefferJeWort = new ArrayList<Map<Medium, Integer>>();
+        for (int i = 0; i < woerter.size(); i++)
+        {
+            if (i == woerter.size() - 1)
+            {
+                trefferJeWort.add(trefferMitAnfang(woerter.get(i)));
+            }
+            else
+            {
+                trefferJeWort.add(trefferFuer(woerter.get(i)));
+            }
+        }
+        return sortiereNachPunkten(schneide(trefferJeWort));
+    }
+
+    /**
+     * Passt den Index an Änderungen des Medienbestands an. Eine nicht näher
+     * beschriebene Änderung führt zum Neuaufbau.
+     */
+    private synchronized void aktualisiere(List<ServiceEreignis> ereignisse)
+    {
+        if (ereignisse.isEmpty())
+        {
+            baueAuf();
+        }
+        for (ServiceEreignis ereignis : ereignisse)
+        {
+            if (ereignis.istArt(MedienbestandService.EREIGNIS_MEDIUM_EINGEFUEGT))
+            {
+                fuegeEin(ereignis.getMedium());
+            }
+            else if (ereignis
+                .istArt(MedienbestandService.EREIGNIS_MEDIUM_ENTFERNT))
+            {
+                entferne(ereignis.getMedium());
+            }
+        }
+    }
+
+    /**
+     * Liefert die Medien, die das Wort enthalten.
+     */
+    private Map<Medium, Integer> trefferFuer(String wort)
+    {
+        Map<Medium, Integer> treffer = _treffer.get(wort);
+        if (treffer == null)
+        {
+            treffer = Collections.emptyMap();
+        }
+        return treffer;
+    }
+
+    /**
+     * Liefert die Medien, die ein Wort mit dem gegebenen Anfang enthalten. Ein
+     * Medium bekommt die höchste Punktzahl unter diesen Wörtern.
+     */
+    private Map<Medium, Integer> trefferMitAnfang(String anfang)
+    {
+        SortedMap<String, Map<Medium, Integer>> woerter = _treffer
+            .subMap(anfang, anfang + Character.MAX_VALUE);
+        Map<Medium, Integer> ergebnis;
+        if (woerter.size() == 1)
+        {
+            ergebnis = woerter.values()
+                .iterator()
+                .next();
+        }
+        else
+        {
+            ergebnis = new HashMap<Medium, Integer>();
+            for (Map<Medium, Integer> treffer : woerter.values())
+            {
+                for (Map.Entry<Medium, Integer> eintrag : treffer.entrySet())
+                {
+                    Integer bisher = ergebnis.get(eintrag.getKey());
+                    if ((bisher == null) || (bisher < eintrag.getValue()))
+                    {
+                        ergebnis.put(eintrag.getKey(), eintrag.getValue());
+                    }
+                }
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Bildet die Schnittmenge der Treffer aller Wörter und summiert ihre
+     * Punkte. Es wird mit den wenigsten Treffern begonnen.
+     */
+    private static Map<Medium, Integer> schneide(
+            List<Map<Medium, Integer>> trefferJeWort)
+    {
+        Map<Medium, Integer> ergebnis = new HashMap<Medium, Integer>();
+        if (!trefferJeWort.isEmpty())
+        {
+            Collections.sort(trefferJeWort, NACH_GROESSE);
+            ergebnis.putAll(trefferJeWort.get(0));
+            for (int i = 1; (i < trefferJeWort.size())
+                    && !ergebnis.isEmpty(); i++)
+            {
+                Map<Medium, Integer> treffer = trefferJeWort.get(i);
+                Map<Medium, Integer> schnitt = new HashMap<Medium, Integer>();
+                for (Map.Entry<Medium, Integer> eintrag : ergebnis.entrySet())
+                {
+                    Integer punkte = treffer.get(eintrag.getKey());
+                    if (punkte != null)
+                    {
+                        schnitt.put(eintrag.getKey(),
+                                eintrag.getValue() + punkte);
+                    }
+                }
+                ergebnis = schnitt;
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Sortiert die Treffer absteigend nach ihren Punkten, bei gleichen Punkten
+     * nach dem MedienComparator.
+     */
+    private static List<Medium> sortiereNachPunkten(
+            final Map<Medium, Integer> punkte)
+    {
+        List<Medium> ergebnis = new ArrayList<Medium>(punkte.keySet());
+        Sortierschluessel.sortiereMedien(ergebnis);
+        Collections.sort(ergebnis, new Comparator<Medium>()
+        {
+            @Override
+            public int compare(Medium medium1, Medium medium2)
+            {
+                return Integer.compare(punkte.get(medium2),
+                        punkte.get(medium1));
+            }
+        });
+        return ergebnis;
+    }
+
+    /**
+     * Liefert die Wörter eines Mediums mit den Punkten, die es für jedes Wort
+     * bekommt. Kommt ein Wort in mehreren Texten vor, werden die Punkte
+     * addiert, mehrfaches Vorkommen im selben Text zählt einmal.
+     */
+    private static Map<String, Integer> punkteFuer(Medium medium)
+    {
+        Map<String, Integer> punkte = new HashMap<String, Integer>();
+        addierePunkte(punkte, medium.getTitel(), PUNKTE_TITEL);
+        addierePunkte(punkte, mitwirkendeVon(medium), PUNKTE_MITWIRKENDE);
+        addierePunkte(punkte, medium.getKommentar(), PUNKTE_KOMMENTAR);
+        return punkte;
+    }
+
+    /**
+     * Addiert die Punkte für alle Wörter eines Textes.
+     */
+    private static void addierePunkte(Map<String, Integer> punkte,
+            String text, int punkteJeWort)
+    {
+        for (String wort : new HashSet<String>(
+                Suchtext.zerlegeInWoerter(Suchtext.normalisiere(text))))
+        {
+            Integer bisher = punkte.get(wort);
+            if (bisher == null)
+            {
+                bisher = 0;
+            }
+            punkte.put(wort, bisher + punkteJeWort);
+        }
+    }
+
+    /**
+     * Liefert den Interpreten einer CD oder den Regisseur einer DVD, für andere
+     * Medien null.
+     */
+    private static String mitwirkendeVon(Medium medium)
+    {
+        String mitwirkende = null;
+        if (medium instanceof CD)
+        {
+            mitwirkende = ((CD) medium).getInterpret();
+        }
+        else if (medium instanceof DVD)
+        {
+            mitwirkende = ((DVD) medium).getRegisseur();
+        }
+        return mitwirkende;
+    }
+}
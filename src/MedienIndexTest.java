@@ -0,0 +1,142 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MedienIndexTest
+{
+    private CD _abbey;
+    private CD _yellow;
+    private DVD _submarine;
+    private DVD _hardDay;
+    private MedienbestandService _medienbestand;
+    private MedienIndex _index;
+
+    @Before
+    public void setUp()
+    {
+        _abbey = new CD("Abbey Road", "Letztes Studioalbum", "The Beatles", 47);
+        _yellow = new CD("Yellow Submarine", "Soundtrack", "The Beatles", 40);
+        _submarine = new DVD("Das Boot", "U-Boot-Klassiker, Submarine",
+                "Wolfgang Petersen", 149);
+        _hardDay = new DVD("A Hard Day's Night", "Mit den Beatles",
+                "Richard Lester", 87);
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(_abbey);
+        medien.add(_yellow);
+        medien.add(_submarine);
+        medien.add(_hardDay);
+        _medienbestand = new MedienbestandServiceImpl(medien);
+        _index = new MedienIndex(_medienbestand);
+        _index.baueAuf();
+    }
+
+    @Test
+    public void testLeereAnfrage()
+    {
+        assertTrue(_index.suche(" ")
+            .isEmpty());
+    }
+
+    @Test
+    public void testTrefferNachPunktenSortiert()
+    {
+        List<Medium> treffer = _index.suche("beatles");
+        assertEquals(3, treffer.size());
+        // Interpret zählt mehr als Kommentar, bei gleichen Punkten
+        // entscheidet der MedienComparator.
+        assertSame(_abbey, treffer.get(0));
+        assertSame(_yellow, treffer.get(1));
+        assertSame(_hardDay, treffer.get(2));
+
+        treffer = _index.suche("submarine");
+        assertSame(_yellow, treffer.get(0));
+        assertSame(_submarine, treffer.get(1));
+    }
+
+    @Test
+    public void testAlleWoerterUndWortanfang()
+    {
+        List<Medium> treffer = _index.suche("beatles sub");
+        assertEquals(1, treffer.size());
+        assertSame(_yellow, treffer.get(0));
+        assertEquals(0, _index.suche("sub beatles")
+            .size());
+        assertSame(_hardDay, _index.suche("HARD day")
+            .get(0));
+        assertSame(_submarine, _index.suche("klassiker")
+            .get(0));
+    }
+
+    @Test
+    public void testUmlauteUndGrossschreibung()
+    {
+        CD cd = new CD("Über den Wolken", "", "Reinhard Mey", 40);
+        _index.fuegeEin(cd);
+        assertSame(cd, _index.suche("uber")
+            .get(0));
+        assertSame(cd, _index.suche("ÜBER WOLK")
+            .get(0));
+    }
+
+    @Test
+    public void testIndexFolgtDemMedienbestand()
+    {
+        CD help = new CD("Help!", "", "The Beatles", 34);
+        _medienbestand.fuegeMediumEin(help);
+        assertEquals(4, _index.suche("beatles")
+            .size());
+
+        _medienbestand.entferneMedium(_abbey);
+        _medienbestand.entferneMedium(help);
+        assertEquals(2, _index.suche("beatles")
+            .size());
+        assertEquals(0, _index.suche("abbey")
+            .size());
+    }
+
+    @Test
+    public void testAnpassungLaeuftImExecutor()
+    {
+        final List<Runnable> anpassungen = new ArrayList<Runnable>();
+        MedienIndex index = new MedienIndex(_medienbestand, new Executor()
+        {
+            @Override
+            public void execute(Runnable anpassung)
+            {
+                anpassungen.add(anpassung);
+            }
+        });
+        index.baueAuf();
+        CD help = new CD("Help!", "", "The Beatles", 34);
+
+        _medienbestand.fuegeMediumEin(help);
+        assertEquals(1, anpassungen.size());
+        assertTrue(index.suche("help")
+            .isEmpty());
+
+        anpassungen.get(0)
+            .run();
+        assertSame(help, index.suche("help")
+            .get(0));
+    }
+
+    @Test
+    public void testGleicheExemplareWerdenBeideGefunden()
+    {
+        CD zweitesExemplar = new CD("Abbey Road", "Letztes Studioalbum",
+                "The Beatles", 47);
+        _index.fuegeEin(zweitesExemplar);
+        assertEquals(2, _index.suche("abbey road")
+            .size());
+        _index.entferne(_abbey);
+        assertSame(zweitesExemplar, _index.suche("abbey")
+            .get(0));
+    }
+}
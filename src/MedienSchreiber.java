@@ -0,0 +1,173 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schreibt Medien und ihre Verleihkarten in eine Textdatei, die der
+ * {@link MedienEinleser} wieder einlesen kann. Der MedienSchreiber kann CDs
+ * und DVDs schreiben.
+ * 
+ * Die Reihenfolge der Informationen einer Zeile:
+ * 
+ * Ausleihdatum; Kundennummer; Medienbezeichnung; Titel; Kommentar;
+ * Interpret bzw. Regisseur; Spiellänge bzw. Laufzeit; Mediennummer
+ * 
+ * Ausleihdatum und Kundennummer sind bei nicht verliehenen Medien leer.
+ * 
+ * Zeilen, die der MedienEinleser nicht zu einem Medium machen kann (zum
+ * Beispiel Videospiele), können unverändert mitgeschrieben werden.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class MedienSchreiber
+{
+
+    /**
+     * Schreibt die Medien in eine Textdatei. Der bisherige Inhalt der Datei
+     * wird ersetzt. Schlägt das Schreiben fehl, bleibt die Datei unverändert.
+     * 
+     * @param medien Die Medien, die geschrieben werden sollen.
+     * @param verleihkarten Die Verleihkarten der verliehenen Medien.
+     * @param medienDatei Die Datei in der die Medien gespeichert werden.
+     * @throws DateiSchreibException wenn der Medien-Datenbestand nicht
+     *             geschrieben werden konnte.
+     * 
+     * @require medien != null
+     * @require verleihkarten != null
+     * @require medienDatei != null
+     */
+    public void schreibeMedienAus(List<Medium> medien,
+            List<Verleihkarte> verleihkarten, File medienDatei)
+            throws DateiSchreibException
+    {
+        schreibeMedienAus(medien, verleihkarten,
+                Collections.<String> emptyList(), medienDatei);
+    }
+
+    /**
+     * Schreibt die Medien in eine Textdatei und hängt die unbekannten Zeilen
+     * unverändert an. Der bisherige Inhalt der Datei wird ersetzt. Schlägt das
+     * Schreiben fehl, bleibt die Datei unverändert.
+     * 
+     * @param medien Die Medien, die geschrieben werden sollen.
+     * @param verleihkarten Die Verleihkarten der verliehenen Medien.
+     * @param unbekannteZeilen Zeilen ohne Zeilenumbruch, aus denen beim
+     *            Einlesen kein Medium erzeugt werden konnte.
+     * @param medienDatei Die Datei in der die Medien gespeichert werden.
+     * @throws DateiSchreibException wenn der Medien-Datenbestand nicht
+     *             geschrieben werden konnte.
+     * 
+     * @require medien != null
+     * @require verleihkarten != null
+     * @require unbekannteZeilen != null
+     * @require medienDatei != null
+     */
+    public void schreibeMedienAus(List<Medium> medien,
+            List<Verleihkarte> verleihkarten, List<String> unbekannteZeilen,
+            File medienDatei) throws DateiSchreibException
+    {
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert unbekannteZeilen != null : "Vorbedingung verletzt: unbekannteZeilen != null";
+        assert medienDatei != null : "Vorbedingung verletzt: medienDatei != null";
+
+        Map<Medium, Verleihkarte> verleihkartenMap = new HashMap<Medium, Verleihkarte>();
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            verleihkartenMap.put(verleihkarte.getMedium(), verleihkarte);
+        }
+
+        DateiSchreiber schreiber = null;
+        try
+        {
+            schreiber = new DateiSchreiber(medienDatei);
+            Writer writer = schreiber.getWriter();
+            for (Medium medium : medien)
+            {
+                schreibeMediumAus(writer, medium, verleihkartenMap.get(medium));
+            }
+            for (String zeile : unbekannteZeilen)
+            {
+                writer.write(zeile);
+                writer.write('\n');
+            }
+            schreiber.uebernimm();
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Der Medien-Datenbestand konnte nicht gespeichert werden, da die Datei nicht geschrieben werden konnte.");
+        }
+        finally
+        {
+            if (schreiber != null)
+            {
+                schreiber.verwirf();
+            }
+        }
+    }
+
+    /**
+     * Schreibt eine Zeile für das Medium. Medien, die weder CD noch DVD sind,
+     * werden übersprungen.
+     * 
+     * @param verleihkarte Die Verleihkarte des Mediums, null wenn es nicht
+     *            verliehen ist.
+     */
+    private static void schreibeMediumAus(Writer writer, Medium medium,
+            Verleihkarte verleihkarte) throws IOException
+    {
+        String person = null;
+        int laenge = 0;
+        if (medium instanceof CD)
+        {
+            CD cd = (CD) medium;
+            person = cd.getInterpret();
+            laenge = cd.getSpiellaenge();
+        }
+        else if (medium instanceof DVD)
+        {
+            DVD dvd = (DVD) medium;
+            person = dvd.getRegisseur();
+            laenge = dvd.getLaufzeit();
+        }
+
+        if (person != null)
+        {
+            if (verleihkarte != null)
+            {
+                writer.write(verleihkarte.getAusleihdatum()
+                    .toString());
+                writer.write(';');
+                writer.write(verleihkarte.getEntleiher()
+                    .getKundennummer()
+                    .toString());
+            }
+            else
+            {
+                writer.write(DateiSchreiber.kodiere(null));
+                writer.write(';');
+                writer.write(DateiSchreiber.kodiere(null));
+            }
+            writer.write(';');
+            writer.write(medium.getMedienBezeichnung());
+            writer.write(';');
+            writer.write(DateiSchreiber.kodiere(medium.getTitel()));
+            writer.write(';');
+            writer.write(DateiSchreiber.kodiere(medium.getKommentar()));
+            writer.write(';');
+            writer.write(DateiSchreiber.kodiere(person));
+            writer.write(';');
+            writer.write(Integer.toString(laenge));
+            writer.write(';');
+            writer.write(medium.getMediennummer()
+                .toString());
+            writer.write('\n');
+        }
+    }
+}
@@ -16,6 +16,16 @@ import java.util.List;
 interface MedienbestandService extends ObservableService
 {
 
+    /**
+     * Textrepräsentation für das Ereignis, dass ein Medium eingefügt wurde.
+     */
+    public static final String EREIGNIS_MEDIUM_EINGEFUEGT = "Medium eingefügt";
+
+    /**
+     * Textrepräsentation für das Ereignis, dass ein Medium entfernt wurde.
+     */
+    public static final String EREIGNIS_MEDIUM_ENTFERNT = "Medium entfernt";
+
     /**
      * Entfernt ein Medium aus dem Medienbestand, z.B. wenn es verloren gegangen
      * ist oder so veraltet, dass es von den Mediathek-Kunden nicht mehr
@@ -61,6 +71,17 @@ interface MedienbestandService extends ObservableService
      */
     List<Medium> getMedien();
 
+    /**
+     * Liefert zur übergebenen Mediennummer das Medium, wenn es im Bestand
+     * enthalten ist.
+     * 
+     * @param mediennummer Eine Mediennummer
+     * @return Das Medium oder null, wenn es keinen passenden Eintrag gibt.
+     * 
+     * @require mediennummer != null
+     */
+    Medium getMedium(Mediennummer mediennummer);
+
     /**
      * Informiert diesen Service darüber, dass Medien von einem Werkzeug
      * geändert wurden. Eine Implementation wird daraufhin wahrscheinlich alle
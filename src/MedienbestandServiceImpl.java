@@ -1,5 +1,7 @@
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ein Medienbestand enthält alle zur Verfügung stehenden Medien. Diese können
@@ -7,6 +9,11 @@ import java.util.List;
  * bestimmten Titel kann es mehrere Medien-Objekte im Bestand geben. So kann
  * z.B. die gleiche CD mehrfach vorhanden sein.
  * 
+ * Eingefügt, entfernt und geändert wird nur im Event-Dispatch-Thread. Der
+ * kompakte Verleihbestand und die Speicherung schlagen Medien aber aus ihren
+ * eigenen Threads nach, die Map wird deshalb nur unter ihrer eigenen Sperre
+ * benutzt.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -15,9 +22,11 @@ class MedienbestandServiceImpl extends AbstractObservableService
 {
 
     /**
-     * Eine Liste aller Medien
+     * Alle Medien zu ihren Mediennummern. Enthaltensein, Einfügen und
+     * Entfernen erfolgen über den Hashwert der Mediennummer, die
+     * Einfügereihenfolge bleibt für {@link #getMedien()} erhalten.
      */
-    private List<Medium> _medienbestand;
+    private final Map<Mediennummer, Medium> _medienbestand;
 
     /**
      * Initialisiert einen neuen Medienbestand.
@@ -29,7 +38,11 @@ class MedienbestandServiceImpl extends AbstractObservableService
     public MedienbestandServiceImpl(List<Medium> medien)
     {
         assert medien != null : "Vorbedingung verletzt: medien != null";
-        _medienbestand = new ArrayList<Medium>(medien);
+        _medienbestand = new LinkedHashMap<Mediennummer, Medium>();
+        for (Medium medium : medien)
+        {
+            _medienbestand.put(medium.getMediennummer(), medium);
+        }
     }
 
     @Override
@@ -37,16 +50,19 @@ class MedienbestandServiceImpl extends AbstractObservableService
     {
         assert enthaeltMedium(
                 medium) : "Vorbedingung verletzt: enthaeltMedium(medium)";
-        _medienbestand.remove(medium);
+        synchronized (_medienbestand)
+        {
+            _medienbestand.remove(medium.getMediennummer());
+        }
 
-        informiereUeberAenderung();
+        informiereUeber(new ServiceEreignis(EREIGNIS_MEDIUM_ENTFERNT, medium));
     }
 
     @Override
     public boolean enthaeltMedium(Medium medium)
     {
         assert medium != null : "Vorbedingung verletzt: medium != null";
-        return _medienbestand.contains(medium);
+        return medium.equals(getMedium(medium.getMediennummer()));
     }
 
     @Override
@@ -54,15 +70,32 @@ class MedienbestandServiceImpl extends AbstractObservableService
     {
         assert !enthaeltMedium(
                 neuesMedium) : "Vorbedingung verletzt: !enthaeltMedium(medium)";
-        _medienbestand.add(neuesMedium);
+        synchronized (_medienbestand)
+        {
+            _medienbestand.put(neuesMedium.getMediennummer(), neuesMedium);
+        }
 
-        informiereUeberAenderung();
+        informiereUeber(
+                new ServiceEreignis(EREIGNIS_MEDIUM_EINGEFUEGT, neuesMedium));
     }
 
     @Override
     public List<Medium> getMedien()
     {
-        return new ArrayList<Medium>(_medienbestand);
+        synchronized (_medienbestand)
+        {
+            return new ArrayList<Medium>(_medienbestand.values());
+        }
+    }
+
+    @Override
+    public Medium getMedium(Mediennummer mediennummer)
+    {
+        assert mediennummer != null : "Vorbedingung verletzt: mediennummer != null";
+        synchronized (_medienbestand)
+        {
+            return _medienbestand.get(mediennummer);
+        }
     }
 
     @Override
@@ -97,4 +97,22 @@ public class MedienbestandServiceImplTest
             .size());
         assertTrue(_medienbestand.enthaeltMedium(_cd2));
     }
+
+    @Test
+    public void getMedienBehaeltReihenfolgeTest()
+    {
+        _medienbestand.fuegeMediumEin(_cd2);
+        _medienbestand.fuegeMediumEin(_cd1);
+        assertEquals(_cd2, _medienbestand.getMedien()
+            .get(0));
+        assertEquals(_cd1, _medienbestand.getMedien()
+            .get(1));
+
+        _medienbestand.entferneMedium(_cd2);
+        _medienbestand.fuegeMediumEin(_cd2);
+        assertEquals(_cd1, _medienbestand.getMedien()
+            .get(0));
+        assertEquals(_cd2, _medienbestand.getMedien()
+            .get(1));
+    }
 }
@@ -0,0 +1,125 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mit Mediennummern können Medien eindeutig identifiziert werden, auch über
+ * das Speichern und erneute Einlesen des Medienbestands hinweg. Verschiedene
+ * Exemplare desselben Titels haben verschiedene Mediennummern.
+ * 
+ * Neue Medien bekommen mit {@link #naechste()} eine Nummer, die größer ist als
+ * alle bisher erzeugten, auch als die aus einer Datei gelesenen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public final class Mediennummer
+{
+    /**
+     * Die kleinste Nummer, die noch nicht erzeugt wurde.
+     */
+    private static final AtomicInteger NAECHSTE_NUMMER = new AtomicInteger(1);
+
+    /**
+     * int-Repräsentation der Mediennummer
+     */
+    private final int _mediennummer;
+
+    /**
+     * Wählt eine Mediennummer, mit der angebenen Zahl, aus.
+     * 
+     * @param mediennummer Eine gültige Zahl.
+     * 
+     * @require istGueltig(mediennummer)
+     */
+    public Mediennummer(int mediennummer)
+    {
+        assert istGueltig(
+                mediennummer) : "Vorbedingung verletzt: istGueltig(mediennummer)";
+
+        _mediennummer = mediennummer;
+        merkeVergeben(mediennummer);
+    }
+
+    /**
+     * Liefert eine neue, noch nicht vergebene Mediennummer.
+     * 
+     * @ensure result != null
+     */
+    public static Mediennummer naechste()
+    {
+        return new Mediennummer(NAECHSTE_NUMMER.getAndIncrement());
+    }
+
+    /**
+     * Prüft, ob eine gegebene Zahl eine gültige Mediennummer ist. Eine
+     * Mediennummer ist gültig, wenn sie positiv und kleiner als
+     * {@link Integer#MAX_VALUE} ist, damit es immer eine nächste Nummer gibt.
+     * 
+     * @param mediennummer Ein zu übeprüfende Zahl.
+     * @return true, wenn die Zahl gültig ist, ansonsten false.
+     */
+    public static boolean istGueltig(int mediennummer)
+    {
+        return (mediennummer > 0) && (mediennummer < Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gibt die Mediennummer als Zahl zurück, z.B. als kompakter Schlüssel für
+     * Indizes.
+     * 
+     * @ensure istGueltig(result)
+     */
+    public int getNummer()
+    {
+        return _mediennummer;
+    }
+
+    /**
+     * Zwei Mediennummern sind gleich wenn ihre Zahlen gleich sind.
+     * 
+     * @param obj Ein anderes Objekt.
+     * @return true, wenn die Zahlen gleich sind, ansonsten false.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        boolean result = false;
+        if (obj instanceof Mediennummer)
+        {
+            Mediennummer vergleichsMediennummer = (Mediennummer) obj;
+            result = (_mediennummer == vergleichsMediennummer._mediennummer);
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return _mediennummer;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.valueOf(_mediennummer);
+    }
+
+    /**
+     * Sorgt dafür, dass {@link #naechste()} die angegebene Nummer nicht mehr
+     * liefert.
+     * 
+     * @require istGueltig(mediennummer)
+     */
+    private static void merkeVergeben(int mediennummer)
+    {
+        assert istGueltig(
+                mediennummer) : "Vorbedingung verletzt: istGueltig(mediennummer)";
+
+        boolean erledigt = false;
+        while (!erledigt)
+        {
+            int naechste = NAECHSTE_NUMMER.get();
+            erledigt = (naechste > mediennummer) || NAECHSTE_NUMMER
+                .compareAndSet(naechste, mediennummer + 1);
+        }
+    }
+}
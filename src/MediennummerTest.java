@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author SE2-Team
+ * @version SoSe 2021
+ * 
+ */
+public class MediennummerTest
+{
+
+    @Test
+    public void testEqualsUndHashcode()
+    {
+        Mediennummer mediennummer1 = new Mediennummer(4711);
+        assertEquals("4711", mediennummer1.toString());
+        assertEquals(4711, mediennummer1.getNummer());
+
+        Mediennummer mediennummer2 = new Mediennummer(4711);
+        assertEquals(mediennummer1, mediennummer2);
+        assertEquals(mediennummer1.hashCode(), mediennummer2.hashCode());
+
+        Mediennummer mediennummer3 = new Mediennummer(4712);
+        assertNotEquals(mediennummer1, mediennummer3);
+        assertNotEquals(mediennummer1.hashCode(), mediennummer3.hashCode());
+    }
+
+    @Test
+    public void testIstGueltig()
+    {
+        assertTrue(Mediennummer.istGueltig(1));
+        assertFalse(Mediennummer.istGueltig(0));
+        assertFalse(Mediennummer.istGueltig(-1));
+        assertTrue(Mediennummer.istGueltig(Integer.MAX_VALUE - 1));
+        assertFalse(Mediennummer.istGueltig(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testNaechsteIstNochNichtVergeben()
+    {
+        Mediennummer vergeben = new Mediennummer(
+                Mediennummer.naechste().getNummer() + 1000);
+        Mediennummer naechste = Mediennummer.naechste();
+        assertTrue(naechste.getNummer() > vergeben.getNummer());
+        assertNotEquals(naechste, Mediennummer.naechste());
+    }
+}
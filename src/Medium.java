@@ -1,7 +1,11 @@
 /**
  * Ein Medium definiert Eigenschaften, die alle Medien unserer Mediathek
- * gemeinsam haben. Der Titel eines Mediums dient als eindeutige Identifikation.
- * Ein Medium kann ausgeliehen und zurückgegeben werden.
+ * gemeinsam haben. Die {@link Mediennummer} eines Mediums dient als eindeutige
+ * Identifikation, auch über das Speichern des Medienbestands hinweg. Zwei
+ * Medien sind genau dann gleich, wenn sie von derselben Klasse sind und ihre
+ * Mediennummern gleich sind. Innerhalb eines Bestands hat jedes Medium eine
+ * eigene Mediennummer, eine CD und eine DVD mit derselben Nummer gibt es
+ * nicht. Ein Medium kann ausgeliehen und zurückgegeben werden.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -18,6 +22,15 @@ interface Medium
      */
     String getKommentar();
 
+    /**
+     * Gibt die Mediennummer dieses Mediums zurück.
+     * 
+     * @return Die Mediennummer dieses Mediums.
+     * 
+     * @ensure result != null
+     */
+    Mediennummer getMediennummer();
+
     /**
      * Gibt die Bezeichnung für die Medienart zurück.
      * 
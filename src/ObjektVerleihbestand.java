@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Ein Verleihbestand, der jede Ausleihe als {@link Verleihkarte} in
+ * nebenläufigen Maps hält. Lesende Methoden sperren nicht, bis auf die
+ * Abfragen nach dem Ausleihtag, die über einen synchronisierten
+ * {@link Ausleihkalender} laufen. Der Kalender kostet je Ausleihe noch einmal
+ * einige Map-Einträge. Für sehr viele Ausleihen ist deshalb der
+ * {@link KompakterVerleihbestand} gedacht, der den Ausleihtag ohne zusätzliche
+ * Objekte indiziert.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class ObjektVerleihbestand implements Verleihbestand
+{
+    /**
+     * Diese Map speichert für jedes eingefügte Medium die dazugehörige
+     * Verleihkarte. Ein Zugriff auf die Verleihkarte ist dadurch leicht über
+     * die Angabe des Mediums möglich. Beispiel: _verleihkarten.get(medium)
+     */
+    private final Map<Medium, Verleihkarte> _verleihkarten;
+
+    /**
+     * Diese Map speichert für jeden Entleiher die Menge seiner Verleihkarten.
+     * Sie wird parallel zu _verleihkarten gepflegt, damit Anfragen für einen
+     * Kunden nicht über alle Verleihkarten laufen müssen. Kunden ohne
+     * Verleihkarten sind nicht enthalten.
+     */
+    private final Map<Kunde, Set<Verleihkarte>> _verleihkartenFuerKunden;
+
+    /**
+     * Die verliehenen Medien, geordnet nach dem Ausleihtag.
+     */
+    private final Ausleihkalender _ausleihkalender;
+
+    /**
+     * Initialisiert einen Verleihbestand mit den gegebenen Verleihkarten.
+     * 
+     * @param initialBestand Der initiale Bestand.
+     * 
+     * @require initialBestand != null
+     */
+    public ObjektVerleihbestand(List<Verleihkarte> initialBestand)
+    {
+        assert initialBestand != null : "Vorbedingung verletzt: initialBestand != null";
+
+        _verleihkarten = new ConcurrentHashMap<Medium, Verleihkarte>();
+        _verleihkartenFuerKunden = new ConcurrentHashMap<Kunde, Set<Verleihkarte>>();
+        _ausleihkalender = new Ausleihkalender();
+        for (Verleihkarte verleihkarte : initialBestand)
+        {
+            _verleihkarten.put(verleihkarte.getMedium(), verleihkarte);
+            fuegeInKundenIndexEin(verleihkarte);
+            _ausleihkalender.trageEin(verleihkarte.getMedium(),
+                    verleihkarte.getAusleihdatum());
+        }
+    }
+
+    @Override
+    public Verleihkarte trageEin(Kunde kunde, Medium medium,
+            Datum ausleihDatum)
+    {
+        Verleihkarte karte = new Verleihkarte(kunde, medium, ausleihDatum);
+        _verleihkarten.put(medium, karte);
+        fuegeInKundenIndexEin(karte);
+        _ausleihkalender.trageEin(medium, ausleihDatum);
+        return karte;
+    }
+
+    @Override
+    public Verleihkarte entferne(Medium medium)
+    {
+        Verleihkarte verleihkarte = _verleihkarten.remove(medium);
+        if (verleihkarte != null)
+        {
+            entferneAusKundenIndex(verleihkarte);
+            _ausleihkalender.entferne(medium);
+        }
+        return verleihkarte;
+    }
+
+    @Override
+    public boolean istVerliehen(Medium medium)
+    {
+        return _verleihkarten.containsKey(medium);
+    }
+
+    @Override
+    public Verleihkarte getVerleihkarteFuer(Medium medium)
+    {
+        return _verleihkarten.get(medium);
+    }
+
+    @Override
+    public List<Medium> getMedienFuer(Kunde kunde)
+    {
+        List<Medium> result = new ArrayList<Medium>();
+        for (Verleihkarte verleihkarte : getVerleihkartenFuer(kunde))
+        {
+            result.add(verleihkarte.getMedium());
+        }
+        return result;
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkartenFuer(Kunde kunde)
+    {
+        List<Verleihkarte> result = new ArrayList<Verleihkarte>();
+        Set<Verleihkarte> verleihkarten = _verleihkartenFuerKunden.get(kunde);
+        if (verleihkarten != null)
+        {
+            result.addAll(verleihkarten);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkarten()
+    {
+        return new ArrayList<Verleihkarte>(_verleihkarten.values());
+    }
+
+    @Override
+    public Momentaufnahme halteFest()
+    {
+        final List<Verleihkarte> verleihkarten = getVerleihkarten();
+        return new Momentaufnahme()
+        {
+            @Override
+            public List<Verleihkarte> getVerleihkarten()
+            {
+                return verleihkarten;
+            }
+        };
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkartenVerliehenBis(Datum datum)
+    {
+        return sucheVerleihkarten(
+                _ausleihkalender.getMedienVerliehenBis(datum));
+    }
+
+    @Override
+    public List<Verleihkarte> getAeltesteVerleihkarten(int anzahl)
+    {
+        return sucheVerleihkarten(_ausleihkalender.getAeltesteMedien(anzahl));
+    }
+
+    /**
+     * Liefert die Verleihkarten der Medien in derselben Reihenfolge. Medien,
+     * die inzwischen zurückgegeben wurden, werden ausgelassen.
+     */
+    private List<Verleihkarte> sucheVerleihkarten(List<Medium> medien)
+    {
+        List<Verleihkarte> result = new ArrayList<Verleihkarte>(medien.size());
+        for (Medium medium : medien)
+        {
+            Verleihkarte verleihkarte = _verleihkarten.get(medium);
+            if (verleihkarte != null)
+            {
+                result.add(verleihkarte);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Trägt die Verleihkarte unter ihrem Entleiher in den Kunden-Index ein.
+     * Die Menge des Entleihers wird atomar angelegt, da Medien desselben
+     * Entleihers unter verschiedenen Sperren verliehen werden können.
+     */
+    private void fuegeInKundenIndexEin(final Verleihkarte verleihkarte)
+    {
+        _verleihkartenFuerKunden.compute(verleihkarte.getEntleiher(),
+                new BiFunction<Kunde, Set<Verleihkarte>, Set<Verleihkarte>>()
+                {
+                    @Override
+                    public Set<Verleihkarte> apply(Kunde entleiher,
+                            Set<Verleihkarte> verleihkarten)
+                    {
+                        Set<Verleihkarte> result = verleihkarten;
+                        if (result == null)
+                        {
+                            result = ConcurrentHashMap.newKeySet();
+                        }
+                        result.add(verleihkarte);
+                        return result;
+                    }
+                });
+    }
+
+    /**
+     * Entfernt die Verleihkarte aus dem Kunden-Index. Hat der Entleiher danach
+     * keine Verleihkarten mehr, wird sein Eintrag atomar entfernt.
+     */
+    private void entferneAusKundenIndex(final Verleihkarte verleihkarte)
+    {
+        _verleihkartenFuerKunden.computeIfPresent(verleihkarte.getEntleiher(),
+                new BiFunction<Kunde, Set<Verleihkarte>, Set<Verleihkarte>>()
+                {
+                    @Override
+                    public Set<Verleihkarte> apply(Kunde entleiher,
+                            Set<Verleihkarte> verleihkarten)
+                    {
+                        Set<Verleihkarte> result = verleihkarten;
+                        result.remove(verleihkarte);
+                        if (result.isEmpty())
+                        {
+                            result = null;
+                        }
+                        return result;
+                    }
+                });
+    }
+}
@@ -1,6 +1,10 @@
+import java.util.concurrent.Executor;
+
 /**
  * Das interface für beobachtbare Services. Definiert Operationen zum An- und
- * Abmelden von Beobachtern.
+ * Abmelden von Beobachtern und zum Festlegen, wie Beobachter benachrichtigt
+ * werden. Ein {@link ServiceObserver} erfährt nur, dass sich etwas geändert
+ * hat, ein {@link ServiceEreignisObserver} auch, was sich geändert hat.
  * 
  * @author SE2-Team
  * @version SoSe 2021
@@ -25,4 +29,35 @@ public interface ObservableService
      * @require beobachter != null
      */
     void entferneBeobachter(ServiceObserver beobachter);
+
+    /**
+     * Meldet den gegebenen Beobachter für einzelne Ereignisse an.
+     * 
+     * @param beobachter Ein Beobachter, der angemeldet werden soll.
+     * 
+     * @require beobachter != null
+     */
+    void registriereEreignisBeobachter(ServiceEreignisObserver beobachter);
+
+    /**
+     * Meldet den gegebenen Beobachter für einzelne Ereignisse ab.
+     * 
+     * @param beobachter Ein Beobachter, der abgemeldet werden soll.
+     * 
+     * @require beobachter != null
+     */
+    void entferneEreignisBeobachter(ServiceEreignisObserver beobachter);
+
+    /**
+     * Legt fest, wie die Beobachter benachrichtigt werden. Ohne Zusteller
+     * werden sie sofort im Thread der Änderung benachrichtigt. Mit Zusteller
+     * wird die Benachrichtigung an den Zusteller übergeben. Änderungen, die
+     * eintreten, während eine Benachrichtigung noch beim Zusteller wartet,
+     * werden mit dieser zusammengefasst. Ereignis-Beobachter erhalten dann
+     * alle zusammengefassten Ereignisse auf einmal.
+     * 
+     * @param zusteller Ein Executor, z.B. aus {@link Zusteller}, oder null für
+     *            sofortige Benachrichtigung.
+     */
+    void setzeZusteller(Executor zusteller);
 }
@@ -0,0 +1,149 @@
+/**
+ * Ein ServiceEreignis beschreibt eine einzelne Änderung an einem
+ * {@link ObservableService}, z.B. dass ein Medium verliehen wurde. Die Art
+ * des Ereignisses ist eine der EREIGNIS-Konstanten der Service-Interfaces.
+ * Je nach Art sind Medium, Kunde und Verleihkarte gesetzt oder null.
+ * 
+ * ServiceEreignisse sind unveränderlich.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class ServiceEreignis
+{
+    private final String _art;
+    private final Medium _medium;
+    private final Kunde _kunde;
+    private final Verleihkarte _verleihkarte;
+
+    /**
+     * Initialisiert ein Ereignis, das ein Medium betrifft.
+     * 
+     * @param art Die Art des Ereignisses, z.B.
+     *            {@link MedienbestandService#EREIGNIS_MEDIUM_EINGEFUEGT}.
+     * @param medium Das betroffene Medium.
+     * 
+     * @require art != null
+     * @require medium != null
+     */
+    public ServiceEreignis(String art, Medium medium)
+    {
+        this(art, medium, null, null);
+        assert medium != null : "Vorbedingung verletzt: medium != null";
+    }
+
+    /**
+     * Initialisiert ein Ereignis, das einen Kunden betrifft.
+     * 
+     * @param art Die Art des Ereignisses, z.B.
+     *            {@link KundenstammService#EREIGNIS_KUNDE_EINGEFUEGT}.
+     * @param kunde Der betroffene Kunde.
+     * 
+     * @require art != null
+     * @require kunde != null
+     */
+    public ServiceEreignis(String art, Kunde kunde)
+    {
+        this(art, null, kunde, null);
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+    }
+
+    /**
+     * Initialisiert ein Ereignis, das eine Verleihkarte betrifft. Medium und
+     * Kunde des Ereignisses sind Medium und Entleiher der Verleihkarte.
+     * 
+     * @param art Die Art des Ereignisses,
+     *            {@link VerleihService#EREIGNIS_AUSLEIHE} oder
+     *            {@link VerleihService#EREIGNIS_RUECKGABE}.
+     * @param verleihkarte Die angelegte bzw. gelöschte Verleihkarte.
+     * 
+     * @require art != null
+     * @require verleihkarte != null
+     */
+    public ServiceEreignis(String art, Verleihkarte verleihkarte)
+    {
+        this(art, mediumVon(verleihkarte), verleihkarte.getEntleiher(),
+                verleihkarte);
+    }
+
+    /**
+     * Gibt das Medium der Verleihkarte zurück. Prüft dabei die Vorbedingung
+     * des Konstruktors, bevor dieser die Verleihkarte benutzt.
+     */
+    private static Medium mediumVon(Verleihkarte verleihkarte)
+    {
+        assert verleihkarte != null : "Vorbedingung verletzt: verleihkarte != null";
+
+        return verleihkarte.getMedium();
+    }
+
+    private ServiceEreignis(String art, Medium medium, Kunde kunde,
+            Verleihkarte verleihkarte)
+    {
+        assert art != null : "Vorbedingung verletzt: art != null";
+
+        _art = art;
+        _medium = medium;
+        _kunde = kunde;
+        _verleihkarte = verleihkarte;
+    }
+
+    /**
+     * Gibt die Art des Ereignisses zurück.
+     * 
+     * @ensure result != null
+     */
+    public String getArt()
+    {
+        return _art;
+    }
+
+    /**
+     * Prüft, ob das Ereignis von der angegebenen Art ist.
+     * 
+     * @param art Eine der EREIGNIS-Konstanten.
+     * @return true, wenn das Ereignis von dieser Art ist, sonst false.
+     */
+    public boolean istArt(String art)
+    {
+        return _art.equals(art);
+    }
+
+    /**
+     * Gibt das betroffene Medium zurück.
+     * 
+     * @return Das Medium, null wenn das Ereignis kein Medium betrifft.
+     */
+    public Medium getMedium()
+    {
+        return _medium;
+    }
+
+    /**
+     * Gibt den betroffenen Kunden zurück.
+     * 
+     * @return Den Kunden, null wenn das Ereignis keinen Kunden betrifft.
+     */
+    public Kunde getKunde()
+    {
+        return _kunde;
+    }
+
+    /**
+     * Gibt die betroffene Verleihkarte zurück.
+     * 
+     * @return Die Verleihkarte, null wenn das Ereignis keine Verleihkarte
+     *         betrifft.
+     */
+    public Verleihkarte getVerleihkarte()
+    {
+        return _verleihkarte;
+    }
+
+    @Override
+    public String toString()
+    {
+        return _art + ": " + (_verleihkarte != null ? _verleihkarte
+                : (_medium != null ? _medium : _kunde));
+    }
+}
@@ -0,0 +1,24 @@
+import java.util.List;
+
+/**
+ * Interface für Beobachter, die von einem {@link ObservableService} nicht nur
+ * erfahren wollen, dass sich etwas geändert hat, sondern was. So können sie
+ * ihren Zustand gezielt anpassen, statt alles neu abzufragen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+public interface ServiceEreignisObserver
+{
+    /**
+     * Informiert den Beobachter über Änderungen am Service. Die Ereignisse
+     * stehen in der Reihenfolge, in der sie eingetreten sind. Eine leere Liste
+     * bedeutet, dass sich der Service auf nicht näher beschriebene Weise
+     * geändert hat. Der Beobachter muss dann alles neu abfragen.
+     * 
+     * @param ereignisse Die Ereignisse seit der letzten Benachrichtigung.
+     * 
+     * @require ereignisse != null
+     */
+    void informiereUeberEreignisse(List<ServiceEreignis> ereignisse);
+}
@@ -0,0 +1,193 @@
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+
+/**
+ * Liefert Sortierschlüssel für die Texte, nach denen Medien und Kunden an der
+ * UI sortiert werden. Die Schlüssel folgen der deutschen Sortierung: Groß- und
+ * Kleinschreibung werden nicht unterschieden und Umlaute werden wie ihr
+ * Grundbuchstabe einsortiert, "Müller" also vor "Mutter".
+ * 
+ * Zum Sortieren ganzer Listen berechnen {@link #sortiereMedien(List)} und
+ * {@link #sortiereKunden(List)} den Schlüssel jedes Elements einmal, die
+ * Vergleiche beim Sortieren sind danach einfache Byte-Vergleiche. Die
+ * Schlüssel werden nur für die Dauer einer Sortierung gehalten, denn ein
+ * Schlüssel kostet etwa zwei bis drei Bytes je Zeichen des Texts zuzüglich
+ * der Objekte und würde bei dauerhafter Speicherung für jedes jemals
+ * sortierte Medium und jeden Kunden Speicher belegen. Einzelne Vergleiche,
+ * z.B. im {@link MedienComparator}, berechnen keinen Schlüssel, sondern
+ * vergleichen die Texte direkt mit {@link #vergleiche(String, String)}.
+ * 
+ * Da Collator nicht threadsicher sind, hat jeder Thread seinen eigenen.
+ * Sortierungen und Vergleiche in verschiedenen Threads sperren sich daher
+ * nicht gegenseitig.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Sortierschluessel
+{
+    /**
+     * Der Collator für die deutsche Sortierung, einer je Thread.
+     */
+    private static final ThreadLocal<Collator> COLLATOR = new ThreadLocal<Collator>()
+    {
+        @Override
+        protected Collator initialValue()
+        {
+            return erzeugeCollator();
+        }
+    };
+
+    private static final Comparator<Eintrag<?>> EINTRAG_COMPARATOR = new Comparator<Eintrag<?>>()
+    {
+        @Override
+        public int compare(Eintrag<?> eintrag1, Eintrag<?> eintrag2)
+        {
+            int result = eintrag1._bezeichnung.compareTo(eintrag2._bezeichnung);
+            if (result == 0)
+            {
+                result = eintrag1._schluessel.compareTo(eintrag2._schluessel);
+            }
+            return result;
+        }
+    };
+
+    private Sortierschluessel()
+    {
+    }
+
+    /**
+     * Sortiert Medien in der Reihenfolge des {@link MedienComparator}. Die
+     * Sortierung ist stabil.
+     * 
+     * @param medien Die zu sortierenden Medien.
+     * 
+     * @require medien != null
+     */
+    public static void sortiereMedien(List<Medium> medien)
+    {
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+
+        List<Eintrag<Medium>> eintraege = new ArrayList<Eintrag<Medium>>(
+                medien.size());
+        for (Medium medium : medien)
+        {
+            eintraege.add(new Eintrag<Medium>(medium,
+                    medium.getMedienBezeichnung(),
+                    berechne(medium.getTitel())));
+        }
+        schreibeSortiertZurueck(medien, eintraege);
+    }
+
+    /**
+     * Sortiert Kunden in der Reihenfolge des {@link KundenComparator}. Die
+     * Sortierung ist stabil.
+     * 
+     * @param kunden Die zu sortierenden Kunden.
+     * 
+     * @require kunden != null
+     */
+    public static void sortiereKunden(List<Kunde> kunden)
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+
+        List<Eintrag<Kunde>> eintraege = new ArrayList<Eintrag<Kunde>>(
+                kunden.size());
+        for (Kunde kunde : kunden)
+        {
+            eintraege.add(new Eintrag<Kunde>(kunde, "",
+                    berechne(kunde.getNachname())));
+        }
+        schreibeSortiertZurueck(kunden, eintraege);
+    }
+
+    /**
+     * Vergleicht zwei Texte nach deutscher Sortierung, ohne Sortierschlüssel
+     * zu berechnen.
+     * 
+     * @param text1 Ein Text, null wird wie der leere Text behandelt.
+     * @param text2 Ein Text, null wird wie der leere Text behandelt.
+     * @return einen Wert <0, wenn text1 vor text2 kommt, einen Wert >0 im
+     *         umgekehrten Fall und 0, wenn beide gleich einsortiert werden.
+     */
+    public static int vergleiche(String text1, String text2)
+    {
+        return COLLATOR.get()
+            .compare(nichtNull(text1), nichtNull(text2));
+    }
+
+    /**
+     * Berechnet den Sortierschlüssel für einen Text.
+     * 
+     * @param text Ein Text, null wird wie der leere Text behandelt.
+     * 
+     * @ensure result != null
+     */
+    public static CollationKey berechne(String text)
+    {
+        return COLLATOR.get()
+            .getCollationKey(nichtNull(text));
+    }
+
+    /**
+     * Liefert den Text oder für null den leeren Text.
+     */
+    private static String nichtNull(String text)
+    {
+        String result = text;
+        if (result == null)
+        {
+            result = "";
+        }
+        return result;
+    }
+
+    /**
+     * Sortiert die Einträge und schreibt ihre Elemente in dieser Reihenfolge in
+     * die Liste zurück.
+     */
+    private static <T> void schreibeSortiertZurueck(List<T> liste,
+            List<Eintrag<T>> eintraege)
+    {
+        Collections.sort(eintraege, EINTRAG_COMPARATOR);
+        ListIterator<T> iterator = liste.listIterator();
+        for (Eintrag<T> eintrag : eintraege)
+        {
+            iterator.next();
+            iterator.set(eintrag._element);
+        }
+    }
+
+    /**
+     * Erzeugt einen Collator, der nur Buchstaben und Akzente unterscheidet.
+     */
+    private static Collator erzeugeCollator()
+    {
+        Collator collator = Collator.getInstance(Locale.GERMANY);
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+
+    /**
+     * Ein Element mit seinen vorab geholten Sortierangaben.
+     */
+    private static class Eintrag<T>
+    {
+        private final T _element;
+        private final String _bezeichnung;
+        private final CollationKey _schluessel;
+
+        Eintrag(T element, String bezeichnung, CollationKey schluessel)
+        {
+            _element = element;
+            _bezeichnung = bezeichnung;
+            _schluessel = schluessel;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Testklasse für die Sortierschlüssel
+ * 
+ * @author SE2-Team
+ * 
+ */
+public class SortierschluesselTest
+{
+
+    @Test
+    public void testVergleichWieSchluessel()
+    {
+        String[] texte = {"Müller", "Mutter", "muller", "Öde", "Ofen", "MEIER",
+            "meier", "", null};
+        for (String text1 : texte)
+        {
+            for (String text2 : texte)
+            {
+                assertEquals(
+                        Integer.signum(Sortierschluessel.berechne(text1)
+                            .compareTo(Sortierschluessel.berechne(text2))),
+                        Integer.signum(
+                                Sortierschluessel.vergleiche(text1, text2)));
+            }
+        }
+    }
+
+    @Test
+    public void testDeutscheSortierung()
+    {
+        assertTrue(Sortierschluessel.berechne("Müller")
+            .compareTo(Sortierschluessel.berechne("Mutter")) < 0);
+        assertTrue(Sortierschluessel.berechne("Muller")
+            .compareTo(Sortierschluessel.berechne("Müller")) < 0);
+        assertTrue(Sortierschluessel.berechne("Öde")
+            .compareTo(Sortierschluessel.berechne("Ofen")) < 0);
+        assertEquals(0, Sortierschluessel.berechne("MEIER")
+            .compareTo(Sortierschluessel.berechne("meier")));
+        assertEquals(0, Sortierschluessel.berechne(null)
+            .compareTo(Sortierschluessel.berechne("")));
+    }
+
+    @Test
+    public void testSortiereWieComparator()
+    {
+        CD zebra = new CD("Zebra", "Kommentar", "Interpret", 100);
+        CD aerger = new CD("Ärger", "Kommentar", "Interpret", 100);
+        DVD abba = new DVD("Abba", "Kommentar", "Regisseur", 100);
+        CD aerger2 = new CD("ärger", "Kommentar", "Interpret", 100);
+        List<Medium> medien = new ArrayList<Medium>(
+                Arrays.asList(abba, zebra, aerger, aerger2));
+        Sortierschluessel.sortiereMedien(medien);
+        assertEquals(Arrays.asList(aerger, aerger2, zebra, abba), medien);
+
+        Kunde mutter = new Kunde(new Kundennummer(111111), "Anna", "Mutter");
+        Kunde mueller = new Kunde(new Kundennummer(222222), "Heinz", "Müller");
+        Kunde meier = new Kunde(new Kundennummer(333333), "Hans", "meier");
+        List<Kunde> kunden = new ArrayList<Kunde>(
+                Arrays.asList(mutter, mueller, meier));
+        Sortierschluessel.sortiereKunden(kunden);
+        assertEquals(Arrays.asList(meier, mueller, mutter), kunden);
+    }
+}
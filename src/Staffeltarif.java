@@ -0,0 +1,56 @@
+/**
+ * Ein Tarif mit einer Grundgebühr, die eine Anzahl Tage abdeckt. Danach wird
+ * für jede angefangene Staffel von mehreren Tagen ein fester Betrag fällig.
+ * 
+ * Beispiel: Mit 200 Cent Grundgebühr für 7 Tage und 500 Cent je angefangene 5
+ * Tage kosten 7 Tage 2 Euro, 8 bis 12 Tage 7 Euro und 13 Tage 12 Euro.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Staffeltarif implements Tarif
+{
+    private final int _grundgebuehr;
+    private final int _tageInGrundgebuehr;
+    private final int _tageJeStaffel;
+    private final int _centJeStaffel;
+
+    /**
+     * Initialisiert einen Staffeltarif.
+     * 
+     * @param grundgebuehr Die Grundgebühr in Euro-Cent.
+     * @param tageInGrundgebuehr Die Anzahl der Tage, die die Grundgebühr
+     *            abdeckt.
+     * @param tageJeStaffel Die Anzahl der Tage einer Staffel.
+     * @param centJeStaffel Der Betrag für jede angefangene Staffel in
+     *            Euro-Cent.
+     * 
+     * @require grundgebuehr >= 0
+     * @require tageInGrundgebuehr >= 0
+     * @require tageJeStaffel > 0
+     * @require centJeStaffel >= 0
+     */
+    public Staffeltarif(int grundgebuehr, int tageInGrundgebuehr,
+            int tageJeStaffel, int centJeStaffel)
+    {
+        assert grundgebuehr >= 0 : "Vorbedingung verletzt: grundgebuehr >= 0";
+        assert tageInGrundgebuehr >= 0 : "Vorbedingung verletzt: tageInGrundgebuehr >= 0";
+        assert tageJeStaffel > 0 : "Vorbedingung verletzt: tageJeStaffel > 0";
+        assert centJeStaffel >= 0 : "Vorbedingung verletzt: centJeStaffel >= 0";
+
+        _grundgebuehr = grundgebuehr;
+        _tageInGrundgebuehr = tageInGrundgebuehr;
+        _tageJeStaffel = tageJeStaffel;
+        _centJeStaffel = centJeStaffel;
+    }
+
+    @Override
+    public int berechneCent(int ausleihdauer)
+    {
+        assert ausleihdauer > 0 : "Vorbedingung verletzt: ausleihdauer > 0";
+
+        int weitereTage = Math.max(0, ausleihdauer - _tageInGrundgebuehr);
+        int staffeln = (weitereTage + _tageJeStaffel - 1) / _tageJeStaffel;
+        return _grundgebuehr + staffeln * _centJeStaffel;
+    }
+}
@@ -1,4 +1,10 @@
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.SwingUtilities;
 
@@ -15,10 +21,19 @@ class StartUpMediathek_Blatt_01_03
             "./bestand/kundenstamm.txt");
     private static final File MEDIEN_DATEI = new File(
             "./bestand/medienbestand.txt");
+    private static final File JOURNAL_DATEI = new File(
+            "./bestand/verleihjournal.txt");
+
+    /**
+     * Die Zeit, in der Änderungen für eine Benachrichtigung gesammelt werden.
+     */
+    private static final long BILDAUFBAU_MILLISEKUNDEN = 40;
 
     private static KundenstammService _kundenstamm;
     private static MedienbestandService _medienbestand;
-    private static VerleihService _verleihService;
+    private static VerleihServiceImpl _verleihService;
+    private static VerleihJournal _journal;
+    private static DatenSchreiber _datenSchreiber;
 
     /**
      * Main-Methode, mit der die Anwendung gestartet wird.
@@ -27,6 +42,8 @@ class StartUpMediathek_Blatt_01_03
     {
         pruefeObAssertionsAktiviert();
         erstelleServices();
+        registriereSpeicherung();
+        setzeZusteller();
 
         final MediathekWerkzeug mediathekWerkzeug = new MediathekWerkzeug(
                 _medienbestand, _kundenstamm, _verleihService);
@@ -43,7 +60,13 @@ class StartUpMediathek_Blatt_01_03
     }
 
     /**
-     * Erstellt die Services und lädt die Daten.
+     * Erstellt die Services und lädt die Daten. Das Verleih-Journal wird auf
+     * die eingelesenen Verleihkarten angewendet und danach für neue Ausleihen
+     * und Rückgaben geöffnet. Haben Medien beim Einlesen neue Mediennummern
+     * bekommen, wird vorher der Bestand geschrieben, damit das Journal nur
+     * gespeicherte Mediennummern protokolliert. Zeilen des Medienbestands,
+     * aus denen kein Medium erzeugt werden kann, übernimmt der DatenSchreiber
+     * bei jedem Schreiben unverändert.
      */
     private static void erstelleServices()
     {
@@ -51,18 +74,172 @@ class StartUpMediathek_Blatt_01_03
         {
             DatenEinleser datenEinleser = new DatenEinleser(MEDIEN_DATEI,
                     KUNDEN_DATEI);
-            datenEinleser.leseDaten();
+            datenEinleser.leseDatenParallel();
+            _datenSchreiber = new DatenSchreiber(MEDIEN_DATEI, KUNDEN_DATEI,
+                    datenEinleser.getUnbekannteMedienzeilen());
             _medienbestand = new MedienbestandServiceImpl(
                     datenEinleser.getMedien());
             _kundenstamm = new KundenstammServiceImpl(
                     datenEinleser.getKunden());
+            _journal = new VerleihJournal(JOURNAL_DATEI,
+                    datenEinleser.getMedien());
+            List<Verleihkarte> verleihkarten = _journal.spieleNach(
+                    datenEinleser.getKunden(),
+                    datenEinleser.getVerleihkarten());
+            if (datenEinleser.hatNeueMediennummern())
+            {
+                _journal.sichereBestand(_datenSchreiber,
+                        datenEinleser.getKunden(), datenEinleser.getMedien(),
+                        verleihkarten);
+            }
             _verleihService = new VerleihServiceImpl(_kundenstamm,
-                    _medienbestand, datenEinleser.getVerleihkarten());
+                    _medienbestand, new KompakterVerleihbestand(
+                            _medienbestand, verleihkarten));
+            _journal.oeffne();
+            _verleihService.setzeJournal(_journal);
         }
         catch (DateiLeseException e)
         {
             e.printStackTrace();
         }
+        catch (DateiSchreibException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Registriert einen Beobachter, der nach Verleih und Rückgabe das Journal
+     * verdichtet, sobald es groß genug geworden ist. Ist das Journal nicht
+     * geöffnet oder wurde es nach einem Schreibfehler verworfen, wird
+     * stattdessen jedes Mal der gesamte Stand geschrieben und das alte
+     * Journal gelöscht, das dann im Stand enthalten ist.
+     * 
+     * Der Beobachter wird wie die Oberfläche im Event-Dispatch-Thread
+     * benachrichtigt, übergibt das Speichern aber einem eigenen
+     * Hintergrund-Thread. So schreibt der Event-Dispatch-Thread keine Dateien
+     * und wartet beim Verdichten nicht auf die Sperren des Verleih-Service.
+     * Benachrichtigungen, während ein Speichern noch wartet, werden mit
+     * diesem zusammengefasst.
+     * 
+     * Der Hintergrund-Thread liest dabei Kundenstamm und Medienbestand. Das
+     * ist nur erlaubt, weil beide ausschließlich im Event-Dispatch-Thread
+     * verändert werden und ihre Maps für lesende Threads synchronisieren.
+     * 
+     * Da der Thread ein Daemon ist, wird beim Beenden der Anwendung in einem
+     * Shutdown-Hook ein letztes Mal gespeichert, auf ausstehende
+     * Speicherungen gewartet und das Journal geschlossen.
+     */
+    private static void registriereSpeicherung()
+    {
+        final DatenSchreiber datenSchreiber = _datenSchreiber;
+        final ExecutorService hintergrund = Zusteller
+            .hintergrund("Speicherung");
+        final AtomicBoolean speicherungAusstehend = new AtomicBoolean();
+        final Runnable speicherung = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                // Vor dem Speichern zurücksetzen, damit Änderungen während
+                // des Speicherns ein weiteres Speichern auslösen.
+                speicherungAusstehend.set(false);
+                speichere(datenSchreiber);
+            }
+        };
+        _verleihService.registriereBeobachter(new ServiceObserver()
+        {
+            @Override
+            public void informiereUeberAenderung()
+            {
+                if (speicherungAusstehend.compareAndSet(false, true))
+                {
+                    try
+                    {
+                        hintergrund.execute(speicherung);
+                    }
+                    catch (RejectedExecutionException e)
+                    {
+                        // Die Anwendung wird beendet, der Shutdown-Hook
+                        // speichert ein letztes Mal.
+                    }
+                }
+            }
+        });
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    beendeSpeicherung(hintergrund, speicherung);
+                }
+            }, "Speicherung beenden"));
+    }
+
+    /**
+     * Speichert ein letztes Mal, wartet bis alle Speicherungen im
+     * Hintergrund-Thread abgearbeitet sind, und schließt danach das Journal,
+     * das dabei auch eine laufende Verdichtung abwartet.
+     */
+    private static void beendeSpeicherung(ExecutorService hintergrund,
+            Runnable speicherung)
+    {
+        hintergrund.execute(speicherung);
+        hintergrund.shutdown();
+        try
+        {
+            hintergrund.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread()
+                .interrupt();
+        }
+        _journal.schliesse();
+    }
+
+    /**
+     * Verdichtet das Journal, wenn es groß genug ist, oder schreibt ohne
+     * Journal den gesamten Stand.
+     */
+    private static void speichere(DatenSchreiber datenSchreiber)
+    {
+        try
+        {
+            if (_verleihService.hatJournal()
+                    && _journal.mussVerdichtetWerden())
+            {
+                _verleihService.verdichteJournal(datenSchreiber);
+            }
+            if (!_verleihService.hatJournal())
+            {
+                _journal.sichereBestand(datenSchreiber,
+                        _kundenstamm.getKunden(), _medienbestand.getMedien(),
+                        _verleihService.getVerleihkarten());
+            }
+        }
+        catch (DateiSchreibException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lässt die Services ihre Beobachter im Event-Dispatch-Thread
+     * benachrichtigen. Änderungen innerhalb eines Bildaufbaus werden dabei zu
+     * einer Benachrichtigung zusammengefasst, so dass z.B. die Medienliste bei
+     * vielen Änderungen nur einmal neu aufgebaut wird. Die Speicherung
+     * arbeitet von dort aus im Hintergrund weiter, siehe
+     * {@link #registriereSpeicherung()}.
+     */
+    private static void setzeZusteller()
+    {
+        Executor zusteller = Zusteller.verzoegert(Zusteller.swing(),
+                BILDAUFBAU_MILLISEKUNDEN);
+        _kundenstamm.setzeZusteller(zusteller);
+        _medienbestand.setzeZusteller(zusteller);
+        _verleihService.setzeZusteller(zusteller);
     }
 
     /**
@@ -0,0 +1,124 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bereitet Texte für die Suche auf. Ein normalisierter Text ist klein
+ * geschrieben und ohne Akzente, Umlaute werden auf ihren Grundbuchstaben
+ * zurückgeführt ("Müller" wird zu "muller") und "ß" zu "ss". So findet eine
+ * Suche "muller" auch "Müller".
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Suchtext
+{
+    private Suchtext()
+    {
+    }
+
+    /**
+     * Normalisiert einen Text für die Suche.
+     * 
+     * @param text Ein Text, null wird wie der leere Text behandelt.
+     * 
+     * @ensure result != null
+     */
+    public static String normalisiere(String text)
+    {
+        String ergebnis = "";
+        if (text != null)
+        {
+            StringBuilder normalisiert = new StringBuilder(text.length());
+            boolean vollstaendig = true;
+            for (int i = 0; vollstaendig && (i < text.length()); i++)
+            {
+                vollstaendig = haengeSchnellAn(normalisiert, text.charAt(i));
+            }
+            if (vollstaendig)
+            {
+                ergebnis = normalisiert.toString();
+            }
+            else
+            {
+                ergebnis = Normalizer
+                    .normalize(text.toLowerCase(Locale.GERMAN),
+                            Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .replace("ß", "ss");
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Zerlegt einen normalisierten Text in Wörter. Wörter bestehen aus
+     * Buchstaben und Ziffern, alle anderen Zeichen trennen Wörter.
+     * 
+     * @param normalisierterText Ein mit {@link #normalisiere(String)}
+     *            normalisierter Text.
+     * 
+     * @require normalisierterText != null
+     * @ensure result != null
+     */
+    public static List<String> zerlegeInWoerter(String normalisierterText)
+    {
+        assert normalisierterText != null : "Vorbedingung verletzt: normalisierterText != null";
+
+        List<String> woerter = new ArrayList<String>();
+        int anfang = -1;
+        for (int i = 0; i <= normalisierterText.length(); i++)
+        {
+            boolean imWort = (i < normalisierterText.length())
+                    && Character.isLetterOrDigit(normalisierterText.charAt(i));
+            if (imWort && (anfang < 0))
+            {
+                anfang = i;
+            }
+            else if (!imWort && (anfang >= 0))
+            {
+                woerter.add(normalisierterText.substring(anfang, i));
+                anfang = -1;
+            }
+        }
+        return woerter;
+    }
+
+    /**
+     * Hängt das normalisierte Zeichen für ASCII-Zeichen und die deutschen
+     * Sonderzeichen direkt an. Für alle anderen Zeichen wird false geliefert,
+     * der Text muss dann mit dem langsameren {@link Normalizer} behandelt
+     * werden.
+     */
+    private static boolean haengeSchnellAn(StringBuilder normalisiert,
+            char zeichen)
+    {
+        boolean bekannt = true;
+        if (zeichen < 128)
+        {
+            normalisiert.append(Character.toLowerCase(zeichen));
+        }
+        else if ((zeichen == 'ä') || (zeichen == 'Ä'))
+        {
+            normalisiert.append('a');
+        }
+        else if ((zeichen == 'ö') || (zeichen == 'Ö'))
+        {
+            normalisiert.append('o');
+        }
+        else if ((zeichen == 'ü') || (zeichen == 'Ü'))
+        {
+            normalisiert.append('u');
+        }
+        else if (zeichen == 'ß')
+        {
+            normalisiert.append("ss");
+        }
+        else
+        {
+            bekannt = false;
+        }
+        return bekannt;
+    }
+}
@@ -0,0 +1,27 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SuchtextTest
+{
+    @Test
+    public void testNormalisiere()
+    {
+        assertEquals("muller", Suchtext.normalisiere("Müller"));
+        assertEquals("grosse strasse", Suchtext.normalisiere("Große Straße"));
+        assertEquals("cafe", Suchtext.normalisiere("Café"));
+        assertEquals("homer", Suchtext.normalisiere("HOMER"));
+        assertEquals("", Suchtext.normalisiere(null));
+    }
+
+    @Test
+    public void testZerlegeInWoerter()
+    {
+        assertEquals(Arrays.asList("evergreen", "terrace", "742"),
+                Suchtext.zerlegeInWoerter(" evergreen-terrace 742."));
+        assertEquals(0, Suchtext.zerlegeInWoerter(" ;, ")
+            .size());
+    }
+}
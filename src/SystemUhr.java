@@ -0,0 +1,75 @@
+/**
+ * Eine Uhr, die das heutige Datum aus der Systemzeit (GMT) ermittelt.
+ * 
+ * Das Datum wird zwischengespeichert und erst beim Tageswechsel neu berechnet,
+ * so dass wiederholte Aufrufe von {@link #heute()} weder synchronisieren noch
+ * neue Datum-Objekte erzeugen.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class SystemUhr implements Uhr
+{
+    // Die Anzahl von Millesekunden an einem Tag
+    private static final long MILLISECONDS_IN_ONE_DAY = 1000 * 60 * 60 * 24;
+
+    // Der Tag, ab dem die Systemzeit gezählt wird
+    private static final Datum EPOCHE = new Datum(1, 1, 1970);
+
+    /**
+     * Der zuletzt ermittelte Tag. Er wird als Ganzes ersetzt, damit Datum und
+     * Tagesgrenzen immer zusammenpassen.
+     */
+    private volatile Tag _tag;
+
+    @Override
+    public Datum heute()
+    {
+        long jetzt = System.currentTimeMillis();
+        Tag tag = _tag;
+        if ((tag == null) || !tag.enthaelt(jetzt))
+        {
+            tag = new Tag(jetzt);
+            _tag = tag;
+        }
+        return tag.getDatum();
+    }
+
+    /**
+     * Ein Tag mit seinem Datum und seinen Grenzen in Millisekunden.
+     */
+    private static final class Tag
+    {
+        private final Datum _datum;
+        private final long _beginn;
+        private final long _ende;
+
+        /**
+         * Ermittelt den Tag, in dem der angegebene Zeitpunkt liegt.
+         * 
+         * @param millisekunden Ein Zeitpunkt in Millisekunden seit dem
+         *            1.1.1970 (GMT).
+         */
+        Tag(long millisekunden)
+        {
+            long epochenTag = Math.floorDiv(millisekunden,
+                    MILLISECONDS_IN_ONE_DAY);
+            _datum = EPOCHE.plus((int) epochenTag);
+            _beginn = epochenTag * MILLISECONDS_IN_ONE_DAY;
+            _ende = _beginn + MILLISECONDS_IN_ONE_DAY;
+        }
+
+        /**
+         * Prüft, ob der angegebene Zeitpunkt an diesem Tag liegt.
+         */
+        boolean enthaelt(long millisekunden)
+        {
+            return (millisekunden >= _beginn) && (millisekunden < _ende);
+        }
+
+        Datum getDatum()
+        {
+            return _datum;
+        }
+    }
+}
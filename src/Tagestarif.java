@@ -0,0 +1,31 @@
+/**
+ * Ein Tarif mit einem festen Betrag für jeden Ausleihtag.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class Tagestarif implements Tarif
+{
+    private final int _centProTag;
+
+    /**
+     * Initialisiert einen Tagestarif.
+     * 
+     * @param centProTag Der Betrag für jeden Ausleihtag in Euro-Cent.
+     * 
+     * @require centProTag >= 0
+     */
+    public Tagestarif(int centProTag)
+    {
+        assert centProTag >= 0 : "Vorbedingung verletzt: centProTag >= 0";
+        _centProTag = centProTag;
+    }
+
+    @Override
+    public int berechneCent(int ausleihdauer)
+    {
+        assert ausleihdauer > 0 : "Vorbedingung verletzt: ausleihdauer > 0";
+
+        return ausleihdauer * _centProTag;
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Ein Tarif bestimmt, was die Ausleihe eines Mediums kostet. Welcher Tarif für
+ * welche Medienart gilt, legt der {@link Gebuehrenrechner} fest.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+interface Tarif
+{
+    /**
+     * Berechnet die Mietgebühr für eine Ausleihdauer.
+     * 
+     * @param ausleihdauer Die Ausleihdauer in Tagen, der erste Ausleihtag
+     *            zählt mit.
+     * @return Die Mietgebühr in Euro-Cent.
+     * 
+     * @require ausleihdauer > 0
+     * 
+     * @ensure result >= 0
+     */
+    int berechneCent(int ausleihdauer);
+}
@@ -0,0 +1,17 @@
+/**
+ * Eine Uhr liefert das heutige Datum. Über {@link Datum#setzeUhr(Uhr)} kann
+ * festgelegt werden, welche Uhr {@link Datum#heute()} verwendet, z.B. eine
+ * {@link FesteUhr} in Tests.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+interface Uhr
+{
+    /**
+     * Liefert das heutige Datum zurück.
+     * 
+     * @ensure result != null
+     */
+    Datum heute();
+}
@@ -0,0 +1,885 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ein VerleihJournal protokolliert jede Ausleihe und jede Rückgabe als Zeile
+ * in einer Datei, an die nur angehängt wird. Damit muss nicht nach jeder
+ * Änderung der gesamte Medienbestand neu geschrieben werden.
+ * 
+ * Eine Zeile hat die Form:
+ * 
+ * Ereignis; Kundennummer; Mediennummer; Datum
+ * 
+ * Das Ereignis ist {@link VerleihService#EREIGNIS_AUSLEIHE} oder
+ * {@link VerleihService#EREIGNIS_RUECKGABE}, bei einer Rückgabe ist die
+ * Kundennummer leer. Über die {@link Mediennummer} wird das Medium im
+ * Medienbestand gefunden, mit dem das Journal erzeugt wurde.
+ * 
+ * Ein Ereignis gilt erst als protokolliert, wenn es auf dem Datenträger
+ * steht. Ereignisse, die gleichzeitig protokolliert werden, schreibt ein
+ * eigener Thread gemeinsam und sichert sie mit einem einzigen force().
+ * 
+ * Beim Start wird das Journal mit {@link #spieleNach(List, List)} auf den
+ * zuletzt eingelesenen Bestand angewendet. Mit
+ * {@link #verdichte(DatenSchreiber, List, List, List)} wird im Hintergrund ein
+ * neuer Bestand geschrieben und das Journal danach geleert. Bis der neue
+ * Bestand geschrieben ist, bleibt das alte Journal in einer zweiten Datei
+ * erhalten.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+class VerleihJournal
+{
+    /**
+     * Der Bestand, den eine Verdichtung schreibt. Er wird erst im
+     * Hintergrund abgefragt, siehe
+     * {@link VerleihJournal#verdichte(DatenSchreiber, Bestand)}.
+     */
+    interface Bestand
+    {
+        /**
+         * @ensure result != null
+         */
+        List<Kunde> getKunden();
+
+        /**
+         * @ensure result != null
+         */
+        List<Medium> getMedien();
+
+        /**
+         * @ensure result != null
+         */
+        List<Verleihkarte> getVerleihkarten();
+    }
+
+    /**
+     * Die Anzahl Ereignisse, ab der das Journal verdichtet werden sollte.
+     */
+    static final int VERDICHTUNGS_SCHWELLE = 10000;
+
+    private static final String ALT_ENDUNG = ".alt";
+
+    private static final byte[][] EREIGNISSE = {
+            VerleihService.EREIGNIS_AUSLEIHE.getBytes(StandardCharsets.UTF_8),
+            VerleihService.EREIGNIS_RUECKGABE
+                .getBytes(StandardCharsets.UTF_8)};
+    private static final int AUSLEIHE = 0;
+    private static final int RUECKGABE = 1;
+
+    /**
+     * Die Datei, an die Ereignisse angehängt werden.
+     */
+    private final Path _journalDatei;
+
+    /**
+     * Das Journal vor der laufenden oder einer abgebrochenen Verdichtung.
+     */
+    private final Path _altesJournal;
+
+    /**
+     * Die Medien des Bestands zu ihren Mediennummern.
+     */
+    private final Map<Integer, Medium> _medien;
+
+    /**
+     * Schützt alle folgenden Zustandsfelder.
+     */
+    private final Object _sperre;
+
+    /**
+     * Die Ereignisse, die noch nicht geschrieben wurden.
+     */
+    private final StringBuilder _ausstehend;
+
+    /**
+     * Die Nummer des zuletzt protokollierten Ereignisses.
+     */
+    private long _vergebeneNummer;
+
+    /**
+     * Die Nummer des letzten Ereignisses, das auf dem Datenträger steht.
+     */
+    private long _gesicherteNummer;
+
+    /**
+     * Die Anzahl Ereignisse seit der letzten Verdichtung.
+     */
+    private int _anzahlEreignisse;
+
+    /**
+     * Der Fehler, mit dem das Schreiben abgebrochen ist, sonst null.
+     */
+    private IOException _fehler;
+
+    /**
+     * Gibt an, ob gerade verdichtet wird.
+     */
+    private boolean _verdichtungLaeuft;
+
+    /**
+     * Der Fehler, mit dem die letzte Verdichtung den Bestand nicht schreiben
+     * konnte, sonst null.
+     */
+    private IOException _verdichtungsfehler;
+
+    private FileChannel _kanal;
+    private Thread _schreibThread;
+    private ExecutorService _verdichter;
+
+    /**
+     * Initialisiert ein neues VerleihJournal. Es wird noch nichts gelesen oder
+     * geschrieben.
+     * 
+     * @param journalDatei Die Datei, in der die Ereignisse stehen.
+     * @param medien Der eingelesene Medienbestand. Die Mediennummern der
+     *            Medien werden im Journal gespeichert.
+     * 
+     * @require journalDatei != null
+     * @require medien != null
+     */
+    public VerleihJournal(File journalDatei, List<Medium> medien)
+    {
+        assert journalDatei != null : "Vorbedingung verletzt: journalDatei != null";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+
+        _journalDatei = journalDatei.toPath()
+            .toAbsolutePath();
+        _altesJournal = _journalDatei
+            .resolveSibling(_journalDatei.getFileName() + ALT_ENDUNG);
+        _medien = new HashMap<Integer, Medium>();
+        for (Medium medium : medien)
+        {
+            _medien.put(medium.getMediennummer()
+                .getNummer(), medium);
+        }
+        _sperre = new Object();
+        _ausstehend = new StringBuilder();
+    }
+
+    /**
+     * Wendet die protokollierten Ereignisse auf den eingelesenen Bestand an.
+     * Unvollständige oder ungültige Zeilen werden übersprungen.
+     * 
+     * @param kunden Die eingelesenen Kunden.
+     * @param verleihkarten Die eingelesenen Verleihkarten.
+     * @return Die Verleihkarten nach allen protokollierten Ereignissen.
+     * @throws DateiLeseException wenn das Journal nicht gelesen werden
+     *             konnte.
+     * 
+     * @require kunden != null
+     * @require verleihkarten != null
+     * @require !istOffen()
+     * 
+     * @ensure result != null
+     */
+    public List<Verleihkarte> spieleNach(List<Kunde> kunden,
+            List<Verleihkarte> verleihkarten) throws DateiLeseException
+    {
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+        assert !istOffen() : "Vorbedingung verletzt: !istOffen()";
+
+        Map<Kundennummer, Kunde> kundenMap = new HashMap<Kundennummer, Kunde>();
+        for (Kunde kunde : kunden)
+        {
+            kundenMap.put(kunde.getKundennummer(), kunde);
+        }
+        Map<Medium, Verleihkarte> bestand = new LinkedHashMap<Medium, Verleihkarte>();
+        for (Verleihkarte verleihkarte : verleihkarten)
+        {
+            bestand.put(verleihkarte.getMedium(), verleihkarte);
+        }
+
+        _anzahlEreignisse = spieleNach(_altesJournal, kundenMap, bestand)
+                + spieleNach(_journalDatei, kundenMap, bestand);
+        return new ArrayList<Verleihkarte>(bestand.values());
+    }
+
+    /**
+     * Schreibt einen Bestand, der alle Ereignisse des Journals enthält, und
+     * löscht danach das Journal. Nötig, wenn Medien beim Einlesen neue
+     * Mediennummern bekommen haben: Das Journal speichert Mediennummern, die
+     * erst dann bei jedem Start dieselben Medien bezeichnen, wenn sie im
+     * Bestand stehen. Ebenso nötig, wenn das Journal nach einem Schreibfehler
+     * geschlossen wurde, damit es beim nächsten Start nicht auf einen neueren
+     * Bestand angewendet wird.
+     * 
+     * @param datenSchreiber Der DatenSchreiber für den Bestand.
+     * @param kunden Die Kunden.
+     * @param medien Die Medien.
+     * @param verleihkarten Die Verleihkarten, z.B. aus {@link #spieleNach}.
+     * @throws DateiSchreibException wenn der Bestand nicht geschrieben oder
+     *             das Journal nicht gelöscht werden konnte.
+     * 
+     * @require !istOffen()
+     * @require datenSchreiber != null
+     * @require kunden != null
+     * @require medien != null
+     * @require verleihkarten != null
+     */
+    public void sichereBestand(DatenSchreiber datenSchreiber,
+            List<Kunde> kunden, List<Medium> medien,
+            List<Verleihkarte> verleihkarten) throws DateiSchreibException
+    {
+        assert !istOffen() : "Vorbedingung verletzt: !istOffen()";
+        assert datenSchreiber != null : "Vorbedingung verletzt: datenSchreiber != null";
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+
+        datenSchreiber.schreibeDaten(kunden, medien, verleihkarten);
+        try
+        {
+            Files.deleteIfExists(_altesJournal);
+            Files.deleteIfExists(_journalDatei);
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Das Verleih-Journal konnte nicht gelöscht werden.");
+        }
+        _anzahlEreignisse = 0;
+    }
+
+    /**
+     * Öffnet das Journal zum Protokollieren und startet den Thread, der die
+     * Ereignisse schreibt.
+     * 
+     * @throws DateiSchreibException wenn das Journal nicht geöffnet werden
+     *             konnte.
+     * 
+     * @require !istOffen()
+     * 
+     * @ensure istOffen()
+     */
+    public void oeffne() throws DateiSchreibException
+    {
+        assert !istOffen() : "Vorbedingung verletzt: !istOffen()";
+
+        try
+        {
+            _kanal = oeffneKanal();
+        }
+        catch (IOException e)
+        {
+            throw new DateiSchreibException(
+                    "Das Verleih-Journal konnte nicht geöffnet werden.");
+        }
+        _verdichter = Executors
+            .newSingleThreadExecutor(new DaemonThreadFactory("Verdichter"));
+        _schreibThread = new DaemonThreadFactory("Journal")
+            .newThread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    schreibeGruppen();
+                }
+            });
+        _schreibThread.start();
+    }
+
+    /**
+     * Protokolliert die Ausleihe der Medien an den Kunden. Kehrt erst zurück,
+     * wenn das Ereignis auf dem Datenträger steht.
+     * 
+     * @param kunde Der Entleiher.
+     * @param medien Die ausgeliehenen Medien.
+     * @param ausleihDatum Der erste Ausleihtag.
+     * @throws DateiSchreibException wenn das Ereignis nicht geschrieben werden
+     *             konnte.
+     * 
+     * @require istOffen()
+     * @require kunde != null
+     * @require medien != null
+     * @require ausleihDatum != null
+     */
+    public void protokolliereAusleihe(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum) throws DateiSchreibException
+    {
+        assert kunde != null : "Vorbedingung verletzt: kunde != null";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
+
+        protokolliere(VerleihService.EREIGNIS_AUSLEIHE, kunde.getKundennummer()
+            .toString(), medien, ausleihDatum);
+    }
+
+    /**
+     * Protokolliert die Rückgabe der Medien. Kehrt erst zurück, wenn das
+     * Ereignis auf dem Datenträger steht.
+     * 
+     * @param medien Die zurückgegebenen Medien.
+     * @param rueckgabeDatum Der Tag der Rückgabe.
+     * @throws DateiSchreibException wenn das Ereignis nicht geschrieben werden
+     *             konnte.
+     * 
+     * @require istOffen()
+     * @require medien != null
+     * @require rueckgabeDatum != null
+     */
+    public void protokolliereRueckgabe(List<Medium> medien,
+            Datum rueckgabeDatum) throws DateiSchreibException
+    {
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert rueckgabeDatum != null : "Vorbedingung verletzt: rueckgabeDatum != null";
+
+        protokolliere(VerleihService.EREIGNIS_RUECKGABE,
+                DateiSchreiber.kodiere(null), medien, rueckgabeDatum);
+    }
+
+    /**
+     * Prüft, ob seit der letzten Verdichtung so viele Ereignisse protokolliert
+     * wurden, dass sich eine Verdichtung lohnt.
+     * 
+     * Ist die letzte Verdichtung fehlgeschlagen, liefert diese Methode
+     * ebenfalls true, damit der nächste Aufruf von verdichte() den Fehler
+     * meldet.
+     * 
+     * @return true, wenn verdichtet werden sollte und keine Verdichtung läuft,
+     *         sonst false.
+     */
+    public boolean mussVerdichtetWerden()
+    {
+        synchronized (_sperre)
+        {
+            return !_verdichtungLaeuft
+                    && ((_anzahlEreignisse >= VERDICHTUNGS_SCHWELLE)
+                            || (_verdichtungsfehler != null));
+        }
+    }
+
+    /**
+     * Verdichtet das Journal. Der übergebene Bestand muss alle bisher
+     * protokollierten Ereignisse enthalten. Er wird im Hintergrund mit dem
+     * DatenSchreiber geschrieben, danach wird das bis jetzt protokollierte
+     * Journal gelöscht. Ereignisse, die währenddessen protokolliert werden,
+     * landen in einem neuen Journal. Läuft bereits eine Verdichtung, hat der
+     * Aufruf keine Wirkung.
+     * 
+     * @param datenSchreiber Der DatenSchreiber für den neuen Bestand.
+     * @param kunden Die Kunden.
+     * @param medien Die Medien.
+     * @param verleihkarten Die Verleihkarten.
+     * @throws DateiSchreibException wenn das Journal nicht gewechselt werden
+     *             konnte.
+     * 
+     * @require istOffen()
+     * @require datenSchreiber != null
+     * @require kunden != null
+     * @require medien != null
+     * @require verleihkarten != null
+     */
+    public void verdichte(DatenSchreiber datenSchreiber,
+            final List<Kunde> kunden, final List<Medium> medien,
+            final List<Verleihkarte> verleihkarten)
+            throws DateiSchreibException
+    {
+        assert istOffen() : "Vorbedingung verletzt: istOffen()";
+        assert datenSchreiber != null : "Vorbedingung verletzt: datenSchreiber != null";
+        assert kunden != null : "Vorbedingung verletzt: kunden != null";
+        assert medien != null : "Vorbedingung verletzt: medien != null";
+        assert verleihkarten != null : "Vorbedingung verletzt: verleihkarten != null";
+
+        verdichte(datenSchreiber, new Bestand()
+        {
+            @Override
+            public List<Kunde> getKunden()
+            {
+                return kunden;
+            }
+
+            @Override
+            public List<Medium> getMedien()
+            {
+                return medien;
+            }
+
+            @Override
+            public List<Verleihkarte> getVerleihkarten()
+            {
+                return verleihkarten;
+            }
+        });
+    }
+
+    /**
+     * Verdichtet das Journal wie
+     * {@link #verdichte(DatenSchreiber, List, List, List)}, fragt den Bestand
+     * aber erst im Hintergrund ab. Der Aufrufer muss den Bestand daher nur
+     * festhalten und kann Sperren, die die Ereignisse mit dem Bestand
+     * abstimmen, schon vor dem Erzeugen der Listen wieder freigeben.
+     * 
+     * @param datenSchreiber Der DatenSchreiber für den neuen Bestand.
+     * @param bestand Der Bestand, der alle bisher protokollierten Ereignisse
+     *            enthält.
+     * @throws DateiSchreibException wenn das Journal nicht gewechselt werden
+     *             konnte oder die letzte Verdichtung den Bestand nicht
+     *             schreiben konnte. Der Aufrufer sollte das Journal dann
+     *             verwerfen und den Bestand wieder vollständig schreiben.
+     * 
+     * @require istOffen()
+     * @require datenSchreiber != null
+     * @require bestand != null
+     */
+    public void verdichte(final DatenSchreiber datenSchreiber,
+            final Bestand bestand) throws DateiSchreibException
+    {
+        assert istOffen() : "Vorbedingung verletzt: istOffen()";
+        assert datenSchreiber != null : "Vorbedingung verletzt: datenSchreiber != null";
+        assert bestand != null : "Vorbedingung verletzt: bestand != null";
+
+        synchronized (_sperre)
+        {
+            if (_verdichtungsfehler != null)
+            {
+                throw new DateiSchreibException(
+                        "Der Bestand konnte bei der letzten Verdichtung nicht geschrieben werden: "
+                                + _verdichtungsfehler.getMessage());
+            }
+            if (!_verdichtungLaeuft)
+            {
+                wechsleJournal();
+                _verdichtungLaeuft = true;
+                _anzahlEreignisse = 0;
+                _verdichter.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        schreibeBestand(datenSchreiber, bestand);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Wartet, bis alle Ereignisse geschrieben sind und eine laufende
+     * Verdichtung beendet ist, und schließt das Journal.
+     * 
+     * @ensure !istOffen()
+     */
+    public void schliesse()
+    {
+        if (istOffen())
+        {
+            synchronized (_sperre)
+            {
+                _schreibThread = null;
+                _sperre.notifyAll();
+            }
+            _verdichter.shutdown();
+            try
+            {
+                _verdichter.awaitTermination(1, TimeUnit.MINUTES);
+                synchronized (_sperre)
+                {
+                    while (_gesicherteNummer < _vergebeneNummer
+                            && _fehler == null)
+                    {
+                        _sperre.wait();
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread()
+                    .interrupt();
+            }
+            synchronized (_sperre)
+            {
+                schliesseKanal();
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob das Journal zum Protokollieren geöffnet ist.
+     * 
+     * @return true, wenn geöffnet und noch nicht geschlossen, sonst false.
+     */
+    public boolean istOffen()
+    {
+        synchronized (_sperre)
+        {
+            return _schreibThread != null;
+        }
+    }
+
+    /**
+     * Hängt für jedes Medium eine Zeile an die ausstehenden Ereignisse an und
+     * wartet, bis der Schreib-Thread sie gesichert hat.
+     */
+    private void protokolliere(String ereignis, String kundennummer,
+            List<Medium> medien, Datum datum) throws DateiSchreibException
+    {
+        synchronized (_sperre)
+        {
+            assert _schreibThread != null : "Vorbedingung verletzt: istOffen()";
+
+            for (Medium medium : medien)
+            {
+                assert _medien.get(medium.getMediennummer()
+                    .getNummer()) == medium : "Vorbedingung verletzt: Medium im Bestand";
+                _ausstehend.append(ereignis)
+                    .append(';')
+                    .append(kundennummer)
+                    .append(';')
+                    .append(medium.getMediennummer()
+                        .getNummer())
+                    .append(';')
+                    .append(datum.toString())
+                    .append('\n');
+            }
+            _anzahlEreignisse += medien.size();
+            long nummer = ++_vergebeneNummer;
+            _sperre.notifyAll();
+
+            boolean unterbrochen = false;
+            while ((_gesicherteNummer < nummer) && (_fehler == null))
+            {
+                try
+                {
+                    _sperre.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    unterbrochen = true;
+                }
+            }
+            if (unterbrochen)
+            {
+                Thread.currentThread()
+                    .interrupt();
+            }
+            if (_gesicherteNummer < nummer)
+            {
+                throw new DateiSchreibException(
+                        "Das Ereignis konnte nicht in das Verleih-Journal geschrieben werden.");
+            }
+        }
+    }
+
+    /**
+     * Die Schleife des Schreib-Threads. Schreibt alle bis dahin ausstehenden
+     * Ereignisse als eine Gruppe und sichert sie mit einem force(). Endet,
+     * wenn das Journal geschlossen und alles geschrieben ist oder ein Fehler
+     * aufgetreten ist.
+     */
+    private void schreibeGruppen()
+    {
+        boolean weiter = true;
+        while (weiter)
+        {
+            ByteBuffer gruppe = null;
+            long bisNummer = 0;
+            FileChannel kanal = null;
+            synchronized (_sperre)
+            {
+                while ((_ausstehend.length() == 0) && (_schreibThread != null))
+                {
+                    try
+                    {
+                        _sperre.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // Beendet wird nur über schliesse().
+                    }
+                }
+                if (_ausstehend.length() > 0)
+                {
+                    gruppe = StandardCharsets.UTF_8.encode(_ausstehend.toString());
+                    _ausstehend.setLength(0);
+                    bisNummer = _vergebeneNummer;
+                    kanal = _kanal;
+                }
+            }
+
+            if (gruppe == null)
+            {
+                weiter = false;
+            }
+            else
+            {
+                try
+                {
+                    while (gruppe.hasRemaining())
+                    {
+                        kanal.write(gruppe);
+                    }
+                    kanal.force(false);
+                    synchronized (_sperre)
+                    {
+                        _gesicherteNummer = bisNummer;
+                        _sperre.notifyAll();
+                    }
+                }
+                catch (IOException e)
+                {
+                    synchronized (_sperre)
+                    {
+                        _fehler = e;
+                        _sperre.notifyAll();
+                    }
+                    weiter = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Wartet, bis alle ausstehenden Ereignisse gesichert sind, und verschiebt
+     * das Journal in die Datei für das alte Journal. Existiert diese noch von
+     * einer abgebrochenen Verdichtung, wird das Journal an sie angehängt.
+     * Danach wird in ein neues, leeres Journal geschrieben.
+     * 
+     * Muss mit _sperre aufgerufen werden.
+     */
+    private void wechsleJournal() throws DateiSchreibException
+    {
+        try
+        {
+            while ((_gesicherteNummer < _vergebeneNummer) && (_fehler == null))
+            {
+                _sperre.wait();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread()
+                .interrupt();
+        }
+        if ((_fehler != null) || (_gesicherteNummer < _vergebeneNummer))
+        {
+            throw new DateiSchreibException(
+                    "Das Verleih-Journal konnte nicht gewechselt werden.");
+        }
+
+        try
+        {
+            schliesseKanal();
+            if (Files.exists(_altesJournal))
+            {
+                haengeAn(_altesJournal, Files.readAllBytes(_journalDatei));
+                Files.delete(_journalDatei);
+            }
+            else
+            {
+                Files.move(_journalDatei, _altesJournal);
+            }
+            _kanal = oeffneKanal();
+        }
+        catch (IOException e)
+        {
+            _fehler = e;
+            throw new DateiSchreibException(
+                    "Das Verleih-Journal konnte nicht gewechselt werden.");
+        }
+    }
+
+    /**
+     * Hängt die Bytes an die Datei an und sichert sie auf dem Datenträger,
+     * bevor die Methode zurückkehrt.
+     */
+    private static void haengeAn(Path datei, byte[] inhalt) throws IOException
+    {
+        try (FileChannel kanal = FileChannel.open(datei,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+        {
+            ByteBuffer puffer = ByteBuffer.wrap(inhalt);
+            while (puffer.hasRemaining())
+            {
+                kanal.write(puffer);
+            }
+            kanal.force(true);
+        }
+    }
+
+    /**
+     * Schreibt den Bestand und löscht danach das alte Journal. Schlägt das
+     * Schreiben fehl, bleibt das alte Journal erhalten. Der Fehler wird
+     * gemerkt und beim nächsten Aufruf von
+     * {@link #verdichte(DatenSchreiber, Bestand)} gemeldet.
+     */
+    private void schreibeBestand(DatenSchreiber datenSchreiber,
+            Bestand bestand)
+    {
+        try
+        {
+            datenSchreiber.schreibeDaten(bestand.getKunden(),
+                    bestand.getMedien(), bestand.getVerleihkarten());
+            Files.deleteIfExists(_altesJournal);
+        }
+        catch (IOException e)
+        {
+            synchronized (_sperre)
+            {
+                _verdichtungsfehler = e;
+            }
+        }
+        finally
+        {
+            synchronized (_sperre)
+            {
+                _verdichtungLaeuft = false;
+            }
+        }
+    }
+
+    /**
+     * Öffnet das Journal zum Anhängen. Endet die Datei mit einer
+     * unvollständigen Zeile, wird diese zuerst abgeschlossen.
+     */
+    private FileChannel oeffneKanal() throws IOException
+    {
+        FileChannel kanal = FileChannel.open(_journalDatei,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long groesse = kanal.size();
+        if (groesse > 0)
+        {
+            ByteBuffer letztesZeichen = ByteBuffer.allocate(1);
+            kanal.read(letztesZeichen, groesse - 1);
+            if (letztesZeichen.get(0) != '\n')
+            {
+                kanal.write(ByteBuffer.wrap(new byte[] {'\n'}), groesse);
+            }
+        }
+        kanal.position(kanal.size());
+        return kanal;
+    }
+
+    /**
+     * Schließt den Kanal zum Journal, falls er offen ist.
+     */
+    private void schliesseKanal()
+    {
+        if (_kanal != null)
+        {
+            try
+            {
+                _kanal.close();
+            }
+            catch (IOException e)
+            {
+                // Alle gesicherten Ereignisse stehen bereits in der Datei.
+            }
+            _kanal = null;
+        }
+    }
+
+    /**
+     * Wendet die Ereignisse aus der Datei auf den Bestand an.
+     * 
+     * @return Die Anzahl der angewendeten Ereignisse.
+     */
+    private int spieleNach(Path datei, Map<Kundennummer, Kunde> kunden,
+            Map<Medium, Verleihkarte> bestand) throws DateiLeseException
+    {
+        int anzahl = 0;
+        try
+        {
+            FeldZerleger zerleger = new FeldZerleger(
+                    ByteBuffer.wrap(Files.readAllBytes(datei)));
+            while (zerleger.hatWeitereZeilen())
+            {
+                if (wendeAn(zerleger, kunden, bestand))
+                {
+                    anzahl++;
+                }
+                zerleger.beendeZeile();
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            // Ohne Journal gibt es nichts nachzuspielen.
+        }
+        catch (IOException e)
+        {
+            throw new DateiLeseException(
+                    "Das Verleih-Journal konnte nicht eingelesen werden, da die Datei nicht gelesen werden konnte.");
+        }
+        return anzahl;
+    }
+
+    /**
+     * Wendet das Ereignis der aktuellen Zeile auf den Bestand an.
+     * 
+     * @return true, wenn die Zeile ein gültiges Ereignis enthielt, sonst
+     *         false.
+     */
+    private boolean wendeAn(FeldZerleger zerleger,
+            Map<Kundennummer, Kunde> kunden, Map<Medium, Verleihkarte> bestand)
+    {
+        boolean ergebnis = false;
+        try
+        {
+            int ereignis = zerleger.leseSchluessel(EREIGNISSE);
+            Kundennummer kundennummer = zerleger.leseKundennummer();
+            Medium medium = _medien.get(zerleger.leseZahl());
+            Datum datum = zerleger.leseDatum();
+            if ((medium != null) && (datum != null))
+            {
+                Kunde kunde = kunden.get(kundennummer);
+                if ((ereignis == AUSLEIHE) && (kunde != null))
+                {
+                    bestand.put(medium, new Verleihkarte(kunde, medium, datum));
+                    ergebnis = true;
+                }
+                else if (ereignis == RUECKGABE)
+                {
+                    bestand.remove(medium);
+                    ergebnis = true;
+                }
+            }
+        }
+        catch (NoSuchElementException e)
+        {
+            // Unvollständige Zeile, z.B. nach einem Absturz beim Schreiben.
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Erzeugt benannte Daemon-Threads, damit das Journal das Beenden der
+     * Anwendung nicht aufhält.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String _name;
+
+        DaemonThreadFactory(String name)
+        {
+            _name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, _name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VerleihJournalTest
+{
+    private File _verzeichnis;
+    private File _journalDatei;
+
+    private Kunde _homer;
+    private Kunde _marge;
+    private List<Kunde> _kunden;
+    private List<Medium> _medien;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _verzeichnis = Files.createTempDirectory("mediathek")
+            .toFile();
+        _journalDatei = new File(_verzeichnis, "verleihjournal.txt");
+
+        _homer = new Kunde(new Kundennummer(123456), "Homer", "Simpson");
+        _marge = new Kunde(new Kundennummer(123457), "Marge", "Simpson");
+        _kunden = new ArrayList<Kunde>();
+        _kunden.add(_homer);
+        _kunden.add(_marge);
+        for (Kunde kunde : _kunden)
+        {
+            kunde.setStrasse("Evergreen Terrace 742");
+            kunde.setPLZ(new PLZ("22760"));
+            kunde.setWohnort("Springfield");
+        }
+
+        _medien = new ArrayList<Medium>();
+        for (int i = 0; i < 20; i++)
+        {
+            _medien.add(new CD("Titel " + i, "Kommentar", "Interpret", 40));
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        for (File datei : _verzeichnis.listFiles())
+        {
+            datei.delete();
+        }
+        _verzeichnis.delete();
+    }
+
+    @Test
+    public void testNachspielenOhneJournal() throws Exception
+    {
+        List<Verleihkarte> bestand = new ArrayList<Verleihkarte>();
+        bestand.add(
+                new Verleihkarte(_homer, _medien.get(0), new Datum(1, 4, 2021)));
+
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        assertEquals(bestand, journal.spieleNach(_kunden, bestand));
+        assertFalse(journal.mussVerdichtetWerden());
+    }
+
+    @Test
+    public void testProtokollierteEreignisseWerdenNachgespielt()
+        throws Exception
+    {
+        List<Verleihkarte> bestand = new ArrayList<Verleihkarte>();
+        bestand.add(
+                new Verleihkarte(_homer, _medien.get(0), new Datum(1, 4, 2021)));
+
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        journal.spieleNach(_kunden, bestand);
+        journal.oeffne();
+        journal.protokolliereRueckgabe(medien(0), new Datum(2, 4, 2021));
+        journal.protokolliereAusleihe(_marge, medien(1, 2),
+                new Datum(3, 4, 2021));
+        journal.protokolliereRueckgabe(medien(2), new Datum(4, 4, 2021));
+        journal.schliesse();
+        assertFalse(journal.istOffen());
+
+        List<Verleihkarte> nachgespielt = new VerleihJournal(_journalDatei,
+                _medien).spieleNach(_kunden, bestand);
+        assertEquals(1, nachgespielt.size());
+        Verleihkarte verleihkarte = nachgespielt.get(0);
+        assertSame(_marge, verleihkarte.getEntleiher());
+        assertSame(_medien.get(1), verleihkarte.getMedium());
+        assertEquals(new Datum(3, 4, 2021), verleihkarte.getAusleihdatum());
+    }
+
+    @Test
+    public void testUnvollstaendigeZeileWirdUebersprungen() throws Exception
+    {
+        Files.write(_journalDatei.toPath(),
+                (VerleihService.EREIGNIS_AUSLEIHE + ";123456;"
+                        + _medien.get(3)
+                            .getMediennummer()
+                        + ";5.4.2021\n" + VerleihService.EREIGNIS_AUSLEIHE
+                        + ";123457;" + _medien.get(4)
+                            .getMediennummer()
+                        + ";5.4.")
+                            .getBytes(StandardCharsets.UTF_8));
+
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        assertEquals(1, journal
+            .spieleNach(_kunden, new ArrayList<Verleihkarte>())
+            .size());
+
+        journal.oeffne();
+        journal.protokolliereAusleihe(_marge, medien(5), new Datum(6, 4, 2021));
+        journal.schliesse();
+
+        List<Verleihkarte> nachgespielt = new VerleihJournal(_journalDatei,
+                _medien).spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        assertEquals(2, nachgespielt.size());
+        assertSame(_medien.get(3), nachgespielt.get(0)
+            .getMedium());
+        assertSame(_medien.get(5), nachgespielt.get(1)
+            .getMedium());
+    }
+
+    @Test
+    public void testGleichzeitigesProtokollieren() throws Exception
+    {
+        final VerleihJournal journal = new VerleihJournal(_journalDatei,
+                _medien);
+        journal.spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        journal.oeffne();
+
+        final List<Exception> fehler = Collections
+            .synchronizedList(new ArrayList<Exception>());
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < _medien.size(); i++)
+        {
+            final int position = i;
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        journal.protokolliereAusleihe(_homer,
+                                medien(position), new Datum(7, 4, 2021));
+                    }
+                    catch (DateiSchreibException e)
+                    {
+                        fehler.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        journal.schliesse();
+
+        assertTrue(fehler.isEmpty());
+        assertEquals(_medien.size(), new VerleihJournal(_journalDatei, _medien)
+            .spieleNach(_kunden, new ArrayList<Verleihkarte>())
+            .size());
+    }
+
+    @Test
+    public void testVerdichten() throws Exception
+    {
+        File kundenDatei = new File(_verzeichnis, "kundenstamm.txt");
+        File medienDatei = new File(_verzeichnis, "medienbestand.txt");
+        KundenstammService kundenstamm = new KundenstammServiceImpl(_kunden);
+        MedienbestandService medienbestand = new MedienbestandServiceImpl(
+                _medien);
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(kundenstamm,
+                medienbestand, new ArrayList<Verleihkarte>());
+
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        journal.spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        journal.oeffne();
+        verleihService.setzeJournal(journal);
+        verleihService.verleiheAn(_homer, medien(0, 1), new Datum(8, 4, 2021));
+
+        journal.verdichte(new DatenSchreiber(medienDatei, kundenDatei),
+                kundenstamm.getKunden(), medienbestand.getMedien(),
+                verleihService.getVerleihkarten());
+        verleihService.nimmZurueck(medien(1), new Datum(9, 4, 2021));
+        journal.schliesse();
+
+        DatenEinleser einleser = new DatenEinleser(medienDatei, kundenDatei);
+        einleser.leseDaten();
+        assertEquals(2, einleser.getVerleihkarten()
+            .size());
+
+        VerleihJournal neuesJournal = new VerleihJournal(_journalDatei,
+                einleser.getMedien());
+        List<Verleihkarte> nachgespielt = neuesJournal
+            .spieleNach(einleser.getKunden(), einleser.getVerleihkarten());
+        assertEquals(1, nachgespielt.size());
+        assertEquals("Titel 0", nachgespielt.get(0)
+            .getMedium()
+            .getTitel());
+        assertFalse(new File(_verzeichnis, "verleihjournal.txt.alt").exists());
+        assertEquals(1, Files.readAllLines(_journalDatei.toPath(),
+                StandardCharsets.UTF_8)
+            .size());
+    }
+
+    @Test
+    public void testJournalWirdNachSchreibfehlerVerworfen() throws Exception
+    {
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                new KundenstammServiceImpl(_kunden),
+                new MedienbestandServiceImpl(_medien),
+                new ArrayList<Verleihkarte>());
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien)
+        {
+            @Override
+            public void protokolliereAusleihe(Kunde kunde,
+                    List<Medium> medien, Datum ausleihDatum)
+                    throws DateiSchreibException
+            {
+                throw new DateiSchreibException("Datenträger voll");
+            }
+        };
+        journal.spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        journal.oeffne();
+        verleihService.setzeJournal(journal);
+
+        assertTrue(verleihService.versucheZuVerleihen(_homer, medien(0),
+                new Datum(8, 4, 2021)));
+
+        assertTrue(verleihService.istVerliehen(_medien.get(0)));
+        assertFalse(verleihService.hatJournal());
+        assertFalse(journal.istOffen());
+        verleihService.nimmZurueck(medien(0), new Datum(9, 4, 2021));
+        assertFalse(verleihService.istVerliehen(_medien.get(0)));
+    }
+
+    @Test
+    public void testFehlgeschlageneVerdichtungWirdGemeldet() throws Exception
+    {
+        File fehlendesVerzeichnis = new File(_verzeichnis, "gibtEsNicht");
+        DatenSchreiber datenSchreiber = new DatenSchreiber(
+                new File(fehlendesVerzeichnis, "medienbestand.txt"),
+                new File(fehlendesVerzeichnis, "kundenstamm.txt"));
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                new KundenstammServiceImpl(_kunden),
+                new MedienbestandServiceImpl(_medien),
+                new ArrayList<Verleihkarte>());
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        journal.spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        journal.oeffne();
+        verleihService.setzeJournal(journal);
+        verleihService.verleiheAn(_homer, medien(0), new Datum(8, 4, 2021));
+
+        verleihService.verdichteJournal(datenSchreiber);
+        assertTrue(verleihService.hatJournal());
+        long ende = System.currentTimeMillis() + 10000;
+        while (!journal.mussVerdichtetWerden()
+                && (System.currentTimeMillis() < ende))
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(journal.mussVerdichtetWerden());
+        verleihService.verdichteJournal(datenSchreiber);
+        assertFalse(verleihService.hatJournal());
+        assertFalse(journal.istOffen());
+        assertEquals(1, Files.readAllLines(
+                new File(_verzeichnis, "verleihjournal.txt.alt").toPath(),
+                StandardCharsets.UTF_8)
+            .size());
+    }
+
+    @Test
+    public void testSichereBestandLoeschtJournal() throws Exception
+    {
+        File kundenDatei = new File(_verzeichnis, "kundenstamm.txt");
+        File medienDatei = new File(_verzeichnis, "medienbestand.txt");
+        VerleihJournal journal = new VerleihJournal(_journalDatei, _medien);
+        journal.spieleNach(_kunden, new ArrayList<Verleihkarte>());
+        journal.oeffne();
+        journal.protokolliereAusleihe(_homer, medien(0),
+                new Datum(8, 4, 2021));
+        journal.schliesse();
+
+        VerleihJournal neuesJournal = new VerleihJournal(_journalDatei,
+                _medien);
+        List<Verleihkarte> nachgespielt = neuesJournal.spieleNach(_kunden,
+                new ArrayList<Verleihkarte>());
+        neuesJournal.sichereBestand(
+                new DatenSchreiber(medienDatei, kundenDatei), _kunden, _medien,
+                nachgespielt);
+
+        assertFalse(_journalDatei.exists());
+        DatenEinleser einleser = new DatenEinleser(medienDatei, kundenDatei);
+        einleser.leseDaten();
+        assertEquals(1, einleser.getVerleihkarten()
+            .size());
+        assertFalse(einleser.hatNeueMediennummern());
+    }
+
+    private List<Medium> medien(int... positionen)
+    {
+        List<Medium> ergebnis = new ArrayList<Medium>();
+        for (int position : positionen)
+        {
+            ergebnis.add(_medien.get(position));
+        }
+        return ergebnis;
+    }
+}
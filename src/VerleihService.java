@@ -42,6 +42,27 @@ public interface VerleihService extends ObservableService
      */
     void verleiheAn(Kunde kunde, List<Medium> medien, Datum ausleihDatum);
 
+    /**
+     * Versucht Medien an einen Kunden zu verleihen. Anders als bei
+     * {@link #verleiheAn(Kunde, List, Datum)} dürfen Medien bereits verliehen
+     * sein, dann wird keines der Medien verliehen. Prüfen und Verleihen
+     * geschehen in einem Schritt, so dass kein Medium doppelt verliehen wird,
+     * auch wenn mehrere Threads gleichzeitig verleihen.
+     * 
+     * @param kunde Ein Kunde, an den die Medien verliehen werden sollen
+     * @param medien Die Medien, die verliehen werden sollen
+     * @param ausleihDatum Der erste Ausleihtag
+     * @return true, wenn alle Medien verliehen wurden, false wenn mindestens
+     *         eines bereits verliehen war und nichts verliehen wurde.
+     * 
+     * @require kundeImBestand(kunde)
+     * @require ausleihDatum != null
+     * 
+     * @ensure !result || sindAlleVerliehen(medien)
+     */
+    boolean versucheZuVerleihen(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum);
+
     /**
      * Prüft ob die ausgewählten Medium für den Kunde ausleihbar sind
      * 
@@ -94,6 +115,34 @@ public interface VerleihService extends ObservableService
      */
     List<Verleihkarte> getVerleihkarten();
 
+    /**
+     * Liefert die Verleihkarten aller Ausleihen, die länger als die angegebene
+     * Anzahl Tage dauern, also deren {@link Verleihkarte#getAusleihdauer()}
+     * größer ist. Die ältesten Ausleihen stehen vorne.
+     * 
+     * @param tage Die Anzahl der Tage.
+     * @return Eine Liste der Verleihkarten, sortiert nach dem Ausleihdatum.
+     * 
+     * @require tage >= 0
+     * 
+     * @ensure result != null
+     */
+    List<Verleihkarte> getVerleihkartenAelterAls(int tage);
+
+    /**
+     * Liefert die Verleihkarten der am längsten verliehenen Medien. Die
+     * ältesten Ausleihen stehen vorne.
+     * 
+     * @param anzahl Die größte Anzahl gelieferter Verleihkarten.
+     * @return Eine Liste mit höchstens anzahl Verleihkarten, sortiert nach dem
+     *         Ausleihdatum.
+     * 
+     * @require anzahl >= 0
+     * 
+     * @ensure result != null
+     */
+    List<Verleihkarte> getAeltesteVerleihkarten(int anzahl);
+
     /**
      * Nimmt zuvor ausgeliehene Medien zurück. Die entsprechenden Verleihkarten
      * werden gelöscht.
@@ -1,12 +1,23 @@
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Diese Klasse implementiert das Interface VerleihService. Siehe dortiger
  * Kommentar.
  * 
+ * Ein VerleihServiceImpl kann von mehreren Threads gleichzeitig benutzt
+ * werden. Verleihen und Zurücknehmen sperren die Medien eines Aufrufs über
+ * eine feste Anzahl von Sperren (Lock Striping), so dass ein Aufruf immer
+ * alle oder keines seiner Medien verleiht. Lesende Methoden sperren keine
+ * Medien.
+ * 
+ * Die Ausleihen selbst stehen in einem {@link Verleihbestand}. Standardmäßig
+ * ist das ein {@link ObjektVerleihbestand}, für sehr viele Ausleihen kann ein
+ * {@link KompakterVerleihbestand} übergeben werden. Beide führen einen Index
+ * nach dem Ausleihtag, damit überfällige Ausleihen gefunden werden, ohne alle
+ * Verleihkarten zu durchsuchen.
+ * 
  * @author SE2-Team
  * @version SoSe 2021
  */
@@ -14,11 +25,21 @@ class VerleihServiceImpl extends AbstractObservableService
         implements VerleihService
 {
     /**
-     * Diese Map speichert für jedes eingefügte Medium die dazugehörige
-     * Verleihkarte. Ein Zugriff auf die Verleihkarte ist dadurch leicht über
-     * die Angabe des Mediums möglich. Beispiel: _verleihkarten.get(medium)
+     * Die Ausleihen.
+     */
+    private final Verleihbestand _verleihbestand;
+
+    /**
+     * Die Anzahl der Sperren für die Medien.
      */
-    private Map<Medium, Verleihkarte> _verleihkarten;
+    static final int ANZAHL_STREIFEN = 64;
+
+    /**
+     * Die Sperren für die Medien. Jedes Medium gehört über seinen Hashcode zu
+     * genau einer Sperre. Mehrere Sperren werden immer in aufsteigender
+     * Reihenfolge gesperrt.
+     */
+    private final ReentrantLock[] _streifen;
 
     /**
      * Der Medienbestand.
@@ -30,6 +51,13 @@ class VerleihServiceImpl extends AbstractObservableService
      */
     private KundenstammService _kundenstamm;
 
+    /**
+     * Das Journal, in dem Ausleihen und Rückgaben protokolliert werden, ist
+     * null wenn nicht protokolliert wird. Ein Journal, in das nicht mehr
+     * geschrieben werden kann, wird verworfen.
+     */
+    private volatile VerleihJournal _journal;
+
     /**
      * Konstruktor. Erzeugt einen neuen VerleihServiceImpl.
      * 
@@ -42,12 +70,154 @@ class VerleihServiceImpl extends AbstractObservableService
             MedienbestandService medienbestand,
             List<Verleihkarte> initialBestand)
     {
+        this(kundenstamm, medienbestand,
+                new ObjektVerleihbestand(initialBestand));
+    }
+
+    /**
+     * Konstruktor. Erzeugt einen neuen VerleihServiceImpl, der die Ausleihen
+     * im angegebenen Verleihbestand speichert.
+     * 
+     * @param kundenstamm Der KundenstammService.
+     * @param medienbestand Der MedienbestandService.
+     * @param verleihbestand Der Verleihbestand mit den bisherigen Ausleihen.
+     * 
+     * @require verleihbestand != null
+     */
+    public VerleihServiceImpl(KundenstammService kundenstamm,
+            MedienbestandService medienbestand, Verleihbestand verleihbestand)
+    {
+        assert verleihbestand != null : "Vorbedingung verletzt: verleihbestand != null";
 
-        _verleihkarten = erzeugeVerleihkartenBestand(initialBestand);
+        _verleihbestand = verleihbestand;
+        _streifen = new ReentrantLock[ANZAHL_STREIFEN];
+        for (int i = 0; i < ANZAHL_STREIFEN; i++)
+        {
+            _streifen[i] = new ReentrantLock();
+        }
         _kundenstamm = kundenstamm;
         _medienbestand = medienbestand;
     }
-    
+
+    /**
+     * Setzt das Journal, in dem ab jetzt jede Ausleihe und jede Rückgabe
+     * protokolliert wird, bevor sie ausgeführt wird.
+     * 
+     * @param journal Ein geöffnetes Journal, oder null um nicht mehr zu
+     *            protokollieren.
+     * 
+     * @require journal == null || journal.istOffen()
+     */
+    public void setzeJournal(VerleihJournal journal)
+    {
+        assert journal == null
+                || journal.istOffen() : "Vorbedingung verletzt: journal == null || journal.istOffen()";
+
+        _journal = journal;
+    }
+
+    /**
+     * Verdichtet das gesetzte Journal, siehe
+     * {@link VerleihJournal#verdichte(DatenSchreiber, VerleihJournal.Bestand)}.
+     * Während das Journal gewechselt und der Verleihbestand festgehalten wird,
+     * sind alle Medien gesperrt. Der Bestand enthält daher genau die
+     * Ereignisse, die bis dahin protokolliert wurden, auch wenn andere Threads
+     * gerade verleihen. Die Verleihkarten, Kunden und Medien werden erst nach
+     * dem Freigeben der Sperren im Hintergrund erzeugt.
+     * 
+     * Kann das Journal nicht gewechselt werden, wird es verworfen. Danach gilt
+     * !hatJournal() und der Bestand muss wieder vollständig geschrieben
+     * werden.
+     * 
+     * @param datenSchreiber Der DatenSchreiber für den neuen Bestand.
+     * 
+     * @require datenSchreiber != null
+     */
+    public void verdichteJournal(DatenSchreiber datenSchreiber)
+    {
+        assert datenSchreiber != null : "Vorbedingung verletzt: datenSchreiber != null";
+
+        for (ReentrantLock streifen : _streifen)
+        {
+            streifen.lock();
+        }
+        try
+        {
+            VerleihJournal journal = _journal;
+            if (journal != null)
+            {
+                final Verleihbestand.Momentaufnahme momentaufnahme = _verleihbestand
+                    .halteFest();
+                try
+                {
+                    journal.verdichte(datenSchreiber,
+                            new VerleihJournal.Bestand()
+                            {
+                                @Override
+                                public List<Kunde> getKunden()
+                                {
+                                    return _kundenstamm.getKunden();
+                                }
+
+                                @Override
+                                public List<Medium> getMedien()
+                                {
+                                    return _medienbestand.getMedien();
+                                }
+
+                                @Override
+                                public List<Verleihkarte> getVerleihkarten()
+                                {
+                                    return momentaufnahme.getVerleihkarten();
+                                }
+                            });
+                }
+                catch (DateiSchreibException e)
+                {
+                    verwirfJournal(journal);
+                }
+            }
+        }
+        finally
+        {
+            for (int i = ANZAHL_STREIFEN - 1; i >= 0; i--)
+            {
+                _streifen[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob Ausleihen und Rückgaben in einem Journal protokolliert werden.
+     * 
+     * @return true, wenn ein Journal gesetzt ist, sonst false.
+     */
+    public boolean hatJournal()
+    {
+        return _journal != null;
+    }
+
+    /**
+     * Verwirft ein Journal, in das nicht mehr geschrieben werden kann. Das
+     * Journal wird geschlossen, danach wird nicht mehr protokolliert. Die
+     * Beobachter erfahren davon mit der Änderung, bei deren Protokollierung
+     * der Fehler aufgetreten ist, und müssen den Bestand dann wieder
+     * vollständig schreiben.
+     * 
+     * Wurde das Journal bereits verworfen, passiert nichts.
+     */
+    private void verwirfJournal(VerleihJournal journal)
+    {
+        synchronized (journal)
+        {
+            if (_journal == journal)
+            {
+                journal.schliesse();
+                _journal = null;
+            }
+        }
+    }
+
     /**
      * Verleiht Medien an einen Kunden. Dabei wird für jedes Medium eine neue
      * Verleihkarte angelegt.
@@ -68,17 +238,61 @@ class VerleihServiceImpl extends AbstractObservableService
         assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
         assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
         assert sindAlleNichtVerliehen(medien) : "Vorbedingung verletzt: sindAlleNichtVerliehen";
-        
 
+        boolean verliehen = versucheZuVerleihen(kunde, medien, ausleihDatum);
+        assert verliehen : "Vorbedingung verletzt: sindAlleNichtVerliehen";
+    }
 
-        for (Medium medium : medien)
+    @Override
+    public boolean versucheZuVerleihen(Kunde kunde, List<Medium> medien,
+            Datum ausleihDatum)
+    {
+        assert ausleihDatum != null : "Vorbedingung verletzt: ausleihDatum != null";
+        assert kundeImBestand(kunde) : "Vorbedingung verletzt: kundeImBestand(kunde)";
+
+        boolean result;
+        List<ServiceEreignis> ereignisse = new ArrayList<ServiceEreignis>();
+        boolean[] streifen = sperreStreifen(medien);
+        try
         {
-            Verleihkarte karte = new Verleihkarte(kunde, medium, ausleihDatum);
-               
+            result = sindAlleNichtVerliehen(medien);
+            if (result)
+            {
+                VerleihJournal journal = _journal;
+                if (journal != null)
+                {
+                    try
+                    {
+                        journal.protokolliereAusleihe(kunde, medien,
+                                ausleihDatum);
+                    }
+                    catch (DateiSchreibException e)
+                    {
+                        // Die Ausleihe wird trotzdem ausgeführt und mit dem
+                        // nächsten vollständig geschriebenen Bestand
+                        // gesichert.
+                        verwirfJournal(journal);
+                    }
+                }
 
+                for (Medium medium : medien)
+                {
+                    Verleihkarte karte = _verleihbestand.trageEin(kunde,
+                            medium, ausleihDatum);
+                    ereignisse.add(new ServiceEreignis(EREIGNIS_AUSLEIHE, karte));
+                }
+            }
+        }
+        finally
+        {
+            entsperreStreifen(streifen);
         }
 
-        informiereUeberAenderung();
+        if (result)
+        {
+            informiereUeber(ereignisse);
+        }
+        return result;
     }
 
     @Override
@@ -90,45 +304,88 @@ class VerleihServiceImpl extends AbstractObservableService
     @Override
     public Kunde getEntleiherFuer(Medium medium)
     {
-        Verleihkarte verleihkarte = _verleihkarten.get(medium);
+        Verleihkarte verleihkarte = _verleihbestand
+            .getVerleihkarteFuer(medium);
         return verleihkarte.getEntleiher();
     }
 
     @Override
     public List<Medium> getAusgelieheneMedienFuer(Kunde kunde)
     {
-        List<Medium> result = new ArrayList<Medium>();
-        for (Verleihkarte verleihkarte : _verleihkarten.values())
-        {
-            if (verleihkarte.getEntleiher()
-                .equals(kunde))
-            {
-                result.add(verleihkarte.getMedium());
-            }
-        }
-        return result;
+        return _verleihbestand.getMedienFuer(kunde);
     }
 
     @Override
     public List<Verleihkarte> getVerleihkarten()
     {
-        return new ArrayList<Verleihkarte>(_verleihkarten.values());
+        return _verleihbestand.getVerleihkarten();
+    }
+
+    @Override
+    public List<Verleihkarte> getVerleihkartenAelterAls(int tage)
+    {
+        assert tage >= 0 : "Vorbedingung verletzt: tage >= 0";
+
+        // Die Ausleihdauer zählt den Ausleihtag mit, länger als tage
+        // verliehen ist also, was spätestens vor tage Tagen verliehen wurde.
+        return _verleihbestand.getVerleihkartenVerliehenBis(Datum.heute()
+            .minus(tage));
+    }
+
+    @Override
+    public List<Verleihkarte> getAeltesteVerleihkarten(int anzahl)
+    {
+        assert anzahl >= 0 : "Vorbedingung verletzt: anzahl >= 0";
+
+        return _verleihbestand.getAeltesteVerleihkarten(anzahl);
     }
 
     @Override
     public void nimmZurueck(List<Medium> medien, Datum rueckgabeDatum)
     {
-        for (Medium medium : medien)
+        List<ServiceEreignis> ereignisse = new ArrayList<ServiceEreignis>();
+        boolean[] streifen = sperreStreifen(medien);
+        try
         {
-            _verleihkarten.remove(medium);
+            VerleihJournal journal = _journal;
+            if (journal != null)
+            {
+                try
+                {
+                    journal.protokolliereRueckgabe(medien, rueckgabeDatum);
+                }
+                catch (DateiSchreibException e)
+                {
+                    // Die Rückgabe wird trotzdem ausgeführt und mit dem
+                    // nächsten vollständig geschriebenen Bestand gesichert.
+                    verwirfJournal(journal);
+                }
+            }
+
+            for (Medium medium : medien)
+            {
+                Verleihkarte verleihkarte = _verleihbestand.entferne(medium);
+                if (verleihkarte != null)
+                {
+                    ereignisse.add(new ServiceEreignis(EREIGNIS_RUECKGABE,
+                            verleihkarte));
+                }
+            }
+        }
+        finally
+        {
+            entsperreStreifen(streifen);
+        }
+        if (!ereignisse.isEmpty())
+        {
+            informiereUeber(ereignisse);
         }
-        informiereUeberAenderung();
     }
 
     @Override
     public boolean istVerliehen(Medium medium)
     {
-        return _verleihkarten.get(medium) != null;
+        return _verleihbestand.istVerliehen(medium);
     }
 
     @Override
@@ -189,36 +446,60 @@ class VerleihServiceImpl extends AbstractObservableService
     @Override
     public List<Verleihkarte> getVerleihkartenFuer(Kunde kunde)
     {
-        List<Verleihkarte> result = new ArrayList<Verleihkarte>();
-        for (Verleihkarte verleihkarte : _verleihkarten.values())
-        {
-            if (verleihkarte.getEntleiher()
-                .equals(kunde))
-            {
-                result.add(verleihkarte);
-            }
-        }
-        return result;
+        return _verleihbestand.getVerleihkartenFuer(kunde);
     }
 
     @Override
     public Verleihkarte getVerleihkarteFuer(Medium medium)
     {
-        return _verleihkarten.get(medium);
+        return _verleihbestand.getVerleihkarteFuer(medium);
     }
 
     /**
-     * Erzeugt eine neue HashMap aus dem Initialbestand.
+     * Sperrt die Sperren aller angegebenen Medien in aufsteigender
+     * Reihenfolge.
+     * 
+     * @return Für jede Sperre, ob sie gesperrt wurde.
      */
-    private HashMap<Medium, Verleihkarte> erzeugeVerleihkartenBestand(
-            List<Verleihkarte> initialBestand)
+    private boolean[] sperreStreifen(List<Medium> medien)
     {
-        HashMap<Medium, Verleihkarte> result = new HashMap<Medium, Verleihkarte>();
-        for (Verleihkarte verleihkarte : initialBestand)
+        boolean[] streifen = new boolean[ANZAHL_STREIFEN];
+        for (Medium medium : medien)
         {
-            result.put(verleihkarte.getMedium(), verleihkarte);
+            streifen[streifenFuer(medium)] = true;
         }
-        return result;
+        for (int i = 0; i < ANZAHL_STREIFEN; i++)
+        {
+            if (streifen[i])
+            {
+                _streifen[i].lock();
+            }
+        }
+        return streifen;
+    }
+
+    /**
+     * Entsperrt die mit {@link #sperreStreifen(List)} gesperrten Sperren.
+     */
+    private void entsperreStreifen(boolean[] streifen)
+    {
+        for (int i = ANZAHL_STREIFEN - 1; i >= 0; i--)
+        {
+            if (streifen[i])
+            {
+                _streifen[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Liefert den Index der Sperre für das Medium.
+     */
+    static int streifenFuer(Medium medium)
+    {
+        int hash = medium.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % ANZAHL_STREIFEN;
     }
 
 }
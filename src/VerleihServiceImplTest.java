@@ -1,8 +1,11 @@
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 //Die in den Testfällen verwendeten assert-Anweisungen werden über
@@ -62,6 +65,191 @@ public class VerleihServiceImplTest
         }
     }
 
+    @Test
+    public void testVerleihkartenFuerKunden()
+    {
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(_abbey);
+        medien.add(_bad);
+        _verleihService.verleiheAn(_homer, medien, new Datum(3, 4, 2009));
+
+        assertTrue(_verleihService.sindAlleVerliehen(medien));
+        assertEquals(_homer, _verleihService.getEntleiherFuer(_abbey));
+        assertEquals(2, _verleihService.getVerleihkartenFuer(_homer)
+            .size());
+        assertTrue(_verleihService.getAusgelieheneMedienFuer(_homer)
+            .containsAll(medien));
+        assertTrue(_verleihService.getVerleihkartenFuer(_roger)
+            .isEmpty());
+
+        List<Medium> rueckgabe = new ArrayList<Medium>();
+        rueckgabe.add(_abbey);
+        _verleihService.nimmZurueck(rueckgabe, new Datum(4, 4, 2009));
+
+        assertFalse(_verleihService.istVerliehen(_abbey));
+        assertEquals(1, _verleihService.getAusgelieheneMedienFuer(_homer)
+            .size());
+        assertEquals(_bad, _verleihService.getAusgelieheneMedienFuer(_homer)
+            .get(0));
+
+        rueckgabe.clear();
+        rueckgabe.add(_bad);
+        _verleihService.nimmZurueck(rueckgabe, new Datum(4, 4, 2009));
+        assertTrue(_verleihService.getVerleihkartenFuer(_homer)
+            .isEmpty());
+    }
+
+    @Test
+    public void testKundenIndexAusInitialbestand()
+    {
+        List<Verleihkarte> initialBestand = new ArrayList<Verleihkarte>();
+        initialBestand
+            .add(new Verleihkarte(_brian, _shape, new Datum(1, 1, 2010)));
+        VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                _kundenstamm, _medienbestand, initialBestand);
+
+        assertTrue(verleihService.istVerliehen(_shape));
+        assertEquals(initialBestand,
+                verleihService.getVerleihkartenFuer(_brian));
+    }
+
+    @Test
+    public void testVersucheZuVerleihenAllesOderNichts()
+    {
+        List<Medium> medien = new ArrayList<Medium>();
+        medien.add(_abbey);
+        assertTrue(_verleihService.versucheZuVerleihen(_homer, medien,
+                new Datum(3, 4, 2009)));
+
+        medien.add(_bad);
+        assertFalse(_verleihService.versucheZuVerleihen(_roger, medien,
+                new Datum(4, 4, 2009)));
+        assertFalse(_verleihService.istVerliehen(_bad));
+        assertEquals(_homer, _verleihService.getEntleiherFuer(_abbey));
+        assertTrue(_verleihService.getVerleihkartenFuer(_roger)
+            .isEmpty());
+    }
+
+    @Test
+    public void testGleichzeitigesVerleihen() throws Exception
+    {
+        final List<Medium> medien = new ArrayList<Medium>();
+        for (int i = 0; i < 200; i++)
+        {
+            medien.add(new CD("CD " + i, "", "Interpret", 40));
+        }
+        final VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                _kundenstamm, new MedienbestandServiceImpl(medien),
+                new ArrayList<Verleihkarte>());
+        final Kunde[] kunden = {_homer, _roger, _brian};
+        final AtomicInteger verlieheneMedien = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 6; t++)
+        {
+            final int versatz = t;
+            Thread thread = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread()
+                            .interrupt();
+                    }
+                    // Überlappende Paare, damit sich die Threads um dieselben
+                    // Medien streiten.
+                    for (int i = versatz % 2; i + 1 < medien.size(); i += 2)
+                    {
+                        List<Medium> paar = new ArrayList<Medium>();
+                        paar.add(medien.get(i));
+                        paar.add(medien.get(i + 1));
+                        if (verleihService.versucheZuVerleihen(
+                                kunden[versatz % kunden.length], paar,
+                                new Datum(1, 1, 2021)))
+                        {
+                            verlieheneMedien.addAndGet(paar.size());
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(verlieheneMedien.get(), verleihService.getVerleihkarten()
+            .size());
+        int imKundenIndex = 0;
+        for (Kunde kunde : kunden)
+        {
+            for (Verleihkarte verleihkarte : verleihService
+                .getVerleihkartenFuer(kunde))
+            {
+                assertEquals(verleihkarte,
+                        verleihService.getVerleihkarteFuer(
+                                verleihkarte.getMedium()));
+                imKundenIndex++;
+            }
+        }
+        assertEquals(verlieheneMedien.get(), imKundenIndex);
+    }
+
+    @Test
+    public void testUeberfaelligeVerleihkarten()
+    {
+        Datum.setzeUhr(new FesteUhr(new Datum(20, 4, 2021)));
+        try
+        {
+            List<Verleihkarte> initialBestand = new ArrayList<Verleihkarte>();
+            initialBestand
+                .add(new Verleihkarte(_brian, _shape, new Datum(1, 4, 2021)));
+            VerleihServiceImpl verleihService = new VerleihServiceImpl(
+                    _kundenstamm, _medienbestand, initialBestand);
+            List<Medium> medien = new ArrayList<Medium>();
+            medien.add(_abbey);
+            verleihService.verleiheAn(_homer, medien, new Datum(10, 4, 2021));
+            medien.set(0, _bad);
+            verleihService.verleiheAn(_roger, medien, new Datum(20, 4, 2021));
+
+            List<Verleihkarte> ueberfaellig = verleihService
+                .getVerleihkartenAelterAls(10);
+            assertEquals(2, ueberfaellig.size());
+            assertEquals(_shape, ueberfaellig.get(0)
+                .getMedium());
+            assertEquals(_abbey, ueberfaellig.get(1)
+                .getMedium());
+            assertTrue(ueberfaellig.get(1)
+                .getAusleihdauer() > 10);
+            assertEquals(1, verleihService.getVerleihkartenAelterAls(11)
+                .size());
+            assertEquals(3, verleihService.getVerleihkartenAelterAls(0)
+                .size());
+
+            medien.set(0, _shape);
+            verleihService.nimmZurueck(medien, new Datum(20, 4, 2021));
+            assertEquals(_homer, verleihService.getAeltesteVerleihkarten(1)
+                .get(0)
+                .getEntleiher());
+            assertEquals(2, verleihService.getAeltesteVerleihkarten(5)
+                .size());
+        }
+        finally
+        {
+            Datum.setzeUhr(new SystemUhr());
+        }
+    }
+
     @Test
     public void testNochEinTestFall1()
     {
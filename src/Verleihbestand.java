@@ -0,0 +1,145 @@
+import java.util.List;
+
+/**
+ * Ein Verleihbestand speichert, welche Medien an wen und seit wann verliehen
+ * sind. Er ist der Speicher hinter dem {@link VerleihServiceImpl}, der sich um
+ * Sperren, Journal und Ereignisse kümmert.
+ * 
+ * Ein Verleihbestand muss von mehreren Threads gleichzeitig benutzt werden
+ * können. Der VerleihServiceImpl sorgt dafür, dass dasselbe Medium nicht
+ * gleichzeitig eingetragen und entfernt wird.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+interface Verleihbestand
+{
+    /**
+     * Trägt die Ausleihe eines Mediums ein.
+     * 
+     * @param kunde Der Entleiher.
+     * @param medium Das verliehene Medium.
+     * @param ausleihDatum Der erste Ausleihtag.
+     * @return Die Verleihkarte der Ausleihe.
+     * 
+     * @require kunde != null
+     * @require medium != null
+     * @require ausleihDatum != null
+     * @require !istVerliehen(medium)
+     * 
+     * @ensure result != null
+     * @ensure istVerliehen(medium)
+     */
+    Verleihkarte trageEin(Kunde kunde, Medium medium, Datum ausleihDatum);
+
+    /**
+     * Entfernt die Ausleihe eines Mediums.
+     * 
+     * @param medium Das zurückgegebene Medium.
+     * @return Die Verleihkarte der entfernten Ausleihe oder null, wenn das
+     *         Medium nicht verliehen war.
+     * 
+     * @require medium != null
+     * 
+     * @ensure !istVerliehen(medium)
+     */
+    Verleihkarte entferne(Medium medium);
+
+    /**
+     * Prüft, ob ein Medium verliehen ist.
+     * 
+     * @param medium Ein Medium.
+     * 
+     * @require medium != null
+     */
+    boolean istVerliehen(Medium medium);
+
+    /**
+     * Liefert die Verleihkarte eines Mediums.
+     * 
+     * @param medium Ein Medium.
+     * @return Die Verleihkarte oder null, wenn das Medium nicht verliehen ist.
+     * 
+     * @require medium != null
+     */
+    Verleihkarte getVerleihkarteFuer(Medium medium);
+
+    /**
+     * Liefert die Medien, die ein Kunde ausgeliehen hat.
+     * 
+     * @param kunde Ein Kunde.
+     * 
+     * @require kunde != null
+     * @ensure result != null
+     */
+    List<Medium> getMedienFuer(Kunde kunde);
+
+    /**
+     * Liefert die Verleihkarten eines Kunden.
+     * 
+     * @param kunde Ein Kunde.
+     * 
+     * @require kunde != null
+     * @ensure result != null
+     */
+    List<Verleihkarte> getVerleihkartenFuer(Kunde kunde);
+
+    /**
+     * Liefert alle Verleihkarten.
+     * 
+     * @ensure result != null
+     */
+    List<Verleihkarte> getVerleihkarten();
+
+    /**
+     * Liefert die Verleihkarten der Medien, die am angegebenen Tag oder früher
+     * verliehen wurden, die ältesten zuerst. Die Verleihkarten werden über
+     * einen Index nach dem Ausleihtag gefunden, ohne alle Ausleihen
+     * durchzugehen.
+     * 
+     * @param datum Der letzte Ausleihtag, der berücksichtigt wird.
+     * 
+     * @require datum != null
+     * 
+     * @ensure result != null
+     */
+    List<Verleihkarte> getVerleihkartenVerliehenBis(Datum datum);
+
+    /**
+     * Liefert die Verleihkarten der am längsten verliehenen Medien, die
+     * ältesten zuerst.
+     * 
+     * @param anzahl Die größte Anzahl gelieferter Verleihkarten.
+     * 
+     * @require anzahl >= 0
+     * 
+     * @ensure result != null
+     * @ensure result.size() <= anzahl
+     */
+    List<Verleihkarte> getAeltesteVerleihkarten(int anzahl);
+
+    /**
+     * Hält die aktuellen Ausleihen fest, ohne schon Verleihkarten für alle
+     * Ausleihen zu erzeugen. Spätere Änderungen des Bestands ändern die
+     * Momentaufnahme nicht. Damit sie einen einheitlichen Stand zeigt, muss
+     * der Aufrufer währenddessen Ausleihen und Rückgaben verhindern.
+     * 
+     * @ensure result != null
+     */
+    Momentaufnahme halteFest();
+
+    /**
+     * Die mit {@link Verleihbestand#halteFest()} festgehaltenen Ausleihen.
+     */
+    interface Momentaufnahme
+    {
+        /**
+         * Erzeugt die Verleihkarten der festgehaltenen Ausleihen. Ausleihen,
+         * deren Medium inzwischen nicht mehr im Medienbestand ist, können
+         * fehlen.
+         * 
+         * @ensure result != null
+         */
+        List<Verleihkarte> getVerleihkarten();
+    }
+}
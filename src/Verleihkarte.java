@@ -13,6 +13,9 @@
  */
 class Verleihkarte
 {
+    // Der Gebührenrechner für die Mietgebühren aller Verleihkarten
+    private static volatile Gebuehrenrechner _gebuehrenrechner = Gebuehrenrechner
+        .erzeugeStandard();
 
     // Eigenschaften einer Verleihkarte
     private final Datum _ausleihdatum;
@@ -83,7 +86,9 @@ class Verleihkarte
     }
 
     /**
-     * Gibt die aktuelle Mietgebühr zurück.
+     * Gibt die aktuelle Mietgebühr zurück. Sie wird mit dem gesetzten
+     * {@link Gebuehrenrechner} aus der Ausleihdauer berechnet. Liegt das
+     * Ausleihdatum in der Zukunft, wird wie für einen Tag berechnet.
      * 
      * @return Die aktuelle Mietgebühr bis zum heutigen Tag.
      * 
@@ -91,7 +96,32 @@ class Verleihkarte
      */
     public Geldbetrag getMietgebuehr()
     {
-        return new Geldbetrag(0);
+        return _gebuehrenrechner.berechneMietgebuehr(_medium,
+                Math.max(1, getAusleihdauer()));
+    }
+
+    /**
+     * Liefert den Gebührenrechner, mit dem die Mietgebühren berechnet werden.
+     * 
+     * @ensure result != null
+     */
+    public static Gebuehrenrechner getGebuehrenrechner()
+    {
+        return _gebuehrenrechner;
+    }
+
+    /**
+     * Setzt den Gebührenrechner, mit dem ab jetzt die Mietgebühren aller
+     * Verleihkarten berechnet werden.
+     * 
+     * @param gebuehrenrechner Der zu verwendende Gebührenrechner.
+     * 
+     * @require gebuehrenrechner != null
+     */
+    static void setzeGebuehrenrechner(Gebuehrenrechner gebuehrenrechner)
+    {
+        assert gebuehrenrechner != null : "Vorbedingung verletzt: gebuehrenrechner != null";
+        _gebuehrenrechner = gebuehrenrechner;
     }
 
     /**
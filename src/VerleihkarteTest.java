@@ -1,3 +1,4 @@
+import org.junit.After;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -13,12 +14,19 @@ public class VerleihkarteTest
     {
         _kunde = new Kunde(new Kundennummer(123456), "ich", "du");
 
+        Datum.setzeUhr(new FesteUhr(new Datum(15, 4, 2021)));
         _datum = Datum.heute();
 
         _medium = new CD("bar", "baz", "foo", 123);
         _karte = new Verleihkarte(_kunde, _medium, _datum);
     }
 
+    @After
+    public void setzeSystemUhr()
+    {
+        Datum.setzeUhr(new SystemUhr());
+    }
+
     @Test
     public void testeKonstruktor() throws Exception
     {
@@ -36,6 +44,28 @@ public class VerleihkarteTest
         assertEquals(11, _karte.getAusleihdauer());
     }
 
+    @Test
+    public void testgetAusleihdauerNachTageswechsel()
+    {
+        Datum.setzeUhr(new FesteUhr(_datum.plus(3)));
+        assertEquals(4, _karte.getAusleihdauer());
+    }
+
+    @Test
+    public void testGetMietgebuehr()
+    {
+        assertEquals(new Geldbetrag(300), _karte.getMietgebuehr());
+        Datum.setzeUhr(new FesteUhr(_datum.plus(3)));
+        assertEquals(new Geldbetrag(1200), _karte.getMietgebuehr());
+    }
+
+    @Test
+    public void testGetMietgebuehrBeiAusleiheInDerZukunft()
+    {
+        _karte = new Verleihkarte(_kunde, _medium, _datum.plus(5));
+        assertEquals(new Geldbetrag(300), _karte.getMietgebuehr());
+    }
+
     @Test
     public void testEquals()
     {
@@ -0,0 +1,127 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Stellt Zusteller für die Benachrichtigungen eines {@link ObservableService}
+ * bereit, siehe {@link ObservableService#setzeZusteller(Executor)}.
+ * 
+ * @author SE2-Team
+ * @version SoSe 2021
+ */
+final class Zusteller
+{
+    /**
+     * Der Thread, in dem verzögerte Benachrichtigungen abgewartet werden.
+     */
+    private static final ScheduledExecutorService ZEITGEBER = erzeugeZeitgeber();
+
+    private Zusteller()
+    {
+    }
+
+    /**
+     * Liefert einen Zusteller, der im Event-Dispatch-Thread von Swing
+     * benachrichtigt. Alle Änderungen bis zur nächsten Abarbeitung der
+     * Swing-Ereignisse werden zusammengefasst.
+     * 
+     * @ensure result != null
+     */
+    public static Executor swing()
+    {
+        return new Executor()
+        {
+            @Override
+            public void execute(Runnable benachrichtigung)
+            {
+                SwingUtilities.invokeLater(benachrichtigung);
+            }
+        };
+    }
+
+    /**
+     * Liefert einen Zusteller, der eine Benachrichtigung erst nach der
+     * angegebenen Wartezeit an den Ziel-Zusteller übergibt. Alle Änderungen
+     * innerhalb der Wartezeit werden zu einer Benachrichtigung zusammengefasst.
+     * 
+     * @param ziel Der Zusteller, der nach der Wartezeit benachrichtigt.
+     * @param millisekunden Die Wartezeit.
+     * 
+     * @require ziel != null
+     * @require millisekunden >= 0
+     * 
+     * @ensure result != null
+     */
+    public static Executor verzoegert(final Executor ziel,
+            final long millisekunden)
+    {
+        assert ziel != null : "Vorbedingung verletzt: ziel != null";
+        assert millisekunden >= 0 : "Vorbedingung verletzt: millisekunden >= 0";
+
+        return new Executor()
+        {
+            @Override
+            public void execute(final Runnable benachrichtigung)
+            {
+                ZEITGEBER.schedule(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        ziel.execute(benachrichtigung);
+                    }
+                }, millisekunden, TimeUnit.MILLISECONDS);
+            }
+        };
+    }
+
+    /**
+     * Liefert einen Zusteller, der in einem eigenen Hintergrund-Thread
+     * ausführt, z.B. für Arbeiten, die den Event-Dispatch-Thread nicht
+     * blockieren sollen. Die Aufträge werden der Reihe nach abgearbeitet.
+     * 
+     * @param name Der Name des Threads.
+     * 
+     * @require name != null
+     * 
+     * @ensure result != null
+     */
+    public static ExecutorService hintergrund(String name)
+    {
+        assert name != null : "Vorbedingung verletzt: name != null";
+
+        return Executors.newSingleThreadExecutor(daemonThreads(name));
+    }
+
+    /**
+     * Erzeugt den Zeitgeber mit einem Daemon-Thread, damit er das Beenden der
+     * Anwendung nicht aufhält.
+     */
+    private static ScheduledExecutorService erzeugeZeitgeber()
+    {
+        return new ScheduledThreadPoolExecutor(1, daemonThreads("Zusteller"));
+    }
+
+    /**
+     * Erzeugt Daemon-Threads mit dem angegebenen Namen.
+     */
+    private static ThreadFactory daemonThreads(final String name)
+    {
+        return new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}